@@ -0,0 +1,112 @@
+package com.example.coreBanking.benchmark;
+
+import com.example.coreBanking.dto.BalanceResponse;
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.journal.NoOpEventJournal;
+import com.example.coreBanking.metrics.LedgerMetrics;
+import com.example.coreBanking.model.Account;
+import com.example.coreBanking.repository.AccountRepository;
+import com.example.coreBanking.service.AccountLocks;
+import com.example.coreBanking.service.AccountService;
+import com.example.coreBanking.service.BalanceReplica;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance reads from three threads while a fourth keeps transferring between the accounts being read and
+ * creating new ones. {@code writerPause} is busy work between writes, so a smaller pause means a higher
+ * write rate; with {@code read=replica} the read throughput should stay flat across it.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BalanceReadBenchmark {
+
+    static final int ACCOUNTS = 1024;
+    static final int NEW_ACCOUNTS = 1 << 20;
+    private static final BigDecimal FUNDING = new BigDecimal("1000000000000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Param({"repository", "replica"})
+    public String read;
+
+    @Param({"heap", "offheap"})
+    public String store;
+
+    @Param({"0", "1024"})
+    public long writerPause;
+
+    private AccountService accountService;
+    private String[] ids;
+    private EventRequest[] writes;
+
+    @Setup
+    public void setUp() {
+        AccountRepository repository = Benchmarks.createStore(store);
+        ids = new String[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            ids[i] = Benchmarks.accountId(i);
+            repository.save(new Account(ids[i], FUNDING));
+        }
+        accountService = new AccountService(repository, new AccountLocks(1024), new NoOpEventJournal(),
+                new LedgerMetrics(new CompositeMeterRegistry(), 64));
+        if (read.equals("replica")) {
+            BalanceReplica replica = new BalanceReplica(repository, new NoOpEventJournal());
+            replica.seed();
+            accountService.setBalanceReplica(replica);
+        }
+        // Every other write inserts an account, which takes the off-heap table's write lock.
+        writes = new EventRequest[NEW_ACCOUNTS];
+        for (int i = 0; i < NEW_ACCOUNTS; i++) {
+            writes[i] = i % 2 == 0
+                    ? new EventRequest("transfer", ids[i % ACCOUNTS], ids[(i + 1) % ACCOUNTS], AMOUNT)
+                    : new EventRequest("deposit", null, "new-" + i, AMOUNT);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int next(int bound) {
+            int index = next;
+            next = index + 1 == bound ? 0 : index + 1;
+            return index;
+        }
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public BalanceResponse read(Cursor cursor) {
+        return accountService.getBalance(ids[cursor.next(ACCOUNTS)]);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public EventResponse write(Cursor cursor) {
+        Blackhole.consumeCPU(writerPause);
+        return accountService.handleEvent(writes[cursor.next(NEW_ACCOUNTS)]);
+    }
+}
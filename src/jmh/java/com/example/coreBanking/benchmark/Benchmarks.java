@@ -0,0 +1,40 @@
+package com.example.coreBanking.benchmark;
+
+import com.example.coreBanking.repository.AccountRepository;
+import com.example.coreBanking.repository.InMemoryAccountRepository;
+import com.example.coreBanking.repository.OffHeapAccountRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    /**
+     * @param store a {@code corebanking.repository.type} value
+     */
+    static AccountRepository createStore(String store) {
+        return switch (store) {
+            case "heap" -> new InMemoryAccountRepository();
+            case "offheap" -> new OffHeapAccountRepository(1 << 20);
+            default -> throw new IllegalArgumentException("Unknown store " + store);
+        };
+    }
+
+    static String accountId(int i) {
+        return "acc-" + i;
+    }
+
+    static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
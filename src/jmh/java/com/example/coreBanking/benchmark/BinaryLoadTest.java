@@ -0,0 +1,117 @@
+package com.example.coreBanking.benchmark;
+
+import com.example.coreBanking.protocol.BinaryFrames;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop load against the binary protocol, the counterpart of {@link LoadTest}: every connection keeps
+ * {@code depth} deposits in flight, sending a new one for each response, so {@code connections * depth}
+ * requests are outstanding. A depth of 1 matches {@link LoadTest}'s one request per connection.
+ * <p>
+ * {@code mvn -Pbenchmarks test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.coreBanking.benchmark.BinaryLoadTest -Dexec.args="localhost 7070 64 16 30 10"}
+ * runs 64 connections with 16 pipelined requests each for 30 seconds after a 10 second warm-up.
+ */
+public final class BinaryLoadTest {
+
+    private static final BigDecimal AMOUNT = BigDecimal.ONE;
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 7070;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        int depth = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 30;
+        int warmupSeconds = args.length > 5 ? Integer.parseInt(args[5]) : 10;
+        new BinaryLoadTest().run(new InetSocketAddress(host, port), connections, depth, seconds, warmupSeconds);
+    }
+
+    private void run(InetSocketAddress address, int connections, int depth, int seconds, int warmupSeconds)
+            throws Exception {
+        List<Thread> threads = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            SocketChannel channel = SocketChannel.open(address);
+            String account = "load-" + (i % LoadTest.ACCOUNTS);
+            Thread thread = new Thread(() -> drive(channel, account, depth), "binary-load-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+        TimeUnit.SECONDS.sleep(warmupSeconds);
+        recording = true;
+        long start = System.nanoTime();
+        TimeUnit.SECONDS.sleep(seconds);
+        recording = false;
+        long elapsed = System.nanoTime() - start;
+        running = false;
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        histogram.report("connections=" + connections + " depth=" + depth, elapsed);
+    }
+
+    private void drive(SocketChannel channel, String account, int depth) {
+        ByteBuffer out = ByteBuffer.allocateDirect(depth * (BinaryFrames.LENGTH_SIZE + BinaryFrames.MAX_REQUEST_BODY_SIZE));
+        ByteBuffer in = ByteBuffer.allocateDirect(64 * 1024);
+        long[] sentAt = new long[depth];
+        long nextId = 0;
+        try (channel) {
+            for (int i = 0; i < depth; i++) {
+                sentAt[(int) (nextId % depth)] = System.nanoTime();
+                BinaryFrames.putRequest(out, nextId++, BinaryFrames.DEPOSIT, null, account, AMOUNT);
+            }
+            write(channel, out);
+            long outstanding = depth;
+            while (outstanding > 0) {
+                if (channel.read(in) < 0) {
+                    return;
+                }
+                in.flip();
+                while (in.remaining() >= BinaryFrames.RESPONSE_SIZE) {
+                    in.getShort();
+                    long requestId = in.getLong();
+                    byte status = in.get();
+                    in.position(in.position() + BinaryFrames.RESPONSE_BODY_SIZE - Long.BYTES - 1);
+                    outstanding--;
+                    if (recording) {
+                        if (status == BinaryFrames.OK) {
+                            histogram.record(System.nanoTime() - sentAt[(int) (requestId % depth)]);
+                        } else {
+                            histogram.fail();
+                        }
+                    }
+                    if (running) {
+                        sentAt[(int) (nextId % depth)] = System.nanoTime();
+                        BinaryFrames.putRequest(out, nextId++, BinaryFrames.DEPOSIT, null, account, AMOUNT);
+                        outstanding++;
+                    }
+                }
+                in.compact();
+                write(channel, out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void write(SocketChannel channel, ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.coreBanking.benchmark;
+
+import com.example.coreBanking.CoreBankingApplication;
+import com.example.coreBanking.cluster.ClusterRouter;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop HTTP load against clusters of one node up to {@code maxNodes} nodes, each node an
+ * application context on its own localhost port in this JVM. Connections send transfers between fixed
+ * random pairs of {@link #ACCOUNTS} accounts, or deposits, spread evenly over the nodes; with {@code n}
+ * nodes a request's accounts belong to the node it reaches one time in {@code n} for a deposit and one
+ * time in {@code n * n} for a transfer, and {@code 1 - 1/n} of the transfers run the two-phase commit.
+ * <p>
+ * {@code mvn -Pbenchmarks test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.coreBanking.benchmark.ClusterLoadTest -Dexec.args="4 256 20 5 transfer"}
+ * runs 256 connections for 20 seconds after a 5 second warm-up against 1, 2, 3 and 4 nodes.
+ * <p>
+ * All nodes share this machine's processors, so the numbers show the cost of forwarding and of the
+ * two-phase commit rather than the capacity gained by adding machines.
+ */
+public final class ClusterLoadTest {
+
+    static final int ACCOUNTS = 10_000;
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    public static void main(String[] args) throws Exception {
+        int maxNodes = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        boolean transfers = !(args.length > 4 && "deposit".equals(args[4]));
+        for (int nodes = 1; nodes <= maxNodes; nodes++) {
+            List<ConfigurableApplicationContext> cluster = start(nodes);
+            try {
+                new ClusterLoadTest().run(cluster, connections, seconds, warmupSeconds, transfers);
+            } finally {
+                cluster.forEach(ConfigurableApplicationContext::close);
+            }
+        }
+        System.exit(0);
+    }
+
+    private static List<ConfigurableApplicationContext> start(int nodes) throws IOException {
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                urls.add("http://127.0.0.1:" + socket.getLocalPort());
+            }
+        }
+        List<ConfigurableApplicationContext> cluster = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) {
+            cluster.add(new SpringApplicationBuilder(CoreBankingApplication.class).run(
+                    "--server.port=" + URI.create(urls.get(i)).getPort(),
+                    "--spring.main.banner-mode=off",
+                    "--logging.level.root=WARN",
+                    "--corebanking.holds.enabled=true",
+                    "--corebanking.cluster.enabled=true",
+                    "--corebanking.cluster.nodes=" + String.join(",", urls),
+                    "--corebanking.cluster.node-index=" + i));
+        }
+        return cluster;
+    }
+
+    private void run(List<ConfigurableApplicationContext> cluster, int connections, int seconds, int warmupSeconds,
+                     boolean transfers) throws Exception {
+        int nodes = cluster.size();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(executor)
+                .build();
+        List<URI> uris = new ArrayList<>();
+        for (ConfigurableApplicationContext node : cluster) {
+            uris.add(URI.create("http://127.0.0.1:" + node.getEnvironment().getProperty("local.server.port") + "/api/event"));
+        }
+        for (int i = 0; i < ACCOUNTS; i++) {
+            HttpResponse<Void> seeded = client.send(request(uris.get(i % nodes),
+                    "{\"type\":\"deposit\",\"destination\":\"cluster-" + i + "\",\"amount\":1000000000}"),
+                    HttpResponse.BodyHandlers.discarding());
+            if (seeded.statusCode() != 201) {
+                throw new IllegalStateException("Seeding answered " + seeded.statusCode());
+            }
+        }
+        CountDownLatch stopped = new CountDownLatch(connections);
+        for (int i = 0; i < connections; i++) {
+            int origin = (int) ((i * 2654435761L) % ACCOUNTS);
+            int destination = (origin + 1 + i % (ACCOUNTS - 1)) % ACCOUNTS;
+            String body = transfers
+                    ? "{\"type\":\"transfer\",\"origin\":\"cluster-" + origin + "\",\"destination\":\"cluster-"
+                    + destination + "\",\"amount\":1}"
+                    : "{\"type\":\"deposit\",\"destination\":\"cluster-" + origin + "\",\"amount\":1}";
+            send(client, request(uris.get(i % nodes), body), stopped);
+        }
+        TimeUnit.SECONDS.sleep(warmupSeconds);
+        long forwardedBefore = forwarded(cluster);
+        long crossPartitionBefore = crossPartition(cluster);
+        recording = true;
+        long start = System.nanoTime();
+        TimeUnit.SECONDS.sleep(seconds);
+        recording = false;
+        long elapsed = System.nanoTime() - start;
+        long forwarded = forwarded(cluster) - forwardedBefore;
+        long crossPartition = crossPartition(cluster) - crossPartitionBefore;
+        running = false;
+        stopped.await(90, TimeUnit.SECONDS);
+        executor.shutdownNow();
+        histogram.report("nodes=" + nodes + " connections=" + connections
+                + " workload=" + (transfers ? "transfer" : "deposit"), elapsed);
+        System.out.printf("forwarded=%d crossPartitionTransfers=%d%n", forwarded, crossPartition);
+    }
+
+    private static HttpRequest request(URI uri, String body) {
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(120))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private void send(HttpClient client, HttpRequest request, CountDownLatch stopped) {
+        long start = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            if (recording) {
+                if (error == null && response.statusCode() == 201) {
+                    histogram.record(System.nanoTime() - start);
+                } else {
+                    histogram.fail();
+                }
+            }
+            if (!running) {
+                stopped.countDown();
+            } else {
+                send(client, request, stopped);
+            }
+        });
+    }
+
+    private static long forwarded(List<ConfigurableApplicationContext> cluster) {
+        return cluster.stream().mapToLong(node -> node.getBean(ClusterRouter.class).forwardedRequests()).sum();
+    }
+
+    private static long crossPartition(List<ConfigurableApplicationContext> cluster) {
+        return cluster.stream().mapToLong(node -> node.getBean(ClusterRouter.class).crossPartitionTransfers()).sum();
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.coreBanking.benchmark;
+
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.journal.NoOpEventJournal;
+import com.example.coreBanking.metrics.LedgerMetrics;
+import com.example.coreBanking.model.Account;
+import com.example.coreBanking.repository.AccountRepository;
+import com.example.coreBanking.service.AccountLocks;
+import com.example.coreBanking.service.AccountService;
+import com.example.coreBanking.service.ShardedLedger;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AccountService#handleEvent} per event type and engine. With {@code uncontended} every thread
+ * works on its own accounts; with {@code contended} all threads share {@link #HOT_ACCOUNTS} accounts.
+ * Compare engines across core counts with JMH's thread option, e.g. {@code -Djmh.args="EventBenchmark -t 16"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventBenchmark {
+
+    static final int HOT_ACCOUNTS = 4;
+    static final int ACCOUNTS_PER_THREAD = 64;
+    static final int MAX_THREADS = 256;
+    private static final BigDecimal FUNDING = new BigDecimal("1000000000000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Param({"locking", "sharded"})
+    public String engine;
+
+    @Param({"uncontended", "contended"})
+    public String distribution;
+
+    @Param({"heap"})
+    public String store;
+
+    /**
+     * {@code none} records into a registry without meters, {@code prometheus} into the one served at
+     * {@code /actuator/prometheus}; the difference is the cost of instrumentation.
+     */
+    @Param({"prometheus", "none"})
+    public String metrics;
+
+    private AccountService accountService;
+    private ShardedLedger shardedLedger;
+
+    @Setup
+    public void setUp() {
+        AccountRepository repository = Benchmarks.createStore(store);
+        for (int i = 0; i < MAX_THREADS * ACCOUNTS_PER_THREAD; i++) {
+            repository.save(new Account(Benchmarks.accountId(i), FUNDING));
+        }
+        accountService = new AccountService(repository, new AccountLocks(1024), new NoOpEventJournal(), new LedgerMetrics(registry(), 64));
+        if (engine.equals("sharded")) {
+            shardedLedger = new ShardedLedger(repository, 0, 1024, false);
+            shardedLedger.start();
+            accountService.setShardedLedger(shardedLedger);
+        }
+    }
+
+    private MeterRegistry registry() {
+        return metrics.equals("prometheus") ? new PrometheusMeterRegistry(PrometheusConfig.DEFAULT) : new CompositeMeterRegistry();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        if (shardedLedger != null) {
+            shardedLedger.stop();
+        }
+    }
+
+    /**
+     * Pre-built requests so the measured path does not include building them.
+     */
+    @State(Scope.Thread)
+    public static class Requests {
+        private static final int SIZE = 1024;
+
+        private final EventRequest[] deposits = new EventRequest[SIZE];
+        private final EventRequest[] withdrawals = new EventRequest[SIZE];
+        private final EventRequest[] transfers = new EventRequest[SIZE];
+        private int next;
+
+        @Setup
+        public void setUp(EventBenchmark benchmark, ThreadParams threads) {
+            boolean contended = benchmark.distribution.equals("contended");
+            int first = contended ? 0 : threads.getThreadIndex() * ACCOUNTS_PER_THREAD;
+            int count = contended ? HOT_ACCOUNTS : ACCOUNTS_PER_THREAD;
+            for (int i = 0; i < SIZE; i++) {
+                String account = Benchmarks.accountId(first + i % count);
+                String other = Benchmarks.accountId(first + (i + 1) % count);
+                deposits[i] = new EventRequest("deposit", null, account, AMOUNT);
+                withdrawals[i] = new EventRequest("withdraw", account, null, AMOUNT);
+                transfers[i] = new EventRequest("transfer", account, other, AMOUNT);
+            }
+        }
+
+        private int next() {
+            int index = next;
+            next = (index + 1) & (SIZE - 1);
+            return index;
+        }
+    }
+
+    @Benchmark
+    public Object deposit(Requests requests) {
+        return accountService.handleEvent(requests.deposits[requests.next()]);
+    }
+
+    @Benchmark
+    public Object withdraw(Requests requests) {
+        return accountService.handleEvent(requests.withdrawals[requests.next()]);
+    }
+
+    @Benchmark
+    public Object transfer(Requests requests) {
+        return accountService.handleEvent(requests.transfers[requests.next()]);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.coreBanking.benchmark;
+
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.journal.NoOpEventJournal;
+import com.example.coreBanking.metrics.LedgerMetrics;
+import com.example.coreBanking.model.Account;
+import com.example.coreBanking.repository.AccountRepository;
+import com.example.coreBanking.service.AccountLocks;
+import com.example.coreBanking.service.AccountService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One request body from decoding to its response or rejection, as {@code POST /event} handles it. The valid
+ * events measure dispatch; the others are rejected, and measure how much work a bad request costs before
+ * it is turned away.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventDispatchBenchmark {
+
+    private static final int ACCOUNTS = 1024;
+    private static final BigDecimal FUNDING = new BigDecimal("1000000000000.00");
+
+    @Param({"deposit", "transfer", "unknown-type", "missing-amount", "missing-destination"})
+    public String event;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private AccountService accountService;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        AccountRepository repository = Benchmarks.createStore("heap");
+        for (int i = 0; i < ACCOUNTS; i++) {
+            repository.save(new Account(Benchmarks.accountId(i), FUNDING));
+        }
+        accountService = new AccountService(repository, new AccountLocks(1024), new NoOpEventJournal(),
+                new LedgerMetrics(new CompositeMeterRegistry(), 64));
+        String json = switch (event) {
+            case "deposit" -> "{\"type\":\"deposit\",\"destination\":\"acc-1\",\"amount\":1.00}";
+            case "transfer" -> "{\"type\":\"transfer\",\"origin\":\"acc-1\",\"destination\":\"acc-2\",\"amount\":1.00}";
+            case "unknown-type" -> "{\"type\":\"refund\",\"destination\":\"acc-1\",\"amount\":1.00}";
+            case "missing-amount" -> "{\"type\":\"deposit\",\"destination\":\"acc-1\"}";
+            case "missing-destination" -> "{\"type\":\"deposit\",\"amount\":1.00}";
+            default -> throw new IllegalArgumentException("Unknown event " + event);
+        };
+        body = json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object handle() throws IOException {
+        try {
+            return accountService.handleEvent(objectMapper.readValue(body, EventRequest.class));
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.coreBanking.benchmark;
+
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.dto.HoldResponse;
+import com.example.coreBanking.journal.NoOpEventJournal;
+import com.example.coreBanking.metrics.LedgerMetrics;
+import com.example.coreBanking.model.Account;
+import com.example.coreBanking.repository.AccountRepository;
+import com.example.coreBanking.service.AccountLocks;
+import com.example.coreBanking.service.AccountService;
+import com.example.coreBanking.service.FundsHolds;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Withdrawals, and holds placed and released, on an account that already carries {@code holds} active
+ * holds. Funds checks read the account's held total, so neither should slow down as holds pile up. The
+ * wheel is advanced once a second, as the application's scheduler does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HoldBenchmark {
+
+    private static final String ACCOUNT = Benchmarks.accountId(0);
+    private static final BigDecimal FUNDING = new BigDecimal("1000000000000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+
+    @Param({"heap", "offheap"})
+    public String store;
+
+    @Param({"0", "100000"})
+    public int holds;
+
+    private AccountService accountService;
+    private EventRequest withdrawal;
+    private ScheduledExecutorService ticker;
+
+    @Setup
+    public void setUp() {
+        AccountRepository repository = Benchmarks.createStore(store);
+        repository.save(new Account(ACCOUNT, FUNDING));
+        AccountLocks locks = new AccountLocks(1024);
+        accountService = new AccountService(repository, locks, new NoOpEventJournal(),
+                new LedgerMetrics(new CompositeMeterRegistry(), 64));
+        FundsHolds fundsHolds = new FundsHolds(repository, locks, 3600, 3600, 1000, 4096, "locking");
+        accountService.setFundsHolds(fundsHolds);
+        ticker = Executors.newSingleThreadScheduledExecutor();
+        ticker.scheduleWithFixedDelay(fundsHolds::expireDue, 1, 1, TimeUnit.SECONDS);
+        for (int i = 0; i < holds; i++) {
+            accountService.placeHold(ACCOUNT, AMOUNT, null);
+        }
+        withdrawal = new EventRequest("withdraw", ACCOUNT, null, AMOUNT);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ticker.shutdownNow();
+    }
+
+    @Benchmark
+    public EventResponse withdraw() {
+        return accountService.handleEvent(withdrawal);
+    }
+
+    @Benchmark
+    public HoldResponse holdAndRelease() {
+        return accountService.releaseHold(accountService.placeHold(ACCOUNT, AMOUNT, null).id());
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.coreBanking.benchmark;
+
+import com.example.coreBanking.journal.FileEventJournal;
+import com.example.coreBanking.model.AccountView;
+import com.example.coreBanking.repository.InMemoryAccountRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable appends as {@code POST /event} performs them, from many concurrent callers so group commit
+ * can batch them. Throughput depends on the disk's fsync latency; compare batch sizes on the same machine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class JournalBenchmark {
+
+    @Param({"1", "8", "64", "512"})
+    public int maxBatchSize;
+
+    private Path directory;
+    private FileEventJournal journal;
+    private final AccountView account = new AccountView("acc-0", new BigDecimal("100.00"));
+    private final BigDecimal amount = new BigDecimal("1.00");
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-benchmark");
+        journal = new FileEventJournal(new InMemoryAccountRepository(), directory.toString(), maxBatchSize, 0);
+        journal.open();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        journal.close();
+        Benchmarks.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public long appendAndAwaitDurable() {
+        long sequence = journal.append("deposit", amount, account);
+        journal.awaitDurable(sequence);
+        return sequence;
+    }
+}
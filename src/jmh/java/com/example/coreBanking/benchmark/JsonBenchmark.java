@@ -0,0 +1,66 @@
+package com.example.coreBanking.benchmark;
+
+import com.example.coreBanking.dto.BalanceResponse;
+import com.example.coreBanking.dto.ErrorResponse;
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.model.AccountView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request and response (de)serialization with a mapper configured the way Spring Boot configures the
+ * application's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final byte[] transferJson =
+            "{\"type\":\"transfer\",\"origin\":\"100\",\"destination\":\"300\",\"amount\":15}".getBytes(StandardCharsets.UTF_8);
+    private final BalanceResponse balance = new BalanceResponse(new BigDecimal("20.00"));
+    private final EventResponse transferResult = new EventResponse(
+            new AccountView("100", new BigDecimal("5.00")),
+            new AccountView("300", new BigDecimal("15.00")));
+    private final ErrorResponse error =
+            new ErrorResponse(404, "Account Not Found", "Account not found", "uri=/api/balance");
+
+    @Benchmark
+    public EventRequest readEventRequest() throws IOException {
+        return objectMapper.readValue(transferJson, EventRequest.class);
+    }
+
+    @Benchmark
+    public byte[] writeBalanceResponse() throws IOException {
+        return objectMapper.writeValueAsBytes(balance);
+    }
+
+    @Benchmark
+    public byte[] writeTransferResult() throws IOException {
+        return objectMapper.writeValueAsBytes(transferResult);
+    }
+
+    @Benchmark
+    public byte[] writeErrorResponse() throws IOException {
+        return objectMapper.writeValueAsBytes(error);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.coreBanking.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latencies in 100 µs buckets up to 100 seconds, shared by the load drivers.
+ */
+final class LatencyHistogram {
+
+    private static final long BUCKET_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final int BUCKETS = 1_000_000;
+
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong refused = new AtomicLong();
+    private final AtomicLong refusedNanos = new AtomicLong();
+
+    void record(long nanos) {
+        histogram.incrementAndGet((int) Math.min(BUCKETS - 1, nanos / BUCKET_NANOS));
+        completed.incrementAndGet();
+    }
+
+    void fail() {
+        failed.incrementAndGet();
+    }
+
+    /**
+     * A request the server turned away with 429 or 503; kept apart from failures, and its latency from
+     * the completed requests', since how fast the refusal came back is the point of it.
+     */
+    void refuse(long nanos) {
+        refused.incrementAndGet();
+        refusedNanos.addAndGet(nanos);
+    }
+
+    void report(String setup, long elapsedNanos) {
+        long total = completed.get();
+        System.out.printf("%s requests=%d failed=%d throughput=%.0f req/s%n", setup, total,
+                failed.get(), total / (elapsedNanos / 1e9));
+        System.out.printf("p50=%.2f ms p90=%.2f ms p99=%.2f ms p99.9=%.2f ms max=%.2f ms%n",
+                percentile(total, 0.50), percentile(total, 0.90), percentile(total, 0.99),
+                percentile(total, 0.999), percentile(total, 1.0));
+        long refusals = refused.get();
+        if (refusals > 0) {
+            System.out.printf("refused=%d (%.0f/s) mean=%.2f ms%n", refusals, refusals / (elapsedNanos / 1e9),
+                    refusedNanos.get() / 1e6 / refusals);
+        }
+    }
+
+    private double percentile(long total, double quantile) {
+        long target = Math.max(1, (long) Math.ceil(total * quantile));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += histogram.get(bucket);
+            if (seen >= target) {
+                return (bucket + 1) * BUCKET_NANOS / 1e6;
+            }
+        }
+        return Double.NaN;
+    }
+}
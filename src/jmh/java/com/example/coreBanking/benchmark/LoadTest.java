@@ -0,0 +1,96 @@
+package com.example.coreBanking.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop HTTP load against a running instance: every connection sends a deposit, waits for the
+ * response and sends the next one, so the number of connections is the number of requests in flight.
+ * Latencies are recorded after the warm-up in a {@link LatencyHistogram}.
+ * <p>
+ * {@code mvn -Pbenchmarks test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.coreBanking.benchmark.LoadTest -Dexec.args="http://localhost:8080 10000 30 10"}
+ * runs 10,000 connections for 30 seconds after a 10 second warm-up.
+ * <p>
+ * Against the reactive mode, deposits refused with 429 or 503 are counted separately and resent after
+ * {@link #REFUSAL_BACKOFF_MILLIS}, so comparing both modes at the same connection count shows whether an
+ * overloaded server slows everyone down or turns the excess away quickly.
+ */
+public final class LoadTest {
+
+    static final int ACCOUNTS = 1000;
+    static final long REFUSAL_BACKOFF_MILLIS = 10;
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "http://localhost:8080";
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        new LoadTest().run(URI.create(url + "/api/event"), connections, seconds, warmupSeconds);
+    }
+
+    private void run(URI uri, int connections, int seconds, int warmupSeconds) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(executor)
+                .build();
+        CountDownLatch stopped = new CountDownLatch(connections);
+        for (int i = 0; i < connections; i++) {
+            String body = "{\"type\":\"deposit\",\"destination\":\"load-" + (i % ACCOUNTS) + "\",\"amount\":1}";
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(120))
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            send(client, request, stopped);
+        }
+        TimeUnit.SECONDS.sleep(warmupSeconds);
+        recording = true;
+        long start = System.nanoTime();
+        TimeUnit.SECONDS.sleep(seconds);
+        recording = false;
+        long elapsed = System.nanoTime() - start;
+        running = false;
+        stopped.await(90, TimeUnit.SECONDS);
+        executor.shutdownNow();
+        histogram.report("connections=" + connections, elapsed);
+    }
+
+    private void send(HttpClient client, HttpRequest request, CountDownLatch stopped) {
+        long start = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            boolean refused = error == null && (response.statusCode() == 429 || response.statusCode() == 503);
+            if (recording) {
+                if (error == null && response.statusCode() == 201) {
+                    histogram.record(System.nanoTime() - start);
+                } else if (refused) {
+                    histogram.refuse(System.nanoTime() - start);
+                } else {
+                    histogram.fail();
+                }
+            }
+            if (!running) {
+                stopped.countDown();
+            } else if (refused) {
+                CompletableFuture.delayedExecutor(REFUSAL_BACKOFF_MILLIS, TimeUnit.MILLISECONDS)
+                        .execute(() -> send(client, request, stopped));
+            } else {
+                send(client, request, stopped);
+            }
+        });
+    }
+}
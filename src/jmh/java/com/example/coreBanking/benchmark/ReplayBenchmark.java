@@ -0,0 +1,84 @@
+package com.example.coreBanking.benchmark;
+
+import com.example.coreBanking.journal.FileEventJournal;
+import com.example.coreBanking.journal.SnapshotScheduler;
+import com.example.coreBanking.model.Account;
+import com.example.coreBanking.model.AccountView;
+import com.example.coreBanking.repository.AccountRepository;
+import com.example.coreBanking.repository.InMemoryAccountRepository;
+import com.example.coreBanking.service.AccountLocks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start: how long opening the journal takes to rebuild the account map, from the full journal or
+ * from a snapshot taken after the last event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReplayBenchmark {
+
+    @Param({"100000"})
+    public int accounts;
+
+    @Param({"2000000"})
+    public int events;
+
+    @Param({"false", "true"})
+    public boolean snapshot;
+
+    private Path directory;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("replay-benchmark");
+        AccountRepository repository = new InMemoryAccountRepository();
+        FileEventJournal journal = new FileEventJournal(repository, directory.toString(), 1024, 0);
+        journal.open();
+        BigDecimal amount = new BigDecimal("1.00");
+        for (int i = 0; i < events; i++) {
+            Account account = new Account(Benchmarks.accountId(i % accounts), BigDecimal.valueOf(i / accounts + 1, 0));
+            repository.save(account);
+            journal.append("deposit", amount, AccountView.of(account));
+        }
+        journal.awaitDurable(journal.lastAppendedSequence());
+        if (snapshot) {
+            new SnapshotScheduler(journal, repository, new AccountLocks(1)).snapshot();
+        }
+        journal.close();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Benchmarks.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public AccountRepository open() throws IOException {
+        AccountRepository repository = new InMemoryAccountRepository();
+        FileEventJournal journal = new FileEventJournal(repository, directory.toString(), 1024, 0);
+        journal.open();
+        journal.close();
+        return repository;
+    }
+}
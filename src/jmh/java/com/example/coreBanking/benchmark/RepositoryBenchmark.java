@@ -0,0 +1,75 @@
+package com.example.coreBanking.benchmark;
+
+import com.example.coreBanking.model.Account;
+import com.example.coreBanking.repository.AccountRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Raw store operations on a pre-filled repository, cycling through the accounts so lookups miss the
+ * CPU caches the way a large account map does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    @Param({"heap", "offheap"})
+    public String store;
+
+    @Param({"100000"})
+    public int accounts;
+
+    private AccountRepository repository;
+    private String[] ids;
+    private Account[] updates;
+
+    @Setup
+    public void setUp() {
+        repository = Benchmarks.createStore(store);
+        ids = new String[accounts];
+        updates = new Account[accounts];
+        for (int i = 0; i < accounts; i++) {
+            ids[i] = Benchmarks.accountId(i);
+            updates[i] = new Account(ids[i], new BigDecimal("100.00"));
+            repository.save(new Account(ids[i], new BigDecimal("100.00")));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int next(int bound) {
+            int index = next;
+            next = index + 1 == bound ? 0 : index + 1;
+            return index;
+        }
+    }
+
+    @Benchmark
+    public Optional<Account> findById(Cursor cursor) {
+        return repository.findById(ids[cursor.next(accounts)]);
+    }
+
+    @Benchmark
+    public Account save(Cursor cursor) {
+        return repository.save(updates[cursor.next(accounts)]);
+    }
+}
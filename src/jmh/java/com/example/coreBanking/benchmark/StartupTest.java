@@ -0,0 +1,127 @@
+package com.example.coreBanking.benchmark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the application as a child process a number of times and reports, as medians over the runs, how
+ * long it takes until the readiness probe passes, how long the first request and the first
+ * {@link #REQUESTS} sequential requests then take, and the process's resident set size after them. The
+ * command to start is everything after the run count; {@code --server.port} is appended to it.
+ * <p>
+ * {@code mvn -Pbenchmarks test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.coreBanking.benchmark.StartupTest
+ * -Dexec.args="5 java -jar target/coreBanking-0.0.1-SNAPSHOT.jar"}
+ * <p>
+ * The resident set size is read from {@code /proc}, so it is only reported on Linux.
+ */
+public final class StartupTest {
+
+    static final int REQUESTS = 1000;
+
+    public static void main(String[] args) throws Exception {
+        int runs = Integer.parseInt(args[0]);
+        List<String> command = Arrays.asList(args).subList(1, args.length);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        long[] ready = new long[runs];
+        long[] first = new long[runs];
+        long[] batch = new long[runs];
+        long[] rss = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            int port;
+            try (ServerSocket socket = new ServerSocket(0)) {
+                port = socket.getLocalPort();
+            }
+            List<String> started = new ArrayList<>(command);
+            started.add("--server.port=" + port);
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(started).redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+            try {
+                awaitReady(client, URI.create("http://127.0.0.1:" + port + "/actuator/health/readiness"), process);
+                ready[run] = System.nanoTime() - start;
+                URI event = URI.create("http://127.0.0.1:" + port + "/api/event");
+                long sent = System.nanoTime();
+                deposit(client, event, 0);
+                first[run] = System.nanoTime() - sent;
+                sent = System.nanoTime();
+                for (int i = 1; i <= REQUESTS; i++) {
+                    deposit(client, event, i);
+                }
+                batch[run] = System.nanoTime() - sent;
+                rss[run] = residentKilobytes(process.pid());
+            } finally {
+                process.destroy();
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            }
+            System.out.printf("run %d: ready=%.0f ms first=%.1f ms %d requests=%.0f ms rss=%d MiB%n", run + 1,
+                    ready[run] / 1e6, first[run] / 1e6, REQUESTS, batch[run] / 1e6, rss[run] / 1024);
+        }
+        System.out.printf("median of %d: ready=%.0f ms first=%.1f ms %d requests=%.0f ms rss=%d MiB%n", runs,
+                median(ready) / 1e6, median(first) / 1e6, REQUESTS, median(batch) / 1e6, median(rss) / 1024);
+    }
+
+    private static void awaitReady(HttpClient client, URI readiness, Process process) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(readiness).timeout(Duration.ofSeconds(5)).GET().build();
+        while (true) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet.
+            }
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+
+    private static void deposit(HttpClient client, URI event, int i) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(event)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"type\":\"deposit\",\"destination\":\"startup-" + (i % 100) + "\",\"amount\":1}"))
+                .build();
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 201) {
+            throw new IllegalStateException("Deposit answered " + status);
+        }
+    }
+
+    private static long residentKilobytes(long pid) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (!Files.exists(status)) {
+            return 0;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("[^0-9]", ""));
+            }
+        }
+        return 0;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
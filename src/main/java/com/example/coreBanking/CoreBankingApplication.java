@@ -1,13 +1,29 @@
 package com.example.coreBanking;
 
+import com.example.coreBanking.protocol.BinaryProtocolServer;
+import com.example.coreBanking.service.AccountService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class CoreBankingApplication {
 
 	public static void main(String[] args) {
 		SpringApplication.run(CoreBankingApplication.class, args);
 	}
 
+	/**
+	 * Keeps the ledger, and with it journal replay and the scheduled tasks, starting with the application
+	 * when {@code spring.main.lazy-initialization=true}; only the web and management layers wait for
+	 * their first request.
+	 */
+	@Bean
+	static LazyInitializationExcludeFilter eagerLedger() {
+		return LazyInitializationExcludeFilter.forBeanTypes(AccountService.class, BinaryProtocolServer.class);
+	}
+
 }
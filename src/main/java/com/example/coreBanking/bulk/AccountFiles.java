@@ -0,0 +1,381 @@
+package com.example.coreBanking.bulk;
+
+import com.example.coreBanking.model.Account;
+import com.example.coreBanking.repository.AccountSet;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Whole account sets as files.
+ * <p>
+ * CSV holds one {@code id,balance} line per account after an optional {@code id,balance} header. The
+ * balance is whatever follows the last comma, so ids may contain commas but not line breaks.
+ * <p>
+ * Binary is {@code int magic | (int blockLength | int count | (short idLength | id | byte scale | long unscaled)*)*}
+ * with blocks of at most {@link #BLOCK_SIZE} bytes, so a reader can split the file by hopping from block
+ * header to block header without decoding any account.
+ * <p>
+ * Reading maps the file chunk by chunk and parses the chunks on the common fork/join pool; writing fills
+ * a direct buffer that the channel writes without another copy.
+ */
+public final class AccountFiles {
+
+    static final int CHUNK_SIZE = 8 * 1024 * 1024;
+    static final int BLOCK_SIZE = 1024 * 1024;
+
+    private static final int MAGIC = 0x43424131;
+    private static final int BLOCK_HEADER_SIZE = Integer.BYTES + Integer.BYTES;
+    private static final byte[] CSV_HEADER = "id,balance".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_FAST_DIGITS = 18;
+
+    private AccountFiles() {
+    }
+
+    /**
+     * Parses every account in the file, one array per chunk.
+     *
+     * @throws IllegalArgumentException if the file is not a valid account file of that format
+     */
+    public static List<Account[]> read(Path file, BulkFormat format) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<long[]> chunks = format == BulkFormat.CSV ? csvChunks(channel) : binaryChunks(channel);
+            return chunks.parallelStream().map(chunk -> parse(channel, format, chunk)).toList();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Writes every account of the repository to a temporary file that replaces {@code file} once complete.
+     *
+     * @return the number of accounts written
+     */
+    public static long write(Path file, BulkFormat format, AccountSet accounts) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            long count;
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                Writer writer = new Writer(channel, format);
+                accounts.forEach(writer::write);
+                count = writer.finish();
+                channel.force(false);
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return count;
+        } catch (UncheckedIOException e) {
+            Files.deleteIfExists(temporary);
+            throw e.getCause();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+    }
+
+    // Cuts the file every CHUNK_SIZE bytes, moving each cut past the next line break.
+    private static List<long[]> csvChunks(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<long[]> chunks = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long start = 0;
+        while (start < size) {
+            long end = Math.min(size, start + CHUNK_SIZE);
+            while (end < size) {
+                probe.clear();
+                int read = channel.read(probe, end);
+                int newline = indexOf(probe, read, (byte) '\n');
+                end += newline < 0 ? read : newline + 1;
+                if (newline >= 0) {
+                    break;
+                }
+            }
+            chunks.add(new long[]{start, end - start});
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static List<long[]> binaryChunks(FileChannel channel) throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+        if (size < Integer.BYTES || channel.read(header.limit(Integer.BYTES), 0) != Integer.BYTES
+                || header.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a binary account file");
+        }
+        List<long[]> chunks = new ArrayList<>();
+        long position = Integer.BYTES;
+        while (position < size) {
+            header.clear();
+            if (size - position < BLOCK_HEADER_SIZE || channel.read(header, position) != BLOCK_HEADER_SIZE) {
+                throw new IllegalArgumentException("Truncated account file");
+            }
+            int length = header.getInt(0);
+            int count = header.getInt(Integer.BYTES);
+            position += BLOCK_HEADER_SIZE;
+            if (length < 0 || count < 0 || length > size - position) {
+                throw new IllegalArgumentException("Truncated account file");
+            }
+            chunks.add(new long[]{position, length, count});
+            position += length;
+        }
+        return chunks;
+    }
+
+    private static Account[] parse(FileChannel channel, BulkFormat format, long[] chunk) {
+        MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return format == BulkFormat.CSV ? parseCsv(buffer, chunk[0]) : parseBinary(buffer, (int) chunk[2]);
+    }
+
+    private static Account[] parseCsv(ByteBuffer buffer, long offset) {
+        List<Account> accounts = new ArrayList<>(buffer.limit() / 24);
+        int limit = buffer.limit();
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            int comma = -1;
+            byte b;
+            while (lineEnd < limit && (b = buffer.get(lineEnd)) != '\n') {
+                if (b == ',') {
+                    comma = lineEnd;
+                }
+                lineEnd++;
+            }
+            int contentEnd = lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            if (contentEnd > lineStart && !(offset == 0 && lineStart == 0 && isHeader(buffer, contentEnd))) {
+                if (comma <= lineStart || comma >= contentEnd - 1) {
+                    throw invalidLine(offset + lineStart);
+                }
+                byte[] id = new byte[comma - lineStart];
+                buffer.get(lineStart, id);
+                accounts.add(new Account(new String(id, StandardCharsets.UTF_8),
+                        parseBalance(buffer, comma + 1, contentEnd, offset + lineStart)));
+            }
+            lineStart = lineEnd + 1;
+        }
+        return accounts.toArray(new Account[0]);
+    }
+
+    private static Account[] parseBinary(ByteBuffer buffer, int count) {
+        Account[] accounts = new Account[count];
+        try {
+            for (int i = 0; i < count; i++) {
+                byte[] id = new byte[buffer.getShort()];
+                buffer.get(id);
+                int scale = buffer.get();
+                long unscaled = buffer.getLong();
+                if (unscaled < 0) {
+                    throw new IllegalArgumentException("Account file holds a negative balance");
+                }
+                accounts[i] = new Account(new String(id, StandardCharsets.UTF_8), BigDecimal.valueOf(unscaled, scale));
+            }
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            throw new IllegalArgumentException("Corrupt account file");
+        }
+        if (buffer.hasRemaining()) {
+            throw new IllegalArgumentException("Corrupt account file");
+        }
+        return accounts;
+    }
+
+    // Plain non-negative decimals of up to 18 digits are assembled directly; anything else goes
+    // through the BigDecimal parser.
+    private static BigDecimal parseBalance(ByteBuffer buffer, int from, int to, long lineOffset) {
+        long unscaled = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean point = false;
+        for (int i = from; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                unscaled = unscaled * 10 + (b - '0');
+                digits++;
+                if (point) {
+                    scale++;
+                }
+            } else if (b == '.' && !point) {
+                point = true;
+            } else {
+                return parseSlow(buffer, from, to, lineOffset);
+            }
+        }
+        if (digits == 0) {
+            throw invalidLine(lineOffset);
+        }
+        if (digits > MAX_FAST_DIGITS) {
+            return parseSlow(buffer, from, to, lineOffset);
+        }
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+
+    private static BigDecimal parseSlow(ByteBuffer buffer, int from, int to, long lineOffset) {
+        byte[] text = new byte[to - from];
+        buffer.get(from, text);
+        BigDecimal balance;
+        try {
+            balance = new BigDecimal(new String(text, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            throw invalidLine(lineOffset);
+        }
+        if (balance.signum() < 0) {
+            throw new IllegalArgumentException("Negative balance on the line at byte " + lineOffset);
+        }
+        return balance;
+    }
+
+    private static boolean isHeader(ByteBuffer buffer, int contentEnd) {
+        if (contentEnd != CSV_HEADER.length) {
+            return false;
+        }
+        for (int i = 0; i < CSV_HEADER.length; i++) {
+            if (buffer.get(i) != CSV_HEADER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(ByteBuffer buffer, int length, byte value) {
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static IllegalArgumentException invalidLine(long offset) {
+        return new IllegalArgumentException("Invalid account line at byte " + offset);
+    }
+
+    private static final class Writer {
+
+        private final FileChannel channel;
+        private final BulkFormat format;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(Integer.BYTES + BLOCK_HEADER_SIZE + BLOCK_SIZE);
+        private long written;
+        private int blockStart;
+        private int blockCount;
+
+        private Writer(FileChannel channel, BulkFormat format) {
+            this.channel = channel;
+            this.format = format;
+            if (format == BulkFormat.CSV) {
+                buffer.put(CSV_HEADER).put((byte) '\n');
+            } else {
+                buffer.putInt(MAGIC);
+                openBlock();
+            }
+        }
+
+        private void write(Account account) {
+            byte[] id = account.getId().getBytes(StandardCharsets.UTF_8);
+            BigDecimal balance = account.getBalance();
+            if (format == BulkFormat.CSV) {
+                writeCsv(account.getId(), id, balance.toPlainString());
+            } else {
+                writeBinary(account.getId(), id, balance);
+            }
+            written++;
+        }
+
+        private void writeCsv(String accountId, byte[] id, String balance) {
+            if (accountId.indexOf('\n') >= 0 || accountId.indexOf('\r') >= 0) {
+                throw new IllegalArgumentException("Account id " + accountId.strip()
+                        + " has a line break; export it in the binary format");
+            }
+            int size = id.length + balance.length() + 2;
+            if (buffer.remaining() < size) {
+                drain();
+                checkFits(accountId, size);
+            }
+            buffer.put(id).put((byte) ',');
+            for (int i = 0; i < balance.length(); i++) {
+                buffer.put((byte) balance.charAt(i));
+            }
+            buffer.put((byte) '\n');
+        }
+
+        private void writeBinary(String accountId, byte[] id, BigDecimal balance) {
+            if (id.length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Account id " + accountId + " is too long");
+            }
+            long unscaled;
+            try {
+                unscaled = balance.unscaledValue().longValueExact();
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Balance of account " + accountId + " does not fit in a long");
+            }
+            if (balance.scale() != (byte) balance.scale()) {
+                throw new IllegalArgumentException("Balance of account " + accountId + " has too many decimal places");
+            }
+            int size = Short.BYTES + id.length + 1 + Long.BYTES;
+            if (buffer.position() - blockStart - BLOCK_HEADER_SIZE + size > BLOCK_SIZE) {
+                closeBlock();
+                drain();
+                openBlock();
+                checkFits(accountId, size);
+            }
+            buffer.putShort((short) id.length).put(id).put((byte) balance.scale()).putLong(unscaled);
+            blockCount++;
+        }
+
+        private long finish() {
+            if (format == BulkFormat.BINARY) {
+                if (blockCount == 0) {
+                    buffer.position(blockStart);
+                } else {
+                    closeBlock();
+                }
+            }
+            drain();
+            return written;
+        }
+
+        private void openBlock() {
+            blockStart = buffer.position();
+            blockCount = 0;
+            buffer.position(blockStart + BLOCK_HEADER_SIZE);
+        }
+
+        private void closeBlock() {
+            buffer.putInt(blockStart, buffer.position() - blockStart - BLOCK_HEADER_SIZE);
+            buffer.putInt(blockStart + Integer.BYTES, blockCount);
+        }
+
+        private void checkFits(String accountId, int size) {
+            if (size > BLOCK_SIZE) {
+                throw new IllegalArgumentException("Account id " + accountId + " is too long");
+            }
+        }
+
+        private void drain() {
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.clear();
+        }
+    }
+}
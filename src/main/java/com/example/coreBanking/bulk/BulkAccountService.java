@@ -0,0 +1,66 @@
+package com.example.coreBanking.bulk;
+
+import com.example.coreBanking.dto.BulkResponse;
+import com.example.coreBanking.service.AccountService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Imports and exports account files kept in {@code corebanking.bulk.dir}. Callers name a file inside
+ * that directory, never an arbitrary path.
+ */
+@Service
+public class BulkAccountService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkAccountService.class);
+
+    private final AccountService accountService;
+    private final Path directory;
+
+    @Autowired
+    public BulkAccountService(AccountService accountService,
+                              @Value("${corebanking.bulk.dir:data/bulk}") String directory) {
+        this.accountService = accountService;
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+    }
+
+    public BulkResponse importAccounts(String fileName, String format) throws IOException {
+        BulkFormat bulkFormat = BulkFormat.fromValue(format);
+        Path file = resolve(fileName);
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("No account file named " + fileName);
+        }
+        long start = System.nanoTime();
+        int imported = accountService.importAccounts(file, bulkFormat);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Imported {} accounts from {} in {} ms", imported, file, elapsedMillis);
+        return new BulkResponse(fileName, bulkFormat.getValue(), imported, elapsedMillis);
+    }
+
+    public BulkResponse exportAccounts(String fileName, String format) throws IOException {
+        BulkFormat bulkFormat = BulkFormat.fromValue(format);
+        Path file = resolve(fileName);
+        Files.createDirectories(directory);
+        long start = System.nanoTime();
+        long exported = accountService.exportAccounts(file, bulkFormat);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Exported {} accounts to {} in {} ms", exported, file, elapsedMillis);
+        return new BulkResponse(fileName, bulkFormat.getValue(), exported, elapsedMillis);
+    }
+
+    private Path resolve(String fileName) {
+        Path file = fileName == null || fileName.isBlank() ? null : directory.resolve(fileName).normalize();
+        if (file == null || !directory.equals(file.getParent())) {
+            throw new IllegalArgumentException("File must be a plain file name inside the bulk directory");
+        }
+        return file;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.coreBanking.bulk;
+
+public enum BulkFormat {
+    CSV("csv"),
+    BINARY("binary");
+
+    private final String value;
+
+    BulkFormat(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public static BulkFormat fromValue(String value) {
+        for (BulkFormat format : values()) {
+            if (format.value.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Invalid bulk format");
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.coreBanking.cluster;
+
+import com.example.coreBanking.dto.BalanceResponse;
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.model.AccountView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+
+/**
+ * The endpoints other nodes call to reach this node's partition. The partition remembers commits by
+ * transaction id, so a coordinator retrying one that already took effect gets the first account back
+ * rather than a second debit or credit. Not meant to be reachable by clients.
+ */
+@RestController
+@RequestMapping("/internal/cluster")
+@ConditionalOnProperty(name = "corebanking.cluster.enabled", havingValue = "true")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ClusterController {
+
+    private final ClusterRouter clusterRouter;
+
+    @Autowired
+    public ClusterController(ClusterRouter clusterRouter) {
+        this.clusterRouter = clusterRouter;
+    }
+
+    @PostMapping("/event")
+    public ResponseEntity<EventResponse> apply(@RequestBody EventRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(clusterRouter.local().apply(request));
+    }
+
+    @GetMapping("/balance")
+    public ResponseEntity<BalanceResponse> balance(@RequestParam("account_id") String accountId) {
+        return ResponseEntity.ok(clusterRouter.local().balance(accountId));
+    }
+
+    @PostMapping("/prepare-debit")
+    public ResponseEntity<String> prepareDebit(
+            @RequestParam("tx") String transactionId,
+            @RequestParam("account") String accountId,
+            @RequestParam("amount") BigDecimal amount) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(clusterRouter.local().prepareDebit(transactionId, accountId, amount));
+    }
+
+    @PostMapping("/prepare-credit")
+    public ResponseEntity<Void> prepareCredit(
+            @RequestParam("tx") String transactionId,
+            @RequestParam("account") String accountId) {
+        clusterRouter.local().prepareCredit(transactionId, accountId);
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/commit-debit")
+    public ResponseEntity<AccountView> commitDebit(
+            @RequestParam("tx") String transactionId,
+            @RequestParam("account") String accountId,
+            @RequestParam("hold") String holdId,
+            @RequestParam("amount") BigDecimal amount) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(clusterRouter.local().commitDebit(transactionId, accountId, holdId, amount));
+    }
+
+    @PostMapping("/commit-credit")
+    public ResponseEntity<AccountView> commitCredit(
+            @RequestParam("tx") String transactionId,
+            @RequestParam("account") String accountId,
+            @RequestParam("amount") BigDecimal amount) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(clusterRouter.local().commitCredit(transactionId, accountId, amount));
+    }
+
+    @PostMapping("/abort")
+    public ResponseEntity<Void> abort(
+            @RequestParam("tx") String transactionId,
+            @RequestParam("hold") String holdId) {
+        clusterRouter.local().abort(transactionId, holdId);
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/reset")
+    public ResponseEntity<Void> reset() {
+        clusterRouter.discardPending();
+        clusterRouter.local().reset();
+        return ResponseEntity.ok().build();
+    }
+}
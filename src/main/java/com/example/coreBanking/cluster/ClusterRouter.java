@@ -0,0 +1,360 @@
+package com.example.coreBanking.cluster;
+
+import com.example.coreBanking.dto.BalanceResponse;
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.dto.EventType;
+import com.example.coreBanking.exception.HoldNotFoundException;
+import com.example.coreBanking.exception.LedgerUnavailableException;
+import com.example.coreBanking.model.AccountView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Splits the account ids between the nodes listed in {@code corebanking.cluster.nodes}: node {@code i} of
+ * {@code n} owns the {@code i}-th of {@code n} equal ranges of a hash of the id. Events whose accounts all
+ * belong to one other node are forwarded to it; a transfer between two partitions is coordinated here as
+ * a two-phase commit over {@link Partition}.
+ * <p>
+ * Once both partitions have prepared a transfer it is committed: the debit and then the credit are retried
+ * {@code corebanking.cluster.commit-attempts} times, and after that in the background until they land. A
+ * debit that never reaches its hold leaves both accounts as they were and is counted as abandoned: the
+ * hold expired, or the origin node restarted, which releases every hold. A retried commit that already
+ * took effect is recognized by the participant, which answers with the first result. Nodes remember
+ * commits for {@code corebanking.cluster.commit-retention-seconds}, so the background retries give up
+ * before then and leave the transfer to be reconciled by hand. Transfers still being committed are kept in
+ * memory only, so a restart of the coordinating node abandons them as well.
+ */
+@Component
+@ConditionalOnProperty(name = "corebanking.cluster.enabled", havingValue = "true")
+public class ClusterRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterRouter.class);
+
+    private final int nodeIndex;
+    private final Partition[] partitions;
+    private final long prepareTtlSeconds;
+    private final int commitAttempts;
+    private final long commitRetentionNanos;
+    private final Queue<PendingCommit> pendingCommits = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inDoubt = new AtomicInteger();
+    private final LongAdder forwarded = new LongAdder();
+    private final LongAdder crossPartition = new LongAdder();
+    private final LongAdder abandoned = new LongAdder();
+
+    @Autowired
+    public ClusterRouter(ObjectMapper objectMapper,
+                         @Value("${corebanking.cluster.nodes:}") String nodes,
+                         @Value("${corebanking.cluster.node-index:0}") int nodeIndex,
+                         @Value("${corebanking.cluster.timeout-ms:5000}") long timeoutMillis,
+                         @Value("${corebanking.cluster.prepare-ttl-seconds:30}") long prepareTtlSeconds,
+                         @Value("${corebanking.cluster.commit-attempts:3}") int commitAttempts,
+                         @Value("${corebanking.holds.enabled:false}") boolean holdsEnabled,
+                         @Value("${spring.main.web-application-type:servlet}") String webApplicationType,
+                         @Value("${corebanking.cluster.commit-retention-seconds:604800}") long commitRetentionSeconds) {
+        if (!holdsEnabled) {
+            throw new IllegalStateException("Cluster mode requires corebanking.holds.enabled=true");
+        }
+        if (!"servlet".equalsIgnoreCase(webApplicationType)) {
+            throw new IllegalStateException("Cluster mode requires the servlet stack");
+        }
+        List<String> urls = List.of(nodes.split(",")).stream().map(String::trim).filter(url -> !url.isEmpty()).toList();
+        if (urls.isEmpty() || nodeIndex < 0 || nodeIndex >= urls.size()) {
+            throw new IllegalArgumentException("corebanking.cluster.node-index must name one of corebanking.cluster.nodes");
+        }
+        if (timeoutMillis < 1 || commitAttempts < 1
+                || prepareTtlSeconds * 1000 <= timeoutMillis * (commitAttempts + 2L)
+                || commitRetentionSeconds <= prepareTtlSeconds) {
+            throw new IllegalArgumentException(
+                    "Cluster settings must be positive, with holds outlasting every commit attempt"
+                            + " and commits retained longer than holds");
+        }
+        this.nodeIndex = nodeIndex;
+        this.prepareTtlSeconds = prepareTtlSeconds;
+        this.commitAttempts = commitAttempts;
+        this.commitRetentionNanos = TimeUnit.SECONDS.toNanos(commitRetentionSeconds);
+        Duration timeout = Duration.ofMillis(timeoutMillis);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        this.partitions = new Partition[urls.size()];
+        for (int i = 0; i < urls.size(); i++) {
+            if (i != nodeIndex) {
+                partitions[i] = new HttpPartition(i, URI.create(urls.get(i)), client, objectMapper, timeout);
+            }
+        }
+    }
+
+    /**
+     * Plugs in this node's own partition, which the account service provides.
+     */
+    public void bindLocal(Partition local) {
+        partitions[nodeIndex] = local;
+    }
+
+    /**
+     * This node's own partition, as the cluster endpoints reach it.
+     */
+    public Partition local() {
+        return partitions[nodeIndex];
+    }
+
+    public int nodeIndex() {
+        return nodeIndex;
+    }
+
+    public int nodeCount() {
+        return partitions.length;
+    }
+
+    public long prepareTtlSeconds() {
+        return prepareTtlSeconds;
+    }
+
+    public int ownerOf(String accountId) {
+        int hash = accountId.hashCode();
+        // Murmur3's finalizer, so ids that differ in their last characters spread over every range.
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return (int) (((hash & 0xFFFFFFFFL) * partitions.length) >>> 32);
+    }
+
+    public boolean owns(String accountId) {
+        return ownerOf(accountId) == nodeIndex;
+    }
+
+    /**
+     * Whether every account the event touches belongs to this node.
+     */
+    public boolean owns(EventRequest request) {
+        EventType type = request.eventType();
+        return (!type.needsOrigin() || owns(request.getOrigin()))
+                && (!type.needsDestination() || owns(request.getDestination()));
+    }
+
+    /**
+     * Applies the event on the nodes owning its accounts.
+     *
+     * @return the response, or null if every account belongs to this node and the caller must apply it
+     */
+    public EventResponse route(EventRequest request) {
+        EventType type = request.eventType();
+        int owner = ownerOf(type.needsOrigin() ? request.getOrigin() : request.getDestination());
+        if (type.needsOrigin() && type.needsDestination()) {
+            int destinationOwner = ownerOf(request.getDestination());
+            if (destinationOwner != owner) {
+                return transfer(request, owner, destinationOwner);
+            }
+        }
+        if (owner == nodeIndex) {
+            return null;
+        }
+        forwarded.increment();
+        return partitions[owner].apply(request);
+    }
+
+    /**
+     * @return the balance, or null if the account belongs to this node
+     */
+    public BalanceResponse balance(String accountId) {
+        int owner = ownerOf(accountId);
+        if (owner == nodeIndex) {
+            return null;
+        }
+        forwarded.increment();
+        return partitions[owner].balance(accountId);
+    }
+
+    /**
+     * Resets every other node and drops the transfers this node still had to commit. The caller resets
+     * this node's own partition.
+     */
+    public void resetOthers() {
+        discardPending();
+        for (int i = 0; i < partitions.length; i++) {
+            if (i != nodeIndex) {
+                partitions[i].reset();
+            }
+        }
+    }
+
+    void discardPending() {
+        pendingCommits.clear();
+        inDoubt.set(0);
+    }
+
+    /**
+     * Retries the commits that ran out of attempts while their transfer was being answered.
+     */
+    @Scheduled(fixedDelayString = "${corebanking.cluster.retry-interval-ms:1000}")
+    public void retryPending() {
+        for (int remaining = pendingCommits.size(); remaining > 0; remaining--) {
+            PendingCommit commit = pendingCommits.poll();
+            if (commit == null) {
+                return;
+            }
+            if (resume(commit)) {
+                inDoubt.decrementAndGet();
+            } else {
+                pendingCommits.add(commit);
+            }
+        }
+    }
+
+    public long forwardedRequests() {
+        return forwarded.sum();
+    }
+
+    public long crossPartitionTransfers() {
+        return crossPartition.sum();
+    }
+
+    public int transfersInDoubt() {
+        return inDoubt.get();
+    }
+
+    public long abandonedTransfers() {
+        return abandoned.sum();
+    }
+
+    private EventResponse transfer(EventRequest request, int originOwner, int destinationOwner) {
+        crossPartition.increment();
+        String transactionId = UUID.randomUUID().toString();
+        Partition origin = partitions[originOwner];
+        Partition destination = partitions[destinationOwner];
+        String holdId = origin.prepareDebit(transactionId, request.getOrigin(), request.getAmount());
+        try {
+            destination.prepareCredit(transactionId, request.getDestination());
+        } catch (RuntimeException e) {
+            abort(origin, transactionId, holdId);
+            throw e;
+        }
+        PendingCommit commit = new PendingCommit(transactionId, originOwner, request.getOrigin(), holdId,
+                destinationOwner, request.getDestination(), request.getAmount());
+        AccountView debited;
+        try {
+            debited = withRetries(() -> origin.commitDebit(transactionId, commit.origin, holdId, commit.amount));
+        } catch (HoldNotFoundException e) {
+            abandoned.increment();
+            throw new LedgerUnavailableException("Transfer expired before it was committed", e);
+        } catch (RuntimeException e) {
+            defer(commit, e);
+            throw new LedgerUnavailableException("Transfer " + transactionId + " is in doubt and is being committed", e);
+        }
+        commit.debited = true;
+        try {
+            return new EventResponse(debited,
+                    withRetries(() -> destination.commitCredit(transactionId, commit.destination, commit.amount)));
+        } catch (RuntimeException e) {
+            // The debit has happened, so the transfer succeeds; the credit lands in the background.
+            defer(commit, e);
+            return EventResponse.origin(debited);
+        }
+    }
+
+    private <T> T withRetries(Supplier<T> action) {
+        LedgerUnavailableException last = null;
+        for (int attempt = 0; attempt < commitAttempts; attempt++) {
+            try {
+                return action.get();
+            } catch (LedgerUnavailableException e) {
+                last = e;
+            }
+        }
+        throw last;
+    }
+
+    private void defer(PendingCommit commit, RuntimeException cause) {
+        log.warn("Transfer {} could not be committed yet; retrying in the background", commit.transactionId, cause);
+        inDoubt.incrementAndGet();
+        pendingCommits.add(commit);
+    }
+
+    /**
+     * @return whether the transfer is done with, committed or expired
+     */
+    private boolean resume(PendingCommit commit) {
+        if (System.nanoTime() - commit.startedNanos > commitRetentionNanos - TimeUnit.SECONDS.toNanos(prepareTtlSeconds)) {
+            // Past this point a participant may have forgotten the commit and would apply a retry again.
+            log.error("Transfer {} could not be committed within the commit retention and needs reconciling;"
+                    + " debited: {}", commit.transactionId, commit.debited);
+            return true;
+        }
+        try {
+            if (!commit.debited) {
+                try {
+                    partitions[commit.originOwner].commitDebit(commit.transactionId, commit.origin, commit.holdId,
+                            commit.amount);
+                } catch (HoldNotFoundException e) {
+                    abandoned.increment();
+                    log.error("Transfer {} lost its hold before it was committed; neither account changed",
+                            commit.transactionId);
+                    return true;
+                }
+                commit.debited = true;
+            }
+            partitions[commit.destinationOwner].commitCredit(commit.transactionId, commit.destination, commit.amount);
+            return true;
+        } catch (LedgerUnavailableException e) {
+            return false;
+        } catch (RuntimeException e) {
+            log.error("Transfer {} failed to commit", commit.transactionId, e);
+            return false;
+        }
+    }
+
+    private static void abort(Partition origin, String transactionId, String holdId) {
+        try {
+            origin.abort(transactionId, holdId);
+        } catch (RuntimeException e) {
+            // The hold expires on its own.
+            log.warn("Could not release the hold of transfer {}", transactionId, e);
+        }
+    }
+
+    private static final class PendingCommit {
+        final String transactionId;
+        final int originOwner;
+        final String origin;
+        final String holdId;
+        final int destinationOwner;
+        final String destination;
+        final BigDecimal amount;
+        final long startedNanos = System.nanoTime();
+        volatile boolean debited;
+
+        PendingCommit(String transactionId, int originOwner, String origin, String holdId, int destinationOwner,
+                      String destination, BigDecimal amount) {
+            this.transactionId = transactionId;
+            this.originOwner = originOwner;
+            this.origin = origin;
+            this.holdId = holdId;
+            this.destinationOwner = destinationOwner;
+            this.destination = destination;
+            this.amount = amount;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.coreBanking.cluster;
+
+import com.example.coreBanking.dto.BalanceResponse;
+import com.example.coreBanking.dto.ErrorResponse;
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.exception.AccountNotFoundException;
+import com.example.coreBanking.exception.HoldNotFoundException;
+import com.example.coreBanking.exception.InsufficientFundsException;
+import com.example.coreBanking.exception.InvalidOperationException;
+import com.example.coreBanking.exception.LedgerUnavailableException;
+import com.example.coreBanking.model.AccountView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Another node's partition, reached through its {@code /internal/cluster} endpoints. Business failures
+ * come back as the exceptions the other node threw; a node that cannot be reached, times out or answers
+ * with a server error fails with {@link LedgerUnavailableException}.
+ */
+final class HttpPartition implements Partition {
+
+    private final int node;
+    private final URI base;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+
+    HttpPartition(int node, URI base, HttpClient client, ObjectMapper objectMapper, Duration timeout) {
+        this.node = node;
+        this.base = base;
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public EventResponse apply(EventRequest request) {
+        return read(post("/event", serialize(request)), EventResponse.class);
+    }
+
+    @Override
+    public BalanceResponse balance(String accountId) {
+        HttpRequest request = request("/balance?account_id=" + encode(accountId)).GET().build();
+        return read(send(request), BalanceResponse.class);
+    }
+
+    @Override
+    public String prepareDebit(String transactionId, String accountId, BigDecimal amount) {
+        return new String(post("/prepare-debit?tx=" + encode(transactionId) + "&account=" + encode(accountId)
+                + "&amount=" + amount.toPlainString(), null), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void prepareCredit(String transactionId, String accountId) {
+        post("/prepare-credit?tx=" + encode(transactionId) + "&account=" + encode(accountId), null);
+    }
+
+    @Override
+    public AccountView commitDebit(String transactionId, String accountId, String holdId, BigDecimal amount) {
+        return read(post("/commit-debit?tx=" + encode(transactionId) + "&account=" + encode(accountId)
+                + "&hold=" + encode(holdId)
+                + "&amount=" + amount.toPlainString(), null), AccountView.class);
+    }
+
+    @Override
+    public AccountView commitCredit(String transactionId, String accountId, BigDecimal amount) {
+        return read(post("/commit-credit?tx=" + encode(transactionId) + "&account=" + encode(accountId)
+                + "&amount=" + amount.toPlainString(), null), AccountView.class);
+    }
+
+    @Override
+    public void abort(String transactionId, String holdId) {
+        post("/abort?tx=" + encode(transactionId) + "&hold=" + encode(holdId), null);
+    }
+
+    @Override
+    public void reset() {
+        post("/reset", null);
+    }
+
+    private byte[] post(String path, byte[] body) {
+        HttpRequest.Builder request = request(path);
+        if (body == null) {
+            request.POST(HttpRequest.BodyPublishers.noBody());
+        } else {
+            request.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        }
+        return send(request.build());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(base.resolve("/internal/cluster" + path)).timeout(timeout);
+    }
+
+    private byte[] send(HttpRequest request) {
+        HttpResponse<byte[]> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            throw new LedgerUnavailableException("Node " + node + " is unreachable", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LedgerUnavailableException("Interrupted while waiting for node " + node, e);
+        }
+        if (response.statusCode() / 100 == 2) {
+            return response.body();
+        }
+        throw failure(response);
+    }
+
+    private RuntimeException failure(HttpResponse<byte[]> response) {
+        ErrorResponse error;
+        try {
+            error = objectMapper.readValue(response.body(), ErrorResponse.class);
+        } catch (IOException e) {
+            return new LedgerUnavailableException("Node " + node + " answered " + response.statusCode());
+        }
+        String message = error.message();
+        return switch (error.error() == null ? "" : error.error()) {
+            case "Account Not Found" -> new AccountNotFoundException(message);
+            case "Hold Not Found" -> new HoldNotFoundException(message);
+            case "Insufficient Funds" -> new InsufficientFundsException(message);
+            case "Invalid Argument" -> new IllegalArgumentException(message);
+            case "Invalid Operation" -> new InvalidOperationException(message);
+            default -> new LedgerUnavailableException("Node " + node + " answered " + response.statusCode()
+                    + (message == null ? "" : ": " + message));
+        };
+    }
+
+    private <T> T read(byte[] body, Class<T> type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new LedgerUnavailableException("Node " + node + " answered with an unreadable body", e);
+        }
+    }
+
+    private byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.coreBanking.cluster;
+
+import com.example.coreBanking.dto.BalanceResponse;
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.model.AccountView;
+
+import java.math.BigDecimal;
+
+/**
+ * The accounts one node of the cluster owns, reached in process for the local node and over HTTP for the
+ * others. A transfer between two partitions runs as a two-phase protocol keyed by its transaction id:
+ * the debit is prepared as a hold on the origin and the destination is checked, then the hold is captured
+ * and the credit deposited. Commits may be retried with the same transaction id and take effect once: the
+ * partition journals the transaction id with the capture or deposit and answers a retry with the account
+ * the first commit left behind, for as long as it retains the commit.
+ */
+public interface Partition {
+
+    /**
+     * Applies an event whose accounts all belong to this partition.
+     */
+    EventResponse apply(EventRequest request);
+
+    BalanceResponse balance(String accountId);
+
+    /**
+     * Reserves {@code amount} on the origin account.
+     *
+     * @return the id of the hold that reserves it
+     */
+    String prepareDebit(String transactionId, String accountId, BigDecimal amount);
+
+    /**
+     * Checks that the destination account exists and may be credited.
+     */
+    void prepareCredit(String transactionId, String accountId);
+
+    /**
+     * Withdraws the prepared amount by capturing the hold on {@code accountId}.
+     *
+     * @throws com.example.coreBanking.exception.HoldNotFoundException if the transaction has not captured
+     *         the hold and it is gone: it expired, or the node restarted, and neither account changed
+     */
+    AccountView commitDebit(String transactionId, String accountId, String holdId, BigDecimal amount);
+
+    /**
+     * Deposits the amount a committed debit took off the origin.
+     */
+    AccountView commitCredit(String transactionId, String accountId, BigDecimal amount);
+
+    /**
+     * Releases the hold of a transaction that will not commit.
+     */
+    void abort(String transactionId, String holdId);
+
+    /**
+     * Discards this partition's accounts, leaving the other partitions alone.
+     */
+    void reset();
+}
@@ -0,0 +1,93 @@
+package com.example.coreBanking.cluster;
+
+import com.example.coreBanking.model.AccountView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * The commits of cross-partition transfers this node has applied, by transaction id, with the account each
+ * one left behind. A retried commit finds its transaction here and gets the first result back instead of
+ * a second capture or deposit. Commits are journaled with their transaction id and snapshots carry them
+ * alongside the accounts, so with the journal enabled they are remembered across restarts.
+ * <p>
+ * A commit is forgotten {@code corebanking.cluster.commit-retention-seconds} after it was recorded, or
+ * loaded on startup; coordinators stop retrying a transfer before then.
+ */
+@Component
+@ConditionalOnProperty(name = "corebanking.cluster.enabled", havingValue = "true")
+public class TransferCommits {
+
+    private final long retentionNanos;
+    private final ConcurrentHashMap<String, Commit> commits = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TransferCommits(@Value("${corebanking.cluster.commit-retention-seconds:604800}") long retentionSeconds) {
+        if (retentionSeconds < 1) {
+            throw new IllegalArgumentException("Commit retention must be positive");
+        }
+        this.retentionNanos = TimeUnit.SECONDS.toNanos(retentionSeconds);
+    }
+
+    /**
+     * @return the commit of {@code type} the transaction already made on this node, or null if it made none
+     */
+    public Commit find(String type, String transactionId) {
+        return commits.get(key(type, transactionId));
+    }
+
+    /**
+     * Remembers a commit. Must be called under the lock of its account, before the commit's record could
+     * be superseded by a later event's.
+     */
+    public void record(String type, String transactionId, AccountView account, long sequence) {
+        commits.put(key(type, transactionId), new Commit(type, transactionId, account, sequence, System.nanoTime()));
+    }
+
+    public void forEach(Consumer<Commit> action) {
+        commits.values().forEach(action);
+    }
+
+    public int size() {
+        return commits.size();
+    }
+
+    /**
+     * Forgets every commit, along with the accounts a reset discards.
+     */
+    public void clear() {
+        commits.clear();
+    }
+
+    /**
+     * Forgets the commits recorded more than the retention before {@code nowNanos}.
+     */
+    public void prune(long nowNanos) {
+        commits.values().removeIf(commit -> nowNanos - commit.recordedNanos() > retentionNanos);
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void prune() {
+        prune(System.nanoTime());
+    }
+
+    public long retentionNanos() {
+        return retentionNanos;
+    }
+
+    private static String key(String type, String transactionId) {
+        return type + ':' + transactionId;
+    }
+
+    /**
+     * @param sequence the journal sequence of the commit's record, 0 once it is known to be durable
+     */
+    public record Commit(String type, String transactionId, AccountView account, long sequence, long recordedNanos) {
+    }
+}
@@ -1,22 +1,59 @@
 package com.example.coreBanking.controller;
 
+import com.example.coreBanking.bulk.BulkAccountService;
+import com.example.coreBanking.dto.AggregatesResponse;
 import com.example.coreBanking.dto.BalanceResponse;
+import com.example.coreBanking.dto.BatchMode;
+import com.example.coreBanking.dto.BulkResponse;
 import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.dto.EventResult;
+import com.example.coreBanking.dto.HoldResponse;
+import com.example.coreBanking.history.Transaction;
+import com.example.coreBanking.idempotency.IdempotencyCache;
+import com.example.coreBanking.idempotency.IdempotentResponse;
 import com.example.coreBanking.service.AccountService;
+import com.example.coreBanking.service.EventStreamProcessor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class AccountController {
 
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final AccountService accountService;
+    private final EventStreamProcessor eventStreamProcessor;
+    private final IdempotencyCache idempotencyCache;
+    private final BulkAccountService bulkAccountService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService, EventStreamProcessor eventStreamProcessor,
+                             IdempotencyCache idempotencyCache, BulkAccountService bulkAccountService,
+                             ObjectMapper objectMapper) {
         this.accountService = accountService;
+        this.eventStreamProcessor = eventStreamProcessor;
+        this.idempotencyCache = idempotencyCache;
+        this.bulkAccountService = bulkAccountService;
+        this.objectMapper = objectMapper;
     }
 
 
@@ -25,9 +62,90 @@ public class AccountController {
         return ResponseEntity.ok(accountService.getBalance(accountId));
     }
 
+    @GetMapping("/accounts/{id}/transactions")
+    public ResponseEntity<List<Transaction>> getTransactions(
+            @PathVariable("id") String accountId,
+            @RequestParam(value = "from", required = false) Instant from,
+            @RequestParam(value = "to", required = false) Instant to) {
+        return ResponseEntity.ok(accountService.getTransactions(accountId, from, to));
+    }
+
+    @GetMapping("/aggregates")
+    public ResponseEntity<AggregatesResponse> getAggregates(@RequestParam(value = "top", defaultValue = "10") int top) {
+        return ResponseEntity.ok(accountService.getAggregates(top));
+    }
+
     @PostMapping("/event")
-    public ResponseEntity<?> handleEvent(@RequestBody EventRequest request) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(accountService.handleEvent(request));
+    public ResponseEntity<?> handleEvent(
+            @RequestBody EventRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(accountService.handleEvent(request));
+        }
+        IdempotentResponse response = idempotencyCache.execute(idempotencyKey, fingerprint(request),
+                () -> serialize(accountService.handleEvent(request)));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(response.replayed()))
+                .body(response.body());
+    }
+
+    @PostMapping("/events")
+    public ResponseEntity<List<EventResult>> handleEvents(
+            @RequestBody List<EventRequest> requests,
+            @RequestParam(value = "mode", defaultValue = "best-effort") String mode) {
+        BatchMode batchMode = BatchMode.fromValue(mode);
+        List<EventResult> results = accountService.handleEvents(requests, batchMode);
+        if (batchMode == BatchMode.ATOMIC) {
+            HttpStatus status = results.stream()
+                    .filter(result -> !result.isSuccess() && result.getStatus() != HttpStatus.CONFLICT.value())
+                    .findFirst()
+                    .map(result -> HttpStatus.valueOf(result.getStatus()))
+                    .orElse(HttpStatus.CREATED);
+            return ResponseEntity.status(status).body(results);
+        }
+        return ResponseEntity.ok(results);
+    }
+
+    @PostMapping(value = "/events", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamEvents(InputStream body, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        eventStreamProcessor.process(body, response.getOutputStream());
+    }
+
+    @PostMapping("/accounts/{id}/holds")
+    public ResponseEntity<HoldResponse> placeHold(
+            @PathVariable("id") String accountId,
+            @RequestParam("amount") BigDecimal amount,
+            @RequestParam(value = "ttl_seconds", required = false) Long ttlSeconds) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(accountService.placeHold(accountId, amount, ttlSeconds));
+    }
+
+    @PostMapping("/holds/{id}/capture")
+    public ResponseEntity<EventResponse> captureHold(
+            @PathVariable("id") String holdId,
+            @RequestParam(value = "amount", required = false) BigDecimal amount) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(accountService.captureHold(holdId, amount));
+    }
+
+    @DeleteMapping("/holds/{id}")
+    public ResponseEntity<HoldResponse> releaseHold(@PathVariable("id") String holdId) {
+        return ResponseEntity.ok(accountService.releaseHold(holdId));
+    }
+
+    @PostMapping("/accounts/import")
+    public ResponseEntity<BulkResponse> importAccounts(
+            @RequestParam("file") String file,
+            @RequestParam(value = "format", defaultValue = "csv") String format) throws IOException {
+        return ResponseEntity.ok(bulkAccountService.importAccounts(file, format));
+    }
+
+    @PostMapping("/accounts/export")
+    public ResponseEntity<BulkResponse> exportAccounts(
+            @RequestParam("file") String file,
+            @RequestParam(value = "format", defaultValue = "csv") String format) throws IOException {
+        return ResponseEntity.ok(bulkAccountService.exportAccounts(file, format));
     }
 
     @PostMapping("/reset")
@@ -35,4 +153,16 @@ public class AccountController {
         accountService.reset();
         return ResponseEntity.ok().build();
     }
+
+    private byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String fingerprint(EventRequest request) {
+        return request.getType() + '|' + request.getOrigin() + '|' + request.getDestination() + '|' + request.getAmount();
+    }
 }
@@ -0,0 +1,17 @@
+package com.example.coreBanking.dto;
+
+import com.example.coreBanking.model.AccountView;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ledger-wide figures: the money held by all accounts, the number and volume of events per type, and the
+ * accounts with the highest balances, highest first.
+ */
+public record AggregatesResponse(BigDecimal totalBalance, Map<String, Flow> flows, List<AccountView> topBalances) {
+
+    public record Flow(long count, BigDecimal amount) {
+    }
+}
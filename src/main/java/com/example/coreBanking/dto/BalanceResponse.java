@@ -1,9 +1,9 @@
 package com.example.coreBanking.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 import java.math.BigDecimal;
 
-public class BalanceResponse {
-    private BigDecimal balance;
-    public BalanceResponse(BigDecimal balance) { this.balance = balance; }
-    public BigDecimal getBalance() { return balance; }
+@JsonSerialize(using = ResponseSerializers.BalanceSerializer.class)
+public record BalanceResponse(BigDecimal balance) {
 }
@@ -0,0 +1,25 @@
+package com.example.coreBanking.dto;
+
+public enum BatchMode {
+    ATOMIC("atomic"),
+    BEST_EFFORT("best-effort");
+
+    private final String value;
+
+    BatchMode(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public static BatchMode fromValue(String value) {
+        for (BatchMode mode : values()) {
+            if (mode.value.equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Invalid batch mode");
+    }
+}
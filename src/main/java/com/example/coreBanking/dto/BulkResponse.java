@@ -0,0 +1,8 @@
+package com.example.coreBanking.dto;
+
+/**
+ * Outcome of a bulk import or export: the file, relative to the bulk directory, and how many accounts it
+ * held.
+ */
+public record BulkResponse(String file, String format, long accounts, long elapsedMillis) {
+}
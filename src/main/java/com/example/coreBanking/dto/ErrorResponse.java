@@ -0,0 +1,10 @@
+package com.example.coreBanking.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Body of every error response. Fields are written in the order clients have always received them.
+ */
+@JsonSerialize(using = ResponseSerializers.ErrorSerializer.class)
+public record ErrorResponse(int status, String error, String message, String path) {
+}
@@ -1,5 +1,9 @@
 package com.example.coreBanking.dto;
 
+import com.example.coreBanking.exception.InvalidEventException;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.math.BigDecimal;
 
 public class EventRequest {
@@ -7,6 +11,8 @@ public class EventRequest {
     private String origin;
     private String destination;
     private BigDecimal amount;
+    private EventType eventType;
+    private InvalidEventException invalid;
 
     public EventRequest(String type, String origin, String destination, BigDecimal amount) {
         this.type = type;
@@ -15,6 +21,49 @@ public class EventRequest {
         this.amount = amount;
     }
 
+    /**
+     * Decodes and validates a request in one go, so the engines never see one they must check again. An
+     * invalid request still decodes; it is rejected by {@link #eventType()}, which lets a batch report it
+     * as one failed event rather than failing as a whole.
+     */
+    @JsonCreator
+    public static EventRequest decode(@JsonProperty("type") String type, @JsonProperty("origin") String origin,
+                                      @JsonProperty("destination") String destination,
+                                      @JsonProperty("amount") BigDecimal amount) {
+        EventRequest request = new EventRequest(type, origin, destination, amount);
+        request.validate();
+        return request;
+    }
+
+    /**
+     * The validated type of this event.
+     *
+     * @throws InvalidEventException if the type is unknown or a field it needs is missing or out of range
+     */
+    public EventType eventType() {
+        EventType resolved = eventType;
+        if (resolved == null) {
+            if (invalid == null) {
+                validate();
+            }
+            if (invalid != null) {
+                throw invalid;
+            }
+            resolved = eventType;
+        }
+        return resolved;
+    }
+
+    private void validate() {
+        EventType resolved = EventType.find(type);
+        InvalidEventException problem = resolved == null ? InvalidEventException.INVALID_TYPE : resolved.problemWith(this);
+        if (problem == null) {
+            eventType = resolved;
+        } else {
+            invalid = problem;
+        }
+    }
+
     public String getType() {
         return type;
     }
@@ -33,18 +82,26 @@ public class EventRequest {
 
     public void setAmount(BigDecimal amount) {
         this.amount = amount;
+        eventType = null;
+        invalid = null;
     }
 
     public void setDestination(String destination) {
         this.destination = destination;
+        eventType = null;
+        invalid = null;
     }
 
     public void setOrigin(String origin) {
         this.origin = origin;
+        eventType = null;
+        invalid = null;
     }
 
     public void setType(String type) {
         this.type = type;
+        eventType = null;
+        invalid = null;
     }
 }
 
@@ -0,0 +1,33 @@
+package com.example.coreBanking.dto;
+
+import com.example.coreBanking.model.AccountView;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Result of a single event: {@code {"origin": {...}, "destination": {...}}}, with the side the event did
+ * not touch left out.
+ */
+@JsonSerialize(using = ResponseSerializers.EventSerializer.class)
+public record EventResponse(AccountView origin, AccountView destination) {
+
+    public static EventResponse origin(AccountView origin) {
+        return new EventResponse(origin, null);
+    }
+
+    public static EventResponse destination(AccountView destination) {
+        return new EventResponse(null, destination);
+    }
+
+    /**
+     * The accounts the event touched, for the journal.
+     */
+    public AccountView[] accounts() {
+        if (origin == null) {
+            return new AccountView[]{destination};
+        }
+        if (destination == null) {
+            return new AccountView[]{origin};
+        }
+        return new AccountView[]{origin, destination};
+    }
+}
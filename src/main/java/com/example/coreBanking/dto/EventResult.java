@@ -0,0 +1,72 @@
+package com.example.coreBanking.dto;
+
+import com.example.coreBanking.exception.AccountNotFoundException;
+import com.example.coreBanking.exception.HoldNotFoundException;
+import com.example.coreBanking.exception.InsufficientFundsException;
+import com.example.coreBanking.exception.InvalidOperationException;
+import com.example.coreBanking.exception.LedgerUnavailableException;
+import com.example.coreBanking.exception.TooManyRequestsException;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.http.HttpStatus;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EventResult {
+    private final int status;
+    private final EventResponse result;
+    private final String error;
+    private final String message;
+
+    private EventResult(int status, EventResponse result, String error, String message) {
+        this.status = status;
+        this.result = result;
+        this.error = error;
+        this.message = message;
+    }
+
+    public static EventResult success(EventResponse result) {
+        return new EventResult(HttpStatus.CREATED.value(), result, null, null);
+    }
+
+    public static EventResult aborted() {
+        return new EventResult(HttpStatus.CONFLICT.value(), null, "Aborted", "Batch was rolled back");
+    }
+
+    /**
+     * The status and error a single event failing with {@code e} would get from
+     * {@link com.example.coreBanking.exception.GlobalExceptionHandler}.
+     */
+    public static EventResult failure(RuntimeException e) {
+        if (e instanceof AccountNotFoundException) {
+            return new EventResult(HttpStatus.NOT_FOUND.value(), null, "Account Not Found", e.getMessage());
+        }
+        if (e instanceof HoldNotFoundException) {
+            return new EventResult(HttpStatus.NOT_FOUND.value(), null, "Hold Not Found", e.getMessage());
+        }
+        if (e instanceof InsufficientFundsException) {
+            return new EventResult(HttpStatus.BAD_REQUEST.value(), null, "Insufficient Funds", e.getMessage());
+        }
+        if (e instanceof IllegalArgumentException) {
+            return new EventResult(HttpStatus.BAD_REQUEST.value(), null, "Invalid Argument", e.getMessage());
+        }
+        if (e instanceof InvalidOperationException) {
+            return new EventResult(HttpStatus.CONFLICT.value(), null, "Invalid Operation", e.getMessage());
+        }
+        if (e instanceof LedgerUnavailableException) {
+            return new EventResult(HttpStatus.SERVICE_UNAVAILABLE.value(), null, "Service Unavailable", e.getMessage());
+        }
+        if (e instanceof TooManyRequestsException) {
+            return new EventResult(HttpStatus.TOO_MANY_REQUESTS.value(), null, "Too Many Requests", e.getMessage());
+        }
+        return new EventResult(HttpStatus.INTERNAL_SERVER_ERROR.value(), null, "Internal Server Error",
+                "An unexpected error occurred");
+    }
+
+    public int getStatus() { return status; }
+    public EventResponse getResult() { return result; }
+    public String getError() { return error; }
+    public String getMessage() { return message; }
+
+    @JsonIgnore
+    public boolean isSuccess() { return status == HttpStatus.CREATED.value(); }
+}
@@ -0,0 +1,146 @@
+package com.example.coreBanking.dto;
+
+import com.example.coreBanking.exception.InvalidEventException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An operation the ledger applies, declared by the {@link com.example.coreBanking.service.EventHandler}
+ * that applies it: its name in requests, the code it is stored and sent under, and the accounts it needs.
+ * The engines lock, route, record and dispatch by these rather than by name, so a new operation is a new
+ * handler declaring a new type, and nothing else.
+ * <p>
+ * Codes identify the type in transaction history segments and binary protocol frames, so they must stay
+ * the same across releases; code {@value #BALANCE_CODE} is the binary protocol's balance request.
+ */
+public final class EventType {
+
+    public static final int MAX_CODE = Byte.MAX_VALUE;
+    private static final int BALANCE_CODE = 4;
+    // Keeps every amount, and any balance summed from them, well inside what the journal can encode.
+    private static final int MAX_INTEGER_DIGITS = 38;
+    private static final int MAX_SCALE = 18;
+
+    private static final Map<String, EventType> BY_VALUE = new ConcurrentHashMap<>();
+    private static volatile EventType[] byCode = new EventType[MAX_CODE + 1];
+
+    public static final EventType DEPOSIT = define("deposit", 1, false, true);
+    public static final EventType WITHDRAW = define("withdraw", 2, true, false);
+    public static final EventType TRANSFER = define("transfer", 3, true, true);
+
+    private final String value;
+    private final byte code;
+    private final boolean needsOrigin;
+    private final boolean needsDestination;
+
+    private EventType(String value, byte code, boolean needsOrigin, boolean needsDestination) {
+        this.value = value;
+        this.code = code;
+        this.needsOrigin = needsOrigin;
+        this.needsDestination = needsDestination;
+    }
+
+    /**
+     * Declares a type, or returns the one already declared with the same name and settings.
+     *
+     * @throws IllegalArgumentException if the name or code is taken by a different type
+     */
+    public static synchronized EventType define(String value, int code, boolean needsOrigin, boolean needsDestination) {
+        if (code < 1 || code > MAX_CODE || code == BALANCE_CODE) {
+            throw new IllegalArgumentException("Event type code must be between 1 and " + MAX_CODE
+                    + " and not " + BALANCE_CODE);
+        }
+        if (!needsOrigin && !needsDestination) {
+            throw new IllegalArgumentException("An event type needs an origin, a destination or both");
+        }
+        EventType existing = byCode[code];
+        EventType named = BY_VALUE.get(value);
+        if (existing != null && existing == named && existing.needsOrigin == needsOrigin
+                && existing.needsDestination == needsDestination) {
+            return existing;
+        }
+        if (existing != null || named != null) {
+            throw new IllegalArgumentException("Event type " + value + " or code " + code + " is already declared");
+        }
+        EventType type = new EventType(value, (byte) code, needsOrigin, needsDestination);
+        EventType[] grown = byCode.clone();
+        grown[code] = type;
+        BY_VALUE.put(value, type);
+        byCode = grown;
+        return type;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public byte code() {
+        return code;
+    }
+
+    public boolean needsOrigin() {
+        return needsOrigin;
+    }
+
+    public boolean needsDestination() {
+        return needsDestination;
+    }
+
+    /**
+     * @return the type named {@code value}, or null if there is none
+     */
+    public static EventType find(String value) {
+        return value == null ? null : BY_VALUE.get(value);
+    }
+
+    /**
+     * @return the type stored under {@code code}, or null if there is none
+     */
+    public static EventType forCode(int code) {
+        return code < 0 || code > MAX_CODE ? null : byCode[code];
+    }
+
+    /**
+     * @return every declared type, in code order
+     */
+    public static List<EventType> values() {
+        List<EventType> types = new ArrayList<>();
+        for (EventType type : byCode) {
+            if (type != null) {
+                types.add(type);
+            }
+        }
+        return types;
+    }
+
+    /**
+     * @return why {@code request} is not a valid event of this type, or null if it is
+     */
+    InvalidEventException problemWith(EventRequest request) {
+        if (request.getAmount() == null) {
+            return InvalidEventException.MISSING_AMOUNT;
+        }
+        if (request.getAmount().signum() < 0) {
+            return InvalidEventException.NEGATIVE_AMOUNT;
+        }
+        if (request.getAmount().scale() > MAX_SCALE
+                || request.getAmount().precision() - request.getAmount().scale() > MAX_INTEGER_DIGITS) {
+            return InvalidEventException.AMOUNT_OUT_OF_RANGE;
+        }
+        if (needsOrigin && request.getOrigin() == null) {
+            return InvalidEventException.MISSING_ORIGIN;
+        }
+        if (needsDestination && request.getDestination() == null) {
+            return InvalidEventException.MISSING_DESTINATION;
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
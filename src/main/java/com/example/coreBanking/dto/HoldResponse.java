@@ -0,0 +1,10 @@
+package com.example.coreBanking.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A hold as placed or released, with the account's available balance right after.
+ */
+public record HoldResponse(String id, String account, BigDecimal amount, Instant expiresAt, BigDecimal available) {
+}
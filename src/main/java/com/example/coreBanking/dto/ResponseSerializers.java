@@ -0,0 +1,79 @@
+package com.example.coreBanking.dto;
+
+import com.example.coreBanking.model.AccountView;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+/**
+ * Hand-written writers for the response types. They emit the same JSON Jackson's reflective serializers
+ * did, straight to the generator and with field names encoded once.
+ */
+public final class ResponseSerializers {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString BALANCE = new SerializedString("balance");
+    private static final SerializedString ORIGIN = new SerializedString("origin");
+    private static final SerializedString DESTINATION = new SerializedString("destination");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString ERROR = new SerializedString("error");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+    private static final SerializedString PATH = new SerializedString("path");
+
+    private ResponseSerializers() {
+    }
+
+    public static final class BalanceSerializer extends JsonSerializer<BalanceResponse> {
+        @Override
+        public void serialize(BalanceResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            gen.writeFieldName(BALANCE);
+            gen.writeNumber(value.balance());
+            gen.writeEndObject();
+        }
+    }
+
+    public static final class EventSerializer extends JsonSerializer<EventResponse> {
+        @Override
+        public void serialize(EventResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            if (value.origin() != null) {
+                gen.writeFieldName(ORIGIN);
+                writeAccount(gen, value.origin());
+            }
+            if (value.destination() != null) {
+                gen.writeFieldName(DESTINATION);
+                writeAccount(gen, value.destination());
+            }
+            gen.writeEndObject();
+        }
+
+        private static void writeAccount(JsonGenerator gen, AccountView account) throws IOException {
+            gen.writeStartObject(account);
+            gen.writeFieldName(ID);
+            gen.writeString(account.id());
+            gen.writeFieldName(BALANCE);
+            gen.writeNumber(account.balance());
+            gen.writeEndObject();
+        }
+    }
+
+    public static final class ErrorSerializer extends JsonSerializer<ErrorResponse> {
+        @Override
+        public void serialize(ErrorResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            gen.writeFieldName(PATH);
+            gen.writeString(value.path());
+            gen.writeFieldName(ERROR);
+            gen.writeString(value.error());
+            gen.writeFieldName(MESSAGE);
+            gen.writeString(value.message());
+            gen.writeFieldName(STATUS);
+            gen.writeNumber(value.status());
+            gen.writeEndObject();
+        }
+    }
+}
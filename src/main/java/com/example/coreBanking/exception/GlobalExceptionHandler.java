@@ -1,66 +1,132 @@
 package com.example.coreBanking.exception;
 
+import com.example.coreBanking.dto.ErrorResponse;
+import com.example.coreBanking.metrics.LedgerMetrics;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Error bodies are serialized once per distinct status, message and path and then reused; the cache stops
+ * growing at {@link #MAX_CACHED_RESPONSES} entries, after which new combinations are serialized per request.
+ */
 @ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GlobalExceptionHandler {
 
+    static final int MAX_CACHED_RESPONSES = 1024;
+    static final String RETRY_AFTER_SECONDS = "1";
+
+    private final LedgerMetrics ledgerMetrics;
+    private final ObjectMapper objectMapper;
+    private final ConcurrentHashMap<ErrorResponse, ResponseEntity<byte[]>> cachedResponses = new ConcurrentHashMap<>();
+
+    @Autowired
+    public GlobalExceptionHandler(LedgerMetrics ledgerMetrics, ObjectMapper objectMapper) {
+        this.ledgerMetrics = ledgerMetrics;
+        this.objectMapper = objectMapper;
+    }
+
     @ExceptionHandler(AccountNotFoundException.class)
-    public ResponseEntity<Map<String, Object>> handleAccountNotFoundException(
+    public ResponseEntity<byte[]> handleAccountNotFoundException(
             AccountNotFoundException ex, WebRequest request) {
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("status", HttpStatus.NOT_FOUND.value());
-        response.put("error", "Account Not Found");
-        response.put("message", ex.getMessage());
-        response.put("path", request.getDescription(false));
+        ledgerMetrics.recordError(ex);
+        return respond(HttpStatus.NOT_FOUND, "Account Not Found", ex.getMessage(), request);
+    }
 
-        return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+    @ExceptionHandler(HoldNotFoundException.class)
+    public ResponseEntity<byte[]> handleHoldNotFoundException(
+            HoldNotFoundException ex, WebRequest request) {
+
+        ledgerMetrics.recordError(ex);
+        return respond(HttpStatus.NOT_FOUND, "Hold Not Found", ex.getMessage(), request);
     }
 
     @ExceptionHandler(InsufficientFundsException.class)
-    public ResponseEntity<Map<String, Object>> handleInsufficientFundsException(
+    public ResponseEntity<byte[]> handleInsufficientFundsException(
             InsufficientFundsException ex, WebRequest request) {
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("status", HttpStatus.BAD_REQUEST.value());
-        response.put("error", "Insufficient Funds");
-        response.put("message", ex.getMessage());
-        response.put("path", request.getDescription(false));
-
-        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        ledgerMetrics.recordError(ex);
+        return respond(HttpStatus.BAD_REQUEST, "Insufficient Funds", ex.getMessage(), request);
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<Map<String, Object>> handleIllegalArgumentException(
+    public ResponseEntity<byte[]> handleIllegalArgumentException(
             IllegalArgumentException ex, WebRequest request) {
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("status", HttpStatus.BAD_REQUEST.value());
-        response.put("error", "Invalid Argument");
-        response.put("message", ex.getMessage());
-        response.put("path", request.getDescription(false));
+        ledgerMetrics.recordError(ex);
+        return respond(HttpStatus.BAD_REQUEST, "Invalid Argument", ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(InvalidOperationException.class)
+    public ResponseEntity<byte[]> handleInvalidOperationException(
+            InvalidOperationException ex, WebRequest request) {
 
-        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        ledgerMetrics.recordError(ex);
+        return respond(HttpStatus.CONFLICT, "Invalid Operation", ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(LedgerUnavailableException.class)
+    public ResponseEntity<byte[]> handleLedgerUnavailableException(
+            LedgerUnavailableException ex, WebRequest request) {
+
+        ledgerMetrics.recordError(ex);
+        // Messages name the node or transaction involved, so these bodies are not worth caching.
+        ErrorResponse body = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable",
+                ex.getMessage(), request.getDescription(false));
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(serialize(body));
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<byte[]> handleHttpMessageNotReadableException(
+            HttpMessageNotReadableException ex, WebRequest request) {
+
+        ledgerMetrics.recordError(ex);
+        return respond(HttpStatus.BAD_REQUEST, "Invalid Argument", "Malformed request body", request);
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, Object>> handleGeneralException(
+    public ResponseEntity<byte[]> handleGeneralException(
             Exception ex, WebRequest request) {
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
-        response.put("error", "Internal Server Error");
-        response.put("message", "An unexpected error occurred");
-        response.put("path", request.getDescription(false));
+        ledgerMetrics.recordError(ex);
+        return respond(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error", "An unexpected error occurred", request);
+    }
+
+    private ResponseEntity<byte[]> respond(HttpStatus status, String error, String message, WebRequest request) {
+        ErrorResponse body = new ErrorResponse(status.value(), error, message, request.getDescription(false));
+        ResponseEntity<byte[]> response = cachedResponses.get(body);
+        if (response != null) {
+            return response;
+        }
+        response = ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(serialize(body));
+        if (cachedResponses.size() < MAX_CACHED_RESPONSES) {
+            cachedResponses.putIfAbsent(body, response);
+        }
+        return response;
+    }
 
-        return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+    private byte[] serialize(ErrorResponse body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -0,0 +1,5 @@
+package com.example.coreBanking.exception;
+
+public class HoldNotFoundException extends RuntimeException {
+    public HoldNotFoundException(String message) { super(message); }
+}
@@ -0,0 +1,25 @@
+package com.example.coreBanking.exception;
+
+/**
+ * A request that does not describe a valid event. The instances are shared and carry no stack trace:
+ * rejecting a malformed request is expected traffic, not a bug, and should cost no more than a lookup.
+ */
+public class InvalidEventException extends IllegalArgumentException {
+
+    public static final InvalidEventException INVALID_TYPE = new InvalidEventException("Invalid event type");
+    public static final InvalidEventException MISSING_AMOUNT = new InvalidEventException("Amount is required");
+    public static final InvalidEventException NEGATIVE_AMOUNT = new InvalidEventException("Amount must not be negative");
+    public static final InvalidEventException AMOUNT_OUT_OF_RANGE = new InvalidEventException(
+            "Amount must have at most 38 digits before and 18 after the decimal point");
+    public static final InvalidEventException MISSING_ORIGIN = new InvalidEventException("Origin is required");
+    public static final InvalidEventException MISSING_DESTINATION = new InvalidEventException("Destination is required");
+
+    private InvalidEventException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.coreBanking.history;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One change to an account's balance. {@code amount} is negative for debits; {@code counterparty} is the
+ * other account of a transfer. Amounts or balances with more than 18 significant digits are not kept and
+ * come back as null.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record Transaction(Instant timestamp, String type, BigDecimal amount, String counterparty, BigDecimal balance) {
+}
@@ -0,0 +1,538 @@
+package com.example.coreBanking.history;
+
+import com.example.coreBanking.dto.EventType;
+import com.example.coreBanking.journal.EventJournal;
+import com.example.coreBanking.model.Posting;
+import com.example.coreBanking.repository.AccountRepository;
+import com.example.coreBanking.repository.AccountSet;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only record of every balance change, one fixed-size record per account touched, kept in
+ * memory-mapped segment files so history lives in the page cache rather than on the heap.
+ * <p>
+ * Each record points back to the previous record of the same account. The heap holds, per account, only
+ * the newest record and every {@value #CHECKPOINT_STRIDE}th one, so a time-range query binary-searches
+ * those checkpoints, walks back past at most {@value #CHECKPOINT_STRIDE} newer records and then reads
+ * exactly the records it returns. Records of one account are numbered and timestamped under that
+ * account's lock, so their order matches the order their balances were produced in. The locks are
+ * {@link ReentrantLock}s and no file work happens under them: segments are mapped one ahead of the one
+ * being filled, so a writer on a virtual thread never blocks its carrier on I/O.
+ * <p>
+ * Segments are not forced while running; a clean shutdown forces them. History is rebuilt from the
+ * segments on startup when the journal restores balances too, and discarded otherwise.
+ * <p>
+ * The files hold the history of one generation of accounts. The first event or read of a newer generation
+ * discards them and starts over, so no event of the new generation is lost to a reset, and changes of
+ * events still finishing on a retired generation are dropped.
+ */
+@Component
+@ConditionalOnProperty(name = "corebanking.history.enabled", havingValue = "true")
+public class TransactionHistory {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionHistory.class);
+
+    static final String SEGMENT_PREFIX = "history-";
+    static final String SEGMENT_SUFFIX = ".seg";
+    static final String ACCOUNTS_FILE = "accounts.dat";
+    static final int CHECKPOINT_STRIDE = 64;
+
+    // Record layout: long timestamp | long previous | int account | int counterparty | byte type |
+    // byte amountScale | byte balanceScale | byte flags | int unused | long amount | long balance.
+    // The timestamp is written last; zero marks a slot that was never completed.
+    static final int RECORD_SIZE = 48;
+    private static final int TIMESTAMP = 0;
+    private static final int PREVIOUS = 8;
+    private static final int ACCOUNT = 16;
+    private static final int COUNTERPARTY = 20;
+    private static final int TYPE = 24;
+    private static final int AMOUNT_SCALE = 25;
+    private static final int BALANCE_SCALE = 26;
+    private static final int FLAGS = 27;
+    private static final int AMOUNT = 32;
+    private static final int BALANCE = 40;
+    private static final byte AMOUNT_MISSING = 1;
+    private static final byte BALANCE_MISSING = 2;
+
+    private final AccountRepository accountRepository;
+    private final Path directory;
+    private final int segmentRecords;
+    private final boolean retainOnStart;
+    private volatile Store store;
+
+    /**
+     * Takes the journal only so that it has replayed before {@link #open()} reads the repository's generation.
+     */
+    @Autowired
+    public TransactionHistory(AccountRepository accountRepository, EventJournal eventJournal,
+                              @Value("${corebanking.history.dir:data/history}") String directory,
+                              @Value("${corebanking.history.segment-records:1048576}") int segmentRecords,
+                              @Value("${corebanking.journal.enabled:false}") boolean journalEnabled) {
+        if (segmentRecords <= 0 || segmentRecords > Integer.MAX_VALUE / RECORD_SIZE) {
+            throw new IllegalArgumentException("History segment size must be between 1 and "
+                    + Integer.MAX_VALUE / RECORD_SIZE + " records");
+        }
+        this.accountRepository = accountRepository;
+        this.directory = Paths.get(directory);
+        this.segmentRecords = segmentRecords;
+        this.retainOnStart = journalEnabled;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        if (!retainOnStart) {
+            deleteFiles();
+        }
+        store = load(accountRepository.generation());
+        log.info("Transaction history opened at {} with {} account(s) and {} record(s)",
+                directory, store.accounts.size(), store.nextRecord.get());
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        store.close(true);
+    }
+
+    /**
+     * Records the balance changes of an event of {@code type} applied to {@code accounts}. Must be called
+     * while the caller still excludes other writers of the accounts involved.
+     */
+    public void record(AccountSet accounts, EventType type, List<Posting> postings) {
+        for (Posting posting : postings) {
+            record(accounts, type, posting);
+        }
+    }
+
+    /**
+     * Records one balance change of an account in {@code accounts}, stored under the code of {@code type}.
+     */
+    public void record(AccountSet accounts, EventType type, Posting posting) {
+        BigDecimal amount = posting.amount();
+        BigDecimal balance = posting.balance();
+        try {
+            Store current = store(accounts.generation());
+            if (current == null) {
+                return;
+            }
+            AccountIndex index = current.index(posting.accountId());
+            int counterpartyNumber = posting.counterparty() == null ? -1 : current.index(posting.counterparty()).number;
+            long record;
+            while (true) {
+                index.lock.lock();
+                try {
+                    long timestamp = Math.max(System.currentTimeMillis(), index.lastTimestamp);
+                    record = current.nextRecord.getAndIncrement();
+                    MappedByteBuffer segment = current.mapped((int) (record / segmentRecords));
+                    if (segment != null) {
+                        int offset = (int) (record % segmentRecords) * RECORD_SIZE;
+                        byte flags = 0;
+                        segment.putLong(offset + PREVIOUS, index.head);
+                        segment.putInt(offset + ACCOUNT, index.number);
+                        segment.putInt(offset + COUNTERPARTY, counterpartyNumber);
+                        segment.put(offset + TYPE, type.code());
+                        if (fits(amount)) {
+                            segment.putLong(offset + AMOUNT, amount.unscaledValue().longValue());
+                            segment.put(offset + AMOUNT_SCALE, (byte) amount.scale());
+                        } else {
+                            flags |= AMOUNT_MISSING;
+                        }
+                        if (fits(balance)) {
+                            segment.putLong(offset + BALANCE, balance.unscaledValue().longValue());
+                            segment.put(offset + BALANCE_SCALE, (byte) balance.scale());
+                        } else {
+                            flags |= BALANCE_MISSING;
+                        }
+                        segment.put(offset + FLAGS, flags);
+                        segment.putLong(offset + TIMESTAMP, timestamp);
+                        index.append(record, timestamp);
+                        break;
+                    }
+                } finally {
+                    index.lock.unlock();
+                }
+                // Writers outran the segment mapped ahead. The slot stays empty, like a torn record's, and
+                // the record takes the next one once the segment is mapped.
+                if (current.map((int) (record / segmentRecords)) == null) {
+                    return;
+                }
+            }
+            if (record % segmentRecords == 0) {
+                current.map((int) (record / segmentRecords) + 1);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("History write failed", e);
+        }
+    }
+
+    /**
+     * The account's changes with {@code from <= timestamp < to}, oldest first. Either bound may be null.
+     */
+    public List<Transaction> find(String accountId, Instant from, Instant to) {
+        Store current = current();
+        AccountIndex index = current == null ? null : current.accounts.get(accountId);
+        if (index == null) {
+            return List.of();
+        }
+        long record;
+        int count;
+        long[] checkpoints;
+        index.lock.lock();
+        try {
+            record = index.head;
+            count = index.count;
+            checkpoints = index.checkpoints;
+        } finally {
+            index.lock.unlock();
+        }
+        long fromMillis = from == null ? Long.MIN_VALUE : from.toEpochMilli();
+        long toMillis = to == null ? Long.MAX_VALUE : to.toEpochMilli();
+        MappedByteBuffer[] segments = current.segments;
+
+        // First checkpoint at or after the end of the range; walking back from it skips fewer than a stride.
+        int low = 0;
+        int high = (count + CHECKPOINT_STRIDE - 1) / CHECKPOINT_STRIDE;
+        int used = high;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            long checkpoint = checkpoints[middle];
+            if (segments[(int) (checkpoint / segmentRecords)].getLong(offset(checkpoint)) >= toMillis) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        if (low < used) {
+            record = checkpoints[low];
+        }
+
+        List<Transaction> transactions = new ArrayList<>();
+        while (record >= 0) {
+            MappedByteBuffer segment = segments[(int) (record / segmentRecords)];
+            int offset = offset(record);
+            long timestamp = segment.getLong(offset + TIMESTAMP);
+            if (timestamp < fromMillis) {
+                break;
+            }
+            if (timestamp < toMillis) {
+                transactions.add(decode(current, segment, offset, timestamp));
+            }
+            record = segment.getLong(offset + PREVIOUS);
+        }
+        Collections.reverse(transactions);
+        return transactions;
+    }
+
+    /**
+     * Moves on to the repository's current generation, forgetting the history of earlier ones. The new
+     * generation's first event would do so too; calling this right after a reset keeps the file work off
+     * the event path.
+     */
+    public void advance() {
+        current();
+    }
+
+    /**
+     * The files of the repository's current generation, or null if a reset has just replaced it.
+     */
+    private Store current() {
+        try {
+            return store(accountRepository.generation());
+        } catch (IOException e) {
+            throw new UncheckedIOException("History reset failed", e);
+        }
+    }
+
+    /**
+     * The files of {@code generation}, started over if it is newer than theirs, or null if it was retired.
+     */
+    private Store store(long generation) throws IOException {
+        Store current = store;
+        if (current.generation < generation) {
+            current = startOver(generation);
+        }
+        return current.generation == generation ? current : null;
+    }
+
+    private synchronized Store startOver(long generation) throws IOException {
+        Store current = store;
+        if (current.generation < generation) {
+            current.close(false);
+            deleteFiles();
+            store = current = load(generation);
+        }
+        return current;
+    }
+
+    public long recordCount() {
+        Store current = current();
+        return current == null ? 0 : current.nextRecord.get();
+    }
+
+    private int offset(long record) {
+        return (int) (record % segmentRecords) * RECORD_SIZE;
+    }
+
+    private static Transaction decode(Store store, ByteBuffer segment, int offset, long timestamp) {
+        byte flags = segment.get(offset + FLAGS);
+        int counterparty = segment.getInt(offset + COUNTERPARTY);
+        BigDecimal amount = (flags & AMOUNT_MISSING) != 0 ? null
+                : BigDecimal.valueOf(segment.getLong(offset + AMOUNT), segment.get(offset + AMOUNT_SCALE));
+        BigDecimal balance = (flags & BALANCE_MISSING) != 0 ? null
+                : BigDecimal.valueOf(segment.getLong(offset + BALANCE), segment.get(offset + BALANCE_SCALE));
+        EventType type = EventType.forCode(segment.get(offset + TYPE));
+        return new Transaction(Instant.ofEpochMilli(timestamp), type == null ? null : type.getValue(), amount,
+                counterparty < 0 ? null : store.id(counterparty), balance);
+    }
+
+    private static boolean fits(BigDecimal value) {
+        return value != null && value.unscaledValue().bitLength() < Long.SIZE
+                && value.scale() >= Byte.MIN_VALUE && value.scale() <= Byte.MAX_VALUE;
+    }
+
+    private Store load(long generation) throws IOException {
+        Store loaded = new Store(generation, FileChannel.open(directory.resolve(ACCOUNTS_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        List<AccountIndex> byNumber = loaded.readAccounts();
+        List<Path> files = segmentFiles();
+        long next = 0;
+        for (int number = 0; number < files.size(); number++) {
+            if (!files.get(number).equals(segmentPath(number))) {
+                throw new IllegalStateException("Missing history segment " + segmentPath(number));
+            }
+            MappedByteBuffer segment = loaded.map(number);
+            for (int slot = 0; slot < segmentRecords; slot++) {
+                int offset = slot * RECORD_SIZE;
+                long timestamp = segment.getLong(offset + TIMESTAMP);
+                if (timestamp == 0) {
+                    continue;
+                }
+                long record = (long) number * segmentRecords + slot;
+                byNumber.get(segment.getInt(offset + ACCOUNT)).append(record, timestamp);
+                next = record + 1;
+            }
+        }
+        loaded.nextRecord.set(next);
+        // One ahead of the segment being filled, as record() keeps it.
+        loaded.map((int) (next / segmentRecords) + 1);
+        return loaded;
+    }
+
+    private void deleteFiles() throws IOException {
+        for (Path segment : segmentFiles()) {
+            Files.delete(segment);
+        }
+        Files.deleteIfExists(directory.resolve(ACCOUNTS_FILE));
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(int number) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * The heap side of one account's history: its newest record and the record number of every
+     * {@value #CHECKPOINT_STRIDE}th one. Guarded by its own lock.
+     */
+    private static final class AccountIndex {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int number;
+        private long head = -1;
+        private long lastTimestamp;
+        private int count;
+        private long[] checkpoints = new long[1];
+
+        private AccountIndex(int number) {
+            this.number = number;
+        }
+
+        private void append(long record, long timestamp) {
+            if (count % CHECKPOINT_STRIDE == 0) {
+                int slot = count / CHECKPOINT_STRIDE;
+                if (slot == checkpoints.length) {
+                    checkpoints = Arrays.copyOf(checkpoints, slot * 2);
+                }
+                checkpoints[slot] = record;
+            }
+            head = record;
+            lastTimestamp = timestamp;
+            count++;
+        }
+    }
+
+    /**
+     * The files of one generation of accounts; the first use of a newer generation closes them and starts
+     * the next. Registering accounts and mapping segments are guarded by its lock and become no-ops once
+     * it is closed.
+     */
+    private final class Store {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final long generation;
+        private final ConcurrentHashMap<String, AccountIndex> accounts = new ConcurrentHashMap<>();
+        private final List<String> ids = new ArrayList<>();
+        private final AtomicLong nextRecord = new AtomicLong();
+        private final FileChannel dictionary;
+        private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+        private boolean closed;
+
+        private Store(long generation, FileChannel dictionary) {
+            this.generation = generation;
+            this.dictionary = dictionary;
+        }
+
+        private AccountIndex index(String accountId) throws IOException {
+            AccountIndex index = accounts.get(accountId);
+            return index != null ? index : register(accountId);
+        }
+
+        private AccountIndex register(String accountId) throws IOException {
+            lock.lock();
+            try {
+                AccountIndex index = accounts.get(accountId);
+                if (index != null) {
+                    return index;
+                }
+                index = new AccountIndex(ids.size());
+                if (!closed) {
+                    byte[] bytes = accountId.getBytes(StandardCharsets.UTF_8);
+                    ByteBuffer entry = ByteBuffer.allocate(Short.BYTES + bytes.length);
+                    entry.putShort((short) bytes.length).put(bytes).flip();
+                    while (entry.hasRemaining()) {
+                        dictionary.write(entry);
+                    }
+                }
+                ids.add(accountId);
+                accounts.put(accountId, index);
+                return index;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private String id(int number) {
+            lock.lock();
+            try {
+                return ids.get(number);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return the segment if it is mapped already, otherwise null
+         */
+        private MappedByteBuffer mapped(int number) {
+            MappedByteBuffer[] mapped = segments;
+            return number < mapped.length ? mapped[number] : null;
+        }
+
+        /**
+         * Maps every segment up to {@code number}, creating their files.
+         *
+         * @return the segment, or null if the store is closed
+         */
+        private MappedByteBuffer map(int number) throws IOException {
+            lock.lock();
+            try {
+                if (closed) {
+                    return null;
+                }
+                MappedByteBuffer[] mapped = segments;
+                while (mapped.length <= number) {
+                    try (FileChannel file = FileChannel.open(segmentPath(mapped.length), StandardOpenOption.CREATE,
+                            StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                        mapped = Arrays.copyOf(mapped, mapped.length + 1);
+                        mapped[mapped.length - 1] = file.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentRecords * RECORD_SIZE);
+                    }
+                }
+                segments = mapped;
+                return mapped[number];
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Reads the account dictionary, dropping a torn last entry, and leaves the channel at its end.
+         */
+        private List<AccountIndex> readAccounts() throws IOException {
+            ByteBuffer contents = ByteBuffer.allocate((int) dictionary.size());
+            while (contents.hasRemaining() && dictionary.read(contents) >= 0) {
+                // keep reading
+            }
+            contents.flip();
+            List<AccountIndex> byNumber = new ArrayList<>();
+            while (contents.remaining() >= Short.BYTES) {
+                int length = contents.getShort(contents.position());
+                if (contents.remaining() < Short.BYTES + length) {
+                    break;
+                }
+                contents.getShort();
+                byte[] bytes = new byte[length];
+                contents.get(bytes);
+                AccountIndex index = new AccountIndex(ids.size());
+                ids.add(new String(bytes, StandardCharsets.UTF_8));
+                accounts.put(ids.get(index.number), index);
+                byNumber.add(index);
+            }
+            dictionary.truncate(contents.position());
+            dictionary.position(contents.position());
+            return byNumber;
+        }
+
+        private void close(boolean force) throws IOException {
+            lock.lock();
+            try {
+                closed = true;
+                if (force) {
+                    for (MappedByteBuffer segment : segments) {
+                        segment.force();
+                    }
+                }
+                dictionary.close();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.coreBanking.idempotency;
+
+import com.example.coreBanking.exception.AccountNotFoundException;
+import com.example.coreBanking.exception.InsufficientFundsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of requests sent with an {@code Idempotency-Key} so retries get the original
+ * response instead of being applied again.
+ * <p>
+ * A hit is a single map read. The first request for a key installs a pending entry with
+ * {@code putIfAbsent}, so concurrent duplicates wait for that one execution instead of running their own.
+ * Entries live for a fixed TTL and are kept in insertion order, which is also expiry order, so
+ * eviction only ever looks at the oldest entries. Business failures are remembered like responses;
+ * unexpected failures are forgotten so the client can retry.
+ */
+@Component
+public class IdempotencyCache {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong bytes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long ttlNanos;
+
+    public IdempotencyCache(@Value("${corebanking.idempotency.max-entries:100000}") int maxEntries,
+                            @Value("${corebanking.idempotency.max-bytes:67108864}") long maxBytes,
+                            @Value("${corebanking.idempotency.ttl-seconds:86400}") long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    /**
+     * Runs the action once per key and returns its serialized response, or the response of the earlier
+     * run with the same key.
+     *
+     * @param fingerprint identifies the request; reusing a key for a different request is rejected
+     */
+    public IdempotentResponse execute(String key, String fingerprint, Supplier<byte[]> action) {
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        while (true) {
+            long now = System.nanoTime();
+            Entry existing = entries.get(key);
+            if (existing != null) {
+                if (now - existing.expiresAt < 0) {
+                    hits.increment();
+                    return new IdempotentResponse(existing.await(fingerprint), true);
+                }
+                if (entries.remove(key, existing)) {
+                    expirations.increment();
+                }
+                continue;
+            }
+            Entry created = new Entry(key, fingerprint, now + ttlNanos);
+            if (entries.putIfAbsent(key, created) != null) {
+                continue;
+            }
+            misses.increment();
+            return new IdempotentResponse(run(created, action), false);
+        }
+    }
+
+    public IdempotencyStats stats() {
+        return new IdempotencyStats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(),
+                entries.size(), bytes.get());
+    }
+
+    private byte[] run(Entry entry, Supplier<byte[]> action) {
+        byte[] body;
+        try {
+            body = action.get();
+        } catch (AccountNotFoundException | InsufficientFundsException | IllegalArgumentException e) {
+            entry.response.completeExceptionally(e);
+            track(entry, 0);
+            throw e;
+        } catch (RuntimeException | Error e) {
+            entries.remove(entry.key, entry);
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+        entry.response.complete(body);
+        track(entry, body.length);
+        return body;
+    }
+
+    private void track(Entry entry, int length) {
+        entry.length = length;
+        insertionOrder.add(entry);
+        size.incrementAndGet();
+        bytes.addAndGet(length);
+        evictExcess();
+    }
+
+    private void evictExcess() {
+        long now = System.nanoTime();
+        Entry oldest;
+        while ((oldest = insertionOrder.peek()) != null
+                && (size.get() > maxEntries || bytes.get() > maxBytes || now - oldest.expiresAt >= 0)) {
+            if (!insertionOrder.remove(oldest)) {
+                continue;
+            }
+            size.decrementAndGet();
+            bytes.addAndGet(-oldest.length);
+            if (entries.remove(oldest.key, oldest)) {
+                if (now - oldest.expiresAt >= 0) {
+                    expirations.increment();
+                } else {
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final String fingerprint;
+        private final long expiresAt;
+        private final CompletableFuture<byte[]> response = new CompletableFuture<>();
+        private int length;
+
+        private Entry(String key, String fingerprint, long expiresAt) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+        private byte[] await(String requestFingerprint) {
+            if (!fingerprint.equals(requestFingerprint)) {
+                throw new IllegalArgumentException("Idempotency-Key was already used for a different request");
+            }
+            try {
+                return response.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
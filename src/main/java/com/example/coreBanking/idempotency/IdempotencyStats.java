@@ -0,0 +1,9 @@
+package com.example.coreBanking.idempotency;
+
+public record IdempotencyStats(long hits, long misses, long evictions, long expirations, int entries, long bytes) {
+
+    public double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.coreBanking.idempotency;
+
+public record IdempotentResponse(byte[] body, boolean replayed) {
+}
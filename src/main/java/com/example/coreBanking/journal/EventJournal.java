@@ -0,0 +1,39 @@
+package com.example.coreBanking.journal;
+
+import com.example.coreBanking.model.AccountView;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+public interface EventJournal {
+
+    /**
+     * Records an applied event together with the after-images of the accounts it touched.
+     * Must be called while the caller still holds the locks of those accounts.
+     *
+     * @return the sequence number to pass to {@link #awaitDurable(long)}
+     */
+    long append(String type, BigDecimal amount, AccountView... accounts);
+
+    /**
+     * Like {@link #append}, for the commit of a cross-partition transfer: replay remembers the
+     * transaction as committed, so a retry of the commit after a restart does not apply it again.
+     */
+    long appendCommit(String transactionId, String type, BigDecimal amount, AccountView... accounts);
+
+    /**
+     * Fails the way {@link #append} would if the journal can no longer take records, because it failed
+     * or was closed. Callers check before changing any account, so an event the journal refuses leaves
+     * the accounts as they were; once a write has failed, every further event is refused.
+     */
+    void checkWritable();
+
+    void awaitDurable(long sequence);
+
+    /**
+     * Like {@link #awaitDurable(long)} without blocking: the future completes once the record is durable,
+     * or exceptionally if the journal fails first. It may complete on the journal's own thread, so
+     * dependent stages that do real work should move to another executor.
+     */
+    CompletableFuture<Void> whenDurable(long sequence);
+}
@@ -0,0 +1,503 @@
+package com.example.coreBanking.journal;
+
+import com.example.coreBanking.cluster.TransferCommits;
+import com.example.coreBanking.model.Account;
+import com.example.coreBanking.model.AccountView;
+import com.example.coreBanking.repository.AccountRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal with group commit. Appends are encoded into an in-memory batch; a single
+ * flusher thread swaps the batch out, writes it and issues one {@code force()} for every record
+ * in it, then wakes all callers waiting on those sequences and completes the futures handed out by
+ * {@link #whenDurable(long)} for them.
+ * <p>
+ * Records carry the resulting balances of the accounts an event touched, so replay simply
+ * stores those balances again and is idempotent.
+ */
+@Component
+@ConditionalOnProperty(name = "corebanking.journal.enabled", havingValue = "true")
+public class FileEventJournal implements EventJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(FileEventJournal.class);
+
+    static final String SEGMENT_PREFIX = "journal-";
+    static final String SEGMENT_SUFFIX = ".log";
+    static final String RESET = "reset";
+
+    private static final int INITIAL_RECORD_CAPACITY = 64 * 1024;
+    private static final int MAX_RECORD_SIZE = 64 * 1024 * 1024;
+    private static final int INITIAL_BATCH_CAPACITY = 1024 * 1024;
+    private static final CompletableFuture<Void> DURABLE = CompletableFuture.completedFuture(null);
+
+    private final AccountRepository accountRepository;
+    private final Path directory;
+    private final int maxBatchSize;
+    private final long flushIntervalNanos;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition batchAvailable = appendLock.newCondition();
+    private final Condition batchDrained = appendLock.newCondition();
+    private final ReentrantLock durableLock = new ReentrantLock();
+    private final Condition durableAdvanced = durableLock.newCondition();
+    private final PriorityQueue<DurableWaiter> durableWaiters =
+            new PriorityQueue<>(Comparator.comparingLong(DurableWaiter::sequence));
+
+    private ByteBuffer scratch = ByteBuffer.allocate(INITIAL_RECORD_CAPACITY);
+    private ByteBuffer pending = ByteBuffer.allocateDirect(INITIAL_BATCH_CAPACITY);
+    private ByteBuffer flushing = ByteBuffer.allocateDirect(INITIAL_BATCH_CAPACITY);
+    private int pendingRecords;
+    private long lastPendingSequence;
+    private long nextSequence = 1;
+    private boolean rollRequested;
+    private long rollsRequested;
+    private volatile long rollsCompleted;
+
+    private volatile long durableSequence;
+    private volatile IOException failure;
+    private volatile boolean running;
+    private FileChannel channel;
+    private volatile Path activeSegment;
+    private Thread flusher;
+    private TransferCommits transferCommits;
+
+    @Autowired
+    public FileEventJournal(AccountRepository accountRepository,
+                            @Value("${corebanking.journal.dir:data/journal}") String directory,
+                            @Value("${corebanking.journal.max-batch-size:1024}") int maxBatchSize,
+                            @Value("${corebanking.journal.flush-interval-micros:0}") long flushIntervalMicros) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Journal batch size must be positive");
+        }
+        this.accountRepository = accountRepository;
+        this.directory = Paths.get(directory);
+        this.maxBatchSize = maxBatchSize;
+        this.flushIntervalNanos = TimeUnit.MICROSECONDS.toNanos(flushIntervalMicros);
+    }
+
+    /**
+     * Where replay puts back the commits of cross-partition transfers; only present in cluster mode.
+     */
+    @Autowired(required = false)
+    public void setTransferCommits(TransferCommits transferCommits) {
+        this.transferCommits = transferCommits;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        long snapshotSequence = SnapshotStore.loadLatest(directory, accountRepository, transferCommits);
+        nextSequence = Math.max(nextSequence, snapshotSequence);
+        List<Path> segments = segments();
+        int replayed = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            boolean last = i == segments.size() - 1;
+            if (!last && firstSequenceOf(segments.get(i + 1)) <= snapshotSequence) {
+                continue;
+            }
+            replaySegment(segments.get(i), last, snapshotSequence);
+            replayed++;
+        }
+        durableSequence = nextSequence - 1;
+        activeSegment = segments.isEmpty() ? segmentPath(nextSequence) : segments.get(segments.size() - 1);
+        channel = FileChannel.open(activeSegment, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        running = true;
+        flusher = new Thread(this::flushLoop, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        deleteSegmentsBefore(snapshotSequence);
+        log.info("Journal opened at {} from snapshot sequence {}, replayed {} segment(s), next sequence {}",
+                directory, snapshotSequence, replayed, nextSequence);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            running = false;
+            batchAvailable.signalAll();
+            batchDrained.signalAll();
+        } finally {
+            appendLock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    @Override
+    public long append(String type, BigDecimal amount, AccountView... accounts) {
+        return append(type, amount, null, accounts);
+    }
+
+    @Override
+    public long appendCommit(String transactionId, String type, BigDecimal amount, AccountView... accounts) {
+        return append(type, amount, transactionId, accounts);
+    }
+
+    private long append(String type, BigDecimal amount, String transactionId, AccountView[] accounts) {
+        appendLock.lock();
+        try {
+            while (pendingRecords >= maxBatchSize && running) {
+                batchDrained.awaitUninterruptibly();
+            }
+            checkWritable();
+            long sequence = nextSequence;
+            encode(sequence, type, amount, transactionId, accounts);
+            ensurePendingCapacity(scratch.remaining());
+            pending.put(scratch);
+            nextSequence++;
+            pendingRecords++;
+            lastPendingSequence = sequence;
+            batchAvailable.signal();
+            return sequence;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void awaitDurable(long sequence) {
+        if (durableSequence >= sequence) {
+            return;
+        }
+        durableLock.lock();
+        try {
+            while (durableSequence < sequence) {
+                if (failure != null) {
+                    throw new UncheckedIOException("Journal write failed", failure);
+                }
+                durableAdvanced.awaitUninterruptibly();
+            }
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> whenDurable(long sequence) {
+        if (durableSequence >= sequence) {
+            return DURABLE;
+        }
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+        durableLock.lock();
+        try {
+            if (failure != null) {
+                durable.completeExceptionally(new UncheckedIOException("Journal write failed", failure));
+            } else if (durableSequence >= sequence) {
+                return DURABLE;
+            } else {
+                durableWaiters.add(new DurableWaiter(sequence, durable));
+            }
+        } finally {
+            durableLock.unlock();
+        }
+        return durable;
+    }
+
+    public long durableSequence() {
+        return durableSequence;
+    }
+
+    public long lastAppendedSequence() {
+        appendLock.lock();
+        try {
+            return nextSequence - 1;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Makes the flusher start a new segment after the batch it writes next, and waits until it has.
+     *
+     * @return a sequence such that every earlier record is in a segment that is no longer written to
+     */
+    public long rollSegment() {
+        long sequence;
+        long ticket;
+        appendLock.lock();
+        try {
+            checkWritable();
+            rollRequested = true;
+            ticket = ++rollsRequested;
+            sequence = nextSequence;
+            batchAvailable.signal();
+        } finally {
+            appendLock.unlock();
+        }
+        durableLock.lock();
+        try {
+            while (rollsCompleted < ticket) {
+                if (failure != null) {
+                    throw new UncheckedIOException("Journal write failed", failure);
+                }
+                durableAdvanced.awaitUninterruptibly();
+            }
+        } finally {
+            durableLock.unlock();
+        }
+        return sequence;
+    }
+
+    /**
+     * Deletes segments whose records all precede the given sequence. The active segment is kept.
+     */
+    public void deleteSegmentsBefore(long sequence) throws IOException {
+        List<Path> segments = segments();
+        for (int i = 0; i < segments.size() - 1; i++) {
+            Path segment = segments.get(i);
+            if (firstSequenceOf(segments.get(i + 1)) > sequence || segment.equals(activeSegment)) {
+                break;
+            }
+            Files.deleteIfExists(segment);
+        }
+    }
+
+    Path directory() {
+        return directory;
+    }
+
+    TransferCommits transferCommits() {
+        return transferCommits;
+    }
+
+    private void flushLoop() {
+        while (true) {
+            long batchEnd;
+            appendLock.lock();
+            try {
+                while (pendingRecords == 0 && !rollRequested && running) {
+                    batchAvailable.awaitUninterruptibly();
+                }
+                if (pendingRecords == 0 && !rollRequested) {
+                    return;
+                }
+            } finally {
+                appendLock.unlock();
+            }
+
+            if (flushIntervalNanos > 0) {
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+
+            boolean roll;
+            long rollTicket;
+            long nextSegmentStart;
+            appendLock.lock();
+            try {
+                roll = rollRequested;
+                rollRequested = false;
+                rollTicket = rollsRequested;
+                nextSegmentStart = nextSequence;
+                ByteBuffer batch = pending;
+                pending = flushing;
+                flushing = batch;
+                batchEnd = lastPendingSequence;
+                pendingRecords = 0;
+                batchDrained.signalAll();
+            } finally {
+                appendLock.unlock();
+            }
+
+            try {
+                flushing.flip();
+                while (flushing.hasRemaining()) {
+                    channel.write(flushing);
+                }
+                channel.force(false);
+                flushing.clear();
+                if (roll) {
+                    Path next = segmentPath(nextSegmentStart);
+                    if (!next.equals(activeSegment)) {
+                        FileChannel previous = channel;
+                        channel = FileChannel.open(next, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                StandardOpenOption.APPEND);
+                        activeSegment = next;
+                        previous.close();
+                    }
+                }
+            } catch (IOException e) {
+                log.error("Journal write failed, rejecting further events", e);
+                fail(e);
+                return;
+            }
+            publishDurable(batchEnd, roll ? rollTicket : rollsCompleted);
+        }
+    }
+
+    private void publishDurable(long sequence, long rolls) {
+        List<DurableWaiter> completed = new ArrayList<>();
+        durableLock.lock();
+        try {
+            durableSequence = sequence;
+            rollsCompleted = rolls;
+            durableAdvanced.signalAll();
+            while (!durableWaiters.isEmpty() && durableWaiters.peek().sequence() <= sequence) {
+                completed.add(durableWaiters.poll());
+            }
+        } finally {
+            durableLock.unlock();
+        }
+        for (DurableWaiter waiter : completed) {
+            waiter.future().complete(null);
+        }
+    }
+
+    private void fail(IOException e) {
+        List<DurableWaiter> failed;
+        durableLock.lock();
+        try {
+            failure = e;
+            durableAdvanced.signalAll();
+            failed = new ArrayList<>(durableWaiters);
+            durableWaiters.clear();
+        } finally {
+            durableLock.unlock();
+        }
+        for (DurableWaiter waiter : failed) {
+            waiter.future().completeExceptionally(new UncheckedIOException("Journal write failed", e));
+        }
+        appendLock.lock();
+        try {
+            batchDrained.signalAll();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void checkWritable() {
+        if (failure != null) {
+            throw new UncheckedIOException("Journal write failed", failure);
+        }
+        if (!running) {
+            throw new IllegalStateException("Journal is closed");
+        }
+    }
+
+    private void encode(long sequence, String type, BigDecimal amount, String transactionId, AccountView[] accounts) {
+        while (true) {
+            scratch.clear();
+            try {
+                JournalCodec.encode(scratch, sequence, type, amount, transactionId, accounts);
+                scratch.flip();
+                return;
+            } catch (BufferOverflowException e) {
+                if (scratch.capacity() >= MAX_RECORD_SIZE) {
+                    throw new IllegalArgumentException("Event is too large to journal");
+                }
+                scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+            }
+        }
+    }
+
+    private void ensurePendingCapacity(int bytes) {
+        if (pending.remaining() >= bytes) {
+            return;
+        }
+        ByteBuffer grown = ByteBuffer.allocateDirect(Math.max(pending.capacity() * 2, pending.position() + bytes));
+        pending.flip();
+        grown.put(pending);
+        pending = grown;
+    }
+
+    private void replaySegment(Path segment, boolean last, long fromSequence) throws IOException {
+        try (FileChannel file = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = file.size();
+            MappedByteBuffer buffer = file.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            while (buffer.hasRemaining()) {
+                JournalRecord record = JournalCodec.decode(buffer);
+                if (record == null) {
+                    break;
+                }
+                if (record.sequence() >= fromSequence) {
+                    apply(record);
+                }
+                nextSequence = Math.max(nextSequence, record.sequence() + 1);
+            }
+            if (buffer.hasRemaining()) {
+                if (!last) {
+                    throw new IllegalStateException("Corrupted journal segment " + segment);
+                }
+                log.warn("Truncating torn tail of {} at byte {} of {}", segment, buffer.position(), size);
+                file.truncate(buffer.position());
+            }
+        }
+    }
+
+    private void apply(JournalRecord record) {
+        if (RESET.equals(record.type())) {
+            accountRepository.reset();
+            if (transferCommits != null) {
+                transferCommits.clear();
+            }
+            return;
+        }
+        for (Account account : record.accounts()) {
+            accountRepository.save(account);
+        }
+        if (record.transactionId() != null && transferCommits != null) {
+            Account account = record.accounts().get(0);
+            transferCommits.record(record.type(), record.transactionId(),
+                    AccountView.of(account), 0);
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .forEach(segments::add);
+        }
+        return segments;
+    }
+
+    private static long firstSequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+    }
+
+    private record DurableWaiter(long sequence, CompletableFuture<Void> future) {
+    }
+}
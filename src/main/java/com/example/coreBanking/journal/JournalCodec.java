@@ -0,0 +1,129 @@
+package com.example.coreBanking.journal;
+
+import com.example.coreBanking.model.Account;
+import com.example.coreBanking.model.AccountView;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary layout of a journal record:
+ * {@code int bodyLength | body | int crc32c(body)} where the body is
+ * {@code long sequence | short typeLength | type | decimal amount | int accountCount | (short idLength | id | decimal balance)*
+ * [| short transactionIdLength | transactionId]}, the transaction id only present on the commits of
+ * cross-partition transfers, and a decimal is {@code int scale | byte length | unscaled two's-complement bytes}, length 0 meaning null.
+ * Event validation bounds amounts so that no balance comes near the 255 bytes a decimal may take.
+ */
+final class JournalCodec {
+
+    static final int HEADER_SIZE = Integer.BYTES;
+    static final int TRAILER_SIZE = Integer.BYTES;
+
+    private JournalCodec() {
+    }
+
+    static void encode(ByteBuffer target, long sequence, String type, BigDecimal amount, String transactionId,
+                       AccountView... accounts) {
+        int start = target.position();
+        target.position(start + HEADER_SIZE);
+        target.putLong(sequence);
+        putString(target, type);
+        putDecimal(target, amount);
+        target.putInt(accounts.length);
+        for (AccountView account : accounts) {
+            putString(target, account.id());
+            putDecimal(target, account.balance());
+        }
+        if (transactionId != null) {
+            putString(target, transactionId);
+        }
+        int end = target.position();
+        int bodyLength = end - start - HEADER_SIZE;
+        target.putInt(start, bodyLength);
+        target.putInt(checksum(target, start + HEADER_SIZE, bodyLength));
+    }
+
+    /**
+     * Decodes the record at the buffer's position and advances past it. Returns null, leaving the
+     * position untouched, when the remaining bytes hold a torn or corrupted record.
+     */
+    static JournalRecord decode(ByteBuffer source) {
+        int start = source.position();
+        try {
+            int bodyLength = source.getInt();
+            if (bodyLength <= 0 || bodyLength > source.remaining() - TRAILER_SIZE) {
+                source.position(start);
+                return null;
+            }
+            int bodyStart = source.position();
+            if (source.getInt(bodyStart + bodyLength) != checksum(source, bodyStart, bodyLength)) {
+                source.position(start);
+                return null;
+            }
+            long sequence = source.getLong();
+            String type = getString(source);
+            BigDecimal amount = getDecimal(source);
+            int count = source.getInt();
+            List<Account> accounts = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                accounts.add(new Account(getString(source), getDecimal(source)));
+            }
+            String transactionId = source.position() < bodyStart + bodyLength ? getString(source) : null;
+            source.position(bodyStart + bodyLength + TRAILER_SIZE);
+            return new JournalRecord(sequence, type, amount, accounts, transactionId);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            source.position(start);
+            return null;
+        }
+    }
+
+    static void putString(ByteBuffer target, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        target.putShort((short) bytes.length);
+        target.put(bytes);
+    }
+
+    static String getString(ByteBuffer source) {
+        byte[] bytes = new byte[source.getShort()];
+        source.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void putDecimal(ByteBuffer target, BigDecimal value) {
+        if (value == null) {
+            target.putInt(0);
+            target.put((byte) 0);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        if (unscaled.length > 0xFF) {
+            throw new IllegalArgumentException("Decimal is too long to journal");
+        }
+        target.putInt(value.scale());
+        target.put((byte) unscaled.length);
+        target.put(unscaled);
+    }
+
+    static BigDecimal getDecimal(ByteBuffer source) {
+        int scale = source.getInt();
+        int length = source.get() & 0xFF;
+        if (length == 0) {
+            return null;
+        }
+        byte[] unscaled = new byte[length];
+        source.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+}
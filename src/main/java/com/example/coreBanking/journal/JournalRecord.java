@@ -0,0 +1,13 @@
+package com.example.coreBanking.journal;
+
+import com.example.coreBanking.model.Account;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * @param transactionId the cross-partition transfer whose commit the record is, or null
+ */
+public record JournalRecord(long sequence, String type, BigDecimal amount, List<Account> accounts,
+                            String transactionId) {
+}
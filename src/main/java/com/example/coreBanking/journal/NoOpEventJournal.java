@@ -0,0 +1,38 @@
+package com.example.coreBanking.journal;
+
+import com.example.coreBanking.model.AccountView;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+@Component
+@ConditionalOnProperty(name = "corebanking.journal.enabled", havingValue = "false", matchIfMissing = true)
+public class NoOpEventJournal implements EventJournal {
+
+    private static final CompletableFuture<Void> DURABLE = CompletableFuture.completedFuture(null);
+
+    @Override
+    public long append(String type, BigDecimal amount, AccountView... accounts) {
+        return 0;
+    }
+
+    @Override
+    public long appendCommit(String transactionId, String type, BigDecimal amount, AccountView... accounts) {
+        return 0;
+    }
+
+    @Override
+    public void checkWritable() {
+    }
+
+    @Override
+    public void awaitDurable(long sequence) {
+    }
+
+    @Override
+    public CompletableFuture<Void> whenDurable(long sequence) {
+        return DURABLE;
+    }
+}
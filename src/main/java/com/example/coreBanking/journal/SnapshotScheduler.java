@@ -0,0 +1,77 @@
+package com.example.coreBanking.journal;
+
+import com.example.coreBanking.repository.AccountRepository;
+import com.example.coreBanking.service.AccountLocks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Periodically copies the account map to a snapshot and drops the journal segments and snapshots
+ * it supersedes, so startup only replays the events recorded since the last snapshot.
+ */
+@Component
+@ConditionalOnProperty(name = "corebanking.journal.enabled", havingValue = "true")
+public class SnapshotScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotScheduler.class);
+
+    private final FileEventJournal journal;
+    private final AccountRepository accountRepository;
+    private final AccountLocks accountLocks;
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    @Autowired
+    public SnapshotScheduler(FileEventJournal journal, AccountRepository accountRepository, AccountLocks accountLocks) {
+        this.journal = journal;
+        this.accountRepository = accountRepository;
+        this.accountLocks = accountLocks;
+    }
+
+    @Scheduled(initialDelayString = "${corebanking.snapshot.interval-ms:300000}",
+            fixedDelayString = "${corebanking.snapshot.interval-ms:300000}")
+    public void scheduledSnapshot() {
+        try {
+            snapshot();
+        } catch (IOException e) {
+            log.error("Snapshot failed, keeping existing journal segments", e);
+        }
+    }
+
+    public Path snapshot() throws IOException {
+        snapshotLock.lock();
+        try {
+            long start = System.nanoTime();
+            long sequence = journal.rollSegment();
+            Path written = SnapshotStore.write(journal.directory(), sequence, accountRepository,
+                    journal.transferCommits());
+            // The copy may hold effects of events that were still being applied while it was taken, such
+            // as a transfer that had debited its origin but not yet credited its destination. Writers change
+            // accounts and append their record under the stripe locks, so once every stripe has been free
+            // all of those records are appended, and they must be durable before the snapshot can stand in
+            // for the journal.
+            long lastApplied;
+            int[] stripes = accountLocks.lockAllStripes();
+            try {
+                lastApplied = journal.lastAppendedSequence();
+            } finally {
+                accountLocks.unlockAll(stripes);
+            }
+            journal.awaitDurable(lastApplied);
+            Path snapshot = SnapshotStore.publish(journal.directory(), written, sequence);
+            journal.deleteSegmentsBefore(sequence);
+            SnapshotStore.deleteOlderThan(journal.directory(), sequence);
+            log.info("Wrote snapshot {} in {} ms", snapshot, (System.nanoTime() - start) / 1_000_000);
+            return snapshot;
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+}
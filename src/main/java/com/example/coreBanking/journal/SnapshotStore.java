@@ -0,0 +1,205 @@
+package com.example.coreBanking.journal;
+
+import com.example.coreBanking.cluster.TransferCommits;
+import com.example.coreBanking.model.Account;
+import com.example.coreBanking.model.AccountView;
+import com.example.coreBanking.repository.AccountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Point-in-time copies of the account map. A snapshot is
+ * {@code int magic | long sequence | long count | (short idLength | id | decimal balance)* | commits | int crc32c(entries)}
+ * and is read back through a single read-only mapping. The commits of cross-partition transfers this node
+ * still remembers are {@code long count | (short typeLength | type | short transactionIdLength |
+ * transactionId | short idLength | id | decimal balance)*}; snapshots written before they were kept have
+ * an older magic and no commits.
+ * <p>
+ * The sequence is the first journal sequence that is not guaranteed to be reflected in the snapshot.
+ * Balances are read while writers keep running, so a snapshot can also contain effects of later
+ * events; replaying journal records from the sequence onwards fixes that up, since records carry
+ * absolute balances.
+ */
+final class SnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotStore.class);
+
+    static final String SNAPSHOT_PREFIX = "snapshot-";
+    static final String SNAPSHOT_SUFFIX = ".snap";
+
+    private static final int MAGIC_WITHOUT_COMMITS = 0x43425331;
+    private static final int MAGIC = 0x43425332;
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES + Long.BYTES;
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private SnapshotStore() {
+    }
+
+    static Path write(Path directory, long sequence, AccountRepository repository, TransferCommits transferCommits)
+            throws IOException {
+        Path temporary = directory.resolve(SNAPSHOT_PREFIX + sequence + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            CRC32C crc = new CRC32C();
+            long[] count = new long[1];
+            channel.position(HEADER_SIZE);
+            try {
+                repository.forEach(account -> {
+                    if (buffer.remaining() < Short.BYTES + 3 * account.getId().length() + 261) {
+                        drain(channel, buffer, crc);
+                    }
+                    JournalCodec.putString(buffer, account.getId());
+                    JournalCodec.putDecimal(buffer, account.getBalance());
+                    count[0]++;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            List<TransferCommits.Commit> commits = new ArrayList<>();
+            if (transferCommits != null) {
+                transferCommits.forEach(commits::add);
+            }
+            if (buffer.remaining() < Long.BYTES) {
+                drain(channel, buffer, crc);
+            }
+            buffer.putLong(commits.size());
+            try {
+                for (TransferCommits.Commit commit : commits) {
+                    if (buffer.remaining() < 3 * Short.BYTES + 3 * (commit.type().length()
+                            + commit.transactionId().length() + commit.account().id().length()) + 261) {
+                        drain(channel, buffer, crc);
+                    }
+                    JournalCodec.putString(buffer, commit.type());
+                    JournalCodec.putString(buffer, commit.transactionId());
+                    JournalCodec.putString(buffer, commit.account().id());
+                    JournalCodec.putDecimal(buffer, commit.account().balance());
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            drain(channel, buffer, crc);
+            buffer.putInt((int) crc.getValue()).flip();
+            channel.write(buffer);
+            buffer.clear();
+            buffer.putInt(MAGIC).putLong(sequence).putLong(count[0]).flip();
+            channel.write(buffer, 0);
+            channel.force(true);
+        }
+        return temporary;
+    }
+
+    static Path publish(Path directory, Path temporary, long sequence) throws IOException {
+        Path target = snapshotPath(directory, sequence);
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return target;
+    }
+
+    /**
+     * Loads the newest readable snapshot into the repository.
+     *
+     * @return the snapshot's sequence, or 0 when there is none
+     */
+    static long loadLatest(Path directory, AccountRepository repository, TransferCommits transferCommits)
+            throws IOException {
+        List<Path> snapshots = snapshots(directory);
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            Path snapshot = snapshots.get(i);
+            try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (!isValid(buffer)) {
+                    log.warn("Ignoring unreadable snapshot {}", snapshot);
+                    continue;
+                }
+                buffer.position(Integer.BYTES);
+                long sequence = buffer.getLong();
+                long count = buffer.getLong();
+                for (long n = 0; n < count; n++) {
+                    repository.save(new Account(JournalCodec.getString(buffer), JournalCodec.getDecimal(buffer)));
+                }
+                if (buffer.getInt(0) == MAGIC) {
+                    long commits = buffer.getLong();
+                    for (long n = 0; n < commits; n++) {
+                        String type = JournalCodec.getString(buffer);
+                        String transactionId = JournalCodec.getString(buffer);
+                        AccountView account = new AccountView(JournalCodec.getString(buffer), JournalCodec.getDecimal(buffer));
+                        if (transferCommits != null) {
+                            transferCommits.record(type, transactionId, account, 0);
+                        }
+                    }
+                }
+                log.info("Loaded {} accounts from snapshot {}", count, snapshot);
+                return sequence;
+            }
+        }
+        return 0;
+    }
+
+    static void deleteOlderThan(Path directory, long sequence) throws IOException {
+        for (Path snapshot : snapshots(directory)) {
+            if (sequenceOf(snapshot) < sequence) {
+                Files.deleteIfExists(snapshot);
+            }
+        }
+    }
+
+    static List<Path> snapshots(Path directory) throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+                    })
+                    .sorted()
+                    .forEach(snapshots::add);
+        }
+        return snapshots;
+    }
+
+    private static boolean isValid(ByteBuffer buffer) {
+        if (buffer.limit() < HEADER_SIZE + Integer.BYTES
+                || buffer.getInt(0) != MAGIC && buffer.getInt(0) != MAGIC_WITHOUT_COMMITS) {
+            return false;
+        }
+        int entriesLength = buffer.limit() - HEADER_SIZE - Integer.BYTES;
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(HEADER_SIZE, entriesLength));
+        return buffer.getInt(HEADER_SIZE + entriesLength) == (int) crc.getValue();
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer, CRC32C crc) {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    private static long sequenceOf(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+    }
+
+    private static Path snapshotPath(Path directory, long sequence) {
+        return directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX));
+    }
+}
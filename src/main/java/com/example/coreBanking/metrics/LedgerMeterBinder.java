@@ -0,0 +1,127 @@
+package com.example.coreBanking.metrics;
+
+import com.example.coreBanking.cluster.ClusterRouter;
+import com.example.coreBanking.idempotency.IdempotencyCache;
+import com.example.coreBanking.repository.AccountRepository;
+import com.example.coreBanking.service.AccountLocks;
+import com.example.coreBanking.service.FundsHolds;
+import com.example.coreBanking.service.HotAccounts;
+import com.example.coreBanking.service.LedgerAggregates;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters read at scrape time from counters the components keep anyway, so they cost nothing per event.
+ */
+@Component
+public class LedgerMeterBinder implements MeterBinder {
+
+    private final AccountRepository accountRepository;
+    private final AccountLocks accountLocks;
+    private final IdempotencyCache idempotencyCache;
+    private HotAccounts hotAccounts;
+    private LedgerAggregates ledgerAggregates;
+    private FundsHolds fundsHolds;
+    private ClusterRouter clusterRouter;
+
+    @Autowired
+    public LedgerMeterBinder(AccountRepository accountRepository, AccountLocks accountLocks,
+                             IdempotencyCache idempotencyCache) {
+        this.accountRepository = accountRepository;
+        this.accountLocks = accountLocks;
+        this.idempotencyCache = idempotencyCache;
+    }
+
+    @Autowired(required = false)
+    public void setHotAccounts(HotAccounts hotAccounts) {
+        this.hotAccounts = hotAccounts;
+    }
+
+    @Autowired(required = false)
+    public void setLedgerAggregates(LedgerAggregates ledgerAggregates) {
+        this.ledgerAggregates = ledgerAggregates;
+    }
+
+    @Autowired(required = false)
+    public void setFundsHolds(FundsHolds fundsHolds) {
+        this.fundsHolds = fundsHolds;
+    }
+
+    @Autowired(required = false)
+    public void setClusterRouter(ClusterRouter clusterRouter) {
+        this.clusterRouter = clusterRouter;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("corebanking.accounts", accountRepository, AccountRepository::size)
+                .description("Accounts in the repository")
+                .register(registry);
+        FunctionTimer.builder("corebanking.lock.wait", accountLocks,
+                        AccountLocks::contendedAcquisitions, AccountLocks::waitNanos, TimeUnit.NANOSECONDS)
+                .description("Lock acquisitions that had to wait for another event on the same stripe")
+                .register(registry);
+        FunctionCounter.builder("corebanking.idempotency.requests", idempotencyCache, cache -> cache.stats().hits())
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("corebanking.idempotency.requests", idempotencyCache, cache -> cache.stats().misses())
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("corebanking.idempotency.removals", idempotencyCache, cache -> cache.stats().evictions())
+                .tag("cause", "evicted")
+                .register(registry);
+        FunctionCounter.builder("corebanking.idempotency.removals", idempotencyCache, cache -> cache.stats().expirations())
+                .tag("cause", "expired")
+                .register(registry);
+        Gauge.builder("corebanking.idempotency.entries", idempotencyCache, cache -> cache.stats().entries())
+                .register(registry);
+        Gauge.builder("corebanking.idempotency.bytes", idempotencyCache, cache -> cache.stats().bytes())
+                .baseUnit("bytes")
+                .register(registry);
+        if (ledgerAggregates != null) {
+            Gauge.builder("corebanking.balance.total", ledgerAggregates, aggregates -> aggregates.totalBalance().doubleValue())
+                    .description("Money held by all accounts")
+                    .register(registry);
+        }
+        if (hotAccounts != null) {
+            Gauge.builder("corebanking.hot.accounts", hotAccounts, HotAccounts::hotAccountCount)
+                    .description("Accounts currently taking deposits without their stripe lock")
+                    .register(registry);
+            FunctionCounter.builder("corebanking.hot.transitions", hotAccounts, HotAccounts::promotions)
+                    .tag("direction", "promoted")
+                    .register(registry);
+            FunctionCounter.builder("corebanking.hot.transitions", hotAccounts, HotAccounts::demotions)
+                    .tag("direction", "demoted")
+                    .register(registry);
+        }
+        if (fundsHolds != null) {
+            Gauge.builder("corebanking.holds.active", fundsHolds, FundsHolds::activeHolds)
+                    .description("Holds placed and not yet captured, released or expired")
+                    .register(registry);
+            FunctionCounter.builder("corebanking.holds.expired", fundsHolds, FundsHolds::expiredHolds)
+                    .description("Holds released because their TTL ran out")
+                    .register(registry);
+        }
+        if (clusterRouter != null) {
+            FunctionCounter.builder("corebanking.cluster.forwarded", clusterRouter, ClusterRouter::forwardedRequests)
+                    .description("Events and balance reads forwarded to the node owning their accounts")
+                    .register(registry);
+            FunctionCounter.builder("corebanking.cluster.transfers", clusterRouter, ClusterRouter::crossPartitionTransfers)
+                    .description("Transfers between partitions coordinated by this node")
+                    .register(registry);
+            Gauge.builder("corebanking.cluster.in.doubt", clusterRouter, ClusterRouter::transfersInDoubt)
+                    .description("Prepared transfers whose commit is being retried in the background")
+                    .register(registry);
+            FunctionCounter.builder("corebanking.cluster.abandoned", clusterRouter, ClusterRouter::abandonedTransfers)
+                    .description("Prepared transfers dropped because their hold expired or its node restarted")
+                    .register(registry);
+        }
+    }
+}
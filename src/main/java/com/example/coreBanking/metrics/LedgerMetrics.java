@@ -0,0 +1,166 @@
+package com.example.coreBanking.metrics;
+
+import com.example.coreBanking.dto.EventType;
+import com.example.coreBanking.exception.AccountNotFoundException;
+import com.example.coreBanking.exception.InsufficientFundsException;
+import com.example.coreBanking.exception.InvalidOperationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hot-path meters. Every event is counted by type and outcome in a {@link LongAdder}, whether it came on
+ * its own or in a batch or stream; only one in
+ * {@code corebanking.metrics.latency-sample-rate} single events reads the clock and records its latency, which
+ * keeps the cost of an unsampled event to a random draw and an uncontended add. Meters are looked up by
+ * array index rather than by tags, so recording does not allocate once a type and outcome have been seen.
+ */
+@Component
+public class LedgerMetrics {
+
+    /**
+     * Start time of an event that is counted but not timed.
+     */
+    public static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private static final int TYPES = EventType.MAX_CODE + 1;
+    private static final String[] OUTCOMES = {"success", "not_found", "insufficient_funds", "invalid", "rejected", "error", "aborted"};
+    private static final int ABORTED = 6;
+
+    private final MeterRegistry registry;
+    private final int sampleRate;
+    private final LongAdder[][] eventCounts = new LongAdder[TYPES][OUTCOMES.length];
+    private final boolean[][] countRegistered = new boolean[TYPES][OUTCOMES.length];
+    private final Timer[][] eventTimers = new Timer[TYPES][OUTCOMES.length];
+    private final ConcurrentHashMap<Class<?>, Counter> errorCounters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LedgerMetrics(MeterRegistry registry,
+                         @Value("${corebanking.metrics.latency-sample-rate:64}") int sampleRate) {
+        this.registry = registry;
+        this.sampleRate = Math.max(1, sampleRate);
+        for (LongAdder[] counts : eventCounts) {
+            Arrays.setAll(counts, i -> new LongAdder());
+        }
+    }
+
+    /**
+     * @return the start time to pass to {@link #recordEvent}, or {@link #NOT_SAMPLED}
+     */
+    public long startEvent() {
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return NOT_SAMPLED;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * @param failure the exception the event failed with, or null if it succeeded
+     * @param start   the value returned by {@link #startEvent()}
+     */
+    public void recordEvent(String type, RuntimeException failure, long start) {
+        int typeIndex = typeIndex(type);
+        int outcomeIndex = outcomeIndex(failure);
+        count(typeIndex, outcomeIndex);
+        if (start == NOT_SAMPLED) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        Timer timer = eventTimers[typeIndex][outcomeIndex];
+        if (timer == null) {
+            // Registration is idempotent, so a racing thread just stores the same timer.
+            timer = Timer.builder("corebanking.events.latency")
+                    .description("Time to apply a single event and make it durable, sampled")
+                    .tags("type", typeTag(typeIndex), "outcome", OUTCOMES[outcomeIndex])
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(1_000))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(registry);
+            eventTimers[typeIndex][outcomeIndex] = timer;
+        }
+        timer.record(elapsed, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts an event of a batch or stream. Batches are timed as a whole by the HTTP server metrics, so
+     * their events are only counted.
+     *
+     * @param failure the exception the event failed with, or null if it succeeded
+     */
+    public void recordBatchEvent(String type, RuntimeException failure) {
+        count(typeIndex(type), outcomeIndex(failure));
+    }
+
+    /**
+     * Counts an event of an all-or-nothing batch that was rolled back because another event failed.
+     */
+    public void recordAbortedEvent(String type) {
+        count(typeIndex(type), ABORTED);
+    }
+
+    /**
+     * Counts an exception that was turned into an error response.
+     */
+    public void recordError(Exception exception) {
+        errorCounters.computeIfAbsent(exception.getClass(), type -> Counter.builder("corebanking.errors")
+                        .description("Requests answered with an error, by exception")
+                        .tag("exception", type.getSimpleName())
+                        .register(registry))
+                .increment();
+    }
+
+    private void count(int typeIndex, int outcomeIndex) {
+        eventCounts[typeIndex][outcomeIndex].increment();
+        if (!countRegistered[typeIndex][outcomeIndex]) {
+            // Registering the same adder again returns the existing counter, so a race is harmless.
+            FunctionCounter.builder("corebanking.events", eventCounts[typeIndex][outcomeIndex], LongAdder::sum)
+                    .description("Events applied, on their own or in batches and streams")
+                    .tags("type", typeTag(typeIndex), "outcome", OUTCOMES[outcomeIndex])
+                    .register(registry);
+            countRegistered[typeIndex][outcomeIndex] = true;
+        }
+    }
+
+    /**
+     * Types are counted under their code; index 0 counts requests of no known type.
+     */
+    private static int typeIndex(String type) {
+        EventType eventType = EventType.find(type);
+        return eventType == null ? 0 : eventType.code();
+    }
+
+    private static String typeTag(int typeIndex) {
+        EventType type = EventType.forCode(typeIndex);
+        return type == null ? "other" : type.getValue();
+    }
+
+    private static int outcomeIndex(RuntimeException failure) {
+        if (failure == null) {
+            return 0;
+        }
+        if (failure instanceof AccountNotFoundException) {
+            return 1;
+        }
+        if (failure instanceof InsufficientFundsException) {
+            return 2;
+        }
+        if (failure instanceof IllegalArgumentException) {
+            return 3;
+        }
+        if (failure instanceof InvalidOperationException) {
+            return 4;
+        }
+        return 5;
+    }
+}
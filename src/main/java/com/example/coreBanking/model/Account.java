@@ -4,14 +4,51 @@ import java.math.BigDecimal;
 public class Account {
 
     private String id;
-    private BigDecimal balance;
+    private volatile BigDecimal balance;
+    private volatile BigDecimal held = BigDecimal.ZERO;
 
     public Account(String id, BigDecimal balance) {
         this.id = id;
         this.balance = balance;
     }
 
+    public Account(String id, BigDecimal balance, BigDecimal held) {
+        this.id = id;
+        this.balance = balance;
+        this.held = held;
+    }
+
     public String getId() { return id; }
+
+    /**
+     * The balance only changes through {@link #credit} and {@link #debit}, which is what lets
+     * {@link HotAccount} spread it over cells.
+     */
     public BigDecimal getBalance() { return balance; }
-    public void setBalance(BigDecimal balance) { this.balance = balance; }
+
+    /**
+     * The sum of the account's active holds, kept as a running total so funds checks never look at the
+     * holds themselves.
+     */
+    public BigDecimal getHeld() { return held; }
+
+    /**
+     * The balance minus active holds; what withdrawals, transfers and new holds may take.
+     */
+    public BigDecimal getAvailableBalance() { return getBalance().subtract(held); }
+
+    /**
+     * Adds to the balance. Like {@link #debit}, callers must exclude other writers of the account;
+     * {@link HotAccount} additionally allows concurrent credits.
+     */
+    public void credit(BigDecimal amount) { this.balance = balance.add(amount); }
+
+    public void debit(BigDecimal amount) { this.balance = balance.subtract(amount); }
+
+    /**
+     * Reserves part of the balance; like {@link #debit}, callers must exclude other writers of the account.
+     */
+    public void hold(BigDecimal amount) { this.held = held.add(amount); }
+
+    public void releaseHold(BigDecimal amount) { this.held = held.subtract(amount); }
 }
@@ -0,0 +1,14 @@
+package com.example.coreBanking.model;
+
+import java.math.BigDecimal;
+
+/**
+ * An account's id and balance as an event left them. Unlike {@link Account} it never changes, so it can be
+ * serialized or journaled after the account's lock is released.
+ */
+public record AccountView(String id, BigDecimal balance) {
+
+    public static AccountView of(Account account) {
+        return new AccountView(account.getId(), account.getBalance());
+    }
+}
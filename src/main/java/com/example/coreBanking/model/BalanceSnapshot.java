@@ -0,0 +1,10 @@
+package com.example.coreBanking.model;
+
+import java.math.BigDecimal;
+
+/**
+ * A balance as published after an event. The version grows by one with every publication for the account,
+ * so two snapshots of the same account can be ordered.
+ */
+public record BalanceSnapshot(BigDecimal balance, long version) {
+}
@@ -0,0 +1,166 @@
+package com.example.coreBanking.model;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An account whose balance is split over several cells, like a {@link LongAdder}, so concurrent
+ * deposits update different cells instead of queueing on one lock. The balance is the sum of the cells.
+ * <p>
+ * Credits need no lock and may run concurrently with anything. Debits must hold the account's stripe
+ * lock and borrow the amount from the cells one after another. {@link #seal()} retires the account when it is
+ * demoted: later credits fail and the caller goes back to the locked path.
+ * <p>
+ * A debit in progress leaves the cells summing to neither the old nor the new balance, so debits bump a
+ * sequence number before and after, seqlock style, and {@link #getBalance()} sums again when one overlapped.
+ */
+public class HotAccount extends Account {
+
+    private final AtomicReferenceArray<BigDecimal> cells;
+    private final AtomicReferenceArray<BigDecimal> sealedCells;
+    private final int mask;
+    private final LongAdder credits = new LongAdder();
+    // Odd while a debit is moving money out of the cells; only written under the stripe lock.
+    private volatile long debitSequence;
+
+    /**
+     * @param cellCount rounded up to a power of two
+     */
+    public HotAccount(String id, BigDecimal balance, int cellCount) {
+        super(id, BigDecimal.ZERO);
+        int size = Math.max(2, Integer.highestOneBit(Math.max(1, cellCount - 1)) << 1);
+        this.cells = new AtomicReferenceArray<>(size);
+        this.sealedCells = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            cells.set(i, BigDecimal.ZERO);
+        }
+        cells.set(0, balance);
+    }
+
+    @Override
+    public BigDecimal getBalance() {
+        while (true) {
+            long sequence = debitSequence;
+            if ((sequence & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            BigDecimal sum = BigDecimal.ZERO;
+            for (int i = 0; i < cells.length(); i++) {
+                BigDecimal cell = cells.get(i);
+                if (cell == null) {
+                    cell = sealedValue(i);
+                }
+                sum = sum.add(cell);
+            }
+            if (debitSequence == sequence) {
+                return sum;
+            }
+        }
+    }
+
+    @Override
+    public void credit(BigDecimal amount) {
+        if (!tryCredit(amount)) {
+            throw new IllegalStateException("Account " + getId() + " was demoted");
+        }
+    }
+
+    /**
+     * Adds to one of the cells without locking.
+     *
+     * @return false when the account has been sealed and the credit was not applied
+     */
+    public boolean tryCredit(BigDecimal amount) {
+        int index = (int) Thread.currentThread().getId() & mask;
+        while (true) {
+            BigDecimal cell = cells.get(index);
+            if (cell == null) {
+                return false;
+            }
+            if (cells.compareAndSet(index, cell, cell.add(amount))) {
+                credits.increment();
+                return true;
+            }
+            index = ThreadLocalRandom.current().nextInt() & mask;
+        }
+    }
+
+    /**
+     * Takes the amount from the cells, emptying them one after another. The caller must hold the
+     * account's stripe lock. Whatever the positive cells cannot cover is taken from the first cell, which
+     * may then go negative; only the sum is the balance.
+     */
+    @Override
+    public void debit(BigDecimal amount) {
+        debitSequence++;
+        try {
+            borrow(amount);
+        } finally {
+            debitSequence++;
+        }
+    }
+
+    private void borrow(BigDecimal amount) {
+        BigDecimal remaining = amount;
+        for (int i = 0; i < cells.length() && remaining.signum() > 0; ) {
+            BigDecimal cell = cells.get(i);
+            if (cell == null) {
+                throw new IllegalStateException("Account " + getId() + " was demoted");
+            }
+            if (cell.signum() <= 0) {
+                i++;
+                continue;
+            }
+            BigDecimal taken = cell.min(remaining);
+            if (cells.compareAndSet(i, cell, cell.subtract(taken))) {
+                remaining = remaining.subtract(taken);
+                i++;
+            }
+        }
+        while (remaining.signum() > 0) {
+            BigDecimal cell = cells.get(0);
+            if (cell == null) {
+                throw new IllegalStateException("Account " + getId() + " was demoted");
+            }
+            if (cells.compareAndSet(0, cell, cell.subtract(remaining))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stops accepting credits and returns the final balance. The caller must hold the stripe lock.
+     */
+    public BigDecimal seal() {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (int i = 0; i < cells.length(); i++) {
+            BigDecimal cell = cells.getAndSet(i, null);
+            sealedCells.set(i, cell);
+            sum = sum.add(cell);
+        }
+        return sum;
+    }
+
+    /**
+     * Number of credits applied since the last call.
+     */
+    public long drainCreditCount() {
+        return credits.sumThenReset();
+    }
+
+    public int cellCount() {
+        return cells.length();
+    }
+
+    private BigDecimal sealedValue(int index) {
+        BigDecimal value;
+        while ((value = sealedCells.get(index)) == null) {
+            Thread.onSpinWait();
+        }
+        return value;
+    }
+}
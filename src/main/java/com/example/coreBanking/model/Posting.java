@@ -0,0 +1,13 @@
+package com.example.coreBanking.model;
+
+import java.math.BigDecimal;
+
+/**
+ * One account's balance change in an applied event, as transaction history and the aggregates record it.
+ *
+ * @param amount       the signed change, negative for debits
+ * @param counterparty the other account of a two-account event, or null
+ * @param balance      the account's balance after the event
+ */
+public record Posting(String accountId, BigDecimal amount, String counterparty, BigDecimal balance) {
+}
@@ -0,0 +1,114 @@
+package com.example.coreBanking.protocol;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wire format of the binary protocol. Every frame is {@code short bodyLength | body}, big-endian.
+ * <p>
+ * Request body: {@code long requestId | byte opcode | long amountUnscaled | byte amountScale |
+ * byte originLength | origin | byte destinationLength | destination}. Ids are ASCII; length 0 means absent.
+ * A balance request carries the account in the origin field and an amount of zero. Every other opcode is
+ * the {@link com.example.coreBanking.dto.EventType#code() code} of an event type; the built-in ones are
+ * listed here.
+ * <p>
+ * Response body, always {@value #RESPONSE_BODY_SIZE} bytes: {@code long requestId | byte status |
+ * long originBalanceUnscaled | byte originScale | long destinationBalanceUnscaled | byte destinationScale}.
+ * Balances the operation did not touch are zero. Responses on a connection come back in request order,
+ * so clients may pipeline requests and match responses by position or by id.
+ */
+public final class BinaryFrames {
+
+    public static final byte DEPOSIT = 1;
+    public static final byte WITHDRAW = 2;
+    public static final byte TRANSFER = 3;
+    public static final byte BALANCE = 4;
+
+    public static final byte OK = 0;
+    public static final byte NOT_FOUND = 1;
+    public static final byte INSUFFICIENT_FUNDS = 2;
+    public static final byte INVALID = 3;
+    public static final byte REJECTED = 4;
+    public static final byte ERROR = 5;
+
+    public static final int LENGTH_SIZE = Short.BYTES;
+    public static final int MAX_ID_LENGTH = 255;
+    public static final int MIN_REQUEST_BODY_SIZE = Long.BYTES + 1 + Long.BYTES + 1 + 1 + 1;
+    public static final int MAX_REQUEST_BODY_SIZE = MIN_REQUEST_BODY_SIZE + 2 * MAX_ID_LENGTH;
+    public static final int RESPONSE_BODY_SIZE = Long.BYTES + 1 + 2 * (Long.BYTES + 1);
+    public static final int RESPONSE_SIZE = LENGTH_SIZE + RESPONSE_BODY_SIZE;
+
+    private BinaryFrames() {
+    }
+
+    public static void putRequest(ByteBuffer target, long requestId, byte opcode, String origin, String destination,
+                                  BigDecimal amount) {
+        int start = target.position();
+        target.position(start + LENGTH_SIZE);
+        target.putLong(requestId);
+        target.put(opcode);
+        putDecimal(target, amount == null ? BigDecimal.ZERO : amount);
+        putId(target, origin);
+        putId(target, destination);
+        target.putShort(start, (short) (target.position() - start - LENGTH_SIZE));
+    }
+
+    public static void putResponse(ByteBuffer target, long requestId, byte status, BigDecimal originBalance,
+                                   BigDecimal destinationBalance) {
+        target.putShort((short) RESPONSE_BODY_SIZE);
+        target.putLong(requestId);
+        target.put(status);
+        putDecimal(target, originBalance == null ? BigDecimal.ZERO : originBalance);
+        putDecimal(target, destinationBalance == null ? BigDecimal.ZERO : destinationBalance);
+    }
+
+    /**
+     * Whether a balance fits the response layout; larger ones are answered with {@link #ERROR}.
+     */
+    public static boolean fits(BigDecimal value) {
+        return value == null || (value.unscaledValue().bitLength() < Long.SIZE
+                && value.scale() >= Byte.MIN_VALUE && value.scale() <= Byte.MAX_VALUE);
+    }
+
+    private static void putDecimal(ByteBuffer target, BigDecimal value) {
+        target.putLong(value.unscaledValue().longValue());
+        target.put((byte) value.scale());
+    }
+
+    private static void putId(ByteBuffer target, String id) {
+        if (id == null) {
+            target.put((byte) 0);
+            return;
+        }
+        int length = id.length();
+        if (length == 0 || length > MAX_ID_LENGTH) {
+            throw new IllegalArgumentException("Account ids must be between 1 and " + MAX_ID_LENGTH + " characters");
+        }
+        target.put((byte) length);
+        for (int i = 0; i < length; i++) {
+            char c = id.charAt(i);
+            if (c > 0x7F) {
+                throw new IllegalArgumentException("Account ids must be ASCII");
+            }
+            target.put((byte) c);
+        }
+    }
+
+    public static BigDecimal getDecimal(ByteBuffer source) {
+        long unscaled = source.getLong();
+        return BigDecimal.valueOf(unscaled, source.get());
+    }
+
+    /**
+     * @param scratch at least {@link #MAX_ID_LENGTH} bytes, reused across calls
+     */
+    static String getId(ByteBuffer source, byte[] scratch) {
+        int length = source.get() & 0xFF;
+        if (length == 0) {
+            return null;
+        }
+        source.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.US_ASCII);
+    }
+}
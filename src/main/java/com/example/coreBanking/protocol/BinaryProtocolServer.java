@@ -0,0 +1,497 @@
+package com.example.coreBanking.protocol;
+
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.dto.EventType;
+import com.example.coreBanking.exception.AccountNotFoundException;
+import com.example.coreBanking.exception.InsufficientFundsException;
+import com.example.coreBanking.exception.InvalidEventException;
+import com.example.coreBanking.exception.InvalidOperationException;
+import com.example.coreBanking.model.AccountView;
+import com.example.coreBanking.service.AccountService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Optional TCP endpoint speaking {@link BinaryFrames} for internal callers that cannot afford HTTP and JSON.
+ * <p>
+ * An acceptor thread hands connections to a fixed set of I/O threads, each running its own selector. A
+ * connection's frames are applied through {@link AccountService} on its I/O thread, in arrival order, and
+ * their responses are batched into one write, so pipelined requests share a read and a write system call.
+ * Events are submitted without waiting for the journal: a response that is not durable yet holds back the
+ * ones behind it, and the journal's completion wakes the I/O thread to write them, so the selector never
+ * blocks on a disk flush and the frames of one read share a group commit.
+ * Every connection owns a pair of direct buffers taken from its I/O thread's pool and returned on close;
+ * framing itself allocates nothing per message. A connection stops reading while its responses cannot be
+ * written, which pushes back on clients that pipeline faster than they read.
+ */
+@Component
+@ConditionalOnProperty(name = "corebanking.binary.enabled", havingValue = "true")
+public class BinaryProtocolServer {
+
+    private static final Logger log = LoggerFactory.getLogger(BinaryProtocolServer.class);
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private final AccountService accountService;
+    private final String host;
+    private final int port;
+    private final IoLoop[] loops;
+    private ServerSocketChannel serverChannel;
+    private Thread acceptor;
+    private volatile boolean running;
+
+    @Autowired
+    public BinaryProtocolServer(AccountService accountService,
+                                @Value("${corebanking.binary.host:0.0.0.0}") String host,
+                                @Value("${corebanking.binary.port:7070}") int port,
+                                @Value("${corebanking.binary.io-threads:0}") int ioThreads) {
+        this.accountService = accountService;
+        this.host = host;
+        this.port = port;
+        int count = ioThreads > 0 ? ioThreads : Runtime.getRuntime().availableProcessors();
+        this.loops = new IoLoop[count];
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(host, port), 1024);
+        running = true;
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new IoLoop(Selector.open());
+            loops[i].thread = new Thread(loops[i], "binary-io-" + i);
+            loops[i].thread.setDaemon(true);
+            loops[i].thread.start();
+        }
+        acceptor = new Thread(this::accept, "binary-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("Binary protocol listening on {}", serverChannel.getLocalAddress());
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        running = false;
+        serverChannel.close();
+        acceptor.join();
+        for (IoLoop loop : loops) {
+            loop.selector.wakeup();
+            loop.thread.join();
+        }
+    }
+
+    /**
+     * The bound port, which differs from the configured one when that was 0.
+     */
+    public int port() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    private void accept() {
+        int next = 0;
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                loops[next].register(channel);
+                next = (next + 1) % loops.length;
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                log.warn("Accepting a binary protocol connection failed", e);
+            }
+        }
+    }
+
+    private final class IoLoop implements Runnable {
+
+        private final Selector selector;
+        private final Queue<SocketChannel> pending = new ConcurrentLinkedQueue<>();
+        private final Queue<Connection> durable = new ConcurrentLinkedQueue<>();
+        private final ArrayDeque<ByteBuffer> buffers = new ArrayDeque<>();
+        private final byte[] scratch = new byte[BinaryFrames.MAX_ID_LENGTH];
+        private Thread thread;
+
+        private IoLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        private void register(SocketChannel channel) {
+            pending.add(channel);
+            selector.wakeup();
+        }
+
+        private void durable(Connection connection) {
+            durable.add(connection);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select();
+                    SocketChannel accepted;
+                    while ((accepted = pending.poll()) != null) {
+                        open(accepted);
+                    }
+                    Connection ready;
+                    while ((ready = durable.poll()) != null) {
+                        ready.onDurable();
+                    }
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        Connection connection = (Connection) key.attachment();
+                        try {
+                            if (key.isWritable()) {
+                                connection.onWritable();
+                            }
+                            if (key.isValid() && key.isReadable()) {
+                                connection.onReadable();
+                            }
+                        } catch (IOException | ProtocolException e) {
+                            connection.fail(e);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                log.error("Binary protocol I/O thread failed", e);
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    ((Connection) key.attachment()).close();
+                }
+                try {
+                    selector.close();
+                } catch (IOException e) {
+                    log.warn("Closing selector failed", e);
+                }
+            }
+        }
+
+        private void open(SocketChannel channel) {
+            try {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                Connection connection = new Connection(this, channel);
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            } catch (IOException e) {
+                log.warn("Registering a binary protocol connection failed", e);
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // already failing
+                }
+            }
+        }
+
+        private ByteBuffer takeBuffer() {
+            ByteBuffer buffer = buffers.poll();
+            return buffer != null ? buffer : ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+
+        private void returnBuffer(ByteBuffer buffer) {
+            buffer.clear();
+            buffers.push(buffer);
+        }
+    }
+
+    private final class Connection {
+
+        private final IoLoop loop;
+        private final SocketChannel channel;
+        private final ByteBuffer in;
+        private final ByteBuffer out;
+        private final ArrayDeque<Reply> waiting = new ArrayDeque<>();
+        private SelectionKey key;
+        private boolean closed;
+
+        private Connection(IoLoop loop, SocketChannel channel) {
+            this.loop = loop;
+            this.channel = channel;
+            this.in = loop.takeBuffer();
+            this.out = loop.takeBuffer();
+        }
+
+        private void onReadable() throws IOException {
+            if (channel.read(in) < 0) {
+                close();
+                return;
+            }
+            processAndFlush();
+        }
+
+        private void onWritable() throws IOException {
+            flush();
+            if (out.position() == 0) {
+                processAndFlush();
+            }
+        }
+
+        private void onDurable() {
+            if (closed) {
+                return;
+            }
+            try {
+                processAndFlush();
+            } catch (IOException | ProtocolException e) {
+                fail(e);
+            }
+        }
+
+        private void fail(Exception e) {
+            log.debug("Closing binary protocol connection", e);
+            close();
+        }
+
+        private void processAndFlush() throws IOException {
+            in.flip();
+            try {
+                drain();
+                process();
+                drain();
+            } finally {
+                in.compact();
+            }
+            flush();
+            if (out.position() > 0) {
+                key.interestOps(SelectionKey.OP_WRITE);
+            } else {
+                // With no room for another response, wait for the journal rather than spin on reads.
+                key.interestOps(hasRoom() ? SelectionKey.OP_READ : 0);
+            }
+        }
+
+        private void process() throws IOException {
+            while (in.remaining() >= BinaryFrames.LENGTH_SIZE) {
+                int bodyLength = in.getShort(in.position()) & 0xFFFF;
+                if (bodyLength < BinaryFrames.MIN_REQUEST_BODY_SIZE || bodyLength > BinaryFrames.MAX_REQUEST_BODY_SIZE) {
+                    throw new ProtocolException("Invalid frame length " + bodyLength);
+                }
+                if (in.remaining() < BinaryFrames.LENGTH_SIZE + bodyLength) {
+                    return;
+                }
+                if (!hasRoom()) {
+                    flush();
+                    drain();
+                    if (!hasRoom()) {
+                        return;
+                    }
+                }
+                int frameEnd = in.position() + BinaryFrames.LENGTH_SIZE + bodyLength;
+                in.position(in.position() + BinaryFrames.LENGTH_SIZE);
+                handle(frameEnd);
+                in.position(frameEnd);
+            }
+        }
+
+        private void handle(int frameEnd) {
+            long requestId = in.getLong();
+            byte opcode = in.get();
+            BigDecimal amount = BinaryFrames.getDecimal(in);
+            String origin;
+            String destination;
+            try {
+                origin = BinaryFrames.getId(in, loop.scratch);
+                destination = BinaryFrames.getId(in, loop.scratch);
+            } catch (BufferUnderflowException e) {
+                throw new ProtocolException("Frame length does not match its contents");
+            }
+            if (in.position() != frameEnd) {
+                throw new ProtocolException("Frame length does not match its contents");
+            }
+            try {
+                if (opcode == BinaryFrames.BALANCE) {
+                    if (origin == null) {
+                        throw new IllegalArgumentException("Account id is required");
+                    }
+                    reply(requestId, BinaryFrames.OK, accountService.getBalance(origin).balance(), null);
+                    return;
+                }
+                CompletableFuture<EventResponse> response =
+                        accountService.submitEvent(new EventRequest(type(opcode), origin, destination, amount));
+                if (response.isDone() && waiting.isEmpty()) {
+                    respond(requestId, response);
+                    return;
+                }
+                waiting.add(new Reply(requestId, response));
+                if (!response.isDone()) {
+                    response.whenComplete((ignored, failure) -> loop.durable(this));
+                }
+            } catch (RuntimeException e) {
+                reply(requestId, e);
+            }
+        }
+
+        /**
+         * Whether the output buffer can take one more response besides those still waiting for the journal.
+         */
+        private boolean hasRoom() {
+            return out.remaining() >= (waiting.size() + 1) * BinaryFrames.RESPONSE_SIZE;
+        }
+
+        /**
+         * Writes the waiting responses, in request order, up to the first one that is not durable yet.
+         */
+        private void drain() {
+            Reply next;
+            while ((next = waiting.peek()) != null) {
+                if (next.response == null) {
+                    respond(next.requestId, next.status, next.originBalance, next.destinationBalance);
+                } else if (next.response.isDone()) {
+                    respond(next.requestId, next.response);
+                } else {
+                    return;
+                }
+                waiting.poll();
+            }
+        }
+
+        private void reply(long requestId, byte status, BigDecimal originBalance, BigDecimal destinationBalance) {
+            if (waiting.isEmpty()) {
+                respond(requestId, status, originBalance, destinationBalance);
+            } else {
+                waiting.add(new Reply(requestId, status, originBalance, destinationBalance));
+            }
+        }
+
+        private void reply(long requestId, RuntimeException e) {
+            reply(requestId, status(requestId, e), null, null);
+        }
+
+        private void respond(long requestId, CompletableFuture<EventResponse> future) {
+            EventResponse response;
+            try {
+                response = future.join();
+            } catch (CompletionException e) {
+                respond(requestId, status(requestId, e.getCause() instanceof RuntimeException cause ? cause : e), null, null);
+                return;
+            }
+            respond(requestId, BinaryFrames.OK, balance(response.origin()), balance(response.destination()));
+        }
+
+        private void respond(long requestId, byte status, BigDecimal originBalance, BigDecimal destinationBalance) {
+            if (!BinaryFrames.fits(originBalance) || !BinaryFrames.fits(destinationBalance)) {
+                BinaryFrames.putResponse(out, requestId, BinaryFrames.ERROR, null, null);
+                return;
+            }
+            BinaryFrames.putResponse(out, requestId, status, originBalance, destinationBalance);
+        }
+
+        private void flush() throws IOException {
+            out.flip();
+            try {
+                channel.write(out);
+            } finally {
+                out.compact();
+            }
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("Closing binary protocol connection failed", e);
+            }
+            loop.returnBuffer(in);
+            loop.returnBuffer(out);
+        }
+    }
+
+    /**
+     * A response held back behind one that is not durable yet: either already decided, or still waiting
+     * for its event's journal record.
+     */
+    private static final class Reply {
+
+        private final long requestId;
+        private final byte status;
+        private final BigDecimal originBalance;
+        private final BigDecimal destinationBalance;
+        private final CompletableFuture<EventResponse> response;
+
+        private Reply(long requestId, byte status, BigDecimal originBalance, BigDecimal destinationBalance) {
+            this.requestId = requestId;
+            this.status = status;
+            this.originBalance = originBalance;
+            this.destinationBalance = destinationBalance;
+            this.response = null;
+        }
+
+        private Reply(long requestId, CompletableFuture<EventResponse> response) {
+            this.requestId = requestId;
+            this.status = BinaryFrames.OK;
+            this.originBalance = null;
+            this.destinationBalance = null;
+            this.response = response;
+        }
+    }
+
+    private static byte status(long requestId, RuntimeException e) {
+        if (e instanceof AccountNotFoundException) {
+            return BinaryFrames.NOT_FOUND;
+        }
+        if (e instanceof InsufficientFundsException) {
+            return BinaryFrames.INSUFFICIENT_FUNDS;
+        }
+        if (e instanceof IllegalArgumentException) {
+            return BinaryFrames.INVALID;
+        }
+        if (e instanceof InvalidOperationException) {
+            return BinaryFrames.REJECTED;
+        }
+        log.error("Binary protocol request {} failed", requestId, e);
+        return BinaryFrames.ERROR;
+    }
+
+    /**
+     * Event opcodes are the codes event types declare.
+     */
+    private static String type(byte opcode) {
+        EventType type = EventType.forCode(opcode);
+        if (type == null) {
+            throw InvalidEventException.INVALID_TYPE;
+        }
+        return type.getValue();
+    }
+
+    private static BigDecimal balance(AccountView account) {
+        return account == null ? null : account.balance();
+    }
+
+    private static final class ProtocolException extends RuntimeException {
+        private ProtocolException(String message) {
+            super(message);
+        }
+    }
+}
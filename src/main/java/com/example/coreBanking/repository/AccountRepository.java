@@ -1,25 +1,37 @@
 package com.example.coreBanking.repository;
-import com.example.coreBanking.model.Account;
-import org.springframework.stereotype.Repository;
 
-import java.util.Map;
-import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
-@Repository
-public class AccountRepository {
-    private Map<String, Account> accounts = new ConcurrentHashMap<>();
+public interface AccountRepository extends AccountSet {
 
-    public Optional<Account> findById(String id) {
-        return Optional.ofNullable(accounts.get(id));
-    }
+    /**
+     * Discards every account by swapping in an empty generation, so it takes the same time however many
+     * accounts there are. Returns once no event is still using the previous generation. Resets and loads
+     * run one at a time, so generations are swapped in the order of their numbers.
+     */
+    void reset();
 
-    public Account save(Account account) {
-        accounts.put(account.getId(), account);
-        return account;
-    }
+    /**
+     * Replaces every account with the ones {@code loader} saves into a fresh generation sized for
+     * {@code expectedAccounts}; the loader may save from several threads. Events keep using the current
+     * generation until the loader returns, then the new one is swapped in as by {@link #reset()}. If the
+     * loader throws, the fresh generation is discarded and nothing changes.
+     */
+    void load(int expectedAccounts, Consumer<AccountSet> loader);
+
+    /**
+     * Pins the current generation for one event. Reads and writes through the returned view keep going to
+     * that generation even if {@link #reset()} swaps in a new one meanwhile, so an event either happens
+     * entirely before a reset or entirely after it.
+     */
+    Pinned pin();
+
+    /**
+     * A generation pinned by {@link #pin()}; closing it lets a pending reset complete.
+     */
+    interface Pinned extends AccountSet, AutoCloseable {
 
-    public void reset() {
-        accounts.clear();
+        @Override
+        void close();
     }
 }
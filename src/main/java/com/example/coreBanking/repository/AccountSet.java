@@ -0,0 +1,25 @@
+package com.example.coreBanking.repository;
+
+import com.example.coreBanking.model.Account;
+
+import java.util.function.Consumer;
+
+/**
+ * Every account of one generation, which can also be counted and traversed.
+ */
+public interface AccountSet extends AccountStore {
+
+    int size();
+
+    /**
+     * The number of the generation these accounts belong to; every reset or load swaps in a higher one.
+     * For a repository, the generation that is current.
+     */
+    long generation();
+
+    /**
+     * Visits every account without blocking writers. Each account reflects its state at some point
+     * during the traversal; accounts created concurrently may or may not be visited.
+     */
+    void forEach(Consumer<Account> action);
+}
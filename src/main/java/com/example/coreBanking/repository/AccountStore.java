@@ -0,0 +1,16 @@
+package com.example.coreBanking.repository;
+
+import com.example.coreBanking.model.Account;
+
+import java.util.Optional;
+
+/**
+ * The accounts one event reads and writes. Event handlers only ever see this view, so a batch's working
+ * copy or a pinned generation can stand in for the repository without supporting resets or traversals.
+ */
+public interface AccountStore {
+
+    Optional<Account> findById(String id);
+
+    Account save(Account account);
+}
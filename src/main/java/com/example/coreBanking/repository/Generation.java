@@ -0,0 +1,50 @@
+package com.example.coreBanking.repository;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The accounts between two resets, counting the events that still use them. Pinning costs one striped
+ * increment and decrement, so events on different threads do not contend on the count. Generations are
+ * numbered from 0 in the order they are created, which is the order they are swapped in; a load that
+ * fails leaves its number unused.
+ */
+abstract class Generation implements AccountRepository.Pinned {
+
+    private static final long RETIRE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final long number;
+    private final LongAdder pins = new LongAdder();
+
+    Generation(long number) {
+        this.number = number;
+    }
+
+    @Override
+    public long generation() {
+        return number;
+    }
+
+    /**
+     * Counts one more user. The owning repository must re-check that this is still its current generation
+     * afterwards and {@link #close()} it otherwise, so a reset that already swapped it out never misses a user.
+     */
+    void acquire() {
+        pins.increment();
+    }
+
+    @Override
+    public void close() {
+        pins.decrement();
+    }
+
+    /**
+     * Waits until every event that pinned this generation before it was replaced has finished.
+     */
+    void awaitRetired() {
+        while (pins.sum() != 0) {
+            LockSupport.parkNanos(RETIRE_PARK_NANOS);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.coreBanking.repository;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * State a read model keeps for one generation of accounts at a time, like a {@link ThreadLocal} per
+ * generation. The first caller to ask for a newer generation swaps its state in, so a reset clears
+ * nothing and costs the same however many accounts there were, and an event still finishing on a retired
+ * generation gets no state to write into.
+ */
+public final class GenerationLocal<T> {
+
+    private final Supplier<T> initial;
+    private final AtomicReference<Entry<T>> current = new AtomicReference<>(new Entry<>(-1, null));
+    private final AtomicReference<Entry<T>> prepared = new AtomicReference<>();
+
+    public GenerationLocal(Supplier<T> initial) {
+        this.initial = initial;
+    }
+
+    /**
+     * The state of {@code generation}, which starts as the prepared one or empty if no other generation
+     * has been newer so far, or null once a newer generation has replaced it.
+     */
+    public T get(long generation) {
+        while (true) {
+            Entry<T> entry = current.get();
+            if (entry.generation == generation) {
+                return entry.value;
+            }
+            if (entry.generation > generation) {
+                return null;
+            }
+            Entry<T> next = prepared.get();
+            if (next == null || next.generation != generation) {
+                next = new Entry<>(generation, initial.get());
+            }
+            if (current.compareAndSet(entry, next)) {
+                prepared.compareAndSet(next, null);
+                return next.value;
+            }
+        }
+    }
+
+    /**
+     * The state of the repository's current generation.
+     */
+    public T get(AccountRepository accountRepository) {
+        while (true) {
+            T value = get(accountRepository.generation());
+            if (value != null) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Sets the state {@code generation} starts with, for a generation that is filled before it is swapped
+     * in. Has no effect once the generation's state exists.
+     */
+    public void prepare(long generation, T value) {
+        prepared.set(new Entry<>(generation, value));
+    }
+
+    private record Entry<T>(long generation, T value) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.coreBanking.repository;
+import com.example.coreBanking.model.Account;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Keeps {@link Account} objects in a {@link ConcurrentHashMap} per generation. A reset swaps in an empty
+ * map instead of clearing the old one, which the garbage collector reclaims once its last event is done.
+ */
+@Repository
+@ConditionalOnProperty(name = "corebanking.repository.type", havingValue = "heap", matchIfMissing = true)
+public class InMemoryAccountRepository implements AccountRepository {
+    private volatile Accounts accounts = new Accounts(0, 16);
+    private long lastGeneration;
+
+    @Override
+    public Optional<Account> findById(String id) {
+        return accounts.findById(id);
+    }
+
+    @Override
+    public Account save(Account account) {
+        return accounts.save(account);
+    }
+
+    @Override
+    public synchronized void reset() {
+        Accounts retired = accounts;
+        accounts = new Accounts(++lastGeneration, 16);
+        retired.awaitRetired();
+    }
+
+    @Override
+    public synchronized void load(int expectedAccounts, Consumer<AccountSet> loader) {
+        Accounts loaded = new Accounts(++lastGeneration, expectedAccounts);
+        loader.accept(loaded);
+        Accounts retired = accounts;
+        accounts = loaded;
+        retired.awaitRetired();
+    }
+
+    @Override
+    public int size() {
+        return accounts.size();
+    }
+
+    @Override
+    public long generation() {
+        return accounts.generation();
+    }
+
+    @Override
+    public void forEach(Consumer<Account> action) {
+        accounts.forEach(action);
+    }
+
+    @Override
+    public Pinned pin() {
+        while (true) {
+            Accounts current = accounts;
+            current.acquire();
+            if (accounts == current) {
+                return current;
+            }
+            current.close();
+        }
+    }
+
+    private static final class Accounts extends Generation {
+        private final Map<String, Account> accounts;
+
+        private Accounts(long number, int expectedAccounts) {
+            super(number);
+            accounts = new ConcurrentHashMap<>(expectedAccounts);
+        }
+
+        @Override
+        public Optional<Account> findById(String id) {
+            return Optional.ofNullable(accounts.get(id));
+        }
+
+        @Override
+        public Account save(Account account) {
+            accounts.put(account.getId(), account);
+            return account;
+        }
+
+        @Override
+        public int size() {
+            return accounts.size();
+        }
+
+        @Override
+        public void forEach(Consumer<Account> action) {
+            accounts.values().forEach(action);
+        }
+    }
+}
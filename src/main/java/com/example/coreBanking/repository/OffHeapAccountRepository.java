@@ -0,0 +1,330 @@
+package com.example.coreBanking.repository;
+import com.example.coreBanking.model.Account;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Open-addressing table kept in a direct {@link ByteBuffer}. Each slot stores the id hash,
+ * the ASCII id bytes, and the balance and held amount as {@code long}s of minor units (scale 2),
+ * so no per-account objects live on the heap. {@link Account} instances are only materialized
+ * when the service asks for one.
+ */
+@Repository
+@ConditionalOnProperty(name = "corebanking.repository.type", havingValue = "offheap")
+public class OffHeapAccountRepository implements AccountRepository {
+
+    public static final int SCALE = 2;
+    public static final int MAX_ID_LENGTH = 51;
+
+    private static final int SLOT_SIZE = 72;
+    private static final int HASH_OFFSET = 0;
+    private static final int LENGTH_OFFSET = 4;
+    private static final int ID_OFFSET = 5;
+    private static final int BALANCE_OFFSET = 56;
+    private static final int HELD_OFFSET = 64;
+    private static final double MAX_LOAD = 0.75;
+    private static final int MAX_CAPACITY = 1 << 24;
+    private static final int SCAN_CHUNK = 4096;
+
+    private final int initialCapacity;
+    private volatile Table table;
+    private long lastGeneration;
+
+    public OffHeapAccountRepository(
+            @Value("${corebanking.repository.offheap.initial-capacity:1048576}") int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(1, initialCapacity - 1)) << 1;
+        this.initialCapacity = Math.min(MAX_CAPACITY, Math.max(16, capacity));
+        this.table = new Table(0, this.initialCapacity);
+    }
+
+    @Override
+    public Optional<Account> findById(String id) {
+        return table.findById(id);
+    }
+
+    @Override
+    public Account save(Account account) {
+        return table.save(account);
+    }
+
+    // The retired table's direct memory is freed by its cleaner once the last event using it is gone.
+    @Override
+    public synchronized void reset() {
+        Table retired = table;
+        table = new Table(++lastGeneration, initialCapacity);
+        retired.awaitRetired();
+    }
+
+    @Override
+    public synchronized void load(int expectedAccounts, Consumer<AccountSet> loader) {
+        int needed = (int) Math.min(MAX_CAPACITY, (long) Math.ceil(expectedAccounts / MAX_LOAD));
+        Table loaded = new Table(++lastGeneration,
+                Math.max(initialCapacity, Integer.highestOneBit(Math.max(1, needed - 1)) << 1));
+        loader.accept(loaded);
+        Table retired = table;
+        table = loaded;
+        retired.awaitRetired();
+    }
+
+    @Override
+    public void forEach(Consumer<Account> action) {
+        table.forEach(action);
+    }
+
+    @Override
+    public int size() {
+        return table.size();
+    }
+
+    @Override
+    public long generation() {
+        return table.generation();
+    }
+
+    @Override
+    public Pinned pin() {
+        while (true) {
+            Table current = table;
+            current.acquire();
+            if (table == current) {
+                return current;
+            }
+            current.close();
+        }
+    }
+
+    public static long toMinorUnits(BigDecimal amount) {
+        try {
+            return amount.movePointRight(SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount must fit in a long with at most " + SCALE + " decimal places");
+        }
+    }
+
+    /**
+     * One generation of the table. The stamped lock only guards resizing, which replaces the slot buffer.
+     */
+    private static final class Table extends Generation {
+
+        private final StampedLock lock = new StampedLock();
+        private ByteBuffer slots;
+        private int mask;
+        private int size;
+
+        private Table(long number, int capacity) {
+            super(number);
+            slots = ByteBuffer.allocateDirect(capacity * SLOT_SIZE);
+            mask = capacity - 1;
+        }
+
+        @Override
+        public Optional<Account> findById(String id) {
+            if (id == null) {
+                return Optional.empty();
+            }
+            int hash = hash(id);
+            long stamp = lock.tryOptimisticRead();
+            ByteBuffer currentSlots = slots;
+            int currentMask = mask;
+            Account account = lock.validate(stamp) ? lookup(currentSlots, currentMask, id, hash) : null;
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    account = lookup(slots, mask, id, hash);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return Optional.ofNullable(account);
+        }
+
+        @Override
+        public Account save(Account account) {
+            String id = account.getId();
+            checkId(id);
+            long minorUnits = toMinorUnits(account.getBalance());
+            long heldMinorUnits = toMinorUnits(account.getHeld());
+            int hash = hash(id);
+
+            long stamp = lock.readLock();
+            try {
+                int slot = indexOf(slots, mask, id, hash);
+                if (!isEmpty(slots, slot)) {
+                    slots.putLong(slot + BALANCE_OFFSET, minorUnits);
+                    slots.putLong(slot + HELD_OFFSET, heldMinorUnits);
+                    return account;
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+
+            stamp = lock.writeLock();
+            try {
+                if (size + 1 > (mask + 1) * MAX_LOAD) {
+                    resize();
+                }
+                int slot = indexOf(slots, mask, id, hash);
+                if (isEmpty(slots, slot)) {
+                    writeKey(slots, slot, id, hash);
+                    size++;
+                }
+                slots.putLong(slot + BALANCE_OFFSET, minorUnits);
+                slots.putLong(slot + HELD_OFFSET, heldMinorUnits);
+                return account;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        // Scans in chunks so inserts are not blocked for the whole traversal. When a resize replaces the
+        // slot buffer the scan restarts on the new one; accounts seen twice are harmless because the later
+        // visit always observes the newer balance.
+        @Override
+        public void forEach(Consumer<Account> action) {
+            ByteBuffer scanned = null;
+            int next = 0;
+            int capacity = 0;
+            List<Account> chunk = new ArrayList<>(SCAN_CHUNK);
+            while (scanned == null || next < capacity) {
+                long stamp = lock.readLock();
+                try {
+                    if (scanned != slots) {
+                        scanned = slots;
+                        capacity = mask + 1;
+                        next = 0;
+                    }
+                    int end = Math.min(capacity, next + SCAN_CHUNK);
+                    for (int i = next; i < end; i++) {
+                        int slot = i * SLOT_SIZE;
+                        if (!isEmpty(scanned, slot)) {
+                            chunk.add(readAccount(scanned, slot, readKey(scanned, slot)));
+                        }
+                    }
+                    next = end;
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+                chunk.forEach(action);
+                chunk.clear();
+            }
+        }
+
+        @Override
+        public int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private void resize() {
+            ByteBuffer old = slots;
+            int oldCapacity = mask + 1;
+            if (oldCapacity >= MAX_CAPACITY) {
+                throw new IllegalStateException("Off-heap account store is full");
+            }
+            int newCapacity = oldCapacity << 1;
+            ByteBuffer grown = ByteBuffer.allocateDirect(newCapacity * SLOT_SIZE);
+            int newMask = newCapacity - 1;
+            for (int i = 0; i < oldCapacity; i++) {
+                int from = i * SLOT_SIZE;
+                if (isEmpty(old, from)) {
+                    continue;
+                }
+                int index = old.getInt(from + HASH_OFFSET) & newMask;
+                while (!isEmpty(grown, index * SLOT_SIZE)) {
+                    index = (index + 1) & newMask;
+                }
+                grown.put(index * SLOT_SIZE, old, from, SLOT_SIZE);
+            }
+            slots = grown;
+            mask = newMask;
+        }
+    }
+
+    private static Account lookup(ByteBuffer slots, int mask, String id, int hash) {
+        int slot = indexOf(slots, mask, id, hash);
+        return isEmpty(slots, slot) ? null : readAccount(slots, slot, id);
+    }
+
+    private static Account readAccount(ByteBuffer slots, int slot, String id) {
+        return new Account(id, BigDecimal.valueOf(slots.getLong(slot + BALANCE_OFFSET), SCALE),
+                BigDecimal.valueOf(slots.getLong(slot + HELD_OFFSET), SCALE));
+    }
+
+    // Returns the byte offset of the slot holding the id, or of the empty slot where it would go.
+    // The load factor cap guarantees an empty slot exists, so probing always terminates.
+    private static int indexOf(ByteBuffer slots, int mask, String id, int hash) {
+        int index = hash & mask;
+        while (true) {
+            int slot = index * SLOT_SIZE;
+            if (isEmpty(slots, slot)) {
+                return slot;
+            }
+            if (slots.getInt(slot + HASH_OFFSET) == hash && keyEquals(slots, slot, id)) {
+                return slot;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private static boolean isEmpty(ByteBuffer slots, int slot) {
+        return slots.get(slot + LENGTH_OFFSET) == 0;
+    }
+
+    private static boolean keyEquals(ByteBuffer slots, int slot, String id) {
+        int length = slots.get(slot + LENGTH_OFFSET) - 1;
+        if (length != id.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (slots.get(slot + ID_OFFSET + i) != (byte) id.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String readKey(ByteBuffer slots, int slot) {
+        int length = slots.get(slot + LENGTH_OFFSET) - 1;
+        byte[] id = new byte[length];
+        slots.get(slot + ID_OFFSET, id);
+        return new String(id, StandardCharsets.US_ASCII);
+    }
+
+    private static void writeKey(ByteBuffer slots, int slot, String id, int hash) {
+        slots.putInt(slot + HASH_OFFSET, hash);
+        for (int i = 0; i < id.length(); i++) {
+            slots.put(slot + ID_OFFSET + i, (byte) id.charAt(i));
+        }
+        slots.put(slot + LENGTH_OFFSET, (byte) (id.length() + 1));
+    }
+
+    private static void checkId(String id) {
+        if (id == null || id.length() > MAX_ID_LENGTH) {
+            throw new IllegalArgumentException("Account id must be at most " + MAX_ID_LENGTH + " characters");
+        }
+        for (int i = 0; i < id.length(); i++) {
+            if (id.charAt(i) > 0x7F) {
+                throw new IllegalArgumentException("Account id must be ASCII");
+            }
+        }
+    }
+
+    private static int hash(String id) {
+        int h = id.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
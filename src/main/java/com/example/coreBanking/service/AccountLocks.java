@@ -0,0 +1,133 @@
+package com.example.coreBanking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed pool of locks shared by all accounts. An account always maps to the same stripe,
+ * and multi-account operations acquire stripes in ascending index order so they cannot deadlock.
+ */
+@Component
+public class AccountLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final LongAdder contendedAcquisitions = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    public AccountLocks(@Value("${corebanking.ledger.lock-stripes:1024}") int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Lock stripe count must be positive");
+        }
+        int size = stripeCount == 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public int stripeOf(String accountId) {
+        int h = accountId == null ? 0 : accountId.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * @return whether the stripe was held by another thread and the caller had to wait
+     */
+    public boolean lock(String accountId) {
+        return acquire(stripes[stripeOf(accountId)]);
+    }
+
+    public void unlock(String accountId) {
+        stripes[stripeOf(accountId)].unlock();
+    }
+
+    public void lockPair(String first, String second) {
+        int a = stripeOf(first);
+        int b = stripeOf(second);
+        if (a == b) {
+            acquire(stripes[a]);
+            return;
+        }
+        acquire(stripes[Math.min(a, b)]);
+        acquire(stripes[Math.max(a, b)]);
+    }
+
+    public void unlockPair(String first, String second) {
+        int a = stripeOf(first);
+        int b = stripeOf(second);
+        if (a == b) {
+            stripes[a].unlock();
+            return;
+        }
+        stripes[Math.max(a, b)].unlock();
+        stripes[Math.min(a, b)].unlock();
+    }
+
+    /**
+     * Locks the stripes of all given accounts in ascending order.
+     *
+     * @return the locked stripes, to be passed to {@link #unlockAll(int[])}
+     */
+    public int[] lockAll(Collection<String> accountIds) {
+        int[] stripeIds = accountIds.stream().mapToInt(this::stripeOf).sorted().distinct().toArray();
+        for (int stripe : stripeIds) {
+            acquire(stripes[stripe]);
+        }
+        return stripeIds;
+    }
+
+    /**
+     * Locks every stripe in ascending order, which excludes all lock-based writers.
+     *
+     * @return the locked stripes, to be passed to {@link #unlockAll(int[])}
+     */
+    public int[] lockAllStripes() {
+        int[] stripeIds = new int[stripes.length];
+        for (int stripe = 0; stripe < stripes.length; stripe++) {
+            acquire(stripes[stripe]);
+            stripeIds[stripe] = stripe;
+        }
+        return stripeIds;
+    }
+
+    public void unlockAll(int[] stripeIds) {
+        for (int i = stripeIds.length - 1; i >= 0; i--) {
+            stripes[stripeIds[i]].unlock();
+        }
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Number of acquisitions that found their stripe held and had to wait.
+     */
+    public long contendedAcquisitions() {
+        return contendedAcquisitions.sum();
+    }
+
+    /**
+     * Total time spent waiting in contended acquisitions.
+     */
+    public long waitNanos() {
+        return waitNanos.sum();
+    }
+
+    private boolean acquire(ReentrantLock stripe) {
+        if (stripe.tryLock()) {
+            return false;
+        }
+        long start = System.nanoTime();
+        stripe.lock();
+        waitNanos.add(System.nanoTime() - start);
+        contendedAcquisitions.increment();
+        return true;
+    }
+}
@@ -1,80 +1,734 @@
 package com.example.coreBanking.service;
 
+import com.example.coreBanking.bulk.AccountFiles;
+import com.example.coreBanking.bulk.BulkFormat;
+import com.example.coreBanking.cluster.ClusterRouter;
+import com.example.coreBanking.cluster.Partition;
+import com.example.coreBanking.cluster.TransferCommits;
+import com.example.coreBanking.dto.AggregatesResponse;
 import com.example.coreBanking.dto.BalanceResponse;
+import com.example.coreBanking.dto.BatchMode;
 import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.dto.EventResult;
+import com.example.coreBanking.dto.EventType;
+import com.example.coreBanking.dto.HoldResponse;
 import com.example.coreBanking.exception.AccountNotFoundException;
-import com.example.coreBanking.exception.InsufficientFundsException;
+import com.example.coreBanking.exception.InvalidOperationException;
+import com.example.coreBanking.history.Transaction;
+import com.example.coreBanking.history.TransactionHistory;
+import com.example.coreBanking.journal.EventJournal;
+import com.example.coreBanking.journal.SnapshotScheduler;
+import com.example.coreBanking.metrics.LedgerMetrics;
 import com.example.coreBanking.model.Account;
+import com.example.coreBanking.model.AccountView;
+import com.example.coreBanking.model.BalanceSnapshot;
+import com.example.coreBanking.model.Posting;
 import com.example.coreBanking.repository.AccountRepository;
+import com.example.coreBanking.repository.AccountSet;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+
+import java.io.IOException;
 import java.math.BigDecimal;
-import java.util.Map;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class AccountService {
 
+    public static final int BATCH_CHUNK_SIZE = 512;
+
     private final AccountRepository accountRepository;
+    private final AccountLocks accountLocks;
+    private final EventJournal eventJournal;
+    private final LedgerMetrics ledgerMetrics;
+    private ShardedLedger shardedLedger;
+    private HotAccounts hotAccounts;
+    private TransactionHistory transactionHistory;
+    private LedgerAggregates ledgerAggregates;
+    private BalanceReplica balanceReplica;
+    private SnapshotScheduler snapshotScheduler;
+    private FundsHolds fundsHolds;
+    private ClusterRouter clusterRouter;
+    private TransferCommits transferCommits;
+    private EventHandlers eventHandlers = new EventHandlers();
 
     @Autowired
-    public AccountService(AccountRepository accountRepository) {
+    public AccountService(AccountRepository accountRepository, AccountLocks accountLocks, EventJournal eventJournal,
+                          LedgerMetrics ledgerMetrics) {
         this.accountRepository = accountRepository;
+        this.accountLocks = accountLocks;
+        this.eventJournal = eventJournal;
+        this.ledgerMetrics = ledgerMetrics;
+    }
+
+    /**
+     * Routes events through the single-writer engine instead of the stripe locks; only present when
+     * {@code corebanking.engine.type=sharded}.
+     */
+    @Autowired(required = false)
+    public void setShardedLedger(ShardedLedger shardedLedger) {
+        this.shardedLedger = shardedLedger;
+    }
+
+    /**
+     * Lets deposits to contended accounts skip the stripe lock; only present when
+     * {@code corebanking.hot-accounts.enabled=true}.
+     */
+    @Autowired(required = false)
+    public void setHotAccounts(HotAccounts hotAccounts) {
+        this.hotAccounts = hotAccounts;
+    }
+
+    /**
+     * Records every applied event for statement queries; only present when
+     * {@code corebanking.history.enabled=true}.
+     */
+    @Autowired(required = false)
+    public void setTransactionHistory(TransactionHistory transactionHistory) {
+        this.transactionHistory = transactionHistory;
+    }
+
+    /**
+     * Keeps dashboard totals and the balance ranking up to date; only present when
+     * {@code corebanking.aggregates.enabled=true}.
+     */
+    @Autowired(required = false)
+    public void setLedgerAggregates(LedgerAggregates ledgerAggregates) {
+        this.ledgerAggregates = ledgerAggregates;
+    }
+
+    /**
+     * Serves balance reads from published snapshots instead of the accounts writers are changing; only
+     * present when {@code corebanking.balance-replica.enabled=true}.
+     */
+    @Autowired(required = false)
+    public void setBalanceReplica(BalanceReplica balanceReplica) {
+        this.balanceReplica = balanceReplica;
+    }
+
+    /**
+     * The dispatch table shared with the sharded engine, so an operation registered on it reaches both; a
+     * service built by hand uses a table of the built-in operations.
+     */
+    @Autowired(required = false)
+    public void setEventHandlers(EventHandlers eventHandlers) {
+        this.eventHandlers = eventHandlers;
+        registerHoldHandlers();
+    }
+
+    /**
+     * Makes bulk imports durable without journaling every account; only present when
+     * {@code corebanking.journal.enabled=true}.
+     */
+    @Autowired(required = false)
+    public void setSnapshotScheduler(SnapshotScheduler snapshotScheduler) {
+        this.snapshotScheduler = snapshotScheduler;
+    }
+
+    /**
+     * Reserves funds for two-phase payments; only present when {@code corebanking.holds.enabled=true}.
+     * Its hold, capture and release operations join the dispatch table.
+     */
+    @Autowired(required = false)
+    public void setFundsHolds(FundsHolds fundsHolds) {
+        this.fundsHolds = fundsHolds;
+        registerHoldHandlers();
+    }
+
+    private void registerHoldHandlers() {
+        if (fundsHolds != null) {
+            fundsHolds.handlers().forEach(eventHandlers::register);
+        }
+    }
+
+    /**
+     * Makes this node one partition of a cluster, forwarding events and reads for accounts other nodes
+     * own; only present when {@code corebanking.cluster.enabled=true}.
+     */
+    @Autowired(required = false)
+    public void setClusterRouter(ClusterRouter clusterRouter) {
+        this.clusterRouter = clusterRouter;
+        clusterRouter.bindLocal(new LocalPartition());
+    }
+
+    /**
+     * Remembers the cross-partition commits this node applied, so a retried one takes effect once; only
+     * present when {@code corebanking.cluster.enabled=true}.
+     */
+    @Autowired(required = false)
+    public void setTransferCommits(TransferCommits transferCommits) {
+        this.transferCommits = transferCommits;
     }
 
     public BalanceResponse getBalance(String accountId) {
+        if (clusterRouter != null) {
+            BalanceResponse remote = clusterRouter.balance(accountId);
+            if (remote != null) {
+                return remote;
+            }
+        }
+        return localBalance(accountId);
+    }
+
+    private BalanceResponse localBalance(String accountId) {
+        if (balanceReplica != null) {
+            BalanceSnapshot snapshot = balanceReplica.find(accountId);
+            if (snapshot != null) {
+                return new BalanceResponse(snapshot.balance());
+            }
+        }
         return accountRepository.findById(accountId)
                 .map(account -> new BalanceResponse(account.getBalance()))
                 .orElseThrow(() -> new AccountNotFoundException("Account not found"));
     }
 
-    public Object handleEvent(EventRequest request) {
-        return switch (request.getType()) {
-            case "deposit" -> handleDeposit(request);
-            case "withdraw" -> handleWithdraw(request);
-            case "transfer" -> handleTransfer(request);
-            default -> throw new IllegalArgumentException("Invalid event type");
-        };
+    /**
+     * The account's balance changes with {@code from <= timestamp < to}, oldest first; either bound may be null.
+     */
+    public List<Transaction> getTransactions(String accountId, Instant from, Instant to) {
+        if (transactionHistory == null) {
+            throw new InvalidOperationException("Transaction history is disabled");
+        }
+        requireOwned(accountId);
+        if (accountRepository.findById(accountId).isEmpty()) {
+            throw new AccountNotFoundException("Account not found");
+        }
+        return transactionHistory.find(accountId, from, to);
     }
 
-    private Object handleDeposit(EventRequest request) {
-        Account account = accountRepository.findById(request.getDestination())
-                .orElseGet(() -> new Account(request.getDestination(), BigDecimal.ZERO));
-        account.setBalance(account.getBalance().add(request.getAmount()));
-        accountRepository.save(account);
-        return Map.of("destination", account);
+    public AggregatesResponse getAggregates(int top) {
+        if (ledgerAggregates == null) {
+            throw new InvalidOperationException("Aggregates are disabled");
+        }
+        return ledgerAggregates.snapshot(top);
     }
 
-    private Object handleWithdraw(EventRequest request) {
-        Account account = accountRepository.findById(request.getOrigin())
-                .orElseThrow(() -> new AccountNotFoundException("Account not found"));
-        if (account.getBalance().compareTo(request.getAmount()) < 0) {
-            throw new InsufficientFundsException("Insufficient funds");
+    public EventResponse handleEvent(EventRequest request) {
+        long start = ledgerMetrics.startEvent();
+        try {
+            EventResponse result = dispatch(request);
+            ledgerMetrics.recordEvent(request.getType(), null, start);
+            return result;
+        } catch (RuntimeException e) {
+            ledgerMetrics.recordEvent(request.getType(), e, start);
+            throw e;
         }
-        account.setBalance(account.getBalance().subtract(request.getAmount()));
-        accountRepository.save(account);
-        return Map.of("origin", account);
     }
 
-    private Object handleTransfer(EventRequest request) {
-        Account origin = accountRepository.findById(request.getOrigin())
-                .orElseThrow(() -> new AccountNotFoundException("Origin account not found"));
-        Account destination = accountRepository.findById(request.getDestination())
-                .orElseGet(() -> new Account(request.getDestination(), BigDecimal.ZERO));
+    /**
+     * Applies the event and returns without waiting for the journal; the future completes with the same
+     * response as {@link #handleEvent(EventRequest)} once the event is durable. Failures to apply the event
+     * are thrown here. The sharded engine has no such split, so with it the future is already complete.
+     */
+    public CompletableFuture<EventResponse> submitEvent(EventRequest request) {
+        long start = ledgerMetrics.startEvent();
+        Applied applied;
+        try {
+            EventResponse routed = clusterRouter == null ? null : clusterRouter.route(request);
+            if (routed != null) {
+                ledgerMetrics.recordEvent(request.getType(), null, start);
+                return CompletableFuture.completedFuture(routed);
+            }
+            applied = shardedLedger != null ? new Applied(shardedLedger.execute(request), 0) : apply(request);
+        } catch (RuntimeException e) {
+            ledgerMetrics.recordEvent(request.getType(), e, start);
+            throw e;
+        }
+        return eventJournal.whenDurable(applied.sequence()).handle((ignored, failure) -> {
+            if (failure != null) {
+                RuntimeException cause = failure instanceof RuntimeException runtime ? runtime : new CompletionException(failure);
+                ledgerMetrics.recordEvent(request.getType(), cause, start);
+                throw cause;
+            }
+            ledgerMetrics.recordEvent(request.getType(), null, start);
+            return applied.result();
+        });
+    }
+
+    private EventResponse dispatch(EventRequest request) {
+        if (clusterRouter != null) {
+            EventResponse routed = clusterRouter.route(request);
+            if (routed != null) {
+                return routed;
+            }
+        }
+        return dispatchLocal(request);
+    }
+
+    private EventResponse dispatchLocal(EventRequest request) {
+        if (shardedLedger != null) {
+            return shardedLedger.execute(request);
+        }
+        Applied applied = apply(request);
+        eventJournal.awaitDurable(applied.sequence());
+        return applied.result();
+    }
+
+    private Applied apply(EventRequest request) {
+        return apply(request, null);
+    }
+
+    /**
+     * Takes the locks of the accounts the event's type needs and applies it with its handler. Invalid
+     * requests are rejected here, before the repository is touched. An event that commits the transfer
+     * {@code transactionId} is applied only if the transfer has not committed it already, which is
+     * checked under the same locks; otherwise the first commit's result is returned.
+     */
+    private Applied apply(EventRequest request, String transactionId) {
+        EventType type = request.eventType();
+        EventHandler handler = eventHandlers.forType(type);
+        String first = type.needsOrigin() ? request.getOrigin() : request.getDestination();
+        String second = type.needsOrigin() && type.needsDestination() ? request.getDestination() : null;
+        EventResponse result;
+        long sequence;
+        try (AccountRepository.Pinned accounts = accountRepository.pin()) {
+            if (type == EventType.DEPOSIT && hotAccounts != null) {
+                result = hotAccounts.deposit(accounts, request);
+                if (result != null) {
+                    observe(accounts, request, result);
+                    return new Applied(result, 0);
+                }
+            }
+            if (second == null) {
+                if (accountLocks.lock(first) && type == EventType.DEPOSIT && hotAccounts != null) {
+                    hotAccounts.recordContention(first);
+                }
+            } else {
+                accountLocks.lockPair(first, second);
+            }
+            try {
+                eventJournal.checkWritable();
+                if (transactionId != null) {
+                    TransferCommits.Commit commit = transferCommits.find(type.getValue(), transactionId);
+                    if (commit != null) {
+                        return new Applied(type.needsOrigin() ? EventResponse.origin(commit.account())
+                                : EventResponse.destination(commit.account()), commit.sequence());
+                    }
+                }
+                result = handler.apply(accounts, request);
+                if (transactionId == null) {
+                    sequence = record(accounts, request, result);
+                } else {
+                    sequence = eventJournal.appendCommit(transactionId, request.getType(), request.getAmount(),
+                            result.accounts());
+                    observe(accounts, request, result);
+                    transferCommits.record(type.getValue(), transactionId, result.accounts()[0], sequence);
+                }
+            } finally {
+                if (second == null) {
+                    accountLocks.unlock(first);
+                } else {
+                    accountLocks.unlockPair(first, second);
+                }
+            }
+        }
+        return new Applied(result, sequence);
+    }
+
+    /**
+     * Reserves {@code amount} of the account's available balance for {@code ttlSeconds}, or for the default
+     * TTL when it is null. Placing, capturing and releasing holds are journaled, but only balances are
+     * replayed, so a restart releases every hold.
+     */
+    public HoldResponse placeHold(String accountId, BigDecimal amount, Long ttlSeconds) {
+        FundsHolds holds = requireHolds();
+        requireOwned(accountId);
+        HoldRequest request = HoldRequest.place(accountId, amount, holds.ttl(ttlSeconds));
+        handleEvent(request);
+        return request.response;
+    }
+
+    public HoldResponse releaseHold(String holdId) {
+        Hold hold = requireHolds().find(holdId);
+        HoldRequest request = HoldRequest.settle(FundsHolds.RELEASE, hold, hold.amount);
+        handleEvent(request);
+        return request.response;
+    }
+
+    /**
+     * Ends the hold and withdraws {@code amount} of it, or all of it when {@code amount} is null; the rest
+     * goes back to the available balance.
+     */
+    public EventResponse captureHold(String holdId, BigDecimal amount) {
+        Hold hold = requireHolds().find(holdId);
+        return handleEvent(HoldRequest.settle(FundsHolds.CAPTURE, hold, amount == null ? hold.amount : amount));
+    }
+
+    /**
+     * Applies one side of the cross-partition transfer {@code transactionId} on this node, at most once.
+     */
+    private EventResponse commit(EventRequest request, String transactionId) {
+        long start = ledgerMetrics.startEvent();
+        try {
+            Applied applied = apply(request, transactionId);
+            eventJournal.awaitDurable(applied.sequence());
+            ledgerMetrics.recordEvent(request.getType(), null, start);
+            return applied.result();
+        } catch (RuntimeException e) {
+            ledgerMetrics.recordEvent(request.getType(), e, start);
+            throw e;
+        }
+    }
 
-        if (origin.getBalance().compareTo(request.getAmount()) < 0) {
-            throw new InsufficientFundsException("Insufficient funds");
+    private FundsHolds requireHolds() {
+        if (fundsHolds == null) {
+            throw new InvalidOperationException("Holds are disabled");
         }
+        return fundsHolds;
+    }
 
-        origin.setBalance(origin.getBalance().subtract(request.getAmount()));
-        destination.setBalance(destination.getBalance().add(request.getAmount()));
+    /**
+     * Rejects requests for another node's account that are only served by the node owning it.
+     */
+    private void requireOwned(String accountId) {
+        if (clusterRouter != null && accountId != null && !clusterRouter.owns(accountId)) {
+            throw new InvalidOperationException("Account is owned by node " + clusterRouter.ownerOf(accountId));
+        }
+    }
 
-        accountRepository.save(origin);
-        accountRepository.save(destination);
+    /**
+     * Applies the events in order. In {@link BatchMode#BEST_EFFORT} mode every event succeeds or fails on
+     * its own; in {@link BatchMode#ATOMIC} mode either all events are applied or none is.
+     */
+    public List<EventResult> handleEvents(List<EventRequest> requests, BatchMode mode) {
+        if (clusterRouter != null && !ownsAll(requests)) {
+            return applyRouted(requests, mode);
+        }
+        if (shardedLedger != null) {
+            return applySharded(requests, mode);
+        }
+        if (mode == BatchMode.ATOMIC) {
+            return applyAtomically(requests);
+        }
+        List<EventResult> results = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += BATCH_CHUNK_SIZE) {
+            applyBestEffort(requests.subList(from, Math.min(requests.size(), from + BATCH_CHUNK_SIZE)), results);
+        }
+        return results;
+    }
 
-        return Map.of("origin", origin, "destination", destination);
+    private void applyBestEffort(List<EventRequest> chunk, List<EventResult> results) {
+        long lastSequence = 0;
+        try (AccountRepository.Pinned accounts = accountRepository.pin()) {
+            int[] stripes = accountLocks.lockAll(accountIds(chunk));
+            try {
+                for (EventRequest request : chunk) {
+                    try {
+                        eventJournal.checkWritable();
+                        EventResponse result = eventHandlers.apply(accounts, request);
+                        lastSequence = Math.max(lastSequence, record(accounts, request, result));
+                        results.add(EventResult.success(result));
+                        ledgerMetrics.recordBatchEvent(request.getType(), null);
+                    } catch (RuntimeException e) {
+                        results.add(EventResult.failure(e));
+                        ledgerMetrics.recordBatchEvent(request.getType(), e);
+                    }
+                }
+            } finally {
+                accountLocks.unlockAll(stripes);
+            }
+        }
+        eventJournal.awaitDurable(lastSequence);
     }
 
+    private List<EventResult> applyAtomically(List<EventRequest> requests) {
+        List<EventResult> results = new ArrayList<>(requests.size());
+        long sequence;
+        try (AccountRepository.Pinned accounts = accountRepository.pin()) {
+            int[] stripes = accountLocks.lockAll(accountIds(requests));
+            try {
+                eventJournal.checkWritable();
+                BatchOverlay overlay = new BatchOverlay(accounts);
+                for (int i = 0; i < requests.size(); i++) {
+                    try {
+                        results.add(EventResult.success(eventHandlers.apply(overlay, requests.get(i))));
+                    } catch (RuntimeException e) {
+                        return abortedResults(requests, i, e);
+                    }
+                }
+                // Nothing is committed unless the journal took the batch.
+                sequence = eventJournal.append("batch", null, overlay.changes());
+                overlay.commit();
+                for (int i = 0; i < requests.size(); i++) {
+                    observe(accounts, requests.get(i), results.get(i).getResult());
+                    ledgerMetrics.recordBatchEvent(requests.get(i).getType(), null);
+                }
+            } finally {
+                accountLocks.unlockAll(stripes);
+            }
+        }
+        eventJournal.awaitDurable(sequence);
+        return results;
+    }
+
+    private List<EventResult> applySharded(List<EventRequest> requests, BatchMode mode) {
+        if (mode == BatchMode.ATOMIC) {
+            throw new InvalidOperationException("Atomic batches are not supported by the sharded engine");
+        }
+        // One at a time: a credit handed to another shard must land before later events may depend on it.
+        List<EventResult> results = new ArrayList<>(requests.size());
+        for (EventRequest request : requests) {
+            try {
+                results.add(EventResult.success(shardedLedger.execute(request)));
+                ledgerMetrics.recordBatchEvent(request.getType(), null);
+            } catch (RuntimeException e) {
+                results.add(EventResult.failure(e));
+                ledgerMetrics.recordBatchEvent(request.getType(), e);
+            }
+        }
+        return results;
+    }
+
+    private boolean ownsAll(List<EventRequest> requests) {
+        for (EventRequest request : requests) {
+            try {
+                if (!clusterRouter.owns(request)) {
+                    return false;
+                }
+            } catch (RuntimeException e) {
+                // Invalid events fail on their own in whichever path applies the batch.
+            }
+        }
+        return true;
+    }
+
+    private List<EventResult> applyRouted(List<EventRequest> requests, BatchMode mode) {
+        if (mode == BatchMode.ATOMIC) {
+            throw new InvalidOperationException("Atomic batches must stay within one node's accounts");
+        }
+        // One at a time, like the sharded engine: a later event may depend on a credit made on another node.
+        List<EventResult> results = new ArrayList<>(requests.size());
+        for (EventRequest request : requests) {
+            try {
+                results.add(EventResult.success(dispatch(request)));
+                ledgerMetrics.recordBatchEvent(request.getType(), null);
+            } catch (RuntimeException e) {
+                results.add(EventResult.failure(e));
+                ledgerMetrics.recordBatchEvent(request.getType(), e);
+            }
+        }
+        return results;
+    }
+
+    private List<EventResult> abortedResults(List<EventRequest> requests, int failedIndex, RuntimeException cause) {
+        List<EventResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            if (i == failedIndex) {
+                results.add(EventResult.failure(cause));
+                ledgerMetrics.recordBatchEvent(requests.get(i).getType(), cause);
+            } else {
+                results.add(EventResult.aborted());
+                ledgerMetrics.recordAbortedEvent(requests.get(i).getType());
+            }
+        }
+        return results;
+    }
+
+    private static List<String> accountIds(List<EventRequest> requests) {
+        List<String> ids = new ArrayList<>(requests.size() * 2);
+        for (EventRequest request : requests) {
+            ids.add(request.getOrigin());
+            ids.add(request.getDestination());
+        }
+        return ids;
+    }
+
+    private long record(AccountSet accounts, EventRequest request, EventResponse result) {
+        long sequence = eventJournal.append(request.getType(), request.getAmount(), result.accounts());
+        observe(accounts, request, result);
+        return sequence;
+    }
+
+    /**
+     * Feeds an event applied to {@code accounts} to the optional read models while its accounts are still
+     * excluded from other writers.
+     */
+    private void observe(AccountSet accounts, EventRequest request, EventResponse result) {
+        if (transactionHistory != null || ledgerAggregates != null) {
+            EventHandler handler = eventHandlers.forType(request.eventType());
+            List<Posting> postings = handler.postings(request, result);
+            if (transactionHistory != null) {
+                transactionHistory.record(accounts, handler.type(), postings);
+            }
+            if (ledgerAggregates != null) {
+                ledgerAggregates.record(accounts, handler.type(), request.getAmount(), postings);
+            }
+        }
+        if (balanceReplica != null) {
+            balanceReplica.record(accounts, result);
+        }
+    }
+
+    /**
+     * Replaces every account with the accounts in the file, like a reset followed by one deposit per
+     * account but without the per-event path. The file is parsed in parallel before anything changes, and
+     * events keep running against the old accounts until the new ones are all in place.
+     *
+     * @return the number of accounts imported
+     */
+    public int importAccounts(Path file, BulkFormat format) throws IOException {
+        if (clusterRouter != null) {
+            throw new InvalidOperationException("Imports are not supported in cluster mode");
+        }
+        List<Account[]> chunks = AccountFiles.read(file, format);
+        long total = 0;
+        for (Account[] chunk : chunks) {
+            total += chunk.length;
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Account file holds too many accounts");
+        }
+        int expected = (int) total;
+        eventJournal.checkWritable();
+        accountRepository.load(expected, accounts -> {
+            chunks.parallelStream().forEach(chunk -> {
+                for (Account account : chunk) {
+                    accounts.save(account);
+                }
+            });
+            if (accounts.size() != expected) {
+                throw new IllegalArgumentException("Account file lists an account more than once");
+            }
+            if (ledgerAggregates != null) {
+                ledgerAggregates.seed(accounts);
+            }
+            if (balanceReplica != null) {
+                balanceReplica.seed(accounts);
+            }
+        });
+        if (transactionHistory != null) {
+            transactionHistory.advance();
+        }
+        if (fundsHolds != null) {
+            fundsHolds.reset();
+        }
+        // Replay starts from the snapshot, which holds the imported accounts; the reset record only
+        // matters if the process dies before the snapshot is published.
+        long sequence = eventJournal.append("reset", null);
+        if (snapshotScheduler != null) {
+            snapshotScheduler.snapshot();
+        }
+        eventJournal.awaitDurable(sequence);
+        return expected;
+    }
+
+    /**
+     * Writes every account to the file as of one instant: lock-based writers wait until the file is
+     * written, so no transfer is half visible in it.
+     *
+     * @return the number of accounts exported
+     */
+    public long exportAccounts(Path file, BulkFormat format) throws IOException {
+        if (shardedLedger != null) {
+            throw new InvalidOperationException("Exports are not supported by the sharded engine");
+        }
+        if (clusterRouter != null) {
+            throw new InvalidOperationException("Exports are not supported in cluster mode");
+        }
+        try (AccountRepository.Pinned accounts = accountRepository.pin()) {
+            int[] stripes = accountLocks.lockAllStripes();
+            try {
+                return AccountFiles.write(file, format, accounts);
+            } finally {
+                accountLocks.unlockAll(stripes);
+            }
+        }
+    }
+
+    /**
+     * Discards every account, on every node in cluster mode.
+     */
     public void reset() {
+        if (clusterRouter != null) {
+            clusterRouter.resetOthers();
+        }
+        resetLocal();
+    }
+
+    private void resetLocal() {
+        eventJournal.checkWritable();
         accountRepository.reset();
+        if (transactionHistory != null) {
+            transactionHistory.advance();
+        }
+        if (fundsHolds != null) {
+            fundsHolds.reset();
+        }
+        if (transferCommits != null) {
+            transferCommits.clear();
+        }
+        eventJournal.awaitDurable(eventJournal.append("reset", null));
+    }
+
+    /**
+     * This node's share of the cluster. Cross-partition transfers are built from the hold operations: the
+     * prepared debit is a hold, committed by capturing it, and the credit is a deposit.
+     */
+    private final class LocalPartition implements Partition {
+
+        @Override
+        public EventResponse apply(EventRequest request) {
+            if (!clusterRouter.owns(request)) {
+                throw new InvalidOperationException("Event belongs to another node");
+            }
+            return dispatchLocal(request);
+        }
+
+        @Override
+        public BalanceResponse balance(String accountId) {
+            requireOwned(accountId);
+            return localBalance(accountId);
+        }
+
+        @Override
+        public String prepareDebit(String transactionId, String accountId, BigDecimal amount) {
+            try {
+                return placeHold(accountId, amount, clusterRouter.prepareTtlSeconds()).id();
+            } catch (AccountNotFoundException e) {
+                throw new AccountNotFoundException("Origin account not found");
+            }
+        }
+
+        @Override
+        public void prepareCredit(String transactionId, String accountId) {
+            // Deposits open missing accounts, so the destination only has to be this node's.
+            requireOwned(accountId);
+        }
+
+        @Override
+        public AccountView commitDebit(String transactionId, String accountId, String holdId, BigDecimal amount) {
+            requireHolds();
+            requireOwned(accountId);
+            return commit(HoldRequest.capture(accountId, holdId, amount), transactionId).origin();
+        }
+
+        @Override
+        public AccountView commitCredit(String transactionId, String accountId, BigDecimal amount) {
+            requireOwned(accountId);
+            return commit(new EventRequest(EventType.DEPOSIT.getValue(), null, accountId, amount), transactionId)
+                    .destination();
+        }
+
+        @Override
+        public void abort(String transactionId, String holdId) {
+            releaseHold(holdId);
+        }
+
+        @Override
+        public void reset() {
+            resetLocal();
+        }
+    }
+
+    /**
+     * An applied event and the journal sequence it must wait for before it may be acknowledged.
+     */
+    private record Applied(EventResponse result, long sequence) {
     }
 }
@@ -0,0 +1,103 @@
+package com.example.coreBanking.service;
+
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.journal.EventJournal;
+import com.example.coreBanking.model.Account;
+import com.example.coreBanking.model.BalanceSnapshot;
+import com.example.coreBanking.repository.AccountRepository;
+import com.example.coreBanking.repository.AccountSet;
+import com.example.coreBanking.repository.GenerationLocal;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable {@link BalanceSnapshot}s for balance reads, published by writers once an event is applied.
+ * A read is a generation check and one map lookup: it never waits for a stripe lock, a resize of the
+ * off-heap table or a debit of a hot account, and never sees a balance halfway through an event.
+ * <p>
+ * Publishing re-reads the account inside {@link ConcurrentHashMap#compute}, like
+ * {@link LedgerAggregates}, so lock-free credits to hot accounts cannot leave an older balance behind a
+ * newer one. An account is missing until its first event after startup, a reset or an import has been
+ * published; callers fall back to the repository then.
+ * <p>
+ * Snapshots are published per generation of accounts. Reads only see the map of the repository's current
+ * generation, so a reset hides every older balance in the same step as it swaps the accounts, and writers
+ * still finishing an event on a retired generation publish into a map nobody reads.
+ */
+@Component
+@ConditionalOnProperty(name = "corebanking.balance-replica.enabled", havingValue = "true")
+public class BalanceReplica {
+
+    private final AccountRepository accountRepository;
+    private final GenerationLocal<ConcurrentHashMap<String, BalanceSnapshot>> snapshots =
+            new GenerationLocal<>(ConcurrentHashMap::new);
+
+    /**
+     * Takes the journal only so that it has replayed before {@link #seed()} reads the repository.
+     */
+    @Autowired
+    public BalanceReplica(AccountRepository accountRepository, EventJournal eventJournal) {
+        this.accountRepository = accountRepository;
+    }
+
+    @PostConstruct
+    public void seed() {
+        seed(accountRepository);
+    }
+
+    /**
+     * Publishes every account of a generation before any event has been applied to it.
+     */
+    public void seed(AccountSet accounts) {
+        ConcurrentHashMap<String, BalanceSnapshot> seeded = new ConcurrentHashMap<>(accounts.size());
+        accounts.forEach(account -> publish(seeded, accounts, account.getId()));
+        snapshots.prepare(accounts.generation(), seeded);
+    }
+
+    /**
+     * Publishes the accounts an event applied to {@code accounts} touched. Must be called after the
+     * event's balances are stored.
+     */
+    public void record(AccountSet accounts, EventResponse result) {
+        if (result.origin() != null) {
+            publish(accounts, result.origin().id());
+        }
+        if (result.destination() != null) {
+            publish(accounts, result.destination().id());
+        }
+    }
+
+    public void publish(AccountSet accounts, String accountId) {
+        ConcurrentHashMap<String, BalanceSnapshot> published = snapshots.get(accounts.generation());
+        if (published != null) {
+            publish(published, accounts, accountId);
+        }
+    }
+
+    /**
+     * @return the latest published balance, or null if none has been published
+     */
+    public BalanceSnapshot find(String accountId) {
+        ConcurrentHashMap<String, BalanceSnapshot> published = snapshots.get(accountRepository.generation());
+        return published == null ? null : published.get(accountId);
+    }
+
+    public int size() {
+        return snapshots.get(accountRepository).size();
+    }
+
+    private static void publish(ConcurrentHashMap<String, BalanceSnapshot> published, AccountSet accounts,
+                                String accountId) {
+        published.compute(accountId, (id, previous) -> {
+            Account account = accounts.findById(id).orElse(null);
+            if (account == null) {
+                return null;
+            }
+            return new BalanceSnapshot(account.getBalance(), previous == null ? 1 : previous.version() + 1);
+        });
+    }
+}
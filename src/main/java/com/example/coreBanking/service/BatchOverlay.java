@@ -0,0 +1,90 @@
+package com.example.coreBanking.service;
+
+import com.example.coreBanking.model.Account;
+import com.example.coreBanking.model.AccountView;
+import com.example.coreBanking.repository.AccountStore;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Private working copy used by an all-or-nothing batch. Events run against copies of the accounts
+ * they touch; only {@link #commit()} writes the results back to the underlying repository.
+ */
+class BatchOverlay implements AccountStore {
+
+    private final AccountStore base;
+    private final Map<String, Account> copies = new HashMap<>();
+    private final Map<String, BigDecimal> originalBalances = new HashMap<>();
+    private final Set<String> saved = new LinkedHashSet<>();
+
+    BatchOverlay(AccountStore base) {
+        this.base = base;
+    }
+
+    @Override
+    public Optional<Account> findById(String id) {
+        Account copy = copies.get(id);
+        if (copy == null) {
+            copy = base.findById(id).map(account -> new Account(account.getId(), account.getBalance(), account.getHeld())).orElse(null);
+            if (copy == null) {
+                return Optional.empty();
+            }
+            copies.put(id, copy);
+            originalBalances.put(id, copy.getBalance());
+        }
+        return Optional.of(copy);
+    }
+
+    @Override
+    public Account save(Account account) {
+        copies.put(account.getId(), account);
+        saved.add(account.getId());
+        return account;
+    }
+
+    /**
+     * The accounts the batch saved, as they stand in the working copy. They are what {@link #commit()}
+     * stores unless an account takes credits without its lock meanwhile, which the journal rules out.
+     */
+    AccountView[] changes() {
+        AccountView[] changes = new AccountView[saved.size()];
+        int i = 0;
+        for (String id : saved) {
+            changes[i++] = AccountView.of(copies.get(id));
+        }
+        return changes;
+    }
+
+    /**
+     * Applies the buffered balances to the underlying repository as differences, so credits that do not
+     * take locks ({@link com.example.coreBanking.model.HotAccount}) are kept. Callers must hold the locks
+     * of every account involved.
+     *
+     * @return the accounts as stored in the underlying repository
+     */
+    AccountView[] commit() {
+        AccountView[] committed = new AccountView[saved.size()];
+        int i = 0;
+        for (String id : saved) {
+            Account copy = copies.get(id);
+            Account target = base.findById(id).orElse(null);
+            if (target == null) {
+                committed[i++] = AccountView.of(base.save(copy));
+                continue;
+            }
+            BigDecimal difference = copy.getBalance().subtract(originalBalances.getOrDefault(id, BigDecimal.ZERO));
+            if (difference.signum() >= 0) {
+                target.credit(difference);
+            } else {
+                target.debit(difference.negate());
+            }
+            committed[i++] = AccountView.of(base.save(target));
+        }
+        return committed;
+    }
+}
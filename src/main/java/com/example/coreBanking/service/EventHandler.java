@@ -0,0 +1,59 @@
+package com.example.coreBanking.service;
+
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.dto.EventType;
+import com.example.coreBanking.model.AccountView;
+import com.example.coreBanking.model.Posting;
+import com.example.coreBanking.repository.AccountStore;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Applies the {@link EventType} it declares to a validated request. The engine calling it has already
+ * excluded other writers of the accounts the type needs, so a handler only implements the balance rules
+ * and says which balances it changed.
+ */
+public interface EventHandler {
+
+    /**
+     * A handler of {@code type} applying {@code operation}, with the default postings.
+     */
+    static EventHandler of(EventType type, BiFunction<AccountStore, EventRequest, EventResponse> operation) {
+        return new EventHandler() {
+            @Override
+            public EventType type() {
+                return type;
+            }
+
+            @Override
+            public EventResponse apply(AccountStore accounts, EventRequest request) {
+                return operation.apply(accounts, request);
+            }
+        };
+    }
+
+    EventType type();
+
+    EventResponse apply(AccountStore accounts, EventRequest request);
+
+    /**
+     * The balance changes {@code result} reports, for history and aggregates. By default the request's
+     * amount leaves the origin and reaches the destination, each naming the other as counterparty.
+     */
+    default List<Posting> postings(EventRequest request, EventResponse result) {
+        AccountView origin = result.origin();
+        AccountView destination = result.destination();
+        BigDecimal amount = request.getAmount();
+        if (origin == null) {
+            return List.of(new Posting(destination.id(), amount, null, destination.balance()));
+        }
+        if (destination == null) {
+            return List.of(new Posting(origin.id(), amount.negate(), null, origin.balance()));
+        }
+        return List.of(new Posting(origin.id(), amount.negate(), destination.id(), origin.balance()),
+                new Posting(destination.id(), amount, origin.id(), destination.balance()));
+    }
+}
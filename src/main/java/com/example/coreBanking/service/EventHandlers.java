@@ -0,0 +1,44 @@
+package com.example.coreBanking.service;
+
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.dto.EventType;
+import com.example.coreBanking.exception.InvalidEventException;
+import com.example.coreBanking.repository.AccountStore;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dispatch table from {@link EventType} to its {@link EventHandler}, indexed by the type's code. Starts
+ * with the built-in operations; {@link #register} adds a handler under the type it declares, or replaces
+ * the one there, and must happen before events are applied.
+ */
+@Component
+public class EventHandlers {
+
+    private final EventHandler[] handlers = new EventHandler[EventType.MAX_CODE + 1];
+
+    public EventHandlers() {
+        register(EventHandler.of(EventType.DEPOSIT, LedgerOperations::deposit));
+        register(EventHandler.of(EventType.WITHDRAW, LedgerOperations::withdraw));
+        register(EventHandler.of(EventType.TRANSFER, LedgerOperations::transfer));
+    }
+
+    public void register(EventHandler handler) {
+        handlers[handler.type().code()] = handler;
+    }
+
+    public EventHandler forType(EventType type) {
+        EventHandler handler = handlers[type.code()];
+        if (handler == null) {
+            throw InvalidEventException.INVALID_TYPE;
+        }
+        return handler;
+    }
+
+    /**
+     * Validates {@code request} and applies it with its handler.
+     */
+    public EventResponse apply(AccountStore accounts, EventRequest request) {
+        return forType(request.eventType()).apply(accounts, request);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.coreBanking.service;
+
+import com.example.coreBanking.dto.BatchMode;
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResult;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies a stream of events without materializing it: events are parsed incrementally, applied in
+ * best-effort chunks and their results written back as newline-delimited JSON, so memory use is
+ * bounded by the chunk size rather than the upload size. The output is flushed once per applied chunk,
+ * not once per line.
+ */
+@Component
+public class EventStreamProcessor {
+
+    private final AccountService accountService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter resultWriter;
+
+    @Autowired
+    public EventStreamProcessor(AccountService accountService, ObjectMapper objectMapper) {
+        this.accountService = accountService;
+        this.objectMapper = objectMapper;
+        this.resultWriter = objectMapper.writerFor(EventResult.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Reads newline-delimited events (a single top-level JSON array is accepted too) and writes one
+     * result line per event. A malformed event ends the stream after its error line, since the parser
+     * cannot resynchronize reliably.
+     *
+     * @return the number of events read
+     */
+    public long process(InputStream input, OutputStream output) throws IOException {
+        long count = 0;
+        List<EventRequest> chunk = new ArrayList<>(AccountService.BATCH_CHUNK_SIZE);
+        try (JsonParser parser = objectMapper.getFactory().createParser(input);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token != null && token != JsonToken.END_ARRAY) {
+                try {
+                    chunk.add(objectMapper.readValue(parser, EventRequest.class));
+                } catch (JsonProcessingException e) {
+                    flush(chunk, generator);
+                    writeLine(generator, EventResult.failure(new IllegalArgumentException("Malformed event")));
+                    generator.flush();
+                    return count;
+                }
+                count++;
+                if (chunk.size() == AccountService.BATCH_CHUNK_SIZE) {
+                    flush(chunk, generator);
+                }
+                token = parser.nextToken();
+            }
+            flush(chunk, generator);
+        }
+        return count;
+    }
+
+    private void flush(List<EventRequest> chunk, JsonGenerator generator) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        for (EventResult result : accountService.handleEvents(chunk, BatchMode.BEST_EFFORT)) {
+            writeLine(generator, result);
+        }
+        chunk.clear();
+        generator.flush();
+    }
+
+    private void writeLine(JsonGenerator generator, EventResult result) throws IOException {
+        resultWriter.writeValue(generator, result);
+        generator.writeRaw('\n');
+    }
+}
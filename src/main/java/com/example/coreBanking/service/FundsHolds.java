@@ -0,0 +1,286 @@
+package com.example.coreBanking.service;
+
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.dto.EventType;
+import com.example.coreBanking.dto.HoldResponse;
+import com.example.coreBanking.exception.AccountNotFoundException;
+import com.example.coreBanking.exception.HoldNotFoundException;
+import com.example.coreBanking.exception.InsufficientFundsException;
+import com.example.coreBanking.model.Account;
+import com.example.coreBanking.model.AccountView;
+import com.example.coreBanking.model.Posting;
+import com.example.coreBanking.repository.AccountRepository;
+import com.example.coreBanking.repository.AccountStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Reserves funds for two-phase payments. A hold adds to the account's held total, which withdrawals and
+ * transfers leave alone; it ends by being captured, released or expiring. Expiry runs off a
+ * {@link HoldWheel}, so a tick only visits the holds that fall due in it.
+ * <p>
+ * Placing, capturing and releasing a hold are events of their own types, applied by the {@link #handlers()}
+ * the account service registers: they take the account's stripe lock, are journaled and reach history,
+ * aggregates and metrics like any other event. Only a capture changes the balance. The journal restores
+ * balances, not holds, so after a restart every hold is gone and the accounts hold nothing, as if each had
+ * been released; expiry is not journaled for the same reason. Holds need the locking engine.
+ */
+@Component
+@ConditionalOnProperty(name = "corebanking.holds.enabled", havingValue = "true")
+public class FundsHolds {
+
+    public static final EventType HOLD = EventType.define("hold", 5, true, false);
+    public static final EventType CAPTURE = EventType.define("capture", 6, true, false);
+    public static final EventType RELEASE = EventType.define("release", 7, true, false);
+
+    private final AccountRepository accountRepository;
+    private final AccountLocks accountLocks;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+    private final HoldWheel wheel;
+    private final ConcurrentHashMap<String, Hold> holds = new ConcurrentHashMap<>();
+    private final LongAdder expired = new LongAdder();
+    private final List<EventHandler> handlers = List.of(
+            new Handler(HOLD, this::place, false),
+            new Handler(CAPTURE, this::capture, true),
+            new Handler(RELEASE, this::release, false));
+
+    @Autowired
+    public FundsHolds(AccountRepository accountRepository, AccountLocks accountLocks,
+                      @Value("${corebanking.holds.default-ttl-seconds:604800}") long defaultTtlSeconds,
+                      @Value("${corebanking.holds.max-ttl-seconds:2592000}") long maxTtlSeconds,
+                      @Value("${corebanking.holds.tick-ms:1000}") long tickMillis,
+                      @Value("${corebanking.holds.wheel-size:4096}") int wheelSize,
+                      @Value("${corebanking.engine.type:locking}") String engineType) {
+        if (!"locking".equals(engineType)) {
+            throw new IllegalStateException("Holds require the locking engine");
+        }
+        if (defaultTtlSeconds < 1 || maxTtlSeconds < defaultTtlSeconds || tickMillis < 1 || wheelSize < 1) {
+            throw new IllegalArgumentException("Hold settings must be positive, with the default TTL within the maximum");
+        }
+        this.accountRepository = accountRepository;
+        this.accountLocks = accountLocks;
+        this.defaultTtl = Duration.ofSeconds(defaultTtlSeconds);
+        this.maxTtl = Duration.ofSeconds(maxTtlSeconds);
+        this.wheel = new HoldWheel(wheelSize, TimeUnit.MILLISECONDS.toNanos(tickMillis), System.nanoTime());
+    }
+
+    /**
+     * The handlers of {@link #HOLD}, {@link #CAPTURE} and {@link #RELEASE}, which only accept the requests
+     * the account service builds for its hold endpoints.
+     */
+    public List<EventHandler> handlers() {
+        return handlers;
+    }
+
+    /**
+     * How long a hold asking for {@code ttlSeconds} lasts; the default TTL when it is null.
+     */
+    Duration ttl(Long ttlSeconds) {
+        Duration ttl = ttlSeconds == null ? defaultTtl : Duration.ofSeconds(ttlSeconds);
+        if (ttl.isNegative() || ttl.isZero() || ttl.compareTo(maxTtl) > 0) {
+            throw new IllegalArgumentException("TTL must be between 1 and " + maxTtl.toSeconds() + " seconds");
+        }
+        return ttl;
+    }
+
+    /**
+     * Reserves the request's amount of the origin's available balance for the request's TTL.
+     */
+    private EventResponse place(AccountStore accounts, EventRequest request) {
+        HoldRequest placing = HoldRequest.of(request);
+        Account account = accounts.findById(placing.getOrigin())
+                .orElseThrow(() -> new AccountNotFoundException("Account not found"));
+        if (account.getAvailableBalance().compareTo(placing.getAmount()) < 0) {
+            throw new InsufficientFundsException("Insufficient funds");
+        }
+        account.hold(placing.getAmount());
+        accounts.save(account);
+        Hold hold = new Hold(placing.holdId, account.getId(), placing.getAmount(), Instant.now().plus(placing.ttl),
+                System.nanoTime() + placing.ttl.toNanos(), accounts);
+        holds.put(hold.id, hold);
+        wheel.schedule(hold);
+        placing.response = response(hold, account);
+        return EventResponse.origin(AccountView.of(account));
+    }
+
+    /**
+     * Ends the hold and withdraws the request's amount of it; the rest goes back to the available balance.
+     * The withdrawal and the release are saved together, and the hold only ends once they are, so a capture
+     * the store refuses leaves the hold in place.
+     */
+    private EventResponse capture(AccountStore accounts, EventRequest request) {
+        HoldRequest capturing = HoldRequest.of(request);
+        Hold hold = find(capturing.holdId, capturing.getOrigin(), accounts);
+        if (capturing.getAmount().compareTo(hold.amount) > 0) {
+            throw new IllegalArgumentException("Capture exceeds the hold");
+        }
+        Account account = accounts.findById(hold.accountId)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found"));
+        // The hold reserved the amount, so the balance covers it.
+        account.releaseHold(hold.amount);
+        account.debit(capturing.getAmount());
+        accounts.save(account);
+        end(hold);
+        return EventResponse.origin(AccountView.of(account));
+    }
+
+    /**
+     * Gives the held amount back to the account's available balance.
+     */
+    private EventResponse release(AccountStore accounts, EventRequest request) {
+        HoldRequest releasing = HoldRequest.of(request);
+        Hold hold = find(releasing.holdId, releasing.getOrigin(), accounts);
+        Account account = settle(hold, accounts);
+        releasing.response = response(hold, account);
+        return EventResponse.origin(AccountView.of(account));
+    }
+
+    /**
+     * Releases the holds whose TTL has run out by {@code nowNanos}, on the {@link System#nanoTime()} clock.
+     *
+     * @return the number of holds released
+     */
+    public synchronized int expireDue(long nowNanos) {
+        int released = 0;
+        for (Hold hold : wheel.advance(nowNanos)) {
+            if (expire(hold)) {
+                released++;
+            }
+        }
+        return released;
+    }
+
+    @Scheduled(fixedDelayString = "${corebanking.holds.tick-ms:1000}")
+    public void expireDue() {
+        expireDue(System.nanoTime());
+    }
+
+    /**
+     * Forgets the holds of a generation a reset or import replaced, whose accounts no longer exist. Must
+     * be called once the swap has completed.
+     */
+    public void reset() {
+        try (AccountRepository.Pinned accounts = accountRepository.pin()) {
+            holds.values().removeIf(hold -> {
+                if (hold.isActiveIn(accounts)) {
+                    return false;
+                }
+                hold.settle();
+                wheel.cancel(hold);
+                return true;
+            });
+        }
+    }
+
+    public int activeHolds() {
+        return holds.size();
+    }
+
+    public long expiredHolds() {
+        return expired.sum();
+    }
+
+    /**
+     * Looks up the hold a capture or release names, before its account is locked; the handler checks it
+     * again under the lock.
+     *
+     * @throws HoldNotFoundException unless the hold is active
+     */
+    Hold find(String holdId) {
+        Hold hold = holdId == null ? null : holds.get(holdId);
+        if (hold == null || !hold.isActive()) {
+            throw new HoldNotFoundException("Hold not found");
+        }
+        return hold;
+    }
+
+    /**
+     * @throws HoldNotFoundException unless the hold is active in {@code accounts} and on {@code accountId}
+     */
+    private Hold find(String holdId, String accountId, AccountStore accounts) {
+        Hold hold = holdId == null ? null : holds.get(holdId);
+        if (hold == null || !hold.isActiveIn(accounts) || !hold.accountId.equals(accountId)) {
+            throw new HoldNotFoundException("Hold not found");
+        }
+        return hold;
+    }
+
+    /**
+     * Ends the hold and takes its amount off the account's held total. The caller must hold the account's
+     * stripe lock; the hold may have been settled by someone else before the lock was taken.
+     *
+     * @return the account, saved with the hold released
+     * @throws HoldNotFoundException if the hold is no longer active
+     */
+    private Account settle(Hold hold, AccountStore accounts) {
+        if (!hold.isActiveIn(accounts)) {
+            throw new HoldNotFoundException("Hold not found");
+        }
+        Account account = accounts.findById(hold.accountId)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found"));
+        account.releaseHold(hold.amount);
+        accounts.save(account);
+        end(hold);
+        return account;
+    }
+
+    private void end(Hold hold) {
+        hold.settle();
+        holds.remove(hold.id, hold);
+        wheel.cancel(hold);
+    }
+
+    private boolean expire(Hold hold) {
+        try (AccountRepository.Pinned accounts = accountRepository.pin()) {
+            if (!hold.isActiveIn(accounts)) {
+                return false;
+            }
+            accountLocks.lock(hold.accountId);
+            try {
+                if (!hold.isActiveIn(accounts)) {
+                    return false;
+                }
+                settle(hold, accounts);
+                expired.increment();
+                return true;
+            } finally {
+                accountLocks.unlock(hold.accountId);
+            }
+        }
+    }
+
+    private static HoldResponse response(Hold hold, Account account) {
+        return new HoldResponse(hold.id, hold.accountId, hold.amount, hold.expiresAt, account.getAvailableBalance());
+    }
+
+    /**
+     * Applies one hold operation. Placing and releasing a hold move no money, so they report no postings.
+     */
+    private record Handler(EventType type, BiFunction<AccountStore, EventRequest, EventResponse> operation,
+                           boolean movesMoney) implements EventHandler {
+
+        @Override
+        public EventResponse apply(AccountStore accounts, EventRequest request) {
+            return operation.apply(accounts, request);
+        }
+
+        @Override
+        public List<Posting> postings(EventRequest request, EventResponse result) {
+            return movesMoney ? EventHandler.super.postings(request, result) : List.of();
+        }
+    }
+}
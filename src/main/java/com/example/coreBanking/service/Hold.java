@@ -0,0 +1,55 @@
+package com.example.coreBanking.service;
+
+import com.example.coreBanking.repository.AccountStore;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * An amount reserved on an account until it is captured, released or expires. It only ever leaves the
+ * active state under the account's stripe lock, which is also what keeps the account's held total in step.
+ * <p>
+ * The link fields place the hold in a bucket of the {@link HoldWheel} and belong to the thread advancing
+ * the wheel.
+ */
+final class Hold {
+
+    final String id;
+    final String accountId;
+    final BigDecimal amount;
+    final Instant expiresAt;
+    final long deadlineNanos;
+    // The repository generation the hold was placed in; null once the hold is settled.
+    private volatile AccountStore generation;
+
+    long deadlineTick;
+    Hold previous;
+    Hold next;
+    boolean linked;
+
+    Hold(String id, String accountId, BigDecimal amount, Instant expiresAt, long deadlineNanos,
+         AccountStore generation) {
+        this.id = id;
+        this.accountId = accountId;
+        this.amount = amount;
+        this.expiresAt = expiresAt;
+        this.deadlineNanos = deadlineNanos;
+        this.generation = generation;
+    }
+
+    boolean isActive() {
+        return generation != null;
+    }
+
+    /**
+     * Whether the hold is active and was placed in {@code accounts}; a reset or import leaves holds of the
+     * previous generation behind, and those no longer reserve anything.
+     */
+    boolean isActiveIn(AccountStore accounts) {
+        return generation == accounts;
+    }
+
+    void settle() {
+        generation = null;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.coreBanking.service;
+
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventType;
+import com.example.coreBanking.dto.HoldResponse;
+import com.example.coreBanking.exception.InvalidOperationException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * A hold event as the hold endpoints build it: placing a hold on the origin, or capturing or releasing the
+ * hold {@link #holdId}, which belongs to the origin. The hold handlers refuse any other request, so hold
+ * events cannot come in through the event endpoints, batches or the binary protocol.
+ */
+final class HoldRequest extends EventRequest {
+
+    final String holdId;
+    final Duration ttl;
+    // Set by the placing and releasing handlers, which answer with the hold rather than the account.
+    HoldResponse response;
+
+    private HoldRequest(EventType type, String accountId, BigDecimal amount, String holdId, Duration ttl) {
+        super(type.getValue(), accountId, null, amount);
+        this.holdId = holdId;
+        this.ttl = ttl;
+    }
+
+    static HoldRequest place(String accountId, BigDecimal amount, Duration ttl) {
+        return new HoldRequest(FundsHolds.HOLD, accountId, amount, UUID.randomUUID().toString(), ttl);
+    }
+
+    /**
+     * A capture or release of {@code hold}; {@code amount} is what a capture withdraws.
+     */
+    static HoldRequest settle(EventType type, Hold hold, BigDecimal amount) {
+        return new HoldRequest(type, hold.accountId, amount, hold.id, null);
+    }
+
+    /**
+     * A capture of the hold {@code holdId}, named by a coordinator that knows the account but not whether
+     * the hold is still there.
+     */
+    static HoldRequest capture(String accountId, String holdId, BigDecimal amount) {
+        return new HoldRequest(FundsHolds.CAPTURE, accountId, amount, holdId, null);
+    }
+
+    static HoldRequest of(EventRequest request) {
+        if (request instanceof HoldRequest hold) {
+            return hold;
+        }
+        throw new InvalidOperationException("Hold events are only accepted on the hold endpoints");
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.coreBanking.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashed timing wheel of hold deadlines. Each bucket is a doubly linked list threaded through the holds,
+ * so scheduling, cancelling and expiring a hold are constant time and advancing one tick only looks at one
+ * bucket. A hold due more than one revolution ahead waits in its bucket and is passed over until its
+ * deadline tick comes round.
+ * <p>
+ * Only the thread calling {@link #advance} touches the buckets; other threads hand holds over through
+ * {@link #schedule} and {@link #cancel}, which are picked up at the next advance.
+ */
+final class HoldWheel {
+
+    private final Hold[] buckets;
+    private final int mask;
+    private final long tickNanos;
+    private final long startNanos;
+    private final Queue<Hold> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Hold> cancelled = new ConcurrentLinkedQueue<>();
+    private long currentTick;
+
+    /**
+     * @param wheelSize rounded up to a power of two
+     */
+    HoldWheel(int wheelSize, long tickNanos, long startNanos) {
+        int size = Math.max(2, Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1);
+        this.buckets = new Hold[size];
+        this.mask = size - 1;
+        this.tickNanos = tickNanos;
+        this.startNanos = startNanos;
+    }
+
+    void schedule(Hold hold) {
+        scheduled.add(hold);
+    }
+
+    /**
+     * Takes a settled hold off the wheel so it does not stay linked until its deadline.
+     */
+    void cancel(Hold hold) {
+        cancelled.add(hold);
+    }
+
+    /**
+     * Moves the wheel up to {@code nowNanos}.
+     *
+     * @return the holds that fell due, possibly including some settled meanwhile
+     */
+    List<Hold> advance(long nowNanos) {
+        long targetTick = (nowNanos - startNanos) / tickNanos;
+        List<Hold> due = new ArrayList<>();
+        // A hold already due goes into the next bucket to be visited rather than one visited before.
+        transferScheduled(currentTick + 1);
+        removeCancelled();
+        if (targetTick <= currentTick) {
+            return due;
+        }
+        // Visiting each bucket once covers any gap: the last tick visited for a bucket is the latest one
+        // that maps to it, so everything in it due by then is due by targetTick too.
+        long tick = Math.max(currentTick + 1, targetTick - buckets.length + 1);
+        for (; tick <= targetTick; tick++) {
+            expire(tick, due);
+        }
+        currentTick = targetTick;
+        return due;
+    }
+
+    private void transferScheduled(long earliestTick) {
+        Hold hold;
+        while ((hold = scheduled.poll()) != null) {
+            if (!hold.isActive()) {
+                continue;
+            }
+            long deadline = hold.deadlineNanos - startNanos;
+            hold.deadlineTick = Math.max(earliestTick, (deadline + tickNanos - 1) / tickNanos);
+            link(hold);
+        }
+    }
+
+    private void removeCancelled() {
+        Hold hold;
+        while ((hold = cancelled.poll()) != null) {
+            if (hold.linked) {
+                unlink(hold);
+            }
+        }
+    }
+
+    private void expire(long tick, List<Hold> due) {
+        Hold hold = buckets[(int) (tick & mask)];
+        while (hold != null) {
+            Hold next = hold.next;
+            if (hold.deadlineTick <= tick) {
+                unlink(hold);
+                due.add(hold);
+            }
+            hold = next;
+        }
+    }
+
+    private void link(Hold hold) {
+        int index = (int) (hold.deadlineTick & mask);
+        Hold head = buckets[index];
+        hold.previous = null;
+        hold.next = head;
+        if (head != null) {
+            head.previous = hold;
+        }
+        buckets[index] = hold;
+        hold.linked = true;
+    }
+
+    private void unlink(Hold hold) {
+        if (hold.previous == null) {
+            buckets[(int) (hold.deadlineTick & mask)] = hold.next;
+        } else {
+            hold.previous.next = hold.next;
+        }
+        if (hold.next != null) {
+            hold.next.previous = hold.previous;
+        }
+        hold.previous = null;
+        hold.next = null;
+        hold.linked = false;
+    }
+}
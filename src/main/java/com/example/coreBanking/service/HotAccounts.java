@@ -0,0 +1,152 @@
+package com.example.coreBanking.service;
+
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.model.Account;
+import com.example.coreBanking.model.AccountView;
+import com.example.coreBanking.model.HotAccount;
+import com.example.coreBanking.repository.AccountRepository;
+import com.example.coreBanking.repository.AccountStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Promotes accounts whose deposits keep queueing on their stripe lock to {@link HotAccount}s, which take
+ * deposits without the lock, and demotes them again once their deposit rate drops.
+ * <p>
+ * Contention is measured per evaluation interval: an account is promoted when at least
+ * {@code promote-threshold} of its deposits had to wait for the lock, and demoted when it received fewer
+ * than {@code demote-threshold} deposits. Only the heap repository keeps the account objects themselves,
+ * and with the journal enabled every event already serializes on the journal append. History stores the
+ * balance each deposit produced, which lock-free credits would record out of order. So hot accounts need
+ * the heap repository, the locking engine, no journal and no history.
+ */
+@Component
+@ConditionalOnProperty(name = "corebanking.hot-accounts.enabled", havingValue = "true")
+public class HotAccounts {
+
+    private final AccountRepository accountRepository;
+    private final AccountLocks accountLocks;
+    private final int cellCount;
+    private final long promoteThreshold;
+    private final long demoteThreshold;
+    private final ConcurrentHashMap<String, LongAdder> contention = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, HotAccount> promoted = new ConcurrentHashMap<>();
+    private final LongAdder promotions = new LongAdder();
+    private final LongAdder demotions = new LongAdder();
+
+    @Autowired
+    public HotAccounts(AccountRepository accountRepository, AccountLocks accountLocks,
+                       @Value("${corebanking.hot-accounts.cells:0}") int cells,
+                       @Value("${corebanking.hot-accounts.promote-threshold:100}") long promoteThreshold,
+                       @Value("${corebanking.hot-accounts.demote-threshold:1000}") long demoteThreshold,
+                       @Value("${corebanking.repository.type:heap}") String repositoryType,
+                       @Value("${corebanking.engine.type:locking}") String engineType,
+                       @Value("${corebanking.journal.enabled:false}") boolean journalEnabled,
+                       @Value("${corebanking.history.enabled:false}") boolean historyEnabled) {
+        if (!"heap".equals(repositoryType) || !"locking".equals(engineType) || journalEnabled || historyEnabled) {
+            throw new IllegalStateException(
+                    "Hot accounts require the heap repository, the locking engine, and a disabled journal and history");
+        }
+        this.accountRepository = accountRepository;
+        this.accountLocks = accountLocks;
+        this.cellCount = cells > 0 ? cells : Runtime.getRuntime().availableProcessors();
+        this.promoteThreshold = promoteThreshold;
+        this.demoteThreshold = demoteThreshold;
+    }
+
+    /**
+     * Notes a deposit that had to wait for the account's stripe lock.
+     */
+    public void recordContention(String accountId) {
+        contention.computeIfAbsent(accountId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * Credits a hot account without taking its lock. {@code accounts} is the generation the caller pinned
+     * for the event, so a reset cannot complete between finding the account and crediting it.
+     *
+     * @return the deposit result, or null when the destination is not hot and the deposit must take the
+     * locked path
+     */
+    public EventResponse deposit(AccountStore accounts, EventRequest request) {
+        if (request.getDestination() == null || request.getAmount() == null) {
+            return null;
+        }
+        Account account = accounts.findById(request.getDestination()).orElse(null);
+        if (!(account instanceof HotAccount hot) || !hot.tryCredit(request.getAmount())) {
+            return null;
+        }
+        return EventResponse.destination(AccountView.of(hot));
+    }
+
+    @Scheduled(initialDelayString = "${corebanking.hot-accounts.evaluation-interval-ms:1000}",
+            fixedDelayString = "${corebanking.hot-accounts.evaluation-interval-ms:1000}")
+    public void evaluate() {
+        promoted.forEach((id, hot) -> {
+            if (hot.drainCreditCount() < demoteThreshold) {
+                demote(id, hot);
+            }
+        });
+        contention.forEach((id, waits) -> {
+            if (waits.sum() >= promoteThreshold && !promoted.containsKey(id)) {
+                promote(id);
+            }
+        });
+        contention.clear();
+    }
+
+    public int hotAccountCount() {
+        return promoted.size();
+    }
+
+    public long promotions() {
+        return promotions.sum();
+    }
+
+    public long demotions() {
+        return demotions.sum();
+    }
+
+    void promote(String accountId) {
+        try (AccountRepository.Pinned accounts = accountRepository.pin()) {
+            accountLocks.lock(accountId);
+            try {
+                Account account = accounts.findById(accountId).orElse(null);
+                if (account == null || account instanceof HotAccount) {
+                    return;
+                }
+                HotAccount hot = new HotAccount(accountId, account.getBalance(), cellCount);
+                hot.hold(account.getHeld());
+                accounts.save(hot);
+                promoted.put(accountId, hot);
+                promotions.increment();
+            } finally {
+                accountLocks.unlock(accountId);
+            }
+        }
+    }
+
+    void demote(String accountId, HotAccount hot) {
+        try (AccountRepository.Pinned accounts = accountRepository.pin()) {
+            accountLocks.lock(accountId);
+            try {
+                promoted.remove(accountId, hot);
+                // After a reset the repository no longer holds this account; there is nothing to restore.
+                if (accounts.findById(accountId).orElse(null) != hot) {
+                    return;
+                }
+                accounts.save(new Account(accountId, hot.seal(), hot.getHeld()));
+                demotions.increment();
+            } finally {
+                accountLocks.unlock(accountId);
+            }
+        }
+    }
+}
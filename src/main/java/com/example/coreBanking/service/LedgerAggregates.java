@@ -0,0 +1,225 @@
+package com.example.coreBanking.service;
+
+import com.example.coreBanking.dto.AggregatesResponse;
+import com.example.coreBanking.dto.EventType;
+import com.example.coreBanking.journal.EventJournal;
+import com.example.coreBanking.model.Account;
+import com.example.coreBanking.model.AccountView;
+import com.example.coreBanking.model.Posting;
+import com.example.coreBanking.repository.AccountRepository;
+import com.example.coreBanking.repository.AccountSet;
+import com.example.coreBanking.repository.GenerationLocal;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dashboard figures kept up to date by the event path instead of scanning the repository: the money held
+ * by all accounts, the count and volume of each event type, and every account ordered by balance.
+ * <p>
+ * Totals live in striped cells, like {@link com.example.coreBanking.model.HotAccount}, so events on
+ * different threads rarely touch the same one. The ranking is a skip list updated per account inside
+ * {@link ConcurrentHashMap#compute}; each update re-reads the account's current balance, so lock-free
+ * credits to hot accounts cannot leave a stale entry behind. Balances are seeded from one scan on startup,
+ * after the journal has replayed; flows count events since startup.
+ * <p>
+ * The figures belong to one generation of accounts: a reset swaps in empty ones in the same step as the
+ * repository's generation, an import seeds them before its accounts are swapped in, and events still
+ * finishing on a retired generation are not counted.
+ */
+@Component
+@ConditionalOnProperty(name = "corebanking.aggregates.enabled", havingValue = "true")
+public class LedgerAggregates {
+
+    static final int MAX_TOP = 1000;
+    private static final Comparator<AccountView> BY_BALANCE = Comparator
+            .comparing(AccountView::balance, Comparator.reverseOrder())
+            .thenComparing(AccountView::id);
+
+    private final AccountRepository accountRepository;
+    private final GenerationLocal<Figures> figures = new GenerationLocal<>(Figures::new);
+
+    /**
+     * Takes the journal only so that it has replayed before {@link #seed()} reads the repository.
+     */
+    @Autowired
+    public LedgerAggregates(AccountRepository accountRepository, EventJournal eventJournal) {
+        this.accountRepository = accountRepository;
+    }
+
+    @PostConstruct
+    public void seed() {
+        seed(accountRepository);
+    }
+
+    /**
+     * Computes the figures of a generation from its accounts, before any event has been applied to it.
+     */
+    public void seed(AccountSet accounts) {
+        Figures seeded = new Figures();
+        accounts.forEach(account -> {
+            seeded.totalBalance.add(account.getBalance());
+            seeded.refresh(accounts, account.getId());
+        });
+        figures.prepare(accounts.generation(), seeded);
+    }
+
+    /**
+     * Accounts for an event of {@code type} applied to {@code accounts}: its flow, and the balance changes
+     * its handler reported. Must be called after the event's balances are stored.
+     */
+    public void record(AccountSet accounts, EventType type, BigDecimal amount, List<Posting> postings) {
+        Figures current = figures.get(accounts.generation());
+        if (current == null) {
+            return;
+        }
+        current.recordFlow(type, amount);
+        for (Posting posting : postings) {
+            current.totalBalance.add(posting.amount());
+            current.refresh(accounts, posting.accountId());
+        }
+    }
+
+    /**
+     * Accounts for one half of a transfer whose debit and credit are applied separately: the debit
+     * counts the flow, the credit only moves the destination in the ranking.
+     */
+    public void recordTransferHalf(AccountSet accounts, String accountId, boolean debit, BigDecimal amount) {
+        Figures current = figures.get(accounts.generation());
+        if (current == null) {
+            return;
+        }
+        if (debit) {
+            current.recordFlow(EventType.TRANSFER, amount);
+        }
+        current.refresh(accounts, accountId);
+    }
+
+    public AggregatesResponse snapshot(int top) {
+        if (top < 0 || top > MAX_TOP) {
+            throw new IllegalArgumentException("top must be between 0 and " + MAX_TOP);
+        }
+        Figures current = figures.get(accountRepository);
+        Map<String, AggregatesResponse.Flow> flows = new LinkedHashMap<>();
+        for (EventType type : EventType.values()) {
+            Flow flow = current.flows.get(type.code());
+            flows.put(type.getValue(), flow == null ? new AggregatesResponse.Flow(0, BigDecimal.ZERO)
+                    : new AggregatesResponse.Flow(flow.count.sum(), flow.amount.sum()));
+        }
+        return new AggregatesResponse(current.totalBalance.sum(), flows, current.topBalances(top));
+    }
+
+    public BigDecimal totalBalance() {
+        return figures.get(accountRepository).totalBalance.sum();
+    }
+
+    public List<AccountView> topBalances(int top) {
+        return figures.get(accountRepository).topBalances(top);
+    }
+
+    /**
+     * The figures of one generation.
+     */
+    private static final class Figures {
+
+        private final DecimalAdder totalBalance = new DecimalAdder();
+        private final AtomicReferenceArray<Flow> flows = new AtomicReferenceArray<>(EventType.MAX_CODE + 1);
+        private final ConcurrentHashMap<String, AccountView> ranked = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListSet<AccountView> ranking = new ConcurrentSkipListSet<>(BY_BALANCE);
+
+        private void recordFlow(EventType type, BigDecimal amount) {
+            Flow flow = flows.get(type.code());
+            if (flow == null) {
+                flows.compareAndSet(type.code(), null, new Flow());
+                flow = flows.get(type.code());
+            }
+            flow.count.increment();
+            flow.amount.add(amount);
+        }
+
+        private void refresh(AccountSet accounts, String accountId) {
+            ranked.compute(accountId, (id, previous) -> {
+                if (previous != null) {
+                    ranking.remove(previous);
+                }
+                Account account = accounts.findById(id).orElse(null);
+                if (account == null) {
+                    return null;
+                }
+                AccountView current = AccountView.of(account);
+                ranking.add(current);
+                return current;
+            });
+        }
+
+        private List<AccountView> topBalances(int top) {
+            List<AccountView> accounts = new ArrayList<>(top);
+            Iterator<AccountView> iterator = ranking.iterator();
+            while (accounts.size() < top && iterator.hasNext()) {
+                accounts.add(iterator.next());
+            }
+            return accounts;
+        }
+    }
+
+    /**
+     * The count and volume of one event type, created by its first event.
+     */
+    private static final class Flow {
+
+        private final LongAdder count = new LongAdder();
+        private final DecimalAdder amount = new DecimalAdder();
+    }
+
+    /**
+     * A {@link LongAdder} for {@link BigDecimal}s.
+     */
+    private static final class DecimalAdder {
+
+        private final AtomicReferenceArray<BigDecimal> cells;
+        private final int mask;
+
+        private DecimalAdder() {
+            int processors = Runtime.getRuntime().availableProcessors();
+            int size = Math.max(2, Integer.highestOneBit(Math.max(1, processors - 1)) << 1);
+            this.cells = new AtomicReferenceArray<>(size);
+            this.mask = size - 1;
+            for (int i = 0; i < size; i++) {
+                cells.set(i, BigDecimal.ZERO);
+            }
+        }
+
+        private void add(BigDecimal amount) {
+            int index = (int) Thread.currentThread().getId() & mask;
+            while (true) {
+                BigDecimal cell = cells.get(index);
+                if (cells.compareAndSet(index, cell, cell.add(amount))) {
+                    return;
+                }
+                index = ThreadLocalRandom.current().nextInt() & mask;
+            }
+        }
+
+        private BigDecimal sum() {
+            BigDecimal sum = BigDecimal.ZERO;
+            for (int i = 0; i < cells.length(); i++) {
+                sum = sum.add(cells.get(i));
+            }
+            return sum;
+        }
+    }
+}
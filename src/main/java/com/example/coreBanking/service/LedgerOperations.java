@@ -0,0 +1,70 @@
+package com.example.coreBanking.service;
+
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.exception.AccountNotFoundException;
+import com.example.coreBanking.exception.InsufficientFundsException;
+import com.example.coreBanking.model.Account;
+import com.example.coreBanking.model.AccountView;
+import com.example.coreBanking.repository.AccountStore;
+
+import java.math.BigDecimal;
+
+/**
+ * The balance rules shared by both engines. Funds checks compare against the available balance, which
+ * leaves out active holds. Callers are responsible for excluding concurrent writers
+ * of the accounts involved, either by holding their stripe locks or by owning their shard.
+ */
+final class LedgerOperations {
+
+    private LedgerOperations() {
+    }
+
+    static EventResponse deposit(AccountStore repository, EventRequest request) {
+        return EventResponse.destination(AccountView.of(credit(repository, request.getDestination(), request.getAmount())));
+    }
+
+    static EventResponse withdraw(AccountStore repository, EventRequest request) {
+        return EventResponse.origin(AccountView.of(debit(repository, request.getOrigin(), request.getAmount(), "Account not found")));
+    }
+
+    static EventResponse transfer(AccountStore repository, EventRequest request) {
+        Account origin = repository.findById(request.getOrigin())
+                .orElseThrow(() -> new AccountNotFoundException("Origin account not found"));
+        // Stores that hand out copies would otherwise let the credited copy overwrite the debited one.
+        Account destination = request.getDestination().equals(request.getOrigin()) ? origin
+                : repository.findById(request.getDestination())
+                        .orElseGet(() -> new Account(request.getDestination(), BigDecimal.ZERO));
+
+        if (origin.getAvailableBalance().compareTo(request.getAmount()) < 0) {
+            throw new InsufficientFundsException("Insufficient funds");
+        }
+
+        origin.debit(request.getAmount());
+        destination.credit(request.getAmount());
+
+        repository.save(origin);
+        repository.save(destination);
+
+        return new EventResponse(AccountView.of(origin), AccountView.of(destination));
+    }
+
+    static Account credit(AccountStore repository, String accountId, BigDecimal amount) {
+        Account account = repository.findById(accountId)
+                .orElseGet(() -> new Account(accountId, BigDecimal.ZERO));
+        account.credit(amount);
+        repository.save(account);
+        return account;
+    }
+
+    static Account debit(AccountStore repository, String accountId, BigDecimal amount, String notFoundMessage) {
+        Account account = repository.findById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(notFoundMessage));
+        if (account.getAvailableBalance().compareTo(amount) < 0) {
+            throw new InsufficientFundsException("Insufficient funds");
+        }
+        account.debit(amount);
+        repository.save(account);
+        return account;
+    }
+}
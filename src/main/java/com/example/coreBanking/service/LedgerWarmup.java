@@ -0,0 +1,114 @@
+package com.example.coreBanking.service;
+
+import com.example.coreBanking.dto.BatchMode;
+import com.example.coreBanking.dto.ErrorResponse;
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.exception.InsufficientFundsException;
+import com.example.coreBanking.journal.NoOpEventJournal;
+import com.example.coreBanking.metrics.LedgerMetrics;
+import com.example.coreBanking.repository.AccountRepository;
+import com.example.coreBanking.repository.InMemoryAccountRepository;
+import com.example.coreBanking.repository.OffHeapAccountRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the event paths before the application reports itself ready, so the first requests after a
+ * scale-out are not the ones interpreted and compiled. Spring Boot only passes the readiness probe once
+ * every {@link ApplicationRunner} has returned.
+ * <p>
+ * The events go through the application's JSON mapper and a scratch {@link AccountService} of the
+ * configured account store, with its own accounts and locks and a journal that writes nothing, so the
+ * real accounts, journal, history and metrics see none of them.
+ */
+@Component
+@ConditionalOnProperty(name = "corebanking.warmup.enabled", havingValue = "true")
+public class LedgerWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerWarmup.class);
+    private static final int ACCOUNTS = 64;
+    private static final int BATCH_EVERY = 64;
+
+    private final ObjectMapper objectMapper;
+    private final String repositoryType;
+    private final int lockStripes;
+    private final int events;
+
+    @Autowired
+    public LedgerWarmup(ObjectMapper objectMapper,
+                        @Value("${corebanking.repository.type:heap}") String repositoryType,
+                        @Value("${corebanking.ledger.lock-stripes:1024}") int lockStripes,
+                        @Value("${corebanking.warmup.events:20000}") int events) {
+        this.objectMapper = objectMapper;
+        this.repositoryType = repositoryType;
+        this.lockStripes = lockStripes;
+        this.events = events;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        long start = System.nanoTime();
+        warmUp();
+        log.info("Warmed up the event paths with {} events in {} ms", events,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Deposits, withdrawals, transfers, failed withdrawals, balance reads and batches, round-tripped
+     * through JSON as the controllers do. An event failing for any reason but insufficient funds fails
+     * the warm-up, and with it the start.
+     */
+    void warmUp() throws IOException {
+        AccountRepository repository = "offheap".equals(repositoryType)
+                ? new OffHeapAccountRepository(ACCOUNTS * 2) : new InMemoryAccountRepository();
+        AccountService ledger = new AccountService(repository, new AccountLocks(lockStripes), new NoOpEventJournal(),
+                new LedgerMetrics(new SimpleMeterRegistry(), 1));
+        List<byte[]> bodies = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            String account = "warmup-" + i;
+            String other = "warmup-" + (i + 1) % ACCOUNTS;
+            bodies.add(body("{\"type\":\"deposit\",\"destination\":\"" + account + "\",\"amount\":100}"));
+            bodies.add(body("{\"type\":\"withdraw\",\"origin\":\"" + account + "\",\"amount\":10.50}"));
+            bodies.add(body("{\"type\":\"transfer\",\"origin\":\"" + account + "\",\"destination\":\"" + other
+                    + "\",\"amount\":25}"));
+            bodies.add(body("{\"type\":\"withdraw\",\"origin\":\"" + account + "\",\"amount\":1000000}"));
+        }
+        List<EventRequest> batch = new ArrayList<>(BATCH_EVERY);
+        for (int i = 0; i < events; i++) {
+            EventRequest request = objectMapper.readValue(bodies.get(i % bodies.size()), EventRequest.class);
+            try {
+                EventResponse response = ledger.handleEvent(request);
+                objectMapper.writeValueAsBytes(response);
+            } catch (InsufficientFundsException e) {
+                // The overdrawing withdrawals are meant to fail; anything else fails the warm-up.
+                objectMapper.writeValueAsBytes(new ErrorResponse(400, "Insufficient Funds", e.getMessage(), "uri=/api/event"));
+            }
+            objectMapper.writeValueAsBytes(ledger.getBalance(request.getDestination() != null
+                    ? request.getDestination() : request.getOrigin()));
+            batch.add(request);
+            if (batch.size() == BATCH_EVERY) {
+                objectMapper.writeValueAsBytes(ledger.handleEvents(batch, BatchMode.BEST_EFFORT));
+                batch.clear();
+            }
+        }
+    }
+
+    private static byte[] body(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,372 @@
+package com.example.coreBanking.service;
+
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.dto.EventType;
+import com.example.coreBanking.exception.AccountNotFoundException;
+import com.example.coreBanking.exception.InvalidOperationException;
+import com.example.coreBanking.history.TransactionHistory;
+import com.example.coreBanking.model.Account;
+import com.example.coreBanking.model.AccountView;
+import com.example.coreBanking.model.Posting;
+import com.example.coreBanking.repository.AccountRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single-writer engine: account ids are hashed to shards and every shard is owned by one thread that
+ * drains a bounded ring of events, so balances change without locks and each account is only ever
+ * written by the same thread.
+ * <p>
+ * A transfer between shards runs in two steps. The origin shard debits and records the amount as sent,
+ * then hands a credit to the destination shard, which applies it and records it as received. Until then
+ * the money is counted by {@link #moneyInTransit()}, so balances plus money in transit stay constant.
+ */
+@Component
+@ConditionalOnProperty(name = "corebanking.engine.type", havingValue = "sharded")
+public class ShardedLedger {
+
+    private static final int SPINS_BEFORE_PARK = 256;
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AccountRepository accountRepository;
+    private final Shard[] shards;
+    private TransactionHistory transactionHistory;
+    private LedgerAggregates ledgerAggregates;
+    private BalanceReplica balanceReplica;
+    private EventHandlers eventHandlers = new EventHandlers();
+    private volatile boolean running;
+
+    @Autowired
+    public ShardedLedger(AccountRepository accountRepository,
+                         @Value("${corebanking.engine.shards:0}") int shardCount,
+                         @Value("${corebanking.engine.ring-size:1024}") int ringSize,
+                         @Value("${corebanking.journal.enabled:false}") boolean journalEnabled) {
+        if (journalEnabled) {
+            // A crash between the two steps of a cross-shard transfer would replay the debit without its credit.
+            throw new IllegalStateException("corebanking.engine.type=sharded cannot be combined with corebanking.journal.enabled=true");
+        }
+        this.accountRepository = accountRepository;
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard(ringSize);
+        }
+    }
+
+    /**
+     * Records every applied event on the thread that applied it; only present when
+     * {@code corebanking.history.enabled=true}.
+     */
+    @Autowired(required = false)
+    public void setTransactionHistory(TransactionHistory transactionHistory) {
+        this.transactionHistory = transactionHistory;
+    }
+
+    /**
+     * Updates dashboard totals on the thread that applied each event; only present when
+     * {@code corebanking.aggregates.enabled=true}.
+     */
+    @Autowired(required = false)
+    public void setLedgerAggregates(LedgerAggregates ledgerAggregates) {
+        this.ledgerAggregates = ledgerAggregates;
+    }
+
+    /**
+     * Publishes balances for lock-free reads on the thread that applied each event; only present when
+     * {@code corebanking.balance-replica.enabled=true}.
+     */
+    @Autowired(required = false)
+    public void setBalanceReplica(BalanceReplica balanceReplica) {
+        this.balanceReplica = balanceReplica;
+    }
+
+    /**
+     * Single-account events are applied by their handler on the account's shard. Transfers have their own
+     * cross-shard protocol, and other types that need two accounts are refused.
+     */
+    @Autowired(required = false)
+    public void setEventHandlers(EventHandlers eventHandlers) {
+        this.eventHandlers = eventHandlers;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < shards.length; i++) {
+            Thread thread = new Thread(shards[i], "ledger-shard-" + i);
+            thread.setDaemon(true);
+            shards[i].thread = thread;
+            thread.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Shard shard : shards) {
+            LockSupport.unpark(shard.thread);
+        }
+        for (Shard shard : shards) {
+            shard.thread.join();
+        }
+        for (Shard shard : shards) {
+            shard.drain();
+        }
+    }
+
+    /**
+     * Applies the event on the shard that owns it and waits for the outcome.
+     */
+    public EventResponse execute(EventRequest request) {
+        try {
+            return submit(request).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public CompletableFuture<EventResponse> submit(EventRequest request) {
+        if (!running) {
+            throw new IllegalStateException("Ledger is not running");
+        }
+        EventType type = request.eventType();
+        if (type.needsOrigin() && type.needsDestination() && type != EventType.TRANSFER) {
+            throw new InvalidOperationException("The sharded engine only moves money between accounts by transfer");
+        }
+        String ownerId = type.needsOrigin() ? request.getOrigin() : request.getDestination();
+        // Pinned until the task completes, so a cross-shard credit lands in the same generation as its debit.
+        Task task = new Task(request, accountRepository.pin());
+        try {
+            shards[shardOf(ownerId)].enqueue(task);
+        } catch (RuntimeException e) {
+            task.accounts.close();
+            throw e;
+        }
+        return task.result;
+    }
+
+    public int shardOf(String accountId) {
+        if (accountId == null) {
+            return 0;
+        }
+        int hash = accountId.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), shards.length);
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Money debited by cross-shard transfers whose credit has not been applied yet. Received totals are
+     * read before sent totals, and every credit is published after its debit, so the result is never
+     * negative even while transfers are moving.
+     */
+    public BigDecimal moneyInTransit() {
+        BigDecimal received = BigDecimal.ZERO;
+        for (Shard shard : shards) {
+            received = received.add(shard.received);
+        }
+        BigDecimal sent = BigDecimal.ZERO;
+        for (Shard shard : shards) {
+            sent = sent.add(shard.sent);
+        }
+        return sent.subtract(received);
+    }
+
+    private EventResponse apply(Shard shard, Task task) {
+        EventRequest request = task.request;
+        if (task.debitedOrigin != null) {
+            Account destination = LedgerOperations.credit(task.accounts, request.getDestination(), request.getAmount());
+            shard.received = shard.received.add(request.getAmount());
+            if (transactionHistory != null) {
+                transactionHistory.record(task.accounts, EventType.TRANSFER, new Posting(destination.getId(),
+                        request.getAmount(), request.getOrigin(), destination.getBalance()));
+            }
+            if (ledgerAggregates != null) {
+                ledgerAggregates.recordTransferHalf(task.accounts, destination.getId(), false, request.getAmount());
+            }
+            if (balanceReplica != null) {
+                balanceReplica.publish(task.accounts, destination.getId());
+            }
+            return new EventResponse(task.debitedOrigin, AccountView.of(destination));
+        }
+        EventHandler handler = eventHandlers.forType(request.eventType());
+        EventResponse result = handler.type() == EventType.TRANSFER
+                ? transfer(shard, task)
+                : handler.apply(task.accounts, request);
+        if (result != null) {
+            if (transactionHistory != null || ledgerAggregates != null) {
+                List<Posting> postings = handler.postings(request, result);
+                if (transactionHistory != null) {
+                    transactionHistory.record(task.accounts, handler.type(), postings);
+                }
+                if (ledgerAggregates != null) {
+                    ledgerAggregates.record(task.accounts, handler.type(), request.getAmount(), postings);
+                }
+            }
+            if (balanceReplica != null) {
+                balanceReplica.record(task.accounts, result);
+            }
+        }
+        return result;
+    }
+
+    private EventResponse transfer(Shard shard, Task task) {
+        EventRequest request = task.request;
+        Shard destinationShard = shards[shardOf(request.getDestination())];
+        if (destinationShard == shard) {
+            return LedgerOperations.transfer(task.accounts, request);
+        }
+        if (request.getDestination() == null) {
+            throw new AccountNotFoundException("Destination account not found");
+        }
+        Account origin = LedgerOperations.debit(task.accounts, request.getOrigin(), request.getAmount(),
+                "Origin account not found");
+        shard.sent = shard.sent.add(request.getAmount());
+        task.debitedOrigin = AccountView.of(origin);
+        if (transactionHistory != null) {
+            transactionHistory.record(task.accounts, EventType.TRANSFER, new Posting(origin.getId(),
+                    request.getAmount().negate(), request.getDestination(), origin.getBalance()));
+        }
+        if (ledgerAggregates != null) {
+            ledgerAggregates.recordTransferHalf(task.accounts, origin.getId(), true, request.getAmount());
+        }
+        if (balanceReplica != null) {
+            balanceReplica.publish(task.accounts, origin.getId());
+        }
+        destinationShard.handOff(task);
+        return null;
+    }
+
+    private static final class Task {
+        private final EventRequest request;
+        private final AccountRepository.Pinned accounts;
+        private final CompletableFuture<EventResponse> result = new CompletableFuture<>();
+        private AccountView debitedOrigin;
+
+        private Task(EventRequest request, AccountRepository.Pinned accounts) {
+            this.request = request;
+            this.accounts = accounts;
+        }
+
+        private void complete(EventResponse response) {
+            accounts.close();
+            result.complete(response);
+        }
+
+        private void fail(RuntimeException e) {
+            accounts.close();
+            result.completeExceptionally(e);
+        }
+    }
+
+    private final class Shard implements Runnable {
+
+        private final ShardRingBuffer<Task> inbox;
+        // Credits from other shards bypass the bounded ring so two full shards can never wait on each other.
+        private final Queue<Task> handOffs = new ConcurrentLinkedQueue<>();
+        private volatile Thread thread;
+        private volatile boolean parked;
+        // Written only by the owning thread.
+        private volatile BigDecimal sent = BigDecimal.ZERO;
+        private volatile BigDecimal received = BigDecimal.ZERO;
+
+        private Shard(int ringSize) {
+            this.inbox = new ShardRingBuffer<>(ringSize);
+        }
+
+        private void enqueue(Task task) {
+            int attempts = 0;
+            while (!inbox.offer(task)) {
+                if (!running) {
+                    throw new IllegalStateException("Ledger is not running");
+                }
+                wake();
+                if (++attempts < SPINS_BEFORE_PARK) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(PARK_NANOS / 100);
+                }
+            }
+            wake();
+        }
+
+        private void handOff(Task task) {
+            handOffs.add(task);
+            wake();
+        }
+
+        private void wake() {
+            if (parked) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            while (running) {
+                Task task = handOffs.poll();
+                if (task == null) {
+                    task = inbox.poll();
+                }
+                if (task != null) {
+                    idle = 0;
+                    process(task);
+                } else if (++idle < SPINS_BEFORE_PARK) {
+                    Thread.onSpinWait();
+                } else {
+                    parked = true;
+                    if (handOffs.isEmpty() && inbox.isEmpty()) {
+                        LockSupport.parkNanos(PARK_NANOS);
+                    }
+                    parked = false;
+                }
+            }
+        }
+
+        private void process(Task task) {
+            try {
+                EventResponse result = apply(this, task);
+                if (result != null) {
+                    task.complete(result);
+                }
+            } catch (RuntimeException e) {
+                task.fail(e);
+            }
+        }
+
+        /**
+         * Called once every shard thread has exited. Credits already debited elsewhere are still applied so
+         * no money is left in transit; events that never started are failed.
+         */
+        private void drain() {
+            Task task;
+            while ((task = handOffs.poll()) != null) {
+                process(task);
+            }
+            IllegalStateException stopped = new IllegalStateException("Ledger is not running");
+            while ((task = inbox.poll()) != null) {
+                task.fail(stopped);
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.coreBanking;
+
+import com.example.coreBanking.bulk.BulkAccountService;
+import com.example.coreBanking.dto.BalanceResponse;
+import com.example.coreBanking.dto.BatchMode;
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.dto.EventResult;
+import com.example.coreBanking.exception.AccountNotFoundException;
+import com.example.coreBanking.exception.TooManyRequestsException;
+import com.example.coreBanking.idempotency.IdempotencyCache;
+import com.example.coreBanking.metrics.LedgerMetrics;
+import com.example.coreBanking.model.AccountView;
+import com.example.coreBanking.reactive.LedgerGateway;
+import com.example.coreBanking.reactive.ReactiveAccountController;
+import com.example.coreBanking.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(ReactiveAccountController.class)
+@Import({LedgerGateway.class, IdempotencyCache.class})
+@TestPropertySource(properties = {
+        "corebanking.reactive.ledger-threads=1",
+        "corebanking.reactive.max-queued=1",
+        "corebanking.reactive.max-in-flight=8"
+})
+class ReactiveAccountControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private LedgerGateway ledgerGateway;
+
+    @MockBean
+    private AccountService accountService;
+
+    @MockBean
+    private LedgerMetrics ledgerMetrics;
+
+    @MockBean
+    private BulkAccountService bulkAccountService;
+
+    @Test
+    void testGetBalance_Success() {
+        when(accountService.getBalance("12345")).thenReturn(new BalanceResponse(BigDecimal.valueOf(1000)));
+
+        webTestClient.get().uri("/api/balance?account_id=12345")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.balance").isEqualTo(1000);
+    }
+
+    @Test
+    void testGetBalance_NotFound_WritesSameErrorBodyAsServlet() {
+        when(accountService.getBalance("404")).thenThrow(new AccountNotFoundException("Account not found"));
+
+        webTestClient.get().uri("/api/balance?account_id=404")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class).isEqualTo("{\"path\":\"uri=/api/balance\",\"error\":\"Account Not Found\","
+                        + "\"message\":\"Account not found\",\"status\":404}");
+    }
+
+    @Test
+    void testHandleEvent_Deposit() {
+        when(accountService.submitEvent(any(EventRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                EventResponse.destination(new AccountView("12345", BigDecimal.valueOf(500)))));
+
+        webTestClient.post().uri("/api/event")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"type\": \"deposit\", \"destination\": \"12345\", \"amount\": 500}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.destination.id").isEqualTo("12345")
+                .jsonPath("$.destination.balance").isEqualTo(500);
+    }
+
+    @Test
+    void testStreamEvents_MalformedEventEndsStream() {
+        when(accountService.handleEvents(anyList(), eq(BatchMode.BEST_EFFORT)))
+                .thenReturn(List.of(EventResult.success(EventResponse.destination(new AccountView("1", BigDecimal.valueOf(5))))));
+
+        String body = webTestClient.post().uri("/api/events")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"type\": \"deposit\", \"destination\": \"1\", \"amount\": 5}\n"
+                        + "{\"type\": \"deposit\", \"amount\": }\n")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        List<String> lines = body.lines().toList();
+        assertEquals(2, lines.size());
+        assertEquals("{\"status\":201,\"result\":{\"destination\":{\"id\":\"1\",\"balance\":5}}}", lines.get(0));
+        assertTrue(lines.get(1).contains("\"status\":400"));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testHandleEvent_LedgerQueueFull_RefusedWith503() throws Exception {
+        // A fresh context, so no request of an earlier test still counts against the ledger.
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(2);
+        // Counted as soon as they are subscribed: one holds the only ledger thread, one waits in its queue of one.
+        for (int i = 0; i < 2; i++) {
+            ledgerGateway.call(() -> release.await(10, TimeUnit.SECONDS))
+                    .doFinally(signal -> finished.countDown())
+                    .subscribe();
+        }
+        try {
+            webTestClient.post().uri("/api/event")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue("{\"type\": \"deposit\", \"destination\": \"1\", \"amount\": 1}")
+                    .exchange()
+                    .expectStatus().isEqualTo(503)
+                    .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "1")
+                    .expectBody().jsonPath("$.error").isEqualTo("Service Unavailable");
+        } finally {
+            release.countDown();
+        }
+        assertTrue(finished.await(10, TimeUnit.SECONDS));
+        verify(accountService, never()).submitEvent(any(EventRequest.class));
+        assertEquals(1, ledgerGateway.unavailable());
+    }
+
+    @Test
+    void testAdmit_BeyondMaxInFlight_RefusedWith429() {
+        LedgerGateway gateway = new LedgerGateway(1, 1, 1);
+        try {
+            gateway.admit(Mono.never()).subscribe();
+
+            assertThrows(TooManyRequestsException.class, () -> gateway.admit(Mono.just(1)).block());
+            assertEquals(1, gateway.inFlight());
+            assertEquals(1, gateway.throttled());
+        } finally {
+            gateway.close();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.coreBanking.reactive;
+
+import com.example.coreBanking.exception.LedgerUnavailableException;
+import com.example.coreBanking.exception.TooManyRequestsException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admits reactive requests into the ledger. Every request counts against {@code max-in-flight} until its
+ * response is complete and is refused with 429 beyond it; work that may block (locks, journal appends,
+ * history segments) runs on a bounded pool of ledger threads, at most {@code max-queued} tasks wait for
+ * one, and further work is refused with 503. Both refusals happen before any ledger work starts, so a
+ * client may retry them safely.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class LedgerGateway {
+
+    private final Scheduler scheduler;
+    private final int maxPending;
+    private final int maxInFlight;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder unavailable = new LongAdder();
+
+    @Autowired
+    public LedgerGateway(@Value("${corebanking.reactive.ledger-threads:0}") int ledgerThreads,
+                         @Value("${corebanking.reactive.max-queued:1024}") int maxQueued,
+                         @Value("${corebanking.reactive.max-in-flight:4096}") int maxInFlight) {
+        if (maxQueued < 1 || maxInFlight < 1) {
+            throw new IllegalArgumentException("Reactive limits must be positive");
+        }
+        int threads = ledgerThreads > 0 ? ledgerThreads : Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE;
+        this.maxPending = threads + maxQueued;
+        // The gateway bounds the total in onLedger. The scheduler's own cap is per thread and a finished task
+        // may hold its slot a little after the gateway counted it out, so that cap must never be the one hit.
+        this.scheduler = Schedulers.newBoundedElastic(threads, maxPending, "ledger");
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Runs {@code work} on the event loop; for reads that never wait on a lock or on disk.
+     */
+    public <T> Mono<T> read(Callable<T> work) {
+        return admit(Mono.fromCallable(work));
+    }
+
+    /**
+     * Runs {@code work} on a ledger thread, failing with {@link LedgerUnavailableException} when none is
+     * free and the queue is full.
+     */
+    public <T> Mono<T> call(Callable<T> work) {
+        return admit(onLedger(work));
+    }
+
+    /**
+     * Runs {@code work} on a ledger thread as {@link #call(Callable)} does, but gives the thread back as soon
+     * as {@code work} has returned its future; the request stays in flight until the future completes.
+     */
+    public <T> Mono<T> submit(Callable<CompletableFuture<T>> work) {
+        return admit(onLedger(work)
+                .flatMap(Mono::fromFuture)
+                .publishOn(Schedulers.parallel()));
+    }
+
+    /**
+     * Counts {@code response} against the in-flight limit from subscription until it terminates or is
+     * cancelled.
+     */
+    public <T> Mono<T> admit(Mono<T> response) {
+        return Mono.defer(() -> {
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                inFlight.decrementAndGet();
+                throttled.increment();
+                return Mono.error(new TooManyRequestsException("Too many requests in flight"));
+            }
+            return response.doFinally(signal -> inFlight.decrementAndGet());
+        });
+    }
+
+    private <T> Mono<T> onLedger(Callable<T> work) {
+        return Mono.defer(() -> {
+            if (pending.incrementAndGet() > maxPending) {
+                pending.decrementAndGet();
+                unavailable.increment();
+                return Mono.error(new LedgerUnavailableException("Ledger is busy"));
+            }
+            return Mono.fromCallable(work)
+                    .subscribeOn(scheduler)
+                    .doFinally(signal -> pending.decrementAndGet());
+        }).onErrorMap(RejectedExecutionException.class, e -> {
+            unavailable.increment();
+            return new LedgerUnavailableException("Ledger is busy", e);
+        });
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Ledger tasks running on or waiting for a ledger thread.
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    public long throttled() {
+        return throttled.sum();
+    }
+
+    public long unavailable() {
+        return unavailable.sum();
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.dispose();
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.coreBanking.reactive;
+
+import com.example.coreBanking.bulk.BulkAccountService;
+import com.example.coreBanking.dto.AggregatesResponse;
+import com.example.coreBanking.dto.BalanceResponse;
+import com.example.coreBanking.dto.BatchMode;
+import com.example.coreBanking.dto.BulkResponse;
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.dto.EventResult;
+import com.example.coreBanking.dto.HoldResponse;
+import com.example.coreBanking.exception.LedgerUnavailableException;
+import com.example.coreBanking.exception.TooManyRequestsException;
+import com.example.coreBanking.history.Transaction;
+import com.example.coreBanking.idempotency.IdempotencyCache;
+import com.example.coreBanking.idempotency.IdempotentResponse;
+import com.example.coreBanking.service.AccountService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.coreBanking.controller.AccountController.IDEMPOTENCY_KEY_HEADER;
+import static com.example.coreBanking.controller.AccountController.IDEMPOTENT_REPLAYED_HEADER;
+
+/**
+ * The {@code AccountController} endpoints served by Netty when the application runs with
+ * {@code spring.main.web-application-type=reactive}. Responses are the same; what differs is that a
+ * single event holds no thread while it waits for the journal, and that a saturated ledger answers 429 or
+ * 503 (see {@link LedgerGateway}) instead of letting requests queue up without bound. Batches and events
+ * with an idempotency key still wait for the journal on a ledger thread.
+ */
+@RestController
+@RequestMapping("/api")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAccountController {
+
+    /** Stands in for the rest of an NDJSON upload once an event fails to parse. */
+    private static final EventRequest MALFORMED = new EventRequest(null, null, null, null);
+
+    private final AccountService accountService;
+    private final IdempotencyCache idempotencyCache;
+    private final BulkAccountService bulkAccountService;
+    private final LedgerGateway ledgerGateway;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ReactiveAccountController(AccountService accountService, IdempotencyCache idempotencyCache,
+                                     BulkAccountService bulkAccountService, LedgerGateway ledgerGateway,
+                                     ObjectMapper objectMapper) {
+        this.accountService = accountService;
+        this.idempotencyCache = idempotencyCache;
+        this.bulkAccountService = bulkAccountService;
+        this.ledgerGateway = ledgerGateway;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping("/balance")
+    public Mono<ResponseEntity<BalanceResponse>> getBalance(@RequestParam("account_id") String accountId) {
+        return ledgerGateway.read(() -> ResponseEntity.ok(accountService.getBalance(accountId)));
+    }
+
+    @GetMapping("/accounts/{id}/transactions")
+    public Mono<ResponseEntity<List<Transaction>>> getTransactions(
+            @PathVariable("id") String accountId,
+            @RequestParam(value = "from", required = false) Instant from,
+            @RequestParam(value = "to", required = false) Instant to) {
+        return ledgerGateway.call(() -> ResponseEntity.ok(accountService.getTransactions(accountId, from, to)));
+    }
+
+    @GetMapping("/aggregates")
+    public Mono<ResponseEntity<AggregatesResponse>> getAggregates(
+            @RequestParam(value = "top", defaultValue = "10") int top) {
+        return ledgerGateway.read(() -> ResponseEntity.ok(accountService.getAggregates(top)));
+    }
+
+    @PostMapping("/event")
+    public Mono<ResponseEntity<?>> handleEvent(
+            @RequestBody EventRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return ledgerGateway.submit(() -> accountService.submitEvent(request))
+                    .map(result -> ResponseEntity.status(HttpStatus.CREATED).body(result));
+        }
+        return ledgerGateway.call(() -> {
+            IdempotentResponse response = idempotencyCache.execute(idempotencyKey, fingerprint(request),
+                    () -> serialize(accountService.handleEvent(request)));
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(response.replayed()))
+                    .body(response.body());
+        });
+    }
+
+    @PostMapping("/events")
+    public Mono<ResponseEntity<List<EventResult>>> handleEvents(
+            @RequestBody List<EventRequest> requests,
+            @RequestParam(value = "mode", defaultValue = "best-effort") String mode) {
+        BatchMode batchMode = BatchMode.fromValue(mode);
+        return ledgerGateway.call(() -> {
+            List<EventResult> results = accountService.handleEvents(requests, batchMode);
+            if (batchMode == BatchMode.ATOMIC) {
+                HttpStatus status = results.stream()
+                        .filter(result -> !result.isSuccess() && result.getStatus() != HttpStatus.CONFLICT.value())
+                        .findFirst()
+                        .map(result -> HttpStatus.valueOf(result.getStatus()))
+                        .orElse(HttpStatus.CREATED);
+                return ResponseEntity.status(status).body(results);
+            }
+            return ResponseEntity.ok(results);
+        });
+    }
+
+    /**
+     * Applies a newline-delimited upload in best-effort chunks as they arrive; as with the servlet endpoint,
+     * a malformed event ends the stream after its error line. Only one chunk per stream is with the ledger
+     * at a time, so a slow ledger slows the upload down rather than buffering it; a chunk refused by the
+     * {@link LedgerGateway} ends the stream with a single 503 or 429 line, and no event of that chunk or
+     * after it has been applied.
+     */
+    @PostMapping(value = "/events", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<EventResult> streamEvents(@RequestBody Flux<String> lines) {
+        return lines
+                .filter(line -> !line.isBlank())
+                .map(this::parse)
+                .takeUntil(event -> event == MALFORMED)
+                .buffer(AccountService.BATCH_CHUNK_SIZE)
+                .concatMap(chunk -> ledgerGateway.call(() -> apply(chunk))
+                        .onErrorResume(e -> e instanceof LedgerUnavailableException || e instanceof TooManyRequestsException,
+                                e -> Mono.just(List.of(EventResult.failure((RuntimeException) e)))))
+                .takeUntil(results -> isRefusal(results.get(results.size() - 1)))
+                .concatMapIterable(results -> results);
+    }
+
+    @PostMapping("/accounts/{id}/holds")
+    public Mono<ResponseEntity<HoldResponse>> placeHold(
+            @PathVariable("id") String accountId,
+            @RequestParam("amount") BigDecimal amount,
+            @RequestParam(value = "ttl_seconds", required = false) Long ttlSeconds) {
+        return ledgerGateway.call(() -> ResponseEntity.status(HttpStatus.CREATED)
+                .body(accountService.placeHold(accountId, amount, ttlSeconds)));
+    }
+
+    @PostMapping("/holds/{id}/capture")
+    public Mono<ResponseEntity<EventResponse>> captureHold(
+            @PathVariable("id") String holdId,
+            @RequestParam(value = "amount", required = false) BigDecimal amount) {
+        return ledgerGateway.call(() -> ResponseEntity.status(HttpStatus.CREATED)
+                .body(accountService.captureHold(holdId, amount)));
+    }
+
+    @DeleteMapping("/holds/{id}")
+    public Mono<ResponseEntity<HoldResponse>> releaseHold(@PathVariable("id") String holdId) {
+        return ledgerGateway.call(() -> ResponseEntity.ok(accountService.releaseHold(holdId)));
+    }
+
+    @PostMapping("/accounts/import")
+    public Mono<ResponseEntity<BulkResponse>> importAccounts(
+            @RequestParam("file") String file,
+            @RequestParam(value = "format", defaultValue = "csv") String format) {
+        return ledgerGateway.call(() -> ResponseEntity.ok(bulkAccountService.importAccounts(file, format)));
+    }
+
+    @PostMapping("/accounts/export")
+    public Mono<ResponseEntity<BulkResponse>> exportAccounts(
+            @RequestParam("file") String file,
+            @RequestParam(value = "format", defaultValue = "csv") String format) {
+        return ledgerGateway.call(() -> ResponseEntity.ok(bulkAccountService.exportAccounts(file, format)));
+    }
+
+    @PostMapping("/reset")
+    public Mono<ResponseEntity<Void>> reset() {
+        return ledgerGateway.call(() -> {
+            accountService.reset();
+            return ResponseEntity.ok().<Void>build();
+        });
+    }
+
+    private List<EventResult> apply(List<EventRequest> chunk) {
+        boolean malformed = chunk.get(chunk.size() - 1) == MALFORMED;
+        List<EventRequest> events = malformed ? chunk.subList(0, chunk.size() - 1) : chunk;
+        List<EventResult> results = new ArrayList<>(chunk.size());
+        if (!events.isEmpty()) {
+            results.addAll(accountService.handleEvents(events, BatchMode.BEST_EFFORT));
+        }
+        if (malformed) {
+            results.add(EventResult.failure(new IllegalArgumentException("Malformed event")));
+        }
+        return results;
+    }
+
+    private EventRequest parse(String line) {
+        try {
+            return objectMapper.readValue(line, EventRequest.class);
+        } catch (JsonProcessingException e) {
+            return MALFORMED;
+        }
+    }
+
+    private static boolean isRefusal(EventResult result) {
+        return result.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value()
+                || result.getStatus() == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String fingerprint(EventRequest request) {
+        return request.getType() + '|' + request.getOrigin() + '|' + request.getDestination() + '|' + request.getAmount();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.coreBanking.reactive;
+
+import com.example.coreBanking.dto.ErrorResponse;
+import com.example.coreBanking.exception.AccountNotFoundException;
+import com.example.coreBanking.exception.HoldNotFoundException;
+import com.example.coreBanking.exception.InsufficientFundsException;
+import com.example.coreBanking.exception.InvalidOperationException;
+import com.example.coreBanking.exception.LedgerUnavailableException;
+import com.example.coreBanking.exception.TooManyRequestsException;
+import com.example.coreBanking.metrics.LedgerMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+
+/**
+ * The reactive counterpart of {@code GlobalExceptionHandler}, with the same bodies; refusals from the
+ * {@link LedgerGateway} also carry a {@code Retry-After} header.
+ */
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveExceptionHandler {
+
+    static final String RETRY_AFTER_SECONDS = "1";
+
+    private final LedgerMetrics ledgerMetrics;
+
+    @Autowired
+    public ReactiveExceptionHandler(LedgerMetrics ledgerMetrics) {
+        this.ledgerMetrics = ledgerMetrics;
+    }
+
+    @ExceptionHandler(AccountNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleAccountNotFoundException(
+            AccountNotFoundException ex, ServerWebExchange exchange) {
+
+        ledgerMetrics.recordError(ex);
+        return respond(HttpStatus.NOT_FOUND, "Account Not Found", ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(HoldNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleHoldNotFoundException(
+            HoldNotFoundException ex, ServerWebExchange exchange) {
+
+        ledgerMetrics.recordError(ex);
+        return respond(HttpStatus.NOT_FOUND, "Hold Not Found", ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(InsufficientFundsException.class)
+    public ResponseEntity<ErrorResponse> handleInsufficientFundsException(
+            InsufficientFundsException ex, ServerWebExchange exchange) {
+
+        ledgerMetrics.recordError(ex);
+        return respond(HttpStatus.BAD_REQUEST, "Insufficient Funds", ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(
+            IllegalArgumentException ex, ServerWebExchange exchange) {
+
+        ledgerMetrics.recordError(ex);
+        return respond(HttpStatus.BAD_REQUEST, "Invalid Argument", ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(InvalidOperationException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidOperationException(
+            InvalidOperationException ex, ServerWebExchange exchange) {
+
+        ledgerMetrics.recordError(ex);
+        return respond(HttpStatus.CONFLICT, "Invalid Operation", ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorResponse> handleServerWebInputException(
+            ServerWebInputException ex, ServerWebExchange exchange) {
+
+        ledgerMetrics.recordError(ex);
+        return respond(HttpStatus.BAD_REQUEST, "Invalid Argument", ex.getReason(), exchange);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequestsException(
+            TooManyRequestsException ex, ServerWebExchange exchange) {
+
+        ledgerMetrics.recordError(ex);
+        return retryLater(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(LedgerUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleLedgerUnavailableException(
+            LedgerUnavailableException ex, ServerWebExchange exchange) {
+
+        ledgerMetrics.recordError(ex);
+        return retryLater(HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGeneralException(
+            Exception ex, ServerWebExchange exchange) {
+
+        ledgerMetrics.recordError(ex);
+        return respond(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error", "An unexpected error occurred", exchange);
+    }
+
+    private ResponseEntity<ErrorResponse> respond(HttpStatus status, String error, String message,
+                                                  ServerWebExchange exchange) {
+        return ResponseEntity.status(status).body(body(status, error, message, exchange));
+    }
+
+    private ResponseEntity<ErrorResponse> retryLater(HttpStatus status, String error, String message,
+                                                     ServerWebExchange exchange) {
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(body(status, error, message, exchange));
+    }
+
+    private static ErrorResponse body(HttpStatus status, String error, String message, ServerWebExchange exchange) {
+        return new ErrorResponse(status.value(), error, message, "uri=" + exchange.getRequest().getPath().value());
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.coreBanking.reactive;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@link LedgerGateway}'s counters, read at scrape time like those of
+ * {@link com.example.coreBanking.metrics.LedgerMeterBinder}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveMeterBinder implements MeterBinder {
+
+    private final LedgerGateway ledgerGateway;
+
+    @Autowired
+    public ReactiveMeterBinder(LedgerGateway ledgerGateway) {
+        this.ledgerGateway = ledgerGateway;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("corebanking.reactive.in.flight", ledgerGateway, LedgerGateway::inFlight)
+                .description("Reactive requests admitted and not yet answered")
+                .register(registry);
+        Gauge.builder("corebanking.reactive.ledger.pending", ledgerGateway, LedgerGateway::pending)
+                .description("Ledger tasks running on or waiting for a ledger thread")
+                .register(registry);
+        FunctionCounter.builder("corebanking.reactive.refused", ledgerGateway, LedgerGateway::throttled)
+                .tag("status", "429")
+                .register(registry);
+        FunctionCounter.builder("corebanking.reactive.refused", ledgerGateway, LedgerGateway::unavailable)
+                .tag("status", "503")
+                .register(registry);
+    }
+}
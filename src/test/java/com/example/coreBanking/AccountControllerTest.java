@@ -1,25 +1,45 @@
 package com.example.coreBanking;
 
+import com.example.coreBanking.bulk.BulkAccountService;
 import com.example.coreBanking.controller.AccountController;
+import com.example.coreBanking.dto.AggregatesResponse;
 import com.example.coreBanking.dto.BalanceResponse;
+import com.example.coreBanking.dto.BatchMode;
+import com.example.coreBanking.dto.BulkResponse;
 import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.dto.EventResult;
+import com.example.coreBanking.dto.HoldResponse;
+import com.example.coreBanking.exception.AccountNotFoundException;
+import com.example.coreBanking.exception.HoldNotFoundException;
+import com.example.coreBanking.exception.InsufficientFundsException;
+import com.example.coreBanking.history.Transaction;
+import com.example.coreBanking.idempotency.IdempotencyCache;
+import com.example.coreBanking.metrics.LedgerMetrics;
+import com.example.coreBanking.model.AccountView;
 import com.example.coreBanking.service.AccountService;
+import com.example.coreBanking.service.EventStreamProcessor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
 @WebMvcTest(AccountController.class)
+@Import({EventStreamProcessor.class, IdempotencyCache.class})
 class AccountControllerTest {
 
     @Autowired
@@ -28,6 +48,12 @@ class AccountControllerTest {
     @MockBean
     private AccountService accountService;
 
+    @MockBean
+    private LedgerMetrics ledgerMetrics;
+
+    @MockBean
+    private BulkAccountService bulkAccountService;
+
     @Test
     void testGetBalance_Success() throws Exception {
         String accountId = "12345";
@@ -44,10 +70,35 @@ class AccountControllerTest {
         verify(accountService, times(1)).getBalance(accountId);
     }
 
+    @Test
+    void testGetBalance_NotFound_WritesErrorBody() throws Exception {
+        when(accountService.getBalance("404")).thenThrow(new AccountNotFoundException("Account not found"));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/balance")
+                            .param("account_id", "404"))
+                    .andExpect(status().isNotFound())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andExpect(content().string("{\"path\":\"uri=/api/balance\",\"error\":\"Account Not Found\","
+                            + "\"message\":\"Account not found\",\"status\":404}"));
+        }
+    }
+
+    @Test
+    void testHandleEvent_MalformedBody_Returns400() throws Exception {
+        mockMvc.perform(post("/api/event")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\": \"deposit\", \"amount\": }"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Malformed request body"));
+
+        verifyNoInteractions(accountService);
+    }
+
     @Test
     void testHandleEvent_Deposit() throws Exception {
         EventRequest request = new EventRequest("deposit", null, "12345", BigDecimal.valueOf(500));
-        Map<String, Object> response = Map.of("destination", Map.of("id", "12345", "balance", 500));
+        EventResponse response = EventResponse.destination(new AccountView("12345", BigDecimal.valueOf(500)));
 
         when(accountService.handleEvent(any(EventRequest.class))).thenReturn(response);
 
@@ -64,7 +115,7 @@ class AccountControllerTest {
     @Test
     void testHandleEvent_Withdraw() throws Exception {
         EventRequest request = new EventRequest("withdraw", "12345", null, BigDecimal.valueOf(200));
-        Map<String, Object> response = Map.of("origin", Map.of("id", "12345", "balance", 800));
+        EventResponse response = EventResponse.origin(new AccountView("12345", BigDecimal.valueOf(800)));
 
         when(accountService.handleEvent(any(EventRequest.class))).thenReturn(response);
 
@@ -81,9 +132,9 @@ class AccountControllerTest {
     @Test
     void testHandleEvent_Transfer() throws Exception {
         EventRequest request = new EventRequest("transfer", "12345", "67890", BigDecimal.valueOf(300));
-        Map<String, Object> response = Map.of(
-                "origin", Map.of("id", "12345", "balance", 700),
-                "destination", Map.of("id", "67890", "balance", 300)
+        EventResponse response = new EventResponse(
+                new AccountView("12345", BigDecimal.valueOf(700)),
+                new AccountView("67890", BigDecimal.valueOf(300))
         );
 
         when(accountService.handleEvent(any(EventRequest.class))).thenReturn(response);
@@ -94,12 +145,217 @@ class AccountControllerTest {
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.origin.id").value("12345"))
                 .andExpect(jsonPath("$.origin.balance").value(700))
-                .andExpect(jsonPath("$.destination.id").value("67890"))
-                .andExpect(jsonPath("$.destination.balance").value(300));
+                .andExpect(content().string("{\"origin\":{\"id\":\"12345\",\"balance\":700},"
+                        + "\"destination\":{\"id\":\"67890\",\"balance\":300}}"));
+
+        verify(accountService, times(1)).handleEvent(any(EventRequest.class));
+    }
+
+    @Test
+    void testHandleEvent_IdempotencyKeyReplaysOriginalResponse() throws Exception {
+        EventResponse response = EventResponse.destination(new AccountView("777", BigDecimal.valueOf(500)));
+
+        when(accountService.handleEvent(any(EventRequest.class))).thenReturn(response);
+
+        for (String replayed : List.of("false", "true")) {
+            mockMvc.perform(post("/api/event")
+                            .header("Idempotency-Key", "key-777")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"type\": \"deposit\", \"destination\": \"777\", \"amount\": 500}"))
+                    .andExpect(status().isCreated())
+                    .andExpect(header().string("Idempotent-Replayed", replayed))
+                    .andExpect(jsonPath("$.destination.id").value("777"))
+                    .andExpect(jsonPath("$.destination.balance").value(500));
+        }
 
         verify(accountService, times(1)).handleEvent(any(EventRequest.class));
     }
 
+    @Test
+    void testHandleEvent_IdempotencyKeyReplaysBusinessError() throws Exception {
+        when(accountService.handleEvent(any(EventRequest.class)))
+                .thenThrow(new InsufficientFundsException("Insufficient funds"));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/event")
+                            .header("Idempotency-Key", "key-888")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"type\": \"withdraw\", \"origin\": \"888\", \"amount\": 500}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Insufficient Funds"));
+        }
+
+        verify(accountService, times(1)).handleEvent(any(EventRequest.class));
+    }
+
+    @Test
+    void testHandleEvent_IdempotencyKeyReusedForDifferentRequest() throws Exception {
+        when(accountService.handleEvent(any(EventRequest.class)))
+                .thenReturn(EventResponse.destination(new AccountView("999", BigDecimal.ONE)));
+
+        mockMvc.perform(post("/api/event")
+                        .header("Idempotency-Key", "key-999")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\": \"deposit\", \"destination\": \"999\", \"amount\": 1}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/event")
+                        .header("Idempotency-Key", "key-999")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\": \"deposit\", \"destination\": \"999\", \"amount\": 2}"))
+                .andExpect(status().isBadRequest());
+
+        verify(accountService, times(1)).handleEvent(any(EventRequest.class));
+    }
+
+    @Test
+    void testHandleEvents_BestEffort() throws Exception {
+        List<EventResult> results = List.of(
+                EventResult.success(EventResponse.destination(new AccountView("12345", BigDecimal.valueOf(500)))),
+                EventResult.failure(new InsufficientFundsException("Insufficient funds"))
+        );
+
+        when(accountService.handleEvents(anyList(), eq(BatchMode.BEST_EFFORT))).thenReturn(results);
+
+        mockMvc.perform(post("/api/events")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"type\": \"deposit\", \"destination\": \"12345\", \"amount\": 500},"
+                                + "{\"type\": \"withdraw\", \"origin\": \"12345\", \"amount\": 900}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].result.destination.balance").value(500))
+                .andExpect(jsonPath("$[1].status").value(400))
+                .andExpect(jsonPath("$[1].error").value("Insufficient Funds"));
+
+        verify(accountService, times(1)).handleEvents(anyList(), eq(BatchMode.BEST_EFFORT));
+    }
+
+    @Test
+    void testHandleEvents_AtomicFailureUsesFailingStatus() throws Exception {
+        List<EventResult> results = List.of(
+                EventResult.aborted(),
+                EventResult.failure(new InsufficientFundsException("Insufficient funds"))
+        );
+
+        when(accountService.handleEvents(anyList(), eq(BatchMode.ATOMIC))).thenReturn(results);
+
+        mockMvc.perform(post("/api/events")
+                        .param("mode", "atomic")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"type\": \"deposit\", \"destination\": \"12345\", \"amount\": 500},"
+                                + "{\"type\": \"withdraw\", \"origin\": \"12345\", \"amount\": 900}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$[0].status").value(409))
+                .andExpect(jsonPath("$[1].status").value(400));
+    }
+
+    @Test
+    void testStreamEvents_WritesOneResultLinePerEvent() throws Exception {
+        when(accountService.handleEvents(anyList(), eq(BatchMode.BEST_EFFORT))).thenAnswer(invocation -> {
+            List<EventRequest> chunk = invocation.getArgument(0);
+            return chunk.stream()
+                    .map(event -> EventResult.success(
+                            EventResponse.destination(new AccountView(event.getDestination(), BigDecimal.valueOf(5)))))
+                    .toList();
+        });
+
+        String body = mockMvc.perform(post("/api/events")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"type\": \"deposit\", \"destination\": \"1\", \"amount\": 5}\n"
+                                + "{\"type\": \"deposit\", \"destination\": \"2\", \"amount\": 5}\n"
+                                + "{\"type\": \"deposit\", \"destination\": \"3\", \"amount\": 5}\n"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(List.of(
+                "{\"status\":201,\"result\":{\"destination\":{\"id\":\"1\",\"balance\":5}}}",
+                "{\"status\":201,\"result\":{\"destination\":{\"id\":\"2\",\"balance\":5}}}",
+                "{\"status\":201,\"result\":{\"destination\":{\"id\":\"3\",\"balance\":5}}}"
+        ), body.lines().toList());
+    }
+
+    @Test
+    void testStreamEvents_MalformedEventEndsStream() throws Exception {
+        when(accountService.handleEvents(anyList(), eq(BatchMode.BEST_EFFORT)))
+                .thenReturn(List.of(EventResult.success(EventResponse.destination(new AccountView("1", BigDecimal.valueOf(5))))));
+
+        String body = mockMvc.perform(post("/api/events")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"type\": \"deposit\", \"destination\": \"1\", \"amount\": 5}\n"
+                                + "{\"type\": \"deposit\", \"amount\": }\n"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).contains("\"status\":400"));
+    }
+
+    @Test
+    void testGetTransactions_ParsesTimeRange() throws Exception {
+        Instant from = Instant.parse("2024-01-01T00:00:00Z");
+        Instant to = Instant.parse("2024-02-01T00:00:00Z");
+        when(accountService.getTransactions("100", from, to)).thenReturn(List.of(
+                new Transaction(Instant.parse("2024-01-02T10:00:00Z"), "deposit", BigDecimal.TEN, null, BigDecimal.TEN),
+                new Transaction(Instant.parse("2024-01-03T10:00:00Z"), "transfer", BigDecimal.valueOf(-4), "300", BigDecimal.valueOf(6))));
+
+        mockMvc.perform(get("/api/accounts/100/transactions")
+                        .param("from", "2024-01-01T00:00:00Z")
+                        .param("to", "2024-02-01T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].type").value("deposit"))
+                .andExpect(jsonPath("$[0].counterparty").doesNotExist())
+                .andExpect(jsonPath("$[1].timestamp").value("2024-01-03T10:00:00Z"))
+                .andExpect(jsonPath("$[1].amount").value(-4))
+                .andExpect(jsonPath("$[1].counterparty").value("300"))
+                .andExpect(jsonPath("$[1].balance").value(6));
+    }
+
+    @Test
+    void testGetAggregates_ReturnsTotalsFlowsAndTopBalances() throws Exception {
+        when(accountService.getAggregates(2)).thenReturn(new AggregatesResponse(BigDecimal.valueOf(30),
+                Map.of("deposit", new AggregatesResponse.Flow(3, BigDecimal.valueOf(30))),
+                List.of(new AccountView("1", BigDecimal.valueOf(20)), new AccountView("2", BigDecimal.TEN))));
+
+        mockMvc.perform(get("/api/aggregates").param("top", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalBalance").value(30))
+                .andExpect(jsonPath("$.flows.deposit.count").value(3))
+                .andExpect(jsonPath("$.topBalances[0].id").value("1"))
+                .andExpect(jsonPath("$.topBalances[1].balance").value(10));
+    }
+
+    @Test
+    void testImportAccounts_ReportsCount() throws Exception {
+        when(bulkAccountService.importAccounts("accounts.bin", "binary"))
+                .thenReturn(new BulkResponse("accounts.bin", "binary", 3, 12));
+        when(bulkAccountService.exportAccounts("../outside.csv", "csv"))
+                .thenThrow(new IllegalArgumentException("File must be a plain file name inside the bulk directory"));
+
+        mockMvc.perform(post("/api/accounts/import").param("file", "accounts.bin").param("format", "binary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accounts").value(3))
+                .andExpect(jsonPath("$.format").value("binary"));
+        mockMvc.perform(post("/api/accounts/export").param("file", "../outside.csv"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testHolds_PlaceAndCaptureUnknownHold() throws Exception {
+        when(accountService.placeHold("100", BigDecimal.valueOf(20), 600L)).thenReturn(new HoldResponse(
+                "h-1", "100", BigDecimal.valueOf(20), Instant.parse("2024-01-01T00:10:00Z"), BigDecimal.valueOf(80)));
+        when(accountService.captureHold("h-2", null)).thenThrow(new HoldNotFoundException("Hold not found"));
+
+        mockMvc.perform(post("/api/accounts/100/holds").param("amount", "20").param("ttl_seconds", "600"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value("h-1"))
+                .andExpect(jsonPath("$.expiresAt").value("2024-01-01T00:10:00Z"))
+                .andExpect(jsonPath("$.available").value(80));
+        mockMvc.perform(post("/api/holds/h-2/capture"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Hold Not Found"));
+    }
+
     @Test
     void testReset_Success() throws Exception {
         doNothing().when(accountService).reset();
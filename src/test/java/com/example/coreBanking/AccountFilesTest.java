@@ -0,0 +1,111 @@
+package com.example.coreBanking;
+
+import com.example.coreBanking.bulk.AccountFiles;
+import com.example.coreBanking.bulk.BulkFormat;
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.journal.NoOpEventJournal;
+import com.example.coreBanking.metrics.LedgerMetrics;
+import com.example.coreBanking.model.Account;
+import com.example.coreBanking.repository.AccountRepository;
+import com.example.coreBanking.repository.InMemoryAccountRepository;
+import com.example.coreBanking.repository.OffHeapAccountRepository;
+import com.example.coreBanking.service.AccountLocks;
+import com.example.coreBanking.service.AccountService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountFilesTest {
+
+    // Enough accounts for several CSV chunks and binary blocks.
+    private static final int ACCOUNTS = 500_000;
+
+    @TempDir
+    Path directory;
+
+    private static AccountService service(AccountRepository repository) {
+        return new AccountService(repository, new AccountLocks(16), new NoOpEventJournal(),
+                new LedgerMetrics(new SimpleMeterRegistry(), 1));
+    }
+
+    @Test
+    void testExportThenImport_RoundTripsEveryAccount() throws Exception {
+        OffHeapAccountRepository source = new OffHeapAccountRepository(16);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            source.save(new Account("acc-" + i, BigDecimal.valueOf(i, 2)));
+        }
+        AccountService exporter = service(source);
+
+        for (BulkFormat format : BulkFormat.values()) {
+            Path file = directory.resolve("accounts." + format.getValue());
+            assertEquals(ACCOUNTS, exporter.exportAccounts(file, format));
+
+            InMemoryAccountRepository target = new InMemoryAccountRepository();
+            target.save(new Account("stale", BigDecimal.TEN));
+            assertEquals(ACCOUNTS, service(target).importAccounts(file, format));
+
+            assertEquals(ACCOUNTS, target.size());
+            assertTrue(target.findById("stale").isEmpty());
+            for (int i = 0; i < ACCOUNTS; i += 997) {
+                assertEquals(0, BigDecimal.valueOf(i, 2).compareTo(target.findById("acc-" + i).get().getBalance()));
+            }
+        }
+    }
+
+    @Test
+    void testReadCsv_AcceptsHeaderCrLfAndCommasInIds() throws Exception {
+        Path file = directory.resolve("accounts.csv");
+        Files.writeString(file, "id,balance\r\nplain,10\r\n\r\nwith,comma,2.50\nbig,123456789012345678901.5\n",
+                StandardCharsets.UTF_8);
+
+        Map<String, BigDecimal> accounts = new HashMap<>();
+        for (Account[] chunk : AccountFiles.read(file, BulkFormat.CSV)) {
+            for (Account account : chunk) {
+                accounts.put(account.getId(), account.getBalance());
+            }
+        }
+
+        assertEquals(Map.of("plain", new BigDecimal("10"), "with,comma", new BigDecimal("2.50"),
+                "big", new BigDecimal("123456789012345678901.5")), accounts);
+    }
+
+    @Test
+    void testImport_RejectsInvalidFilesWithoutTouchingAccounts() throws Exception {
+        InMemoryAccountRepository repository = new InMemoryAccountRepository();
+        AccountService service = service(repository);
+        service.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.TEN));
+
+        for (String content : List.of("a,1\nb,x\n", "a,1\na,2\n", "a,-1\n", "no-balance\n")) {
+            Path file = directory.resolve("invalid.csv");
+            Files.writeString(file, content);
+            assertThrows(IllegalArgumentException.class, () -> service.importAccounts(file, BulkFormat.CSV), content);
+        }
+        Path binary = directory.resolve("invalid.bin");
+        Files.writeString(binary, "not binary");
+        assertThrows(IllegalArgumentException.class, () -> service.importAccounts(binary, BulkFormat.BINARY));
+
+        assertEquals(1, repository.size());
+        assertEquals(0, BigDecimal.TEN.compareTo(service.getBalance("100").balance()));
+    }
+
+    @Test
+    void testExportCsv_RejectsIdsWithLineBreaks() {
+        InMemoryAccountRepository repository = new InMemoryAccountRepository();
+        repository.save(new Account("two\nlines", BigDecimal.ONE));
+        Path file = directory.resolve("accounts.csv");
+
+        assertThrows(IllegalArgumentException.class, () -> service(repository).exportAccounts(file, BulkFormat.CSV));
+        assertFalse(Files.exists(file));
+        assertFalse(Files.exists(directory.resolve("accounts.csv.tmp")));
+    }
+}
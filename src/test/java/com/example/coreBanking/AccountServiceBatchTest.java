@@ -0,0 +1,168 @@
+package com.example.coreBanking;
+
+import com.example.coreBanking.dto.BatchMode;
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.dto.EventResult;
+import com.example.coreBanking.exception.AccountNotFoundException;
+import com.example.coreBanking.exception.HoldNotFoundException;
+import com.example.coreBanking.journal.NoOpEventJournal;
+import com.example.coreBanking.metrics.LedgerMetrics;
+import com.example.coreBanking.model.Account;
+import com.example.coreBanking.model.AccountView;
+import com.example.coreBanking.repository.InMemoryAccountRepository;
+import com.example.coreBanking.service.AccountLocks;
+import com.example.coreBanking.service.AccountService;
+import com.example.coreBanking.service.EventStreamProcessor;
+import com.example.coreBanking.service.FundsHolds;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountServiceBatchTest {
+
+    private AccountService accountService;
+
+    @BeforeEach
+    void setUp() {
+        accountService = new AccountService(new InMemoryAccountRepository(), new AccountLocks(16), new NoOpEventJournal(), new LedgerMetrics(new SimpleMeterRegistry(), 1));
+        accountService.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.valueOf(100)));
+    }
+
+    @Test
+    void testBestEffort_AppliesValidEventsAndReportsFailures() {
+        List<EventResult> results = accountService.handleEvents(List.of(
+                new EventRequest("deposit", null, "200", BigDecimal.TEN),
+                new EventRequest("withdraw", "300", null, BigDecimal.ONE),
+                new EventRequest("transfer", "100", "200", BigDecimal.valueOf(500)),
+                new EventRequest("transfer", "100", "200", BigDecimal.valueOf(40)),
+                new EventRequest("refund", "100", null, BigDecimal.ONE)
+        ), BatchMode.BEST_EFFORT);
+
+        assertEquals(List.of(201, 404, 400, 201, 400), results.stream().map(EventResult::getStatus).toList());
+        assertEquals(0, BigDecimal.TEN.compareTo(balanceIn(results.get(0), "destination")));
+        assertEquals(0, BigDecimal.valueOf(60).compareTo(accountService.getBalance("100").balance()));
+        assertEquals(0, BigDecimal.valueOf(50).compareTo(accountService.getBalance("200").balance()));
+    }
+
+    @Test
+    void testBestEffort_ReportsHoldFailuresLikeSingleEvents() {
+        InMemoryAccountRepository repository = new InMemoryAccountRepository();
+        AccountLocks locks = new AccountLocks(16);
+        AccountService ledger = new AccountService(repository, locks, new NoOpEventJournal(), new LedgerMetrics(new SimpleMeterRegistry(), 1));
+        ledger.setFundsHolds(new FundsHolds(repository, locks, 60, 3600, 1000, 4, "locking"));
+        ledger.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.valueOf(100)));
+
+        // Holds are placed through their own endpoint, not as batch events.
+        List<EventResult> results = ledger.handleEvents(List.of(
+                new EventRequest("hold", "100", null, BigDecimal.TEN),
+                new EventRequest("withdraw", "100", null, BigDecimal.ONE)
+        ), BatchMode.BEST_EFFORT);
+
+        assertEquals(List.of(409, 201), results.stream().map(EventResult::getStatus).toList());
+        assertEquals("Invalid Operation", results.get(0).getError());
+        EventResult holdNotFound = EventResult.failure(new HoldNotFoundException("Hold not found"));
+        assertEquals(404, holdNotFound.getStatus());
+        assertEquals("Hold Not Found", holdNotFound.getError());
+    }
+
+    @Test
+    void testBestEffort_SpansSeveralLockChunks() {
+        List<EventRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            requests.add(new EventRequest("transfer", "100", "acc-" + (i % 7), new BigDecimal("0.05")));
+        }
+
+        List<EventResult> results = accountService.handleEvents(requests, BatchMode.BEST_EFFORT);
+
+        assertEquals(2_000, results.size());
+        assertTrue(results.stream().allMatch(EventResult::isSuccess));
+        assertEquals(0, BigDecimal.ZERO.compareTo(accountService.getBalance("100").balance()));
+    }
+
+    @Test
+    void testAtomic_CommitsAllEvents() {
+        List<EventResult> results = accountService.handleEvents(List.of(
+                new EventRequest("transfer", "100", "200", BigDecimal.valueOf(70)),
+                new EventRequest("withdraw", "200", null, BigDecimal.valueOf(20)),
+                new EventRequest("transfer", "200", "100", BigDecimal.valueOf(50))
+        ), BatchMode.ATOMIC);
+
+        assertTrue(results.stream().allMatch(EventResult::isSuccess));
+        assertEquals(0, BigDecimal.valueOf(70).compareTo(balanceIn(results.get(0), "destination")));
+        assertEquals(0, BigDecimal.valueOf(80).compareTo(accountService.getBalance("100").balance()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(accountService.getBalance("200").balance()));
+    }
+
+    @Test
+    void testAtomic_FailureRollsBackEarlierEvents() {
+        List<EventResult> results = accountService.handleEvents(List.of(
+                new EventRequest("deposit", null, "100", BigDecimal.TEN),
+                new EventRequest("transfer", "100", "200", BigDecimal.valueOf(30)),
+                new EventRequest("withdraw", "200", null, BigDecimal.valueOf(31))
+        ), BatchMode.ATOMIC);
+
+        assertEquals(List.of(409, 409, 400), results.stream().map(EventResult::getStatus).toList());
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(accountService.getBalance("100").balance()));
+        assertThrows(AccountNotFoundException.class, () -> accountService.getBalance("200"));
+    }
+
+    private static BigDecimal balanceIn(EventResult result, String role) {
+        EventResponse response = result.getResult();
+        return (role.equals("origin") ? response.origin() : response.destination()).balance();
+    }
+
+    @Test
+    void testAtomic_JournalFailureCommitsNothing() {
+        InMemoryAccountRepository repository = new InMemoryAccountRepository();
+        AccountService journaled = new AccountService(repository, new AccountLocks(16), new NoOpEventJournal() {
+            @Override
+            public long append(String type, BigDecimal amount, AccountView... accounts) {
+                throw new UncheckedIOException("Journal write failed", new IOException("disk full"));
+            }
+        }, new LedgerMetrics(new SimpleMeterRegistry(), 1));
+        repository.save(new Account("100", BigDecimal.valueOf(100)));
+
+        assertThrows(UncheckedIOException.class, () -> journaled.handleEvents(List.of(
+                new EventRequest("withdraw", "100", null, BigDecimal.TEN),
+                new EventRequest("deposit", null, "200", BigDecimal.TEN)), BatchMode.ATOMIC));
+
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(repository.findById("100").orElseThrow().getBalance()));
+        assertTrue(repository.findById("200").isEmpty());
+    }
+
+    @Test
+    void testStream_FlushesOncePerChunk() throws IOException {
+        StringBuilder events = new StringBuilder();
+        int count = AccountService.BATCH_CHUNK_SIZE * 2 + 1;
+        for (int i = 0; i < count; i++) {
+            events.append("{\"type\":\"deposit\",\"destination\":\"").append(i).append("\",\"amount\":1}\n");
+        }
+        int[] flushes = new int[1];
+        ByteArrayOutputStream output = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes[0]++;
+            }
+        };
+
+        long read = new EventStreamProcessor(accountService, new ObjectMapper())
+                .process(new ByteArrayInputStream(events.toString().getBytes(StandardCharsets.UTF_8)), output);
+
+        assertEquals(count, read);
+        assertEquals(count, output.toString(StandardCharsets.UTF_8).split("\n").length);
+        assertTrue(flushes[0] <= 4, "flushed " + flushes[0] + " times");
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.coreBanking;
+
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.exception.InsufficientFundsException;
+import com.example.coreBanking.journal.NoOpEventJournal;
+import com.example.coreBanking.metrics.LedgerMetrics;
+import com.example.coreBanking.repository.InMemoryAccountRepository;
+import com.example.coreBanking.service.AccountLocks;
+import com.example.coreBanking.service.AccountService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int ACCOUNTS = 50;
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(1000);
+
+    private AccountService accountService;
+
+    @BeforeEach
+    void setUp() {
+        accountService = new AccountService(new InMemoryAccountRepository(), new AccountLocks(16), new NoOpEventJournal(), new LedgerMetrics(new SimpleMeterRegistry(), 1));
+    }
+
+    @Test
+    void testConcurrentDeposits_SingleAccount_NoLostUpdates() throws Exception {
+        int depositsPerThread = 5_000;
+
+        runConcurrently(() -> {
+            for (int i = 0; i < depositsPerThread; i++) {
+                accountService.handleEvent(new EventRequest("deposit", null, "hot", BigDecimal.ONE));
+            }
+        });
+
+        assertEquals(0, BigDecimal.valueOf((long) THREADS * depositsPerThread)
+                .compareTo(accountService.getBalance("hot").balance()));
+    }
+
+    @Test
+    void testConcurrentTransfers_TotalMoneyIsConserved() throws Exception {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountService.handleEvent(new EventRequest("deposit", null, accountId(i), INITIAL_BALANCE));
+        }
+        int transfersPerThread = 20_000;
+
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < transfersPerThread; i++) {
+                String origin = accountId(random.nextInt(ACCOUNTS));
+                String destination = accountId(random.nextInt(ACCOUNTS));
+                BigDecimal amount = BigDecimal.valueOf(random.nextInt(1, 200));
+                try {
+                    accountService.handleEvent(new EventRequest("transfer", origin, destination, amount));
+                } catch (InsufficientFundsException ignored) {
+                    // expected when a random origin has been drained
+                }
+            }
+        });
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < ACCOUNTS; i++) {
+            BigDecimal balance = accountService.getBalance(accountId(i)).balance();
+            assertTrue(balance.signum() >= 0, "balance went negative for " + accountId(i));
+            total = total.add(balance);
+        }
+        assertEquals(0, INITIAL_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)).compareTo(total));
+    }
+
+    private static String accountId(int i) {
+        return "acc-" + i;
+    }
+
+    private static void runConcurrently(Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
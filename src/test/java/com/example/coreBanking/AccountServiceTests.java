@@ -2,18 +2,26 @@ package com.example.coreBanking;
 
 import com.example.coreBanking.dto.BalanceResponse;
 import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.dto.EventType;
 import com.example.coreBanking.exception.AccountNotFoundException;
 import com.example.coreBanking.exception.InsufficientFundsException;
+import com.example.coreBanking.journal.EventJournal;
+import com.example.coreBanking.metrics.LedgerMetrics;
 import com.example.coreBanking.model.Account;
+import com.example.coreBanking.model.AccountView;
 import com.example.coreBanking.repository.AccountRepository;
+import com.example.coreBanking.service.AccountLocks;
 import com.example.coreBanking.service.AccountService;
+import com.example.coreBanking.service.EventHandler;
+import com.example.coreBanking.service.EventHandlers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import java.math.BigDecimal;
-import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,7 +30,16 @@ import static org.mockito.Mockito.*;
 class AccountServiceTest {
 
     @Mock
-    private AccountRepository accountRepository;
+    private PinnedRepository accountRepository;
+
+    @Spy
+    private AccountLocks accountLocks = new AccountLocks(16);
+
+    @Mock
+    private EventJournal eventJournal;
+
+    @Mock
+    private LedgerMetrics ledgerMetrics;
 
     @InjectMocks
     private AccountService accountService;
@@ -30,6 +47,7 @@ class AccountServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(accountRepository.pin()).thenReturn(accountRepository);
     }
 
     @Test
@@ -42,7 +60,7 @@ class AccountServiceTest {
 
         BalanceResponse response = accountService.getBalance(accountId);
 
-        assertEquals(balance, response.getBalance());
+        assertEquals(balance, response.balance());
         verify(accountRepository, times(1)).findById(accountId);
     }
 
@@ -65,10 +83,10 @@ class AccountServiceTest {
 
         when(accountRepository.findById(destinationId)).thenReturn(Optional.of(account));
 
-        Object result = accountService.handleEvent(request);
+        EventResponse result = accountService.handleEvent(request);
 
-        assertTrue(result instanceof Map);
-        assertEquals(account, ((Map<?, ?>) result).get("destination"));
+        assertEquals(new AccountView(destinationId, amount), result.destination());
+        assertNull(result.origin());
         verify(accountRepository, times(1)).save(account);
     }
 
@@ -82,10 +100,10 @@ class AccountServiceTest {
 
         when(accountRepository.findById(originId)).thenReturn(Optional.of(account));
 
-        Object result = accountService.handleEvent(request);
+        EventResponse result = accountService.handleEvent(request);
 
-        assertTrue(result instanceof Map);
-        assertEquals(account, ((Map<?, ?>) result).get("origin"));
+        assertEquals(new AccountView(originId, initialBalance.subtract(withdrawAmount)), result.origin());
+        assertNull(result.destination());
         assertEquals(initialBalance.subtract(withdrawAmount), account.getBalance());
         verify(accountRepository, times(1)).save(account);
     }
@@ -117,9 +135,10 @@ class AccountServiceTest {
         when(accountRepository.findById(originId)).thenReturn(Optional.of(origin));
         when(accountRepository.findById(destinationId)).thenReturn(Optional.of(destination));
 
-        Object result = accountService.handleEvent(request);
+        EventResponse result = accountService.handleEvent(request);
 
-        assertTrue(result instanceof Map);
+        assertEquals(new AccountView(originId, initialBalance.subtract(transferAmount)), result.origin());
+        assertEquals(new AccountView(destinationId, transferAmount), result.destination());
         assertEquals(origin.getBalance(), initialBalance.subtract(transferAmount));
         assertEquals(destination.getBalance(), transferAmount);
         verify(accountRepository, times(1)).save(origin);
@@ -150,9 +169,45 @@ class AccountServiceTest {
         assertThrows(IllegalArgumentException.class, () -> accountService.handleEvent(request));
     }
 
+    @Test
+    void testHandleEvent_MalformedRequests_RejectedBeforeRepositoryAccess() {
+        assertEquals("Amount is required", assertThrows(IllegalArgumentException.class,
+                () -> accountService.handleEvent(new EventRequest("deposit", null, "12345", null))).getMessage());
+        assertEquals("Amount must not be negative", assertThrows(IllegalArgumentException.class,
+                () -> accountService.handleEvent(new EventRequest("withdraw", "12345", null, BigDecimal.valueOf(-5)))).getMessage());
+        assertEquals("Amount must have at most 38 digits before and 18 after the decimal point",
+                assertThrows(IllegalArgumentException.class, () -> accountService.handleEvent(
+                        new EventRequest("deposit", null, "12345", new BigDecimal("1E+38")))).getMessage());
+        assertEquals("Amount must have at most 38 digits before and 18 after the decimal point",
+                assertThrows(IllegalArgumentException.class, () -> accountService.handleEvent(
+                        new EventRequest("deposit", null, "12345", new BigDecimal("1E-19")))).getMessage());
+        assertEquals("Destination is required", assertThrows(IllegalArgumentException.class,
+                () -> accountService.handleEvent(new EventRequest("transfer", "12345", null, BigDecimal.ONE))).getMessage());
+
+        verify(accountRepository, never()).pin();
+        verifyNoInteractions(accountLocks);
+    }
+
+    @Test
+    void testHandleEvent_DispatchesThroughRegisteredHandler() {
+        EventResponse fixed = EventResponse.destination(new AccountView("12345", BigDecimal.TEN));
+        EventHandlers handlers = new EventHandlers();
+        handlers.register(EventHandler.of(EventType.DEPOSIT, (accounts, request) -> fixed));
+        accountService.setEventHandlers(handlers);
+
+        assertSame(fixed, accountService.handleEvent(new EventRequest("deposit", null, "12345", BigDecimal.ONE)));
+        verify(accountRepository, never()).save(any(Account.class));
+    }
+
     @Test
     void testReset() {
         accountService.reset();
         verify(accountRepository, times(1)).reset();
     }
-}
\ No newline at end of file
+
+    /**
+     * A repository that is its own pinned generation, so tests stub one mock for both.
+     */
+    interface PinnedRepository extends AccountRepository, AccountRepository.Pinned {
+    }
+}
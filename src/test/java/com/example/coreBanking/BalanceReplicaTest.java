@@ -0,0 +1,103 @@
+package com.example.coreBanking;
+
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.exception.AccountNotFoundException;
+import com.example.coreBanking.journal.NoOpEventJournal;
+import com.example.coreBanking.metrics.LedgerMetrics;
+import com.example.coreBanking.model.Account;
+import com.example.coreBanking.repository.AccountRepository;
+import com.example.coreBanking.repository.OffHeapAccountRepository;
+import com.example.coreBanking.service.AccountLocks;
+import com.example.coreBanking.service.AccountService;
+import com.example.coreBanking.service.BalanceReplica;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceReplicaTest {
+
+    private final OffHeapAccountRepository repository = new OffHeapAccountRepository(16);
+
+    private AccountService service(BalanceReplica replica) {
+        AccountService accountService = new AccountService(repository, new AccountLocks(16), new NoOpEventJournal(),
+                new LedgerMetrics(new SimpleMeterRegistry(), 1));
+        accountService.setBalanceReplica(replica);
+        return accountService;
+    }
+
+    @Test
+    void testReads_FollowEventsAndFallBackToRepository() {
+        repository.save(new Account("seeded", BigDecimal.TEN));
+        BalanceReplica replica = new BalanceReplica(repository, new NoOpEventJournal());
+        replica.seed();
+        AccountService service = service(replica);
+
+        service.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.valueOf(5)));
+        service.handleEvent(new EventRequest("transfer", "seeded", "100", BigDecimal.valueOf(3)));
+
+        assertEquals(0, BigDecimal.valueOf(8).compareTo(service.getBalance("100").balance()));
+        assertEquals(0, BigDecimal.valueOf(7).compareTo(service.getBalance("seeded").balance()));
+        assertEquals(2, replica.find("100").version());
+        repository.save(new Account("unpublished", BigDecimal.ONE));
+        assertEquals(0, BigDecimal.ONE.compareTo(service.getBalance("unpublished").balance()));
+
+        service.reset();
+
+        assertEquals(0, replica.size());
+        assertThrows(AccountNotFoundException.class, () -> service.getBalance("100"));
+    }
+
+    @Test
+    void testSwappedGeneration_HidesOldBalancesAndIgnoresLatePublishes() {
+        BalanceReplica replica = new BalanceReplica(repository, new NoOpEventJournal());
+        AccountService service = service(replica);
+        service.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.TEN));
+        AccountRepository.Pinned old = repository.pin();
+        old.close();
+
+        // The repository's own reset, before the service has told any read model about it.
+        repository.reset();
+        assertThrows(AccountNotFoundException.class, () -> service.getBalance("100"));
+
+        replica.publish(old, "100");
+        assertNull(replica.find("100"));
+        assertThrows(AccountNotFoundException.class, () -> service.getBalance("100"));
+    }
+
+    @Test
+    void testConcurrentWritesAndInserts_ReadsSeeOnlyCompletedTransfers() throws Exception {
+        BalanceReplica replica = new BalanceReplica(repository, new NoOpEventJournal());
+        AccountService service = service(replica);
+        service.handleEvent(new EventRequest("deposit", null, "a", BigDecimal.valueOf(100)));
+        AtomicBoolean done = new AtomicBoolean();
+        // Transfers move money back and forth while new accounts keep resizing the off-heap table.
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                service.handleEvent(new EventRequest("transfer", "a", "b", BigDecimal.valueOf(60)));
+                service.handleEvent(new EventRequest("transfer", "b", "a", BigDecimal.valueOf(60)));
+                service.handleEvent(new EventRequest("deposit", null, "new-" + i, BigDecimal.ONE));
+            }
+            done.set(true);
+        });
+
+        writer.start();
+        List<BigDecimal> unexpected = new ArrayList<>();
+        while (!done.get()) {
+            BigDecimal balance = service.getBalance("a").balance();
+            if (balance.compareTo(BigDecimal.valueOf(100)) != 0 && balance.compareTo(BigDecimal.valueOf(40)) != 0) {
+                unexpected.add(balance);
+            }
+        }
+        writer.join();
+
+        assertEquals(List.of(), unexpected);
+        assertEquals(40_000, replica.find("a").version() - 1);
+        assertEquals(20_002, replica.size());
+    }
+}
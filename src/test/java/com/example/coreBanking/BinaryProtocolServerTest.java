@@ -0,0 +1,168 @@
+package com.example.coreBanking;
+
+import com.example.coreBanking.journal.EventJournal;
+import com.example.coreBanking.metrics.LedgerMetrics;
+import com.example.coreBanking.model.AccountView;
+import com.example.coreBanking.protocol.BinaryFrames;
+import com.example.coreBanking.protocol.BinaryProtocolServer;
+import com.example.coreBanking.repository.InMemoryAccountRepository;
+import com.example.coreBanking.service.AccountLocks;
+import com.example.coreBanking.service.AccountService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryProtocolServerTest {
+
+    private final DeferredJournal journal = new DeferredJournal();
+    private BinaryProtocolServer server;
+    private SocketChannel client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        AccountService accountService = new AccountService(new InMemoryAccountRepository(), new AccountLocks(16),
+                journal, new LedgerMetrics(new SimpleMeterRegistry(), 1));
+        server = new BinaryProtocolServer(accountService, "127.0.0.1", 0, 1);
+        server.start();
+        client = SocketChannel.open(new InetSocketAddress("127.0.0.1", server.port()));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        client.close();
+        server.stop();
+    }
+
+    @Test
+    void testPipelinedRequests_AreAnsweredInOrder() throws IOException {
+        ByteBuffer requests = ByteBuffer.allocate(1024);
+        BinaryFrames.putRequest(requests, 1, BinaryFrames.DEPOSIT, null, "100", BigDecimal.valueOf(100));
+        BinaryFrames.putRequest(requests, 2, BinaryFrames.WITHDRAW, "100", null, new BigDecimal("30.50"));
+        BinaryFrames.putRequest(requests, 3, BinaryFrames.TRANSFER, "100", "300", BigDecimal.valueOf(20));
+        BinaryFrames.putRequest(requests, 4, BinaryFrames.BALANCE, "300", null, null);
+        BinaryFrames.putRequest(requests, 5, BinaryFrames.WITHDRAW, "100", null, BigDecimal.valueOf(500));
+        BinaryFrames.putRequest(requests, 6, BinaryFrames.BALANCE, "200", null, null);
+        BinaryFrames.putRequest(requests, 7, (byte) 42, "100", null, BigDecimal.ONE);
+        requests.flip();
+        while (requests.hasRemaining()) {
+            client.write(requests);
+        }
+
+        ByteBuffer responses = readResponses(7);
+        assertResponse(responses, 1, BinaryFrames.OK, "0", "100");
+        assertResponse(responses, 2, BinaryFrames.OK, "69.50", "0");
+        assertResponse(responses, 3, BinaryFrames.OK, "49.50", "20");
+        assertResponse(responses, 4, BinaryFrames.OK, "20", "0");
+        assertResponse(responses, 5, BinaryFrames.INSUFFICIENT_FUNDS, "0", "0");
+        assertResponse(responses, 6, BinaryFrames.NOT_FOUND, "0", "0");
+        assertResponse(responses, 7, BinaryFrames.INVALID, "0", "0");
+    }
+
+    @Test
+    void testEventsWaitingForTheJournal_DoNotBlockTheIoThread() throws Exception {
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+        journal.durable = durable;
+        try {
+            ByteBuffer requests = ByteBuffer.allocate(1024);
+            BinaryFrames.putRequest(requests, 1, BinaryFrames.DEPOSIT, null, "100", BigDecimal.valueOf(100));
+            BinaryFrames.putRequest(requests, 2, BinaryFrames.BALANCE, "200", null, null);
+            client.write(requests.flip());
+            assertTrue(journal.appended.tryAcquire(5, TimeUnit.SECONDS), "the deposit is applied");
+
+            try (SocketChannel other = SocketChannel.open(new InetSocketAddress("127.0.0.1", server.port()))) {
+                ByteBuffer balance = ByteBuffer.allocate(64);
+                BinaryFrames.putRequest(balance, 3, BinaryFrames.BALANCE, "100", null, null);
+                other.write(balance.flip());
+                ByteBuffer response = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> readResponses(other, 1),
+                        "the I/O thread is free while the deposit waits for the journal");
+                assertResponse(response, 3, BinaryFrames.OK, "100", "0");
+            }
+            client.configureBlocking(false);
+            Thread.sleep(100);
+            assertEquals(0, client.read(ByteBuffer.allocate(64)), "neither response is written before the deposit is durable");
+            client.configureBlocking(true);
+        } finally {
+            // Releases an I/O thread that blocked on the journal, so the server can stop.
+            durable.complete(null);
+        }
+
+        ByteBuffer responses = readResponses(client, 2);
+        assertResponse(responses, 1, BinaryFrames.OK, "0", "100");
+        assertResponse(responses, 2, BinaryFrames.NOT_FOUND, "0", "0");
+    }
+
+    @Test
+    void testMalformedFrame_ClosesConnection() throws IOException {
+        client.write(ByteBuffer.wrap(new byte[]{0, 1, 0}));
+
+        assertEquals(-1, client.read(ByteBuffer.allocate(64)));
+    }
+
+    private ByteBuffer readResponses(int count) throws IOException {
+        return readResponses(client, count);
+    }
+
+    private static ByteBuffer readResponses(SocketChannel channel, int count) throws IOException {
+        ByteBuffer responses = ByteBuffer.allocate(count * BinaryFrames.RESPONSE_SIZE);
+        while (responses.hasRemaining()) {
+            assertTrue(channel.read(responses) >= 0, "connection closed early");
+        }
+        return responses.flip();
+    }
+
+    private static void assertResponse(ByteBuffer responses, long requestId, byte status, String originBalance,
+                                       String destinationBalance) {
+        assertEquals(BinaryFrames.RESPONSE_BODY_SIZE, responses.getShort());
+        assertEquals(requestId, responses.getLong());
+        assertEquals(status, responses.get());
+        assertEquals(0, new BigDecimal(originBalance).compareTo(BinaryFrames.getDecimal(responses)));
+        assertEquals(0, new BigDecimal(destinationBalance).compareTo(BinaryFrames.getDecimal(responses)));
+    }
+
+    /**
+     * Durable at once until a test swaps in a future of its own.
+     */
+    private static final class DeferredJournal implements EventJournal {
+
+        private final Semaphore appended = new Semaphore(0);
+        private volatile CompletableFuture<Void> durable = CompletableFuture.completedFuture(null);
+
+        @Override
+        public long append(String type, BigDecimal amount, AccountView... accounts) {
+            appended.release();
+            return 1;
+        }
+
+        @Override
+        public long appendCommit(String transactionId, String type, BigDecimal amount, AccountView... accounts) {
+            return append(type, amount, accounts);
+        }
+
+        @Override
+        public void checkWritable() {
+        }
+
+        @Override
+        public void awaitDurable(long sequence) {
+            durable.join();
+        }
+
+        @Override
+        public CompletableFuture<Void> whenDurable(long sequence) {
+            return durable;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.coreBanking;
+
+import com.example.coreBanking.cluster.ClusterRouter;
+import com.example.coreBanking.repository.AccountRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two nodes of a three-node cluster on localhost; the third never starts, so its accounts stand for a node
+ * that is down.
+ */
+class ClusterTest {
+
+    private static final HttpClient client = HttpClient.newHttpClient();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String[] urls = new String[3];
+    private static ConfigurableApplicationContext node0;
+    private static ConfigurableApplicationContext node1;
+    private static ClusterRouter router;
+
+    @BeforeAll
+    static void startNodes() throws IOException {
+        // Closed again straight away; the third port stays unused.
+        int[] ports = new int[3];
+        for (int i = 0; i < ports.length; i++) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                ports[i] = socket.getLocalPort();
+            }
+            urls[i] = "http://127.0.0.1:" + ports[i];
+        }
+        node0 = startNode(0, ports[0]);
+        node1 = startNode(1, ports[1]);
+        router = node0.getBean(ClusterRouter.class);
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        node0.close();
+        node1.close();
+    }
+
+    private static ConfigurableApplicationContext startNode(int index, int port) {
+        return new SpringApplicationBuilder(CoreBankingApplication.class).run(
+                "--server.port=" + port,
+                "--corebanking.holds.enabled=true",
+                "--corebanking.cluster.enabled=true",
+                "--corebanking.cluster.nodes=" + String.join(",", urls),
+                "--corebanking.cluster.node-index=" + index,
+                "--corebanking.cluster.timeout-ms=1000",
+                "--corebanking.cluster.commit-attempts=1");
+    }
+
+    @Test
+    void testEventsAndReads_AreForwardedToTheOwningNode() throws Exception {
+        String account = ownedBy(1, "forwarded-");
+
+        HttpResponse<String> deposit = post(0, "/api/event", event("deposit", null, account, "100"));
+        assertEquals(201, deposit.statusCode());
+        assertEquals(100, json(deposit).at("/destination/balance").intValue());
+
+        assertEquals(100, json(get(1, "/api/balance?account_id=" + account)).get("balance").intValue());
+        assertEquals(100, json(get(0, "/api/balance?account_id=" + account)).get("balance").intValue());
+        assertTrue(node0.getBean(AccountRepository.class).findById(account).isEmpty(), "node 0 keeps no copy");
+        assertEquals(409, post(0, "/api/accounts/" + account + "/holds?amount=10", null).statusCode());
+    }
+
+    @Test
+    void testCrossPartitionTransfer_DebitsOneNodeAndCreditsTheOther() throws Exception {
+        String origin = ownedBy(0, "origin-");
+        String destination = ownedBy(1, "destination-");
+        post(1, "/api/event", event("deposit", null, origin, "100"));
+
+        HttpResponse<String> transfer = post(0, "/api/event", event("transfer", origin, destination, "30"));
+        assertEquals(201, transfer.statusCode());
+        assertEquals(70, json(transfer).at("/origin/balance").intValue());
+        assertEquals(30, json(transfer).at("/destination/balance").intValue());
+
+        // Coordinated by a node owning neither account.
+        HttpResponse<String> back = post(1, "/api/event", event("transfer", destination, origin, "10"));
+        assertEquals(201, back.statusCode());
+        assertEquals(20, json(back).at("/origin/balance").intValue());
+        assertEquals(80, json(back).at("/destination/balance").intValue());
+
+        HttpResponse<String> overdrawn = post(0, "/api/event", event("transfer", origin, destination, "81"));
+        assertEquals(400, overdrawn.statusCode());
+        assertEquals("Insufficient Funds", json(overdrawn).get("error").asText());
+        assertEquals(404, post(1, "/api/event", event("transfer", ownedBy(0, "missing-"), destination, "1")).statusCode());
+        assertEquals(201, post(0, "/api/event", event("withdraw", origin, null, "80")).statusCode(),
+                "no hold is left behind");
+    }
+
+    @Test
+    void testTransferToUnreachableNode_IsRefusedAndReleasesTheHold() throws Exception {
+        String origin = ownedBy(0, "stranded-");
+        String destination = ownedBy(2, "unreachable-");
+        post(0, "/api/event", event("deposit", null, origin, "100"));
+
+        HttpResponse<String> transfer = post(0, "/api/event", event("transfer", origin, destination, "40"));
+        assertEquals(503, transfer.statusCode());
+        assertEquals("1", transfer.headers().firstValue("Retry-After").orElse(null));
+        assertEquals(503, get(0, "/api/balance?account_id=" + destination).statusCode());
+
+        assertEquals(100, json(get(0, "/api/balance?account_id=" + origin)).get("balance").intValue());
+        assertEquals(201, post(0, "/api/event", event("withdraw", origin, null, "100")).statusCode(),
+                "the prepared debit was released");
+    }
+
+    @Test
+    void testBatchesAcrossNodes_RunEventByEventAndRefuseAtomicMode() throws Exception {
+        String first = ownedBy(0, "batch-");
+        String second = ownedBy(1, "batch-");
+        String events = "[" + event("deposit", null, first, "50") + "," + event("transfer", first, second, "20")
+                + "," + event("withdraw", second, null, "25") + "]";
+
+        HttpResponse<String> batch = post(1, "/api/events", events);
+        assertEquals(200, batch.statusCode());
+        JsonNode results = json(batch);
+        assertEquals(201, results.get(0).get("status").intValue());
+        assertEquals(201, results.get(1).get("status").intValue());
+        assertEquals(400, results.get(2).get("status").intValue());
+        assertEquals(20, json(get(0, "/api/balance?account_id=" + second)).get("balance").intValue());
+
+        assertEquals(409, post(0, "/api/events?mode=atomic", events).statusCode());
+    }
+
+    private static String ownedBy(int node, String prefix) {
+        for (int i = 0; ; i++) {
+            if (router.ownerOf(prefix + i) == node) {
+                return prefix + i;
+            }
+        }
+    }
+
+    private static String event(String type, String origin, String destination, String amount) {
+        return "{\"type\":\"" + type + "\""
+                + (origin == null ? "" : ",\"origin\":\"" + origin + "\"")
+                + (destination == null ? "" : ",\"destination\":\"" + destination + "\"")
+                + ",\"amount\":" + amount + "}";
+    }
+
+    private static HttpResponse<String> post(int node, String path, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(urls[node] + path));
+        if (body == null) {
+            request.POST(HttpRequest.BodyPublishers.noBody());
+        } else {
+            request.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpResponse<String> get(int node, String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(urls[node] + path)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static JsonNode json(HttpResponse<String> response) throws IOException {
+        return objectMapper.readTree(response.body());
+    }
+}
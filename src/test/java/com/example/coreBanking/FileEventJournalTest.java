@@ -0,0 +1,172 @@
+package com.example.coreBanking;
+
+import com.example.coreBanking.dto.BatchMode;
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.journal.FileEventJournal;
+import com.example.coreBanking.metrics.LedgerMetrics;
+import com.example.coreBanking.repository.AccountRepository;
+import com.example.coreBanking.repository.InMemoryAccountRepository;
+import com.example.coreBanking.service.AccountLocks;
+import com.example.coreBanking.service.AccountService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileEventJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testReplay_RestoresBalancesAfterRestart() throws IOException {
+        AccountRepository repository = new InMemoryAccountRepository();
+        FileEventJournal journal = openJournal(repository);
+        AccountService service = new AccountService(repository, new AccountLocks(16), journal, new LedgerMetrics(new SimpleMeterRegistry(), 1));
+
+        service.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.valueOf(50)));
+        service.handleEvent(new EventRequest("withdraw", "100", null, BigDecimal.valueOf(5)));
+        service.handleEvent(new EventRequest("transfer", "100", "300", new BigDecimal("15.25")));
+        journal.close();
+
+        AccountRepository recovered = new InMemoryAccountRepository();
+        FileEventJournal reopened = openJournal(recovered);
+        reopened.close();
+
+        assertEquals(new BigDecimal("29.75"), recovered.findById("100").get().getBalance());
+        assertEquals(new BigDecimal("15.25"), recovered.findById("300").get().getBalance());
+        assertEquals(3, reopened.durableSequence());
+    }
+
+    @Test
+    void testRefusedEvents_LeaveBalancesAlone() throws IOException {
+        AccountRepository repository = new InMemoryAccountRepository();
+        FileEventJournal journal = openJournal(repository);
+        AccountService service = new AccountService(repository, new AccountLocks(16), journal, new LedgerMetrics(new SimpleMeterRegistry(), 1));
+        service.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.valueOf(100)));
+        journal.close();
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(IllegalStateException.class,
+                    () -> service.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.TEN)));
+        }
+        assertEquals(500, service.handleEvents(List.of(new EventRequest("withdraw", "100", null, BigDecimal.TEN)),
+                BatchMode.BEST_EFFORT).get(0).getStatus());
+
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(repository.findById("100").orElseThrow().getBalance()));
+    }
+
+    @Test
+    void testSubmitEvent_CompletesOnceDurable() throws Exception {
+        AccountRepository repository = new InMemoryAccountRepository();
+        FileEventJournal journal = openJournal(repository);
+        AccountService service = new AccountService(repository, new AccountLocks(16), journal, new LedgerMetrics(new SimpleMeterRegistry(), 1));
+
+        CompletableFuture<EventResponse> deposit = service.submitEvent(new EventRequest("deposit", null, "100", BigDecimal.TEN));
+
+        assertEquals(BigDecimal.TEN, deposit.get(10, TimeUnit.SECONDS).destination().balance());
+        assertTrue(journal.durableSequence() >= 1);
+        assertTrue(journal.whenDurable(1).isDone());
+        journal.close();
+    }
+
+    @Test
+    void testReplay_ResetClearsEarlierAccounts() throws IOException {
+        AccountRepository repository = new InMemoryAccountRepository();
+        FileEventJournal journal = openJournal(repository);
+        AccountService service = new AccountService(repository, new AccountLocks(16), journal, new LedgerMetrics(new SimpleMeterRegistry(), 1));
+
+        service.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.TEN));
+        service.reset();
+        service.handleEvent(new EventRequest("deposit", null, "200", BigDecimal.ONE));
+        journal.close();
+
+        AccountRepository recovered = new InMemoryAccountRepository();
+        openJournal(recovered).close();
+
+        assertTrue(recovered.findById("100").isEmpty());
+        assertEquals(BigDecimal.ONE, recovered.findById("200").get().getBalance());
+    }
+
+    @Test
+    void testReplay_TruncatesTornTail() throws IOException {
+        AccountRepository repository = new InMemoryAccountRepository();
+        FileEventJournal journal = openJournal(repository);
+        new AccountService(repository, new AccountLocks(16), journal, new LedgerMetrics(new SimpleMeterRegistry(), 1))
+                .handleEvent(new EventRequest("deposit", null, "100", BigDecimal.TEN));
+        journal.close();
+
+        Path segment = onlySegment();
+        long validSize = Files.size(segment);
+        Files.write(segment, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        AccountRepository recovered = new InMemoryAccountRepository();
+        FileEventJournal reopened = openJournal(recovered);
+        new AccountService(recovered, new AccountLocks(16), reopened, new LedgerMetrics(new SimpleMeterRegistry(), 1))
+                .handleEvent(new EventRequest("deposit", null, "100", BigDecimal.ONE));
+        reopened.close();
+
+        assertTrue(Files.size(segment) > validSize);
+        AccountRepository again = new InMemoryAccountRepository();
+        openJournal(again).close();
+        assertEquals(BigDecimal.valueOf(11), again.findById("100").get().getBalance());
+    }
+
+    @Test
+    void testConcurrentEvents_ShareFlushesAndAllReplay() throws Exception {
+        AccountRepository repository = new InMemoryAccountRepository();
+        FileEventJournal journal = openJournal(repository);
+        AccountService service = new AccountService(repository, new AccountLocks(16), journal, new LedgerMetrics(new SimpleMeterRegistry(), 1));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            String account = "acc-" + t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    service.handleEvent(new EventRequest("deposit", null, account, BigDecimal.ONE));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        journal.close();
+
+        AccountRepository recovered = new InMemoryAccountRepository();
+        openJournal(recovered).close();
+        for (int t = 0; t < 8; t++) {
+            assertEquals(BigDecimal.valueOf(200), recovered.findById("acc-" + t).get().getBalance());
+        }
+    }
+
+    private FileEventJournal openJournal(AccountRepository repository) throws IOException {
+        FileEventJournal journal = new FileEventJournal(repository, directory.toString(), 64, 0);
+        journal.open();
+        return journal;
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+}
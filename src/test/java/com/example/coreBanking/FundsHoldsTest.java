@@ -0,0 +1,148 @@
+package com.example.coreBanking;
+
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.dto.HoldResponse;
+import com.example.coreBanking.exception.HoldNotFoundException;
+import com.example.coreBanking.exception.InsufficientFundsException;
+import com.example.coreBanking.exception.InvalidOperationException;
+import com.example.coreBanking.journal.FileEventJournal;
+import com.example.coreBanking.journal.NoOpEventJournal;
+import com.example.coreBanking.metrics.LedgerMetrics;
+import com.example.coreBanking.repository.InMemoryAccountRepository;
+import com.example.coreBanking.service.AccountLocks;
+import com.example.coreBanking.service.AccountService;
+import com.example.coreBanking.service.FundsHolds;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FundsHoldsTest {
+
+    private final InMemoryAccountRepository repository = new InMemoryAccountRepository();
+    private final AccountLocks locks = new AccountLocks(16);
+    // Four one-second buckets, so holds longer than four seconds go round the wheel.
+    private final FundsHolds fundsHolds = new FundsHolds(repository, locks, 60, 3600, 1000, 4, "locking");
+    private AccountService accountService;
+
+    @BeforeEach
+    void setUp() {
+        accountService = new AccountService(repository, locks, new NoOpEventJournal(),
+                new LedgerMetrics(new SimpleMeterRegistry(), 1));
+        accountService.setFundsHolds(fundsHolds);
+        accountService.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.valueOf(100)));
+    }
+
+    @Test
+    void testHold_ReducesAvailableBalanceForWithdrawalsAndTransfers() {
+        HoldResponse hold = accountService.placeHold("100", BigDecimal.valueOf(70), null);
+        assertEquals(0, BigDecimal.valueOf(30).compareTo(hold.available()));
+
+        assertThrows(InsufficientFundsException.class, () -> accountService.handleEvent(
+                new EventRequest("withdraw", "100", null, BigDecimal.valueOf(31))));
+        assertThrows(InsufficientFundsException.class, () -> accountService.handleEvent(
+                new EventRequest("transfer", "100", "200", BigDecimal.valueOf(31))));
+        assertThrows(InsufficientFundsException.class, () -> accountService.placeHold("100", BigDecimal.valueOf(31), null));
+        accountService.handleEvent(new EventRequest("withdraw", "100", null, BigDecimal.valueOf(30)));
+
+        assertEquals(0, BigDecimal.valueOf(70).compareTo(accountService.getBalance("100").balance()));
+        assertEquals(0, BigDecimal.valueOf(70).compareTo(repository.findById("100").orElseThrow().getHeld()));
+    }
+
+    @Test
+    void testCapture_WithdrawsPartOfHoldAndReleasesTheRest() {
+        HoldResponse hold = accountService.placeHold("100", BigDecimal.valueOf(40), null);
+
+        assertThrows(IllegalArgumentException.class, () -> accountService.captureHold(hold.id(), BigDecimal.valueOf(41)));
+        EventResponse captured = accountService.captureHold(hold.id(), BigDecimal.valueOf(25));
+
+        assertEquals(0, BigDecimal.valueOf(75).compareTo(captured.origin().balance()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(repository.findById("100").orElseThrow().getHeld()));
+        assertThrows(HoldNotFoundException.class, () -> accountService.captureHold(hold.id(), null));
+        assertThrows(HoldNotFoundException.class, () -> accountService.releaseHold(hold.id()));
+        assertEquals(0, fundsHolds.activeHolds());
+    }
+
+    @Test
+    void testExpiry_ReleasesHoldsOnlyOnceTheirTtlHasRunOut() {
+        long placed = System.nanoTime();
+        accountService.placeHold("100", BigDecimal.valueOf(10), 2L);
+        HoldResponse longHold = accountService.placeHold("100", BigDecimal.valueOf(20), 10L);
+
+        assertEquals(0, fundsHolds.expireDue(placed));
+        assertEquals(1, fundsHolds.expireDue(placed + TimeUnit.SECONDS.toNanos(4)));
+        // The long hold's bucket has come round twice by now; it must still be waiting for its own turn.
+        assertEquals(0, fundsHolds.expireDue(placed + TimeUnit.SECONDS.toNanos(9)));
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(
+                accountService.releaseHold(longHold.id()).available()), "released before it expires");
+
+        HoldResponse expiring = accountService.placeHold("100", BigDecimal.valueOf(30), 3L);
+        assertEquals(1, fundsHolds.expireDue(placed + TimeUnit.SECONDS.toNanos(60)));
+        assertThrows(HoldNotFoundException.class, () -> accountService.captureHold(expiring.id(), null));
+        assertEquals(0, BigDecimal.ZERO.compareTo(repository.findById("100").orElseThrow().getHeld()));
+        assertEquals(2, fundsHolds.expiredHolds());
+    }
+
+    @Test
+    void testReset_ForgetsHoldsOfDiscardedAccounts() {
+        HoldResponse hold = accountService.placeHold("100", BigDecimal.valueOf(50), null);
+
+        accountService.reset();
+        accountService.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.valueOf(5)));
+
+        assertThrows(HoldNotFoundException.class, () -> accountService.releaseHold(hold.id()));
+        assertEquals(0, fundsHolds.activeHolds());
+        assertEquals(0, fundsHolds.expireDue(System.nanoTime() + TimeUnit.HOURS.toNanos(1)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(repository.findById("100").orElseThrow().getHeld()));
+    }
+
+    @Test
+    void testHoldEvents_AreOnlyAcceptedFromTheHoldEndpoints() {
+        assertThrows(InvalidOperationException.class, () -> accountService.handleEvent(
+                new EventRequest("hold", "100", null, BigDecimal.valueOf(10))));
+        assertThrows(InvalidOperationException.class, () -> accountService.handleEvent(
+                new EventRequest("capture", "100", null, BigDecimal.valueOf(10))));
+        assertEquals(0, BigDecimal.ZERO.compareTo(repository.findById("100").orElseThrow().getHeld()));
+    }
+
+    @Test
+    void testRestart_ReplaysCapturesAndReleasesEveryHold(@TempDir Path directory) throws IOException {
+        InMemoryAccountRepository before = new InMemoryAccountRepository();
+        FileEventJournal journal = new FileEventJournal(before, directory.toString(), 64, 0);
+        journal.open();
+        AccountService ledger = journaledService(before, journal);
+        ledger.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.valueOf(100)));
+        ledger.captureHold(ledger.placeHold("100", BigDecimal.valueOf(30), null).id(), BigDecimal.valueOf(10));
+        // Stands for the prepared debit of a cross-partition transfer whose commit has not arrived yet.
+        HoldResponse prepared = ledger.placeHold("100", BigDecimal.valueOf(50), null);
+        journal.close();
+
+        InMemoryAccountRepository after = new InMemoryAccountRepository();
+        journal = new FileEventJournal(after, directory.toString(), 64, 0);
+        journal.open();
+        AccountService restarted = journaledService(after, journal);
+
+        assertEquals(0, BigDecimal.valueOf(90).compareTo(after.findById("100").orElseThrow().getBalance()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(after.findById("100").orElseThrow().getHeld()));
+        // What the coordinator's commit of the prepared debit gets; it drops the transfer.
+        assertThrows(HoldNotFoundException.class, () -> restarted.captureHold(prepared.id(), null));
+        restarted.handleEvent(new EventRequest("withdraw", "100", null, BigDecimal.valueOf(90)));
+        journal.close();
+    }
+
+    private static AccountService journaledService(InMemoryAccountRepository repository, FileEventJournal journal) {
+        AccountLocks locks = new AccountLocks(16);
+        AccountService ledger = new AccountService(repository, locks, journal,
+                new LedgerMetrics(new SimpleMeterRegistry(), 1));
+        ledger.setFundsHolds(new FundsHolds(repository, locks, 60, 3600, 1000, 4, "locking"));
+        return ledger;
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.coreBanking;
+
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.journal.NoOpEventJournal;
+import com.example.coreBanking.metrics.LedgerMetrics;
+import com.example.coreBanking.model.HotAccount;
+import com.example.coreBanking.repository.InMemoryAccountRepository;
+import com.example.coreBanking.service.AccountLocks;
+import com.example.coreBanking.service.AccountService;
+import com.example.coreBanking.service.HotAccounts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotAccountsTest {
+
+    private final InMemoryAccountRepository repository = new InMemoryAccountRepository();
+    private final AccountLocks locks = new AccountLocks(16);
+
+    private AccountService service(HotAccounts hotAccounts) {
+        AccountService accountService = new AccountService(repository, locks, new NoOpEventJournal(),
+                new LedgerMetrics(new SimpleMeterRegistry(), 1));
+        accountService.setHotAccounts(hotAccounts);
+        return accountService;
+    }
+
+    @Test
+    void testContendedAccount_IsPromotedAndDemotedWithItsBalance() {
+        HotAccounts hotAccounts = new HotAccounts(repository, locks, 4, 3, 2, "heap", "locking", false, false);
+        AccountService accountService = service(hotAccounts);
+        accountService.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.valueOf(10)));
+
+        hotAccounts.recordContention("100");
+        hotAccounts.recordContention("100");
+        hotAccounts.evaluate();
+        assertFalse(repository.findById("100").orElseThrow() instanceof HotAccount);
+
+        for (int i = 0; i < 3; i++) {
+            hotAccounts.recordContention("100");
+        }
+        hotAccounts.evaluate();
+        assertInstanceOf(HotAccount.class, repository.findById("100").orElseThrow());
+        assertEquals(1, hotAccounts.hotAccountCount());
+
+        accountService.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.valueOf(5)));
+        accountService.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.valueOf(5)));
+        accountService.handleEvent(new EventRequest("withdraw", "100", null, BigDecimal.valueOf(12)));
+        assertEquals(0, BigDecimal.valueOf(8).compareTo(accountService.getBalance("100").balance()));
+
+        hotAccounts.evaluate();
+        assertInstanceOf(HotAccount.class, repository.findById("100").orElseThrow(), "two deposits keep it hot");
+        hotAccounts.evaluate();
+        assertFalse(repository.findById("100").orElseThrow() instanceof HotAccount);
+        assertEquals(0, BigDecimal.valueOf(8).compareTo(accountService.getBalance("100").balance()));
+        assertEquals(1, hotAccounts.promotions());
+        assertEquals(1, hotAccounts.demotions());
+    }
+
+    @Test
+    void testWithdrawal_BorrowsAcrossCellsAndKeepsFundsCheck() {
+        HotAccount account = new HotAccount("100", BigDecimal.valueOf(3), 4);
+        account.tryCredit(BigDecimal.valueOf(4));
+        Thread other = new Thread(() -> account.tryCredit(BigDecimal.valueOf(5)));
+        other.start();
+        assertDoesNotThrow(() -> other.join());
+
+        account.debit(BigDecimal.valueOf(11));
+        assertEquals(0, BigDecimal.ONE.compareTo(account.getBalance()));
+        assertEquals(0, BigDecimal.ONE.compareTo(account.seal()));
+        assertFalse(account.tryCredit(BigDecimal.ONE));
+    }
+
+    @Test
+    void testBalance_DuringDebitsAcrossCells_IsNeverTorn() throws Exception {
+        HotAccount account = new HotAccount("100", BigDecimal.valueOf(100), 4);
+        BigDecimal amount = BigDecimal.valueOf(60);
+        ReentrantLock stripe = new ReentrantLock();
+        AtomicLong running = new AtomicLong(2);
+        // Each writer credits its own cell back, so the money spreads and later debits span cells.
+        Runnable writer = () -> {
+            for (int i = 0; i < 100_000; i++) {
+                boolean debited = false;
+                stripe.lock();
+                try {
+                    if (account.getBalance().compareTo(amount) >= 0) {
+                        account.debit(amount);
+                        debited = true;
+                    }
+                } finally {
+                    stripe.unlock();
+                }
+                if (debited) {
+                    account.tryCredit(amount);
+                }
+            }
+            running.decrementAndGet();
+        };
+
+        List<Thread> writers = List.of(new Thread(writer), new Thread(writer));
+        writers.forEach(Thread::start);
+        List<BigDecimal> torn = new ArrayList<>();
+        while (running.get() > 0) {
+            BigDecimal balance = account.getBalance();
+            if (balance.compareTo(BigDecimal.valueOf(100)) != 0 && balance.compareTo(BigDecimal.valueOf(40)) != 0) {
+                torn.add(balance);
+            }
+        }
+        for (Thread thread : writers) {
+            thread.join();
+        }
+
+        assertEquals(List.of(), torn);
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(account.getBalance()));
+    }
+
+    @Test
+    void testConcurrentEvents_WhileAccountIsPromotedAndDemoted_NoLostUpdates() throws Exception {
+        // Every evaluation demotes the account and promotes it again.
+        HotAccounts hotAccounts = new HotAccounts(repository, locks, 8, 1, Long.MAX_VALUE, "heap", "locking", false, false);
+        AccountService accountService = service(hotAccounts);
+        int threads = 6;
+        int eventsPerThread = 20_000;
+        AtomicLong withdrawn = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        try {
+            Future<?> toggler = executor.submit(() -> {
+                while (running.get()) {
+                    hotAccounts.recordContention("hot");
+                    hotAccounts.evaluate();
+                }
+            });
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                boolean withdrawing = t % 3 == 0;
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < eventsPerThread; i++) {
+                        if (!withdrawing) {
+                            accountService.handleEvent(new EventRequest("deposit", null, "hot", BigDecimal.ONE));
+                            continue;
+                        }
+                        try {
+                            accountService.handleEvent(new EventRequest("withdraw", "hot", null, BigDecimal.valueOf(2)));
+                            withdrawn.addAndGet(2);
+                        } catch (RuntimeException expected) {
+                            // not found before the first deposit, or insufficient funds
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get(60, TimeUnit.SECONDS);
+            }
+            running.set(false);
+            toggler.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long deposited = (long) (threads - threads / 3) * eventsPerThread;
+        BigDecimal balance = accountService.getBalance("hot").balance();
+        assertTrue(balance.signum() >= 0, "balance went negative");
+        assertEquals(0, BigDecimal.valueOf(deposited - withdrawn.get()).compareTo(balance));
+        assertTrue(hotAccounts.promotions() > 0);
+    }
+
+    @Test
+    void testReset_WaitsForHotDepositInProgress() throws Exception {
+        AccountService accountService = service(new HotAccounts(repository, locks, 4, 100, 1000, "heap", "locking", false, false));
+        CountDownLatch crediting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        repository.save(new HotAccount("hot", BigDecimal.TEN, 4) {
+            @Override
+            public boolean tryCredit(BigDecimal amount) {
+                crediting.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return super.tryCredit(amount);
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> deposit = executor.submit(() ->
+                    accountService.handleEvent(new EventRequest("deposit", null, "hot", BigDecimal.ONE)));
+            assertTrue(crediting.await(5, TimeUnit.SECONDS));
+            Future<?> reset = executor.submit(accountService::reset);
+            assertThrows(TimeoutException.class, () -> reset.get(200, TimeUnit.MILLISECONDS),
+                    "the reset waits for the deposit's generation to be released");
+            release.countDown();
+            deposit.get(5, TimeUnit.SECONDS);
+            reset.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        assertTrue(repository.findById("hot").isEmpty());
+    }
+
+    @Test
+    void testJournalOrHistoryEnabled_IsRejected() {
+        assertThrows(IllegalStateException.class,
+                () -> new HotAccounts(repository, locks, 0, 100, 1000, "heap", "locking", true, false));
+        assertThrows(IllegalStateException.class,
+                () -> new HotAccounts(repository, locks, 0, 100, 1000, "heap", "locking", false, true));
+        assertThrows(IllegalStateException.class,
+                () -> new HotAccounts(repository, locks, 0, 100, 1000, "offheap", "locking", false, false));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.coreBanking;
+
+import com.example.coreBanking.idempotency.IdempotencyCache;
+import com.example.coreBanking.idempotency.IdempotencyStats;
+import com.example.coreBanking.idempotency.IdempotentResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyCacheTest {
+
+    @Test
+    void testConcurrentDuplicates_RunActionOnce() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(100, 1 << 20, 60);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<IdempotentResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> cache.execute("key", "request", () -> {
+                executions.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new byte[]{42};
+            })));
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        int replayed = 0;
+        for (Future<IdempotentResponse> future : futures) {
+            IdempotentResponse response = future.get();
+            assertArrayEquals(new byte[]{42}, response.body());
+            replayed += response.replayed() ? 1 : 0;
+        }
+        executor.shutdown();
+
+        assertEquals(1, executions.get());
+        assertEquals(7, replayed);
+    }
+
+    @Test
+    void testEviction_BoundsEntries() {
+        IdempotencyCache cache = new IdempotencyCache(10, 1 << 20, 60);
+        for (int i = 0; i < 25; i++) {
+            cache.execute("key-" + i, "request", () -> new byte[16]);
+        }
+
+        IdempotencyStats stats = cache.stats();
+        assertEquals(10, stats.entries());
+        assertEquals(15, stats.evictions());
+        assertEquals(160, stats.bytes());
+        assertFalse(cache.execute("key-0", "request", () -> new byte[16]).replayed());
+        assertTrue(cache.execute("key-24", "request", () -> new byte[16]).replayed());
+    }
+
+    @Test
+    void testUnexpectedFailure_IsNotRemembered() {
+        IdempotencyCache cache = new IdempotencyCache(10, 1 << 20, 60);
+
+        assertThrows(IllegalStateException.class, () -> cache.execute("key", "request", () -> {
+            throw new IllegalStateException("journal down");
+        }));
+
+        assertFalse(cache.execute("key", "request", () -> new byte[]{1}).replayed());
+        assertEquals(0.0, cache.stats().hitRate());
+    }
+}
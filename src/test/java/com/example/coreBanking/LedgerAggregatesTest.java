@@ -0,0 +1,206 @@
+package com.example.coreBanking;
+
+import com.example.coreBanking.bulk.BulkFormat;
+import com.example.coreBanking.dto.AggregatesResponse;
+import com.example.coreBanking.dto.BatchMode;
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.dto.EventResult;
+import com.example.coreBanking.dto.EventType;
+import com.example.coreBanking.exception.InvalidOperationException;
+import com.example.coreBanking.journal.NoOpEventJournal;
+import com.example.coreBanking.metrics.LedgerMetrics;
+import com.example.coreBanking.model.Account;
+import com.example.coreBanking.model.AccountView;
+import com.example.coreBanking.repository.AccountSet;
+import com.example.coreBanking.repository.InMemoryAccountRepository;
+import com.example.coreBanking.service.AccountLocks;
+import com.example.coreBanking.service.AccountService;
+import com.example.coreBanking.service.EventHandler;
+import com.example.coreBanking.service.EventHandlers;
+import com.example.coreBanking.service.LedgerAggregates;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerAggregatesTest {
+
+    private static final int THREADS = 8;
+    private static final int ACCOUNTS = 200;
+    private static final int EVENTS_PER_THREAD = 5_000;
+    private static final String[] TYPES = {"deposit", "withdraw", "transfer"};
+    private static final EventType FEE = EventType.define("fee", 16, true, false);
+
+    private volatile Runnable afterSwap = () -> {
+    };
+    // Runs afterSwap between swapping in a new generation and returning to the service.
+    private final InMemoryAccountRepository repository = new InMemoryAccountRepository() {
+        @Override
+        public void reset() {
+            super.reset();
+            afterSwap.run();
+        }
+
+        @Override
+        public void load(int expectedAccounts, Consumer<AccountSet> loader) {
+            super.load(expectedAccounts, loader);
+            afterSwap.run();
+        }
+    };
+
+    private AccountService service(LedgerAggregates aggregates) {
+        AccountService accountService = new AccountService(repository, new AccountLocks(16), new NoOpEventJournal(),
+                new LedgerMetrics(new SimpleMeterRegistry(), 1));
+        accountService.setLedgerAggregates(aggregates);
+        return accountService;
+    }
+
+    @Test
+    void testConcurrentEvents_MatchFullScan() throws Exception {
+        repository.save(new Account("seeded", BigDecimal.valueOf(500)));
+        LedgerAggregates aggregates = new LedgerAggregates(repository, new NoOpEventJournal());
+        aggregates.seed();
+        AccountService service = service(aggregates);
+        AtomicLongArray applied = new AtomicLongArray(TYPES.length);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < EVENTS_PER_THREAD; i++) {
+                    int type = random.nextInt(TYPES.length);
+                    EventRequest request = new EventRequest(TYPES[type], "a" + random.nextInt(ACCOUNTS),
+                            "a" + random.nextInt(ACCOUNTS), BigDecimal.valueOf(random.nextInt(1, 10_000), 2));
+                    try {
+                        if (i % 10 == 0) {
+                            EventResult result = service.handleEvents(List.of(request), BatchMode.ATOMIC).get(0);
+                            if (!result.isSuccess()) {
+                                continue;
+                            }
+                        } else {
+                            service.handleEvent(request);
+                        }
+                        applied.incrementAndGet(type);
+                    } catch (RuntimeException e) {
+                        // rejected withdrawals and transfers change nothing
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        List<AccountView> scanned = new ArrayList<>();
+        repository.forEach(account -> scanned.add(AccountView.of(account)));
+        BigDecimal scannedTotal = scanned.stream().map(AccountView::balance).reduce(BigDecimal.ZERO, BigDecimal::add);
+        scanned.sort(Comparator.comparing(AccountView::balance, Comparator.reverseOrder()).thenComparing(AccountView::id));
+
+        AggregatesResponse snapshot = service.getAggregates(25);
+        assertEquals(0, scannedTotal.compareTo(snapshot.totalBalance()));
+        assertEquals(scanned.subList(0, 25), snapshot.topBalances());
+        assertEquals(scanned, aggregates.topBalances(ACCOUNTS + 1));
+        for (int type = 0; type < TYPES.length; type++) {
+            assertEquals(applied.get(type), snapshot.flows().get(TYPES[type]).count());
+        }
+        BigDecimal deposited = snapshot.flows().get("deposit").amount();
+        BigDecimal withdrawn = snapshot.flows().get("withdraw").amount();
+        assertEquals(0, scannedTotal.compareTo(BigDecimal.valueOf(500).add(deposited).subtract(withdrawn)));
+    }
+
+    @Test
+    void testReset_ClearsAggregates() {
+        LedgerAggregates aggregates = new LedgerAggregates(repository, new NoOpEventJournal());
+        AccountService service = service(aggregates);
+        service.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.TEN));
+
+        service.reset();
+
+        AggregatesResponse snapshot = service.getAggregates(10);
+        assertEquals(0, BigDecimal.ZERO.compareTo(snapshot.totalBalance()));
+        assertTrue(snapshot.topBalances().isEmpty());
+        assertEquals(0, snapshot.flows().get("deposit").count());
+        assertThrows(IllegalArgumentException.class, () -> service.getAggregates(-1));
+        assertThrows(InvalidOperationException.class, () -> service(null).getAggregates(10));
+    }
+
+    @Test
+    void testEventRightAfterReset_IsCountedInTheNewGeneration() {
+        LedgerAggregates aggregates = new LedgerAggregates(repository, new NoOpEventJournal());
+        AccountService service = service(aggregates);
+        service.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.TEN));
+        afterSwap = () -> service.handleEvent(new EventRequest("deposit", null, "200", BigDecimal.ONE));
+
+        service.reset();
+
+        AggregatesResponse snapshot = service.getAggregates(10);
+        assertEquals(0, BigDecimal.ONE.compareTo(snapshot.totalBalance()));
+        assertEquals(List.of(new AccountView("200", BigDecimal.ONE)), snapshot.topBalances());
+        assertEquals(1, snapshot.flows().get("deposit").count());
+    }
+
+    @Test
+    void testImport_SeedsTheImportedAccountsBeforeTheirEvents(@TempDir Path directory) throws IOException {
+        LedgerAggregates aggregates = new LedgerAggregates(repository, new NoOpEventJournal());
+        AccountService service = service(aggregates);
+        service.handleEvent(new EventRequest("deposit", null, "old", BigDecimal.TEN));
+        Path file = directory.resolve("accounts.csv");
+        Files.writeString(file, "a,100\nb,50\n");
+        afterSwap = () -> service.handleEvent(new EventRequest("deposit", null, "a", BigDecimal.valueOf(5)));
+
+        assertEquals(2, service.importAccounts(file, BulkFormat.CSV));
+
+        AggregatesResponse snapshot = service.getAggregates(10);
+        assertEquals(0, BigDecimal.valueOf(155).compareTo(snapshot.totalBalance()));
+        assertEquals(List.of(new AccountView("a", BigDecimal.valueOf(105)), new AccountView("b", BigDecimal.valueOf(50))),
+                snapshot.topBalances());
+        assertEquals(1, snapshot.flows().get("deposit").count());
+    }
+
+    @Test
+    void testOperationAddedByHandler_IsCountedLikeTheBuiltInOnes() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        LedgerAggregates aggregates = new LedgerAggregates(repository, new NoOpEventJournal());
+        AccountService service = new AccountService(repository, new AccountLocks(16), new NoOpEventJournal(),
+                new LedgerMetrics(registry, 1));
+        service.setLedgerAggregates(aggregates);
+        EventHandlers handlers = new EventHandlers();
+        handlers.register(EventHandler.of(FEE, (accounts, request) -> {
+            Account account = accounts.findById(request.getOrigin()).orElseThrow();
+            account.debit(request.getAmount());
+            accounts.save(account);
+            return EventResponse.origin(AccountView.of(account));
+        }));
+        service.setEventHandlers(handlers);
+        service.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.TEN));
+
+        EventResponse charged = service.handleEvent(new EventRequest("fee", "100", null, BigDecimal.valueOf(3)));
+
+        assertEquals(new AccountView("100", BigDecimal.valueOf(7)), charged.origin());
+        AggregatesResponse snapshot = service.getAggregates(10);
+        assertEquals(0, BigDecimal.valueOf(7).compareTo(snapshot.totalBalance()));
+        assertEquals(new AggregatesResponse.Flow(1, BigDecimal.valueOf(3)), snapshot.flows().get("fee"));
+        assertEquals(1, registry.get("corebanking.events").tags("type", "fee", "outcome", "success")
+                .functionCounter().count());
+    }
+}
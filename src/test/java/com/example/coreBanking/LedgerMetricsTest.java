@@ -0,0 +1,102 @@
+package com.example.coreBanking;
+
+import com.example.coreBanking.dto.BatchMode;
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.exception.InsufficientFundsException;
+import com.example.coreBanking.idempotency.IdempotencyCache;
+import com.example.coreBanking.journal.NoOpEventJournal;
+import com.example.coreBanking.metrics.LedgerMeterBinder;
+import com.example.coreBanking.metrics.LedgerMetrics;
+import com.example.coreBanking.repository.InMemoryAccountRepository;
+import com.example.coreBanking.service.AccountLocks;
+import com.example.coreBanking.service.AccountService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final InMemoryAccountRepository repository = new InMemoryAccountRepository();
+    private final AccountLocks accountLocks = new AccountLocks(16);
+    private AccountService accountService;
+
+    @BeforeEach
+    void setUp() {
+        accountService = new AccountService(repository, accountLocks, new NoOpEventJournal(), new LedgerMetrics(registry, 1));
+        new LedgerMeterBinder(repository, accountLocks, new IdempotencyCache(10, 1024, 60)).bindTo(registry);
+    }
+
+    @Test
+    void testEvents_AreTimedByTypeAndOutcome() {
+        accountService.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.TEN));
+        accountService.handleEvent(new EventRequest("deposit", null, "200", BigDecimal.TEN));
+        assertThrows(InsufficientFundsException.class,
+                () -> accountService.handleEvent(new EventRequest("withdraw", "100", null, BigDecimal.valueOf(11))));
+        assertThrows(IllegalArgumentException.class,
+                () -> accountService.handleEvent(new EventRequest("refund", "100", null, BigDecimal.ONE)));
+
+        assertEquals(2, registry.get("corebanking.events").tags("type", "deposit", "outcome", "success").functionCounter().count());
+        assertEquals(1, registry.get("corebanking.events").tags("type", "withdraw", "outcome", "insufficient_funds").functionCounter().count());
+        assertEquals(1, registry.get("corebanking.events").tags("type", "other", "outcome", "invalid").functionCounter().count());
+        assertEquals(2, registry.get("corebanking.events.latency").tags("type", "deposit", "outcome", "success").timer().count());
+        assertEquals(2, registry.get("corebanking.accounts").gauge().value());
+    }
+
+    @Test
+    void testBatchEvents_AreCountedLikeSingleEvents() {
+        accountService.handleEvents(List.of(
+                new EventRequest("deposit", null, "100", BigDecimal.TEN),
+                new EventRequest("withdraw", "100", null, BigDecimal.valueOf(11))), BatchMode.BEST_EFFORT);
+        accountService.handleEvents(List.of(
+                new EventRequest("deposit", null, "100", BigDecimal.ONE),
+                new EventRequest("transfer", "missing", "100", BigDecimal.ONE)), BatchMode.ATOMIC);
+
+        assertEquals(1, registry.get("corebanking.events").tags("type", "deposit", "outcome", "success").functionCounter().count());
+        assertEquals(1, registry.get("corebanking.events").tags("type", "withdraw", "outcome", "insufficient_funds").functionCounter().count());
+        assertEquals(1, registry.get("corebanking.events").tags("type", "deposit", "outcome", "aborted").functionCounter().count());
+        assertEquals(1, registry.get("corebanking.events").tags("type", "transfer", "outcome", "not_found").functionCounter().count());
+        assertNull(registry.find("corebanking.events.latency").timer());
+    }
+
+    @Test
+    void testSampling_CountsEveryEventButTimesFewer() {
+        SimpleMeterRegistry sampled = new SimpleMeterRegistry();
+        LedgerMetrics metrics = new LedgerMetrics(sampled, 16);
+        for (int i = 0; i < 10_000; i++) {
+            metrics.recordEvent("deposit", null, metrics.startEvent());
+        }
+
+        assertEquals(10_000, sampled.get("corebanking.events").functionCounter().count());
+        long timed = sampled.get("corebanking.events.latency").timer().count();
+        assertTrue(timed > 300 && timed < 1_000, "timed " + timed + " of 10000 events");
+    }
+
+    @Test
+    void testLockWait_CountsOnlyContendedAcquisitions() throws Exception {
+        accountService.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.TEN));
+        assertEquals(0, registry.get("corebanking.lock.wait").functionTimer().count());
+
+        CountDownLatch waiting = new CountDownLatch(1);
+        accountLocks.lock("100");
+        Thread contender = new Thread(() -> {
+            waiting.countDown();
+            accountService.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.ONE));
+        });
+        contender.start();
+        waiting.await();
+        TimeUnit.MILLISECONDS.sleep(50);
+        accountLocks.unlock("100");
+        contender.join();
+
+        assertEquals(1, registry.get("corebanking.lock.wait").functionTimer().count());
+        assertTrue(registry.get("corebanking.lock.wait").functionTimer().totalTime(TimeUnit.MILLISECONDS) > 0);
+    }
+}
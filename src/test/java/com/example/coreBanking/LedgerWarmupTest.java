@@ -0,0 +1,20 @@
+package com.example.coreBanking;
+
+import com.example.coreBanking.service.LedgerWarmup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerWarmupTest {
+
+    @Test
+    void testWarmup_RunsEveryEventPathOnEitherStore() {
+        for (String store : new String[]{"heap", "offheap"}) {
+            LedgerWarmup warmup = new LedgerWarmup(new ObjectMapper(), store, 16, 1000);
+
+            assertDoesNotThrow(() -> warmup.run(new DefaultApplicationArguments()), store);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.coreBanking;
+
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.dto.HoldResponse;
+import com.example.coreBanking.journal.NoOpEventJournal;
+import com.example.coreBanking.metrics.LedgerMetrics;
+import com.example.coreBanking.model.Account;
+import com.example.coreBanking.repository.AccountRepository;
+import com.example.coreBanking.repository.OffHeapAccountRepository;
+import com.example.coreBanking.service.AccountLocks;
+import com.example.coreBanking.service.AccountService;
+import com.example.coreBanking.service.FundsHolds;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapAccountRepositoryTest {
+
+    private OffHeapAccountRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new OffHeapAccountRepository(16);
+    }
+
+    @Test
+    void testSaveAndFind_StoresBalanceAsMinorUnits() {
+        repository.save(new Account("100", new BigDecimal("10.5")));
+
+        Optional<Account> account = repository.findById("100");
+
+        assertTrue(account.isPresent());
+        assertEquals("100", account.get().getId());
+        assertEquals(new BigDecimal("10.50"), account.get().getBalance());
+        assertTrue(repository.findById("200").isEmpty());
+    }
+
+    @Test
+    void testSave_UpdatesExistingAccount() {
+        repository.save(new Account("100", BigDecimal.TEN));
+        repository.save(new Account("100", BigDecimal.ONE));
+
+        assertEquals(1, repository.size());
+        assertEquals(0, BigDecimal.ONE.compareTo(repository.findById("100").get().getBalance()));
+    }
+
+    @Test
+    void testSave_StoresHeldAmountAlongsideBalance() {
+        repository.save(new Account("100", BigDecimal.TEN, new BigDecimal("2.5")));
+
+        Account account = repository.findById("100").get();
+        assertEquals(new BigDecimal("2.50"), account.getHeld());
+        assertEquals(new BigDecimal("7.50"), account.getAvailableBalance());
+    }
+
+    @Test
+    void testSave_GrowsBeyondInitialCapacity() {
+        for (int i = 0; i < 10_000; i++) {
+            repository.save(new Account("acc-" + i, BigDecimal.valueOf(i)));
+        }
+
+        assertEquals(10_000, repository.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(0, BigDecimal.valueOf(i).compareTo(repository.findById("acc-" + i).get().getBalance()));
+        }
+    }
+
+    @Test
+    void testSave_RejectsSubMinorUnitAmounts() {
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.save(new Account("100", new BigDecimal("0.001"))));
+        assertTrue(repository.findById("100").isEmpty());
+    }
+
+    @Test
+    void testSelfTransfer_LeavesTheBalanceAlone() {
+        AccountService accountService = new AccountService(repository, new AccountLocks(16), new NoOpEventJournal(),
+                new LedgerMetrics(new SimpleMeterRegistry(), 1));
+        accountService.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.valueOf(100)));
+
+        // Every lookup returns a fresh copy, so origin and destination must not be looked up separately.
+        EventResponse result = accountService.handleEvent(new EventRequest("transfer", "100", "100", BigDecimal.valueOf(40)));
+
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(result.origin().balance()));
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(result.destination().balance()));
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(repository.findById("100").orElseThrow().getBalance()));
+    }
+
+    @Test
+    void testRefusedCapture_KeepsTheHold() {
+        AccountLocks locks = new AccountLocks(16);
+        AccountService accountService = new AccountService(repository, locks, new NoOpEventJournal(),
+                new LedgerMetrics(new SimpleMeterRegistry(), 1));
+        accountService.setFundsHolds(new FundsHolds(repository, locks, 60, 3600, 1000, 4, "locking"));
+        accountService.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.valueOf(100)));
+        HoldResponse hold = accountService.placeHold("100", BigDecimal.valueOf(40), null);
+
+        // Finer than the store's minor units, so saving the capture fails.
+        assertThrows(IllegalArgumentException.class, () -> accountService.captureHold(hold.id(), new BigDecimal("0.001")));
+
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(repository.findById("100").orElseThrow().getBalance()));
+        assertEquals(0, BigDecimal.valueOf(40).compareTo(repository.findById("100").orElseThrow().getHeld()));
+        assertEquals(0, BigDecimal.valueOf(60).compareTo(accountService.captureHold(hold.id(), null).origin().balance()));
+    }
+
+    @Test
+    void testReset() {
+        repository.save(new Account("100", BigDecimal.TEN));
+
+        repository.reset();
+
+        assertEquals(0, repository.size());
+        assertTrue(repository.findById("100").isEmpty());
+    }
+
+    @Test
+    void testReset_LeavesPinnedEventOnPreviousGeneration() throws Exception {
+        repository.save(new Account("100", BigDecimal.TEN));
+        AccountRepository.Pinned pinned = repository.pin();
+
+        CompletableFuture<Void> reset = CompletableFuture.runAsync(repository::reset);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (repository.findById("100").isPresent() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        assertTrue(repository.findById("100").isEmpty());
+        assertTrue(pinned.findById("100").isPresent());
+        pinned.save(new Account("200", BigDecimal.ONE));
+        assertTrue(repository.findById("200").isEmpty());
+        assertFalse(reset.isDone());
+
+        pinned.close();
+        reset.get(5, TimeUnit.SECONDS);
+        assertEquals(0, repository.size());
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.coreBanking;
+
+import com.example.coreBanking.dto.BatchMode;
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventResponse;
+import com.example.coreBanking.exception.InsufficientFundsException;
+import com.example.coreBanking.exception.InvalidOperationException;
+import com.example.coreBanking.journal.NoOpEventJournal;
+import com.example.coreBanking.metrics.LedgerMetrics;
+import com.example.coreBanking.model.Account;
+import com.example.coreBanking.repository.InMemoryAccountRepository;
+import com.example.coreBanking.repository.OffHeapAccountRepository;
+import com.example.coreBanking.service.AccountLocks;
+import com.example.coreBanking.service.AccountService;
+import com.example.coreBanking.service.ShardedLedger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedLedgerTest {
+
+    private static final int THREADS = 8;
+    private static final int ACCOUNTS = 64;
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(1000);
+
+    private final Map<String, String> writers = new ConcurrentHashMap<>();
+    private final InMemoryAccountRepository repository = new InMemoryAccountRepository() {
+        @Override
+        public Account save(Account account) {
+            writers.merge(account.getId(), Thread.currentThread().getName(),
+                    (previous, current) -> previous.equals(current) ? previous : previous + "," + current);
+            return super.save(account);
+        }
+
+        // Writes through the overridden save above so the single-writer check still sees them.
+        @Override
+        public Pinned pin() {
+            InMemoryAccountRepository outer = this;
+            return new Pinned() {
+                @Override
+                public Optional<Account> findById(String id) {
+                    return outer.findById(id);
+                }
+
+                @Override
+                public Account save(Account account) {
+                    return outer.save(account);
+                }
+
+                @Override
+                public int size() {
+                    return outer.size();
+                }
+
+                @Override
+                public long generation() {
+                    return outer.generation();
+                }
+
+                @Override
+                public void forEach(Consumer<Account> action) {
+                    outer.forEach(action);
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        }
+    };
+    private ShardedLedger ledger;
+    private AccountService accountService;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new ShardedLedger(repository, 4, 64, false);
+        ledger.start();
+        accountService = new AccountService(repository, new AccountLocks(16), new NoOpEventJournal(), new LedgerMetrics(new SimpleMeterRegistry(), 1));
+        accountService.setShardedLedger(ledger);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        ledger.stop();
+    }
+
+    @Test
+    void testCrossShardTransfer_ReturnsBothAfterImages() {
+        String origin = accountId(0);
+        String destination = accountOnOtherShard(origin);
+        ledger.execute(new EventRequest("deposit", null, origin, BigDecimal.valueOf(100)));
+
+        EventResponse result = ledger.execute(new EventRequest("transfer", origin, destination, BigDecimal.valueOf(30)));
+
+        assertEquals(0, BigDecimal.valueOf(70).compareTo(result.origin().balance()));
+        assertEquals(0, BigDecimal.valueOf(30).compareTo(result.destination().balance()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(ledger.moneyInTransit()));
+    }
+
+    @Test
+    void testCrossShardTransfer_InsufficientFunds_CreditsNothing() {
+        String origin = accountId(0);
+        String destination = accountOnOtherShard(origin);
+        ledger.execute(new EventRequest("deposit", null, origin, BigDecimal.TEN));
+
+        assertThrows(InsufficientFundsException.class,
+                () -> ledger.execute(new EventRequest("transfer", origin, destination, BigDecimal.valueOf(11))));
+
+        assertTrue(repository.findById(destination).isEmpty());
+        assertEquals(0, BigDecimal.TEN.compareTo(repository.findById(origin).orElseThrow().getBalance()));
+    }
+
+    @Test
+    void testSelfTransfer_OnTheOffHeapStore_LeavesTheBalanceAlone() throws InterruptedException {
+        OffHeapAccountRepository offHeap = new OffHeapAccountRepository(16);
+        ShardedLedger offHeapLedger = new ShardedLedger(offHeap, 4, 64, false);
+        offHeapLedger.start();
+        try {
+            offHeapLedger.execute(new EventRequest("deposit", null, "100", BigDecimal.valueOf(100)));
+
+            EventResponse result = offHeapLedger.execute(new EventRequest("transfer", "100", "100", BigDecimal.valueOf(40)));
+
+            assertEquals(0, BigDecimal.valueOf(100).compareTo(result.destination().balance()));
+            assertEquals(0, BigDecimal.valueOf(100).compareTo(offHeap.findById("100").orElseThrow().getBalance()));
+        } finally {
+            offHeapLedger.stop();
+        }
+    }
+
+    @Test
+    void testInvalidType_IsRejectedBeforeReachingAShard() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ledger.execute(new EventRequest("invalid", null, "1", BigDecimal.ONE)));
+    }
+
+    @Test
+    void testAtomicBatch_IsNotSupported() {
+        List<EventRequest> batch = List.of(new EventRequest("deposit", null, "1", BigDecimal.ONE));
+
+        assertThrows(InvalidOperationException.class, () -> accountService.handleEvents(batch, BatchMode.ATOMIC));
+        assertEquals(1, accountService.handleEvents(batch, BatchMode.BEST_EFFORT).size());
+    }
+
+    @Test
+    void testConcurrentTransfers_MoneyIsConservedAndEachAccountHasOneWriter() throws Exception {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountService.handleEvent(new EventRequest("deposit", null, accountId(i), INITIAL_BALANCE));
+        }
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        try {
+            Future<?> observer = executor.submit(() -> {
+                while (!done.get()) {
+                    assertTrue(ledger.moneyInTransit().signum() >= 0, "money in transit went negative");
+                }
+            });
+            List<Future<Object>> workers = executor.invokeAll(Collections.nCopies(THREADS, () -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 10_000; i++) {
+                    String origin = accountId(random.nextInt(ACCOUNTS));
+                    String destination = accountId(random.nextInt(ACCOUNTS));
+                    try {
+                        accountService.handleEvent(new EventRequest("transfer", origin, destination,
+                                BigDecimal.valueOf(random.nextInt(1, 200))));
+                    } catch (InsufficientFundsException ignored) {
+                        // expected when a random origin has been drained
+                    }
+                }
+                return null;
+            }));
+            for (Future<Object> worker : workers) {
+                worker.get(60, TimeUnit.SECONDS);
+            }
+            done.set(true);
+            observer.get(10, TimeUnit.SECONDS);
+        } finally {
+            done.set(true);
+            executor.shutdownNow();
+        }
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < ACCOUNTS; i++) {
+            BigDecimal balance = accountService.getBalance(accountId(i)).balance();
+            assertTrue(balance.signum() >= 0, "balance went negative for " + accountId(i));
+            total = total.add(balance);
+        }
+        assertEquals(0, INITIAL_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)).compareTo(total));
+        assertEquals(0, BigDecimal.ZERO.compareTo(ledger.moneyInTransit()));
+        writers.forEach((id, writer) -> assertEquals("ledger-shard-" + ledger.shardOf(id), writer, id));
+    }
+
+    private String accountOnOtherShard(String accountId) {
+        for (int i = 1; ; i++) {
+            if (ledger.shardOf(accountId(i)) != ledger.shardOf(accountId)) {
+                return accountId(i);
+            }
+        }
+    }
+
+    private static String accountId(int i) {
+        return "acc-" + i;
+    }
+}
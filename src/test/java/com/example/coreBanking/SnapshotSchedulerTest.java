@@ -0,0 +1,225 @@
+package com.example.coreBanking;
+
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.journal.FileEventJournal;
+import com.example.coreBanking.journal.SnapshotScheduler;
+import com.example.coreBanking.metrics.LedgerMetrics;
+import com.example.coreBanking.model.Account;
+import com.example.coreBanking.repository.AccountRepository;
+import com.example.coreBanking.repository.InMemoryAccountRepository;
+import com.example.coreBanking.service.AccountLocks;
+import com.example.coreBanking.service.AccountService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotSchedulerTest {
+
+    @TempDir
+    Path directory;
+
+    @TempDir
+    Path crashDirectory;
+
+    @Test
+    void testSnapshot_CompactsJournalAndRecoversState() throws IOException {
+        AccountRepository repository = new InMemoryAccountRepository();
+        FileEventJournal journal = openJournal(repository);
+        AccountLocks locks = new AccountLocks(16);
+        AccountService service = new AccountService(repository, locks, journal, new LedgerMetrics(new SimpleMeterRegistry(), 1));
+        SnapshotScheduler scheduler = new SnapshotScheduler(journal, repository, locks);
+
+        service.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.TEN));
+        service.handleEvent(new EventRequest("deposit", null, "200", BigDecimal.ONE));
+        scheduler.snapshot();
+        service.handleEvent(new EventRequest("transfer", "100", "200", BigDecimal.valueOf(4)));
+        scheduler.snapshot();
+        service.handleEvent(new EventRequest("withdraw", "200", null, BigDecimal.valueOf(2)));
+        journal.close();
+
+        assertEquals(1, files("snapshot-"));
+        assertEquals(1, files("journal-"));
+
+        AccountRepository recovered = new InMemoryAccountRepository();
+        openJournal(recovered).close();
+        assertEquals(BigDecimal.valueOf(6), recovered.findById("100").get().getBalance());
+        assertEquals(BigDecimal.valueOf(3), recovered.findById("200").get().getBalance());
+    }
+
+    @Test
+    void testSnapshot_TakenWhileWritersRunRecoversFinalState() throws Exception {
+        AccountRepository repository = new InMemoryAccountRepository();
+        FileEventJournal journal = openJournal(repository);
+        AccountLocks locks = new AccountLocks(16);
+        AccountService service = new AccountService(repository, locks, journal, new LedgerMetrics(new SimpleMeterRegistry(), 1));
+        SnapshotScheduler scheduler = new SnapshotScheduler(journal, repository, locks);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            String account = "acc-" + t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    service.handleEvent(new EventRequest("deposit", null, account, BigDecimal.ONE));
+                }
+            }));
+        }
+        for (int i = 0; i < 5; i++) {
+            scheduler.snapshot();
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        journal.close();
+
+        AccountRepository recovered = new InMemoryAccountRepository();
+        openJournal(recovered).close();
+        for (int t = 0; t < 4; t++) {
+            assertEquals(BigDecimal.valueOf(500), recovered.findById("acc-" + t).get().getBalance());
+        }
+    }
+
+    @Test
+    void testSnapshot_WaitsForTransfersItCaughtHalfApplied() throws Exception {
+        AccountRepository repository = new InMemoryAccountRepository();
+        FileEventJournal journal = openJournal(repository);
+        AccountLocks locks = new AccountLocks(16);
+        AccountService service = new AccountService(repository, locks, journal, new LedgerMetrics(new SimpleMeterRegistry(), 1));
+        SnapshotScheduler scheduler = new SnapshotScheduler(journal, repository, locks);
+        CountDownLatch debited = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        repository.save(new Account("origin", BigDecimal.valueOf(100)));
+        repository.save(new Account("destination", BigDecimal.ZERO) {
+            @Override
+            public void credit(BigDecimal amount) {
+                debited.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                super.credit(amount);
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> transfer = executor.submit(() ->
+                    service.handleEvent(new EventRequest("transfer", "origin", "destination", BigDecimal.TEN)));
+            assertTrue(debited.await(5, TimeUnit.SECONDS));
+            // The copy stands for a crash straight after the snapshot is published.
+            Future<Path> crash = executor.submit(() -> {
+                scheduler.snapshot();
+                return copyDirectory("crash");
+            });
+            assertThrows(TimeoutException.class, () -> crash.get(200, TimeUnit.MILLISECONDS),
+                    "the snapshot waits for the transfer to be journaled");
+            release.countDown();
+            transfer.get();
+
+            AccountRepository recovered = new InMemoryAccountRepository();
+            new FileEventJournal(recovered, crash.get().toString(), 64, 0).open();
+            assertEquals(BigDecimal.valueOf(90), recovered.findById("origin").get().getBalance());
+            assertEquals(BigDecimal.TEN, recovered.findById("destination").get().getBalance());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            journal.close();
+        }
+    }
+
+    @Test
+    void testSnapshot_TakenDuringTransfersRecoversWithoutLosingMoney() throws Exception {
+        AccountRepository repository = new InMemoryAccountRepository();
+        // Flushes lag 20 ms behind appends, so a crash right after a snapshot loses the records still pending.
+        FileEventJournal journal = new FileEventJournal(repository, directory.toString(), 1_000_000, 20_000);
+        journal.open();
+        AccountLocks locks = new AccountLocks(16);
+        AccountService service = new AccountService(repository, locks, journal, new LedgerMetrics(new SimpleMeterRegistry(), 1));
+        SnapshotScheduler scheduler = new SnapshotScheduler(journal, repository, locks);
+        int accounts = 8;
+        for (int i = 0; i < accounts; i++) {
+            service.handleEvent(new EventRequest("deposit", null, "acc-" + i, BigDecimal.valueOf(1000)));
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int seed = t;
+            futures.add(executor.submit(() -> {
+                for (int i = seed; running.get(); i++) {
+                    service.submitEvent(new EventRequest("transfer", "acc-" + i % accounts,
+                            "acc-" + (i * 7 + 1) % accounts, BigDecimal.ONE));
+                }
+            }));
+        }
+        List<Path> crashes = new ArrayList<>();
+        try {
+            for (int i = 0; i < 20; i++) {
+                scheduler.snapshot();
+                crashes.add(copyDirectory("crash-" + i));
+            }
+        } finally {
+            running.set(false);
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+            journal.close();
+        }
+
+        for (Path crash : crashes) {
+            AccountRepository recovered = new InMemoryAccountRepository();
+            new FileEventJournal(recovered, crash.toString(), 64, 0).open();
+            BigDecimal total = BigDecimal.ZERO;
+            for (int i = 0; i < accounts; i++) {
+                total = total.add(recovered.findById("acc-" + i).get().getBalance());
+            }
+            assertEquals(BigDecimal.valueOf(1000L * accounts), total, crash.toString());
+        }
+    }
+
+    private FileEventJournal openJournal(AccountRepository repository) throws IOException {
+        FileEventJournal journal = new FileEventJournal(repository, directory.toString(), 64, 0);
+        journal.open();
+        return journal;
+    }
+
+    /**
+     * What a crash at this moment leaves on disk: the journal holds only what the flusher already wrote.
+     */
+    private Path copyDirectory(String name) throws IOException {
+        Path copy = Files.createDirectory(crashDirectory.resolve(name));
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.copy(file, copy.resolve(file.getFileName()));
+            }
+        }
+        return copy;
+    }
+
+    private long files(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix)).count();
+        }
+    }
+}
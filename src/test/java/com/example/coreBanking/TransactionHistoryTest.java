@@ -0,0 +1,234 @@
+package com.example.coreBanking;
+
+import com.example.coreBanking.dto.BatchMode;
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.dto.EventType;
+import com.example.coreBanking.exception.AccountNotFoundException;
+import com.example.coreBanking.exception.InvalidOperationException;
+import com.example.coreBanking.history.Transaction;
+import com.example.coreBanking.history.TransactionHistory;
+import com.example.coreBanking.journal.NoOpEventJournal;
+import com.example.coreBanking.metrics.LedgerMetrics;
+import com.example.coreBanking.model.Posting;
+import com.example.coreBanking.repository.InMemoryAccountRepository;
+import com.example.coreBanking.service.AccountLocks;
+import com.example.coreBanking.service.AccountService;
+import com.example.coreBanking.service.ShardedLedger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionHistoryTest {
+
+    @TempDir
+    Path directory;
+
+    private volatile Runnable afterReset = () -> {
+    };
+    private final InMemoryAccountRepository repository = new InMemoryAccountRepository() {
+        @Override
+        public void reset() {
+            super.reset();
+            afterReset.run();
+        }
+    };
+
+    private AccountService service(TransactionHistory history) {
+        AccountService accountService = new AccountService(repository, new AccountLocks(16),
+                new NoOpEventJournal(), new LedgerMetrics(new SimpleMeterRegistry(), 1));
+        accountService.setTransactionHistory(history);
+        return accountService;
+    }
+
+    private TransactionHistory openHistory(boolean retain) throws IOException {
+        TransactionHistory history = new TransactionHistory(repository, new NoOpEventJournal(), directory.toString(), 100,
+                retain);
+        history.open();
+        return history;
+    }
+
+    @Test
+    void testEvents_AreRecordedPerAccount() throws IOException {
+        TransactionHistory history = openHistory(false);
+        AccountService service = service(history);
+
+        service.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.valueOf(50)));
+        service.handleEvent(new EventRequest("withdraw", "100", null, BigDecimal.valueOf(5)));
+        service.handleEvent(new EventRequest("transfer", "100", "300", new BigDecimal("15.25")));
+        service.handleEvents(List.of(new EventRequest("deposit", null, "300", BigDecimal.ONE),
+                new EventRequest("withdraw", "100", null, BigDecimal.valueOf(1000))), BatchMode.ATOMIC);
+        service.handleEvents(List.of(new EventRequest("deposit", null, "300", BigDecimal.ONE)), BatchMode.ATOMIC);
+
+        List<Transaction> origin = service.getTransactions("100", null, null);
+        assertEquals(List.of("deposit", "withdraw", "transfer"), origin.stream().map(Transaction::type).toList());
+        assertEquals(new BigDecimal("-15.25"), origin.get(2).amount());
+        assertEquals("300", origin.get(2).counterparty());
+        assertEquals(new BigDecimal("29.75"), origin.get(2).balance());
+
+        List<Transaction> destination = service.getTransactions("300", null, null);
+        assertEquals(2, destination.size());
+        assertEquals("100", destination.get(0).counterparty());
+        assertEquals(new BigDecimal("16.25"), destination.get(1).balance());
+
+        assertThrows(AccountNotFoundException.class, () -> service.getTransactions("200", null, null));
+        assertThrows(InvalidOperationException.class, () -> service(null).getTransactions("100", null, null));
+        history.close();
+    }
+
+    @Test
+    void testTimeRange_ReturnsOnlyMatchingRecordsAcrossSegments() throws Exception {
+        TransactionHistory history = openHistory(false);
+        AccountService service = service(history);
+
+        transferIn(service, 150);
+        Thread.sleep(2);
+        Instant from = Instant.now();
+        Thread.sleep(2);
+        transferIn(service, 130);
+        Thread.sleep(2);
+        Instant to = Instant.now();
+        Thread.sleep(2);
+        transferIn(service, 70);
+
+        List<Transaction> range = history.find("100", from, to);
+        assertEquals(130, range.size());
+        assertEquals(BigDecimal.valueOf(151), range.get(0).balance());
+        assertEquals(BigDecimal.valueOf(280), range.get(129).balance());
+        assertEquals(150, history.find("100", null, from).size());
+        assertEquals(70, history.find("100", to, null).size());
+        assertEquals(350, history.find("100", null, null).size());
+        assertEquals(700, history.find("other", null, null).size());
+        history.close();
+    }
+
+    @Test
+    void testReopen_RebuildsIndexWhenRetained() throws IOException {
+        TransactionHistory history = openHistory(true);
+        transferIn(service(history), 250);
+        history.close();
+
+        TransactionHistory reopened = openHistory(true);
+        List<Transaction> transactions = reopened.find("100", null, null);
+        assertEquals(250, transactions.size());
+        assertEquals(BigDecimal.valueOf(250), transactions.get(249).balance());
+        assertEquals("100", reopened.find("other", null, null).get(1).counterparty());
+
+        reopened.record(repository, EventType.DEPOSIT, new Posting("100", BigDecimal.ONE, null, BigDecimal.valueOf(251)));
+        assertEquals(251, reopened.find("100", null, null).size());
+        reopened.close();
+
+        TransactionHistory discarded = openHistory(false);
+        assertTrue(discarded.find("100", null, null).isEmpty());
+        discarded.close();
+    }
+
+    @Test
+    void testConcurrentWriters_KeepEachAccountInOrderAcrossSegments() throws Exception {
+        TransactionHistory history = openHistory(true);
+        AccountService service = service(history);
+        int accounts = 8;
+        int deposits = 300;
+        ExecutorService executor = Executors.newFixedThreadPool(accounts);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int account = 0; account < accounts; account++) {
+            String accountId = "writer-" + account;
+            writers.add(executor.submit(() -> {
+                for (int i = 0; i < deposits; i++) {
+                    service.handleEvent(new EventRequest("deposit", null, accountId, BigDecimal.ONE));
+                }
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        history.close();
+
+        // Writers that outran the mapped segments leave empty slots, which the reopened index skips.
+        TransactionHistory reopened = openHistory(true);
+        for (int account = 0; account < accounts; account++) {
+            List<Transaction> transactions = reopened.find("writer-" + account, null, null);
+            assertEquals(deposits, transactions.size());
+            for (int i = 0; i < deposits; i++) {
+                assertEquals(BigDecimal.valueOf(i + 1), transactions.get(i).balance());
+            }
+        }
+        reopened.close();
+    }
+
+    @Test
+    void testShardedEngine_RecordsBothHalvesOfCrossShardTransfer() throws Exception {
+        TransactionHistory history = openHistory(false);
+        ShardedLedger ledger = new ShardedLedger(repository, 4, 64, false);
+        ledger.setTransactionHistory(history);
+        ledger.start();
+        String destination = "1";
+        while (ledger.shardOf(destination) == ledger.shardOf("0")) {
+            destination = String.valueOf(Integer.parseInt(destination) + 1);
+        }
+
+        ledger.execute(new EventRequest("deposit", null, "0", BigDecimal.TEN));
+        ledger.execute(new EventRequest("transfer", "0", destination, BigDecimal.valueOf(4)));
+        ledger.stop();
+
+        List<Transaction> origin = history.find("0", null, null);
+        assertEquals(2, origin.size());
+        assertEquals(BigDecimal.valueOf(-4), origin.get(1).amount());
+        assertEquals(destination, origin.get(1).counterparty());
+        List<Transaction> credited = history.find(destination, null, null);
+        assertEquals(1, credited.size());
+        assertEquals(BigDecimal.valueOf(4), credited.get(0).balance());
+        history.close();
+    }
+
+    @Test
+    void testReset_ForgetsHistory() throws IOException {
+        TransactionHistory history = openHistory(false);
+        AccountService service = service(history);
+        transferIn(service, 3);
+
+        service.reset();
+        assertEquals(0, history.recordCount());
+        service.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.TEN));
+        assertEquals(1, service.getTransactions("100", null, null).size());
+        history.close();
+    }
+
+    @Test
+    void testEventRightAfterReset_KeepsItsHistory() throws IOException {
+        TransactionHistory history = openHistory(false);
+        AccountService service = service(history);
+        transferIn(service, 3);
+        afterReset = () -> service.handleEvent(new EventRequest("deposit", null, "100", BigDecimal.TEN));
+
+        service.reset();
+
+        List<Transaction> transactions = service.getTransactions("100", null, null);
+        assertEquals(1, transactions.size());
+        assertEquals(BigDecimal.TEN, transactions.get(0).balance());
+        history.close();
+    }
+
+    /**
+     * Funds "other" and moves the unit on to 100, so every step leaves 100 one unit richer.
+     */
+    private static void transferIn(AccountService service, int count) {
+        for (int i = 0; i < count; i++) {
+            service.handleEvent(new EventRequest("deposit", null, "other", BigDecimal.ONE));
+            service.handleEvent(new EventRequest("transfer", "other", "100", BigDecimal.ONE));
+        }
+    }
+}
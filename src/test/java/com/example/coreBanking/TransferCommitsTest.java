@@ -0,0 +1,116 @@
+package com.example.coreBanking;
+
+import com.example.coreBanking.cluster.ClusterRouter;
+import com.example.coreBanking.cluster.Partition;
+import com.example.coreBanking.cluster.TransferCommits;
+import com.example.coreBanking.dto.EventRequest;
+import com.example.coreBanking.exception.HoldNotFoundException;
+import com.example.coreBanking.journal.FileEventJournal;
+import com.example.coreBanking.journal.SnapshotScheduler;
+import com.example.coreBanking.metrics.LedgerMetrics;
+import com.example.coreBanking.repository.AccountRepository;
+import com.example.coreBanking.repository.InMemoryAccountRepository;
+import com.example.coreBanking.service.AccountLocks;
+import com.example.coreBanking.service.AccountService;
+import com.example.coreBanking.service.FundsHolds;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The participant side of cross-partition transfers on a one-node cluster, with the journal enabled so
+ * that a restart can be replayed.
+ */
+class TransferCommitsTest {
+
+    @TempDir
+    Path directory;
+
+    private AccountRepository repository;
+    private AccountLocks locks;
+    private FileEventJournal journal;
+    private Partition partition;
+
+    @AfterEach
+    void closeJournal() throws IOException {
+        journal.close();
+    }
+
+    @Test
+    void testRetriedCommits_TakeEffectOnce() throws IOException {
+        start();
+        deposit("100", 100);
+        String holdId = partition.prepareDebit("tx-1", "100", BigDecimal.valueOf(30));
+
+        assertEquals(0, BigDecimal.valueOf(70).compareTo(partition.commitDebit("tx-1", "100", holdId, BigDecimal.valueOf(30)).balance()));
+        assertEquals(0, BigDecimal.valueOf(70).compareTo(partition.commitDebit("tx-1", "100", holdId, BigDecimal.valueOf(30)).balance()),
+                "the retry gets the first capture back instead of HoldNotFound");
+        partition.commitCredit("tx-1", "200", BigDecimal.valueOf(30));
+        partition.commitCredit("tx-1", "200", BigDecimal.valueOf(30));
+
+        assertBalance("100", 70);
+        assertBalance("200", 30);
+        assertThrows(HoldNotFoundException.class,
+                () -> partition.commitDebit("tx-2", "100", holdId, BigDecimal.valueOf(30)),
+                "another transaction cannot reuse the captured hold");
+    }
+
+    @Test
+    void testCommits_AreRememberedAcrossSnapshotsAndRestarts() throws IOException {
+        start();
+        deposit("100", 100);
+        String firstHold = partition.prepareDebit("tx-1", "100", BigDecimal.valueOf(30));
+        partition.commitDebit("tx-1", "100", firstHold, BigDecimal.valueOf(30));
+        partition.commitCredit("tx-1", "200", BigDecimal.valueOf(30));
+        new SnapshotScheduler(journal, repository, locks).snapshot();
+        String secondHold = partition.prepareDebit("tx-2", "100", BigDecimal.valueOf(20));
+        partition.commitDebit("tx-2", "100", secondHold, BigDecimal.valueOf(20));
+        partition.commitCredit("tx-2", "200", BigDecimal.valueOf(20));
+        String lostHold = partition.prepareDebit("tx-3", "100", BigDecimal.valueOf(10));
+        journal.close();
+
+        start();
+        assertEquals(0, BigDecimal.valueOf(70).compareTo(partition.commitDebit("tx-1", "100", firstHold, BigDecimal.valueOf(30)).balance()));
+        partition.commitCredit("tx-1", "200", BigDecimal.valueOf(30));
+        assertEquals(0, BigDecimal.valueOf(50).compareTo(partition.commitDebit("tx-2", "100", secondHold, BigDecimal.valueOf(20)).balance()));
+        partition.commitCredit("tx-2", "200", BigDecimal.valueOf(20));
+        assertThrows(HoldNotFoundException.class,
+                () -> partition.commitDebit("tx-3", "100", lostHold, BigDecimal.valueOf(10)),
+                "a hold the restart released is reported as gone");
+
+        assertBalance("100", 50);
+        assertBalance("200", 50);
+    }
+
+    private void start() throws IOException {
+        repository = new InMemoryAccountRepository();
+        locks = new AccountLocks(16);
+        TransferCommits transferCommits = new TransferCommits(3600);
+        journal = new FileEventJournal(repository, directory.toString(), 64, 0);
+        journal.setTransferCommits(transferCommits);
+        journal.open();
+        AccountService service = new AccountService(repository, locks, journal, new LedgerMetrics(new SimpleMeterRegistry(), 1));
+        service.setFundsHolds(new FundsHolds(repository, locks, 60, 3600, 1000, 4, "locking"));
+        service.setTransferCommits(transferCommits);
+        ClusterRouter router = new ClusterRouter(new ObjectMapper(), "http://127.0.0.1:1", 0, 1000, 30, 1, true,
+                "servlet", 3600);
+        service.setClusterRouter(router);
+        partition = router.local();
+    }
+
+    private void deposit(String accountId, long amount) {
+        partition.apply(new EventRequest("deposit", null, accountId, BigDecimal.valueOf(amount)));
+    }
+
+    private void assertBalance(String accountId, long expected) {
+        assertEquals(0, BigDecimal.valueOf(expected).compareTo(repository.findById(accountId).orElseThrow().getBalance()));
+    }
+}